@@ -0,0 +1,182 @@
+package com.hackathon.analyzer.export;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hackathon.analyzer.config.ExportProperties;
+import com.hackathon.analyzer.model.AnalysisResult;
+import com.hackathon.analyzer.repository.AnalysisResultRepository;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Heap needed to serve a service's complete analysis history.
+ *
+ * <ul>
+ *   <li>{@code loadList}: the previous history endpoint, loading every row
+ *       into a list and serializing it in one go;</li>
+ *   <li>{@code streamNdjson}: the export endpoint, streaming rows from a
+ *       database cursor and detaching each one once written.</li>
+ * </ul>
+ *
+ * While a call runs, a sampler forces a full GC once a second and records
+ * the live heap. {@code liveHeapGrowthKb} is the largest live heap seen
+ * above the live heap before the call: for {@code loadList} it grows by
+ * roughly 600 bytes per stored row, for {@code streamNdjson} it stays within
+ * a few megabytes. The forced GCs distort the timings; only the counter is
+ * of interest. JMH sums event counters over iterations, so
+ * there is a single measured call per fork. Run with
+ * {@code -Djmh.args="HistoryExportBenchmark"}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx1g", "-XX:+UseSerialGC"})
+public class HistoryExportBenchmark {
+
+    private static final String SERVICE = "cpu-hungry-service";
+    private static final Instant T0 = Instant.parse("2026-01-01T00:00:00Z");
+    private static final MemoryMXBean MEMORY = ManagementFactory.getMemoryMXBean();
+
+    @Param({"10000", "40000", "160000"})
+    public int historySize;
+
+    private ConfigurableApplicationContext context;
+    private AnalysisResultRepository repository;
+    private HistoryExportService exportService;
+    private ObjectMapper objectMapper;
+    private ScheduledExecutorService sampler;
+    private ScheduledFuture<?> sampling;
+    private final AtomicLong peakLiveHeap = new AtomicLong();
+    private long liveHeapBefore;
+
+    @Configuration
+    @EnableAutoConfiguration
+    @EntityScan(basePackageClasses = AnalysisResult.class)
+    @EnableJpaRepositories(basePackageClasses = AnalysisResultRepository.class)
+    @Import({HistoryExportService.class, ExportProperties.class})
+    static class ExportContext {
+    }
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class HeapUsage {
+
+        public long liveHeapGrowthKb;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            liveHeapGrowthKb = 0;
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(ExportContext.class)
+                .web(WebApplicationType.NONE)
+                .properties("spring.jpa.show-sql=false", "logging.level.root=WARN",
+                        "spring.datasource.url=jdbc:h2:mem:export-benchmark;LAZY_QUERY_EXECUTION=1")
+                .run();
+        repository = context.getBean(AnalysisResultRepository.class);
+        exportService = context.getBean(HistoryExportService.class);
+        objectMapper = context.getBean(ObjectMapper.class);
+        sampler = Executors.newSingleThreadScheduledExecutor();
+
+        List<AnalysisResult> batch = new ArrayList<>();
+        for (int i = 0; i < historySize; i++) {
+            batch.add(AnalysisResult.builder()
+                    .serviceName(SERVICE)
+                    .analysisTimestamp(T0.plusSeconds(i * 60L))
+                    .currentCpuRequest("250m").currentCpuLimit("1000m")
+                    .recommendedCpuRequest("300m").recommendedCpuLimit("500m")
+                    .recommendedMemoryRequest("384Mi").recommendedMemoryLimit("512Mi")
+                    .p95CpuUsage(72.5).p99CpuUsage(81.0).maxCpuUsage(93.2)
+                    .cpuThrottlingDetected(true).memoryLeakDetected(false)
+                    .estimatedMonthlySavings(18.4).confidenceScore(0.82)
+                    .build());
+            if (batch.size() == 5_000) {
+                repository.saveAll(batch);
+                batch.clear();
+            }
+        }
+        repository.saveAll(batch);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        sampler.shutdownNow();
+        context.close();
+    }
+
+    @Setup(Level.Invocation)
+    public void startSampling() {
+        liveHeapBefore = liveHeap();
+        peakLiveHeap.set(liveHeapBefore);
+        sampling = sampler.scheduleWithFixedDelay(this::sample, 1000, 1000, TimeUnit.MILLISECONDS);
+    }
+
+    @Benchmark
+    public int loadList(HeapUsage heap) throws IOException {
+        List<AnalysisResult> history = repository.findByServiceNameOrderByAnalysisTimestampDesc(SERVICE);
+        objectMapper.writeValue(OutputStream.nullOutputStream(), history);
+        heap.liveHeapGrowthKb = stopSampling();
+        return history.size();
+    }
+
+    @Benchmark
+    public long streamNdjson(HeapUsage heap) throws IOException {
+        long rows = exportService.exportAnalysisHistory(SERVICE, Instant.EPOCH, Instant.now(),
+                ExportFormat.NDJSON, OutputStream.nullOutputStream());
+        heap.liveHeapGrowthKb = stopSampling();
+        return rows;
+    }
+
+    private void sample() {
+        peakLiveHeap.accumulateAndGet(liveHeap(), Math::max);
+    }
+
+    private long stopSampling() {
+        sampling.cancel(false);
+        // Covers calls shorter than the sampling delay
+        sample();
+        return Math.max(0, peakLiveHeap.get() - liveHeapBefore) / 1024;
+    }
+
+    private static long liveHeap() {
+        System.gc();
+        return MEMORY.getHeapMemoryUsage().getUsed();
+    }
+}
@@ -0,0 +1,92 @@
+package com.hackathon.analyzer.security;
+
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import jakarta.servlet.FilterChain;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import javax.crypto.SecretKey;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-request cost of JWT authentication.
+ *
+ * <ul>
+ *   <li>{@code legacyDoubleParse}: the previous filter path, building a parser
+ *       and verifying the signature twice per request;</li>
+ *   <li>{@code filterSingleParse}: the filter with the verified-token cache disabled;</li>
+ *   <li>{@code filterCached}: the filter when the token was seen before.</li>
+ * </ul>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtAuthFilterBenchmark {
+
+    private static final String SECRET = "SaveYourMoneyHackathon2026SecretKeyMustBe256Bits!";
+    private static final FilterChain NO_OP_CHAIN = (request, response) -> { };
+
+    private SecretKey signingKey;
+    private String token;
+    private JwtAuthFilter uncachedFilter;
+    private JwtAuthFilter cachedFilter;
+    private MockHttpServletRequest request;
+    private MockHttpServletResponse response;
+
+    @Setup
+    public void setUp() {
+        signingKey = Keys.hmacShaKeyFor(SECRET.getBytes(StandardCharsets.UTF_8));
+        JwtTokenProvider uncached = new JwtTokenProvider(SECRET, 3_600_000, 0);
+        JwtTokenProvider cached = new JwtTokenProvider(SECRET, 3_600_000, 10_000);
+        token = cached.generateToken("dashboard");
+
+        uncachedFilter = new JwtAuthFilter(uncached);
+        cachedFilter = new JwtAuthFilter(cached);
+
+        request = new MockHttpServletRequest("GET", "/api/analyze/cpu-hungry-service");
+        request.addHeader("Authorization", "Bearer " + token);
+        response = new MockHttpServletResponse();
+    }
+
+    @Benchmark
+    public void legacyDoubleParse(Blackhole blackhole) {
+        blackhole.consume(Jwts.parser().verifyWith(signingKey).build().parseSignedClaims(token));
+        blackhole.consume(Jwts.parser().verifyWith(signingKey).build()
+                .parseSignedClaims(token).getPayload().getSubject());
+    }
+
+    @Benchmark
+    public Object filterSingleParse() throws Exception {
+        uncachedFilter.doFilter(request, response, NO_OP_CHAIN);
+        return clearAuthentication();
+    }
+
+    @Benchmark
+    public Object filterCached() throws Exception {
+        cachedFilter.doFilter(request, response, NO_OP_CHAIN);
+        return clearAuthentication();
+    }
+
+    private static Object clearAuthentication() {
+        Object authentication = SecurityContextHolder.getContext().getAuthentication();
+        SecurityContextHolder.clearContext();
+        return authentication;
+    }
+}
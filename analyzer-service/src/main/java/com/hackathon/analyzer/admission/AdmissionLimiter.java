@@ -0,0 +1,184 @@
+package com.hackathon.analyzer.admission;
+
+import com.hackathon.analyzer.config.AdmissionProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Concurrency budget per cost class.
+ *
+ * A request takes a permit from its class. When none is free it may wait,
+ * but only if the class queue has room and only up to the class timeout;
+ * otherwise it is shed at once. Classes never borrow from each other, so a
+ * burst of heavy analyses can use up only the heavy budget.
+ *
+ * Both the estimated cost and the measured service time are recorded per
+ * class ({@code analyzer.admission.cost}, {@code analyzer.admission.duration}).
+ */
+@Slf4j
+@Component
+public class AdmissionLimiter {
+
+    private final Map<CostClass, Lane> lanes = new EnumMap<>(CostClass.class);
+
+    public AdmissionLimiter(AdmissionProperties properties, MeterRegistry meterRegistry) {
+        for (CostClass costClass : CostClass.values()) {
+            AdmissionProperties.Budget budget = properties.getBudgets().get(costClass.key());
+            if (budget == null) {
+                throw new IllegalStateException("No admission budget configured for class " + costClass.key());
+            }
+            lanes.put(costClass, new Lane(costClass, budget, meterRegistry));
+        }
+    }
+
+    /**
+     * Admit a request of the given estimate, waiting for a permit if the
+     * class allows it. Empty means the request must be rejected; the caller
+     * must close a returned permit exactly once.
+     */
+    public Optional<Permit> admit(CostEstimate estimate) {
+        Lane lane = lanes.get(estimate.costClass());
+        lane.cost.record(estimate.rows());
+
+        if (lane.semaphore.tryAcquire()) {
+            return Optional.of(lane.granted(System.nanoTime()));
+        }
+
+        if (lane.waiting.incrementAndGet() > lane.budget.getMaxQueued()) {
+            lane.waiting.decrementAndGet();
+            lane.rejected("queue_full");
+            return Optional.empty();
+        }
+        long start = System.nanoTime();
+        try {
+            if (lane.semaphore.tryAcquire(lane.budget.getQueueTimeout().toNanos(), TimeUnit.NANOSECONDS)) {
+                long now = System.nanoTime();
+                lane.queueWait.record(now - start, TimeUnit.NANOSECONDS);
+                return Optional.of(lane.granted(now));
+            }
+            lane.rejected("timeout");
+            return Optional.empty();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            lane.rejected("interrupted");
+            return Optional.empty();
+        } finally {
+            lane.waiting.decrementAndGet();
+        }
+    }
+
+    /** Suggested Retry-After for a rejected request of this class. */
+    public Duration retryAfter(CostClass costClass) {
+        return lanes.get(costClass).budget.getQueueTimeout();
+    }
+
+    int inFlight(CostClass costClass) {
+        Lane lane = lanes.get(costClass);
+        return lane.budget.getMaxConcurrent() - lane.semaphore.availablePermits();
+    }
+
+    int queued(CostClass costClass) {
+        return lanes.get(costClass).waiting.get();
+    }
+
+    /**
+     * A held slot in a cost class. Closing it releases the slot and records
+     * how long the request ran.
+     */
+    public static final class Permit implements AutoCloseable {
+
+        private final Lane lane;
+        private final long startedAt;
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        private Permit(Lane lane, long startedAt) {
+            this.lane = lane;
+            this.startedAt = startedAt;
+        }
+
+        public CostClass costClass() {
+            return lane.costClass;
+        }
+
+        @Override
+        public void close() {
+            if (released.compareAndSet(false, true)) {
+                lane.duration.record(System.nanoTime() - startedAt, TimeUnit.NANOSECONDS);
+                lane.semaphore.release();
+            }
+        }
+    }
+
+    private static final class Lane {
+
+        private final CostClass costClass;
+        private final AdmissionProperties.Budget budget;
+        private final Semaphore semaphore;
+        private final AtomicInteger waiting = new AtomicInteger();
+        private final MeterRegistry meterRegistry;
+        private final DistributionSummary cost;
+        private final Timer duration;
+        private final Timer queueWait;
+
+        Lane(CostClass costClass, AdmissionProperties.Budget budget, MeterRegistry meterRegistry) {
+            this.costClass = costClass;
+            this.budget = budget;
+            this.semaphore = new Semaphore(budget.getMaxConcurrent(), true);
+            this.meterRegistry = meterRegistry;
+            String tag = costClass.key();
+
+            this.cost = DistributionSummary.builder("analyzer.admission.cost")
+                    .description("Estimated metric rows scanned per admission-controlled request")
+                    .baseUnit("rows")
+                    .tag("class", tag)
+                    .publishPercentiles(0.5, 0.95, 0.99)
+                    .register(meterRegistry);
+            this.duration = Timer.builder("analyzer.admission.duration")
+                    .description("Service time of admitted requests")
+                    .tag("class", tag)
+                    .publishPercentiles(0.5, 0.95, 0.99)
+                    .register(meterRegistry);
+            this.queueWait = Timer.builder("analyzer.admission.queue.wait")
+                    .description("Time admitted requests waited for a slot")
+                    .tag("class", tag)
+                    .register(meterRegistry);
+            Gauge.builder("analyzer.admission.in.flight", semaphore,
+                            s -> budget.getMaxConcurrent() - s.availablePermits())
+                    .description("Admitted requests currently running")
+                    .tag("class", tag)
+                    .register(meterRegistry);
+            Gauge.builder("analyzer.admission.queued", waiting, AtomicInteger::get)
+                    .description("Requests waiting for an admission slot")
+                    .tag("class", tag)
+                    .register(meterRegistry);
+        }
+
+        Permit granted(long now) {
+            return new Permit(this, now);
+        }
+
+        void rejected(String reason) {
+            log.debug("Shedding {} request: {}", costClass.key(), reason);
+            Counter.builder("analyzer.admission.rejected")
+                    .description("Requests shed by admission control")
+                    .tag("class", costClass.key())
+                    .tag("reason", reason)
+                    .register(meterRegistry)
+                    .increment();
+        }
+    }
+}
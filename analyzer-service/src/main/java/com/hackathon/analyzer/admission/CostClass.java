@@ -0,0 +1,17 @@
+package com.hackathon.analyzer.admission;
+
+import java.util.Locale;
+
+/**
+ * Admission cost classes, cheapest first.
+ */
+public enum CostClass {
+    LIGHT,
+    MEDIUM,
+    HEAVY;
+
+    /** Key used in {@code analyzer.admission.budgets} and metric tags. */
+    public String key() {
+        return name().toLowerCase(Locale.ROOT);
+    }
+}
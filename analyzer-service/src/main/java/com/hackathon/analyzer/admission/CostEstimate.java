@@ -0,0 +1,11 @@
+package com.hackathon.analyzer.admission;
+
+/**
+ * Estimated cost of one request.
+ *
+ * @param route     route template the request matched
+ * @param rows      metric rows the request is expected to scan
+ * @param costClass class derived from {@code rows}
+ */
+public record CostEstimate(String route, long rows, CostClass costClass) {
+}
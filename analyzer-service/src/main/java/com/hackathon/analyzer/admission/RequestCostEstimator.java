@@ -0,0 +1,159 @@
+package com.hackathon.analyzer.admission;
+
+import com.hackathon.analyzer.config.AdmissionProperties;
+import com.hackathon.analyzer.repository.MetricsSnapshotRepository;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongSupplier;
+
+/**
+ * Estimates what an analysis request will cost before it runs.
+ *
+ * Each analysis route is described by the look-back windows its services
+ * query. The estimate is the number of metric rows in those windows for
+ * the requested service (or the whole fleet), plus the forecast horizon
+ * for prediction endpoints. Row counts are cached briefly, so the estimate
+ * costs one indexed count per service and window at most every few seconds.
+ * Routes not listed here are cheap reads and are not admission-controlled.
+ */
+@Component
+public class RequestCostEstimator {
+
+    private static final String FLEET = "*";
+    private static final Duration FIVE_MINUTES = Duration.ofMinutes(5);
+    private static final Duration ONE_HOUR = Duration.ofHours(1);
+    private static final Duration SEVEN_DAYS = Duration.ofDays(7);
+    private static final Duration THIRTY_DAYS = Duration.ofDays(30);
+
+    /** HPA, VPA, cost-aware, custom metrics and predictive scaling, as run by ScalingAnalysisService. */
+    private static final List<Duration> FULL_SCALING_ANALYSIS =
+            List.of(ONE_HOUR, SEVEN_DAYS, SEVEN_DAYS, ONE_HOUR, SEVEN_DAYS);
+
+    private static final List<Route> ROUTES = List.of(
+            new Route("/api/predict/costs/{serviceName}", false, List.of(THIRTY_DAYS), "daysAhead", 30),
+            new Route("/api/classify/workload/{serviceName}", false, List.of(SEVEN_DAYS)),
+            new Route("/api/ai/insights/{serviceName}", false, List.of(THIRTY_DAYS, SEVEN_DAYS)),
+            new Route("/api/ai/overview", true, List.of(THIRTY_DAYS, SEVEN_DAYS)),
+            new Route("/api/analyze/{serviceName}", false, List.of(FIVE_MINUTES)),
+            new Route("/api/analyze-all", true, List.of(FIVE_MINUTES)),
+            new Route("/api/analyze-all/generate", true, List.of(FIVE_MINUTES)),
+            new Route("/api/scaling/analyze-all", true, FULL_SCALING_ANALYSIS),
+            new Route("/api/scaling/analyze/{serviceName}", false, FULL_SCALING_ANALYSIS),
+            new Route("/api/scaling/summary/{serviceName}", false, FULL_SCALING_ANALYSIS),
+            new Route("/api/scaling/hpa/{serviceName}", false, List.of(ONE_HOUR)),
+            new Route("/api/scaling/custom-metrics/{serviceName}", false, List.of(ONE_HOUR)),
+            new Route("/api/scaling/vpa/{serviceName}", false, List.of(SEVEN_DAYS)),
+            new Route("/api/scaling/cost-comparison/{serviceName}", false, List.of(SEVEN_DAYS)),
+            new Route("/api/scaling/predict/{serviceName}", false, List.of(SEVEN_DAYS)),
+            new Route("/api/scaling/patterns/{serviceName}", false, List.of(SEVEN_DAYS)));
+
+    private final MetricsSnapshotRepository metricsRepository;
+    private final AdmissionProperties properties;
+    private final LongSupplier nanoClock;
+    private final AntPathMatcher pathMatcher = new AntPathMatcher();
+    private final Map<String, RowCount> rowCounts = new ConcurrentHashMap<>();
+
+    @Autowired
+    public RequestCostEstimator(MetricsSnapshotRepository metricsRepository, AdmissionProperties properties) {
+        this(metricsRepository, properties, System::nanoTime);
+    }
+
+    RequestCostEstimator(MetricsSnapshotRepository metricsRepository, AdmissionProperties properties,
+                         LongSupplier nanoClock) {
+        this.metricsRepository = metricsRepository;
+        this.properties = properties;
+        this.nanoClock = nanoClock;
+    }
+
+    /**
+     * Estimate the cost of {@code request}, or empty when the route is not
+     * admission-controlled.
+     */
+    public Optional<CostEstimate> estimate(HttpServletRequest request) {
+        String path = request.getRequestURI();
+        for (Route route : ROUTES) {
+            if (!pathMatcher.match(route.pattern(), path)) {
+                continue;
+            }
+            String serviceName = route.fleet()
+                    ? FLEET
+                    : pathMatcher.extractUriTemplateVariables(route.pattern(), path).get("serviceName");
+
+            long rows = 0;
+            for (Duration window : route.windows()) {
+                rows += rowsInWindow(serviceName, window);
+            }
+            if (route.horizonParam() != null) {
+                rows += horizon(request.getParameter(route.horizonParam()), route.defaultHorizon());
+            }
+            return Optional.of(new CostEstimate(route.pattern(), rows, classify(rows)));
+        }
+        return Optional.empty();
+    }
+
+    CostClass classify(long rows) {
+        if (rows >= properties.getHeavyThreshold()) {
+            return CostClass.HEAVY;
+        }
+        if (rows >= properties.getMediumThreshold()) {
+            return CostClass.MEDIUM;
+        }
+        return CostClass.LIGHT;
+    }
+
+    int cachedRowCounts() {
+        return rowCounts.size();
+    }
+
+    private long rowsInWindow(String serviceName, Duration window) {
+        String key = serviceName + '|' + window.toSeconds();
+        long now = nanoClock.getAsLong();
+        RowCount cached = rowCounts.get(key);
+        if (cached != null && now - cached.countedAt() < properties.getRowCountTtl().toNanos()) {
+            return cached.rows();
+        }
+
+        Instant since = Instant.now().minus(window);
+        long rows = FLEET.equals(serviceName)
+                ? metricsRepository.countByTimestampAfter(since)
+                : metricsRepository.countByServiceNameAndTimestampAfter(serviceName, since);
+
+        // Service names come from the URL; keep the cache bounded
+        if (rowCounts.size() >= properties.getRowCountMaxEntries() && !rowCounts.containsKey(key)) {
+            rowCounts.clear();
+        }
+        rowCounts.put(key, new RowCount(rows, now));
+        return rows;
+    }
+
+    private static long horizon(String value, int defaultValue) {
+        if (value == null) {
+            return defaultValue;
+        }
+        try {
+            return Math.max(0, Integer.parseInt(value.trim()));
+        } catch (NumberFormatException e) {
+            return defaultValue;
+        }
+    }
+
+    private record Route(String pattern, boolean fleet, List<Duration> windows,
+                         String horizonParam, int defaultHorizon) {
+
+        Route(String pattern, boolean fleet, List<Duration> windows) {
+            this(pattern, fleet, windows, null, 0);
+        }
+    }
+
+    private record RowCount(long rows, long countedAt) {
+    }
+}
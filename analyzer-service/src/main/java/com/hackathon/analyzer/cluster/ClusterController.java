@@ -0,0 +1,56 @@
+package com.hackathon.analyzer.cluster;
+
+import com.hackathon.analyzer.config.ClusterProperties;
+import com.hackathon.analyzer.discovery.ServiceDiscoveryService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.HashMap;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/cluster")
+@RequiredArgsConstructor
+@Tag(name = "Cluster", description = "Replica membership, leader election and scrape target sharding")
+public class ClusterController {
+
+    private final ClusterProperties properties;
+    private final ClusterMembershipService membershipService;
+    private final TargetShardingService shardingService;
+    private final LeaderElectionService leaderElectionService;
+    private final ScheduledJobCoordinator jobCoordinator;
+    private final ServiceDiscoveryService discoveryService;
+
+    @Operation(summary = "Cluster Status",
+               description = "Show this replica's id, leadership, job modes, the live membership list " +
+                           "and which replica scrapes each target")
+    @ApiResponse(responseCode = "200", description = "Cluster status")
+    @GetMapping
+    public ResponseEntity<Map<String, Object>> getClusterStatus() {
+        Map<String, Object> status = new HashMap<>();
+        status.put("replicaId", membershipService.getReplicaId());
+        status.put("shardingEnabled", properties.isShardingEnabled());
+        status.put("membership", properties.getMembership());
+        status.put("members", shardingService.getMembers());
+        status.put("assignments", shardingService.getAssignments(discoveryService.getAllServices()));
+        status.put("leaderElectionEnabled", properties.isLeaderElectionEnabled());
+        status.put("leader", leaderElectionService.isLeader());
+        leaderElectionService.getCurrentLease().ifPresent(lease -> status.put("leaderLease", Map.of(
+                "holder", lease.getHolder(),
+                "acquiredAt", lease.getAcquiredAt(),
+                "expiresAt", lease.getExpiresAt())));
+
+        Map<String, Object> jobs = new HashMap<>();
+        properties.getJobs().keySet().forEach(job -> jobs.put(job, Map.of(
+                "mode", jobCoordinator.modeOf(job),
+                "runsHere", jobCoordinator.shouldRun(job))));
+        status.put("jobs", jobs);
+        return ResponseEntity.ok(status);
+    }
+}
@@ -0,0 +1,118 @@
+package com.hackathon.analyzer.cluster;
+
+import com.hackathon.analyzer.config.ClusterProperties;
+import com.hackathon.analyzer.config.SchedulingConfiguration;
+import com.hackathon.analyzer.model.ReplicaHeartbeat;
+import com.hackathon.analyzer.repository.ReplicaHeartbeatRepository;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.TreeSet;
+import java.util.UUID;
+
+/**
+ * Tracks which analyzer replicas are currently part of the cluster.
+ *
+ * STATIC membership uses the configured replica list as-is. JDBC membership
+ * keeps a heartbeat row per replica in the shared database; replicas whose
+ * heartbeat is older than the lease TTL are dropped from the list.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ClusterMembershipService {
+
+    private final ClusterProperties properties;
+    private final ReplicaHeartbeatRepository heartbeatRepository;
+
+    private String replicaId;
+    private Instant startedAt;
+
+    @PostConstruct
+    public void init() {
+        replicaId = properties.getReplicaId() == null || properties.getReplicaId().isBlank()
+                ? "analyzer-" + UUID.randomUUID().toString().substring(0, 8)
+                : properties.getReplicaId().trim();
+        startedAt = Instant.now();
+
+        if (isJdbcMembership()) {
+            heartbeat();
+        }
+        log.info("Cluster membership initialized - replica: {}, sharding: {}, membership: {}",
+                replicaId, properties.isShardingEnabled(), properties.getMembership());
+    }
+
+    /**
+     * Refresh this replica's lease and purge expired ones - JDBC membership only.
+     */
+    @Scheduled(fixedDelayString = "${analyzer.cluster.heartbeat-interval-ms:10000}",
+               scheduler = SchedulingConfiguration.CLUSTER_SCHEDULER)
+    public void heartbeat() {
+        if (!isJdbcMembership()) {
+            return;
+        }
+
+        try {
+            Instant now = Instant.now();
+            heartbeatRepository.save(ReplicaHeartbeat.builder()
+                    .replicaId(replicaId)
+                    .startedAt(startedAt)
+                    .lastHeartbeatAt(now)
+                    .build());
+
+            long purged = heartbeatRepository.deleteByLastHeartbeatAtBefore(leaseCutoff(now));
+            if (purged > 0) {
+                log.info("Purged {} expired replica lease(s)", purged);
+            }
+        } catch (Exception e) {
+            log.warn("Failed to refresh replica heartbeat for {}: {}", replicaId, e.getMessage());
+        }
+    }
+
+    /**
+     * Replicas currently sharing the scrape load, sorted and always including this replica.
+     */
+    public List<String> getLiveMembers() {
+        TreeSet<String> members = new TreeSet<>();
+        members.add(replicaId);
+
+        if (!properties.isShardingEnabled()) {
+            return List.copyOf(members);
+        }
+
+        if (isJdbcMembership()) {
+            try {
+                heartbeatRepository.findByLastHeartbeatAtAfter(leaseCutoff(Instant.now()))
+                        .forEach(hb -> members.add(hb.getReplicaId()));
+            } catch (Exception e) {
+                log.warn("Failed to read replica leases, falling back to local-only membership: {}",
+                        e.getMessage());
+            }
+        } else {
+            properties.getStaticMembers().stream()
+                    .filter(m -> m != null && !m.isBlank())
+                    .map(String::trim)
+                    .forEach(members::add);
+        }
+
+        return List.copyOf(members);
+    }
+
+    public String getReplicaId() {
+        return replicaId;
+    }
+
+    private boolean isJdbcMembership() {
+        return properties.isShardingEnabled()
+                && properties.getMembership() == ClusterProperties.Membership.JDBC;
+    }
+
+    private Instant leaseCutoff(Instant now) {
+        return now.minusSeconds(properties.getLeaseTtlSeconds());
+    }
+}
@@ -0,0 +1,155 @@
+package com.hackathon.analyzer.cluster;
+
+import com.hackathon.analyzer.config.ClusterProperties;
+import com.hackathon.analyzer.config.SchedulingConfiguration;
+import com.hackathon.analyzer.model.LeaderLease;
+import com.hackathon.analyzer.repository.LeaderLeaseRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.util.Optional;
+
+/**
+ * Lease-based leader election over the shared JDBC datasource.
+ *
+ * The leader periodically extends a single {@code leader_lease} row; followers
+ * take the lease over once it has expired. Leadership is also dropped locally
+ * when the lease runs out without a successful renewal, so a replica that
+ * loses the database never keeps acting as leader.
+ *
+ * With leader election disabled every replica considers itself leader, which
+ * matches single-replica deployments.
+ */
+@Slf4j
+@Service
+public class LeaderElectionService {
+
+    static final String LEASE_NAME = "analyzer-scheduler";
+
+    private final ClusterProperties properties;
+    private final ClusterMembershipService membershipService;
+    private final LeaderLeaseRepository leaseRepository;
+
+    private final Counter acquiredCounter;
+    private final Counter lostCounter;
+
+    private volatile Instant leaderUntil = Instant.EPOCH;
+
+    public LeaderElectionService(ClusterProperties properties,
+                                 ClusterMembershipService membershipService,
+                                 LeaderLeaseRepository leaseRepository,
+                                 MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.membershipService = membershipService;
+        this.leaseRepository = leaseRepository;
+        this.acquiredCounter = Counter.builder("analyzer.cluster.leader.acquired")
+                .description("Times this replica became scheduler leader")
+                .register(meterRegistry);
+        this.lostCounter = Counter.builder("analyzer.cluster.leader.lost")
+                .description("Times this replica lost or released scheduler leadership")
+                .register(meterRegistry);
+        Gauge.builder("analyzer.cluster.leader", this, s -> s.isLeader() ? 1 : 0)
+                .description("1 if this replica is currently the scheduler leader")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Renew the lease if we hold it, otherwise try to take it over.
+     */
+    @Scheduled(fixedDelayString = "${analyzer.cluster.leader-renew-interval-ms:10000}",
+               scheduler = SchedulingConfiguration.CLUSTER_SCHEDULER)
+    public void electOrRenew() {
+        if (!properties.isLeaderElectionEnabled()) {
+            return;
+        }
+
+        boolean wasLeader = isLeader();
+        String self = membershipService.getReplicaId();
+        Instant now = Instant.now();
+        Instant expiresAt = now.plusSeconds(properties.getLeaderLeaseSeconds());
+
+        try {
+            boolean holds = leaseRepository.renew(LEASE_NAME, self, expiresAt) > 0
+                    || leaseRepository.takeOver(LEASE_NAME, self, now, expiresAt) > 0
+                    || createLease(self, now, expiresAt);
+
+            if (holds) {
+                leaderUntil = expiresAt;
+                if (!wasLeader) {
+                    acquiredCounter.increment();
+                    log.info("Replica {} acquired scheduler leadership (lease until {})", self, expiresAt);
+                }
+            } else if (wasLeader) {
+                leaderUntil = Instant.EPOCH;
+                lostCounter.increment();
+                log.warn("Replica {} lost scheduler leadership to another replica", self);
+            }
+        } catch (Exception e) {
+            // Keep leadership only until the current lease would have expired anyway
+            log.warn("Leader lease renewal failed for {}: {}", self, e.getMessage());
+            if (wasLeader && !isLeader()) {
+                lostCounter.increment();
+            }
+        }
+    }
+
+    /**
+     * Whether this replica should run leader-only work right now.
+     */
+    public boolean isLeader() {
+        if (!properties.isLeaderElectionEnabled()) {
+            return true;
+        }
+        return Instant.now().isBefore(leaderUntil);
+    }
+
+    /**
+     * Current lease holder as recorded in the database, if any.
+     */
+    public Optional<LeaderLease> getCurrentLease() {
+        if (!properties.isLeaderElectionEnabled()) {
+            return Optional.empty();
+        }
+        return leaseRepository.findById(LEASE_NAME);
+    }
+
+    @PreDestroy
+    public void release() {
+        if (!properties.isLeaderElectionEnabled() || !isLeader()) {
+            return;
+        }
+        try {
+            leaseRepository.release(LEASE_NAME, membershipService.getReplicaId(), Instant.now());
+            leaderUntil = Instant.EPOCH;
+            lostCounter.increment();
+            log.info("Replica {} released scheduler leadership", membershipService.getReplicaId());
+        } catch (Exception e) {
+            log.warn("Failed to release leader lease: {}", e.getMessage());
+        }
+    }
+
+    private boolean createLease(String self, Instant now, Instant expiresAt) {
+        if (leaseRepository.existsById(LEASE_NAME)) {
+            return false;
+        }
+        try {
+            leaseRepository.saveAndFlush(LeaderLease.builder()
+                    .leaseName(LEASE_NAME)
+                    .holder(self)
+                    .acquiredAt(now)
+                    .expiresAt(expiresAt)
+                    .build());
+            return true;
+        } catch (DataIntegrityViolationException e) {
+            // Another replica created the lease first
+            return false;
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package com.hackathon.analyzer.cluster;
+
+import com.hackathon.analyzer.config.ClusterProperties;
+import com.hackathon.analyzer.config.ClusterProperties.JobMode;
+import com.hackathon.analyzer.discovery.ServiceInfo;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Decides where each scheduled job runs in a multi-replica deployment.
+ *
+ * Jobs are configured under {@code analyzer.cluster.jobs.<name>} as
+ * ALL, LEADER or SHARDED; unknown jobs default to ALL.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ScheduledJobCoordinator {
+
+    public static final String COLLECT_METRICS = "collect-metrics";
+    public static final String SCAN_FOR_SERVICES = "scan-for-services";
+    public static final String HEALTH_CHECK_SERVICES = "health-check-services";
+    public static final String GENERATE_INSIGHTS = "generate-insights";
+    public static final String OPTIMIZE_SERVICES = "optimize-services";
+
+    private final ClusterProperties properties;
+    private final LeaderElectionService leaderElectionService;
+    private final TargetShardingService shardingService;
+
+    public JobMode modeOf(String jobName) {
+        return properties.getJobs().getOrDefault(jobName, JobMode.ALL);
+    }
+
+    /**
+     * Whether this replica should run the job at all in the current cycle.
+     */
+    public boolean shouldRun(String jobName) {
+        if (modeOf(jobName) == JobMode.LEADER && !leaderElectionService.isLeader()) {
+            log.debug("Skipping leader-only job {} on follower replica", jobName);
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Targets the job should process on this replica: all of them for ALL,
+     * all of them on the leader (none elsewhere) for LEADER, and only the
+     * owned shard for SHARDED.
+     */
+    public List<ServiceInfo> selectTargets(String jobName, Collection<ServiceInfo> services) {
+        return switch (modeOf(jobName)) {
+            case ALL -> List.copyOf(services);
+            case LEADER -> shouldRun(jobName) ? List.copyOf(services) : List.of();
+            case SHARDED -> shardingService.filterOwned(services);
+        };
+    }
+}
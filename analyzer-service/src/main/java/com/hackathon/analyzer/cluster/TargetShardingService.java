@@ -0,0 +1,90 @@
+package com.hackathon.analyzer.cluster;
+
+import com.hackathon.analyzer.config.ClusterProperties;
+import com.hackathon.analyzer.discovery.ServiceInfo;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Splits scrape targets between analyzer replicas.
+ *
+ * Targets are keyed by service name on a {@link ConsistentHashRing} built from
+ * the live membership list. The ring is only rebuilt when membership changes,
+ * so steady-state ownership checks are a single ring lookup.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class TargetShardingService {
+
+    private final ClusterProperties properties;
+    private final ClusterMembershipService membershipService;
+
+    private volatile ConsistentHashRing ring;
+
+    /**
+     * Targets this replica is responsible for. Returns the input unchanged when
+     * sharding is disabled.
+     */
+    public List<ServiceInfo> filterOwned(Collection<ServiceInfo> services) {
+        if (!properties.isShardingEnabled()) {
+            return List.copyOf(services);
+        }
+
+        ConsistentHashRing current = currentRing();
+        String self = membershipService.getReplicaId();
+        return services.stream()
+                .filter(s -> self.equals(current.ownerOf(s.getName())))
+                .toList();
+    }
+
+    public boolean isOwned(String serviceName) {
+        if (!properties.isShardingEnabled()) {
+            return true;
+        }
+        return membershipService.getReplicaId().equals(currentRing().ownerOf(serviceName));
+    }
+
+    /**
+     * Owner replica for each target, sorted by service name.
+     */
+    public Map<String, String> getAssignments(Collection<ServiceInfo> services) {
+        ConsistentHashRing current = properties.isShardingEnabled() ? currentRing() : null;
+        Map<String, String> assignments = new TreeMap<>();
+        for (ServiceInfo service : services) {
+            assignments.put(service.getName(),
+                    current != null ? current.ownerOf(service.getName()) : membershipService.getReplicaId());
+        }
+        return assignments;
+    }
+
+    public List<String> getMembers() {
+        return properties.isShardingEnabled()
+                ? currentRing().getMembers()
+                : List.of(membershipService.getReplicaId());
+    }
+
+    private ConsistentHashRing currentRing() {
+        List<String> members = membershipService.getLiveMembers();
+        ConsistentHashRing existing = ring;
+
+        if (existing == null || !existing.getMembers().equals(members)) {
+            synchronized (this) {
+                existing = ring;
+                if (existing == null || !existing.getMembers().equals(members)) {
+                    log.info("Rebuilding target hash ring - members: {} (previous: {})",
+                            members, existing != null ? existing.getMembers() : List.of());
+                    existing = new ConsistentHashRing(members, properties.getVirtualNodes());
+                    ring = existing;
+                }
+            }
+        }
+        return existing;
+    }
+}
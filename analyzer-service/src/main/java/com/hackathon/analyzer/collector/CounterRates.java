@@ -0,0 +1,93 @@
+package com.hackathon.analyzer.collector;
+
+import com.hackathon.analyzer.model.MetricsSnapshot;
+import com.hackathon.analyzer.repository.MetricsSnapshotRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Turns the cumulative counters on new snapshots into per-interval deltas
+ * and per-second rates.
+ *
+ * Each snapshot is compared with the previous snapshot of the same service:
+ * the one before it in the same batch, or the latest stored one. A counter
+ * that went down means the target restarted and counted up from zero, so
+ * the delta is the new value itself (the same rule as Prometheus' rate()).
+ * A counter missing on either side gets no delta or rate.
+ * The previous snapshot is read from the database rather than kept in
+ * memory, so rates stay correct across analyzer restarts and when another
+ * cluster member scraped the service last.
+ */
+@Component
+@RequiredArgsConstructor
+public class CounterRates {
+
+    private static final List<Counter> COUNTERS = List.of(
+            new Counter(MetricsSnapshot::getHttpRequestCount,
+                    MetricsSnapshot::setHttpRequestDelta, MetricsSnapshot::setHttpRequestRate),
+            new Counter(MetricsSnapshot::getGcCount,
+                    MetricsSnapshot::setGcCountDelta, MetricsSnapshot::setGcCountRate),
+            new Counter(MetricsSnapshot::getGcPauseTimeMs,
+                    MetricsSnapshot::setGcPauseTimeDeltaMs, MetricsSnapshot::setGcPauseTimeRate),
+            new Counter(MetricsSnapshot::getHikariConnectionTimeout,
+                    MetricsSnapshot::setHikariConnectionTimeoutDelta,
+                    MetricsSnapshot::setHikariConnectionTimeoutRate));
+
+    private final MetricsSnapshotRepository metricsRepository;
+
+    /**
+     * Fill in the derived fields of {@code snapshots}, which may cover
+     * several services and arrive in any order.
+     */
+    public void apply(List<MetricsSnapshot> snapshots) {
+        Map<String, List<MetricsSnapshot>> byService = snapshots.stream()
+                .sorted(Comparator.comparing(MetricsSnapshot::getTimestamp))
+                .collect(Collectors.groupingBy(MetricsSnapshot::getServiceName, LinkedHashMap::new,
+                        Collectors.toList()));
+
+        byService.forEach((serviceName, series) -> {
+            MetricsSnapshot previous = metricsRepository
+                    .findFirstByServiceNameAndTimestampBeforeOrderByTimestampDesc(
+                            serviceName, series.get(0).getTimestamp())
+                    .orElse(null);
+            for (MetricsSnapshot current : series) {
+                derive(previous, current);
+                previous = current;
+            }
+        });
+    }
+
+    static void derive(MetricsSnapshot previous, MetricsSnapshot current) {
+        if (previous == null || !current.getTimestamp().isAfter(previous.getTimestamp())) {
+            return;
+        }
+        double seconds = Duration.between(previous.getTimestamp(), current.getTimestamp()).toNanos() / 1e9;
+        boolean reset = false;
+        for (Counter counter : COUNTERS) {
+            Long before = counter.value().apply(previous);
+            Long after = counter.value().apply(current);
+            if (before == null || after == null) {
+                continue;
+            }
+            long delta = after >= before ? after - before : after;
+            reset |= after < before;
+            counter.delta().accept(current, delta);
+            counter.rate().accept(current, delta / seconds);
+        }
+        current.setCounterReset(reset);
+    }
+
+    private record Counter(Function<MetricsSnapshot, Long> value,
+                           BiConsumer<MetricsSnapshot, Long> delta,
+                           BiConsumer<MetricsSnapshot, Double> rate) {
+    }
+}
@@ -0,0 +1,360 @@
+package com.hackathon.analyzer.collector;
+
+import com.hackathon.analyzer.config.JvmTuningProperties;
+import com.hackathon.analyzer.model.GcTelemetryReport;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * Keeps the recent GC behaviour of each scraped service: pauses per
+ * collector and action from {@code jvm_gc_pause_seconds}, allocation and
+ * promotion rates from {@code jvm_gc_memory_*_bytes_total}, the live data
+ * size, and heap, metaspace and code cache usage from the
+ * {@code jvm_memory_*} pools.
+ *
+ * Counters become per-interval deltas between consecutive scrapes (a
+ * counter that went down restarted from zero). Intervals older than the
+ * configured window are dropped, so memory per service is bounded. State
+ * lives on the replica that scrapes the service.
+ */
+@Component
+@RequiredArgsConstructor
+public class GcTelemetryTracker {
+
+    private static final double MB = 1024.0 * 1024.0;
+    /** Upper bound on intervals kept per service, whatever the scrape rate. */
+    private static final int MAX_INTERVALS = 512;
+
+    private final JvmTuningProperties properties;
+    private final Map<String, ServiceState> states = new ConcurrentHashMap<>();
+
+    public void observe(String serviceName, Instant timestamp, List<PromSeries> series) {
+        Scrape scrape = Scrape.of(series);
+        if (scrape.isEmpty()) {
+            return;
+        }
+        states.computeIfAbsent(serviceName, name -> new ServiceState())
+                .observe(timestamp, scrape, properties.getWindow());
+    }
+
+    /**
+     * Empty until two scrapes with JVM metrics were seen.
+     */
+    public Optional<GcTelemetryReport> report(String serviceName) {
+        ServiceState state = states.get(serviceName);
+        return state == null ? Optional.empty() : state.report(serviceName);
+    }
+
+    /**
+     * G1, ZGC, Parallel, Serial or Shenandoah from a collector or memory
+     * pool name as the JDK reports them, or null.
+     */
+    static String collectorOf(String name) {
+        if (name == null) {
+            return null;
+        }
+        if (name.startsWith("G1")) {
+            return "G1";
+        }
+        if (name.startsWith("ZGC") || name.startsWith("ZHeap")) {
+            return "ZGC";
+        }
+        if (name.startsWith("PS ")) {
+            return "Parallel";
+        }
+        if (name.startsWith("Shenandoah")) {
+            return "Shenandoah";
+        }
+        if (name.equals("Copy") || name.equals("MarkSweepCompact") || name.equals("Tenured Gen")) {
+            return "Serial";
+        }
+        return null;
+    }
+
+    private record PauseKey(String gc, String action) {
+    }
+
+    private static final class Pause {
+        double count;
+        double seconds;
+        double maxSeconds;
+    }
+
+    /** Pool gauges of one scrape, in MiB; null where the service does not expose them. */
+    private record Pools(Double heapUsed, Double heapCommitted, Double heapMax, Double metaspaceUsed,
+                         Double metaspaceCommitted, Double compressedClassSpace, Double codeCache,
+                         Double liveData) {
+    }
+
+    /**
+     * The JVM series of one scrape, summed over label sets that do not
+     * matter here.
+     */
+    private static final class Scrape {
+
+        final Map<PauseKey, Pause> pauses = new HashMap<>();
+        Double allocatedBytes;
+        Double promotedBytes;
+        Double liveDataBytes;
+        Double heapUsed;
+        Double heapCommitted;
+        Double heapMax;
+        Double metaspaceUsed;
+        Double metaspaceCommitted;
+        Double compressedClassSpace;
+        Double codeCache;
+        String collector;
+
+        static Scrape of(List<PromSeries> series) {
+            Scrape scrape = new Scrape();
+            for (PromSeries sample : series) {
+                double value = sample.value();
+                if (!Double.isFinite(value)) {
+                    continue;
+                }
+                switch (sample.name()) {
+                    case "jvm_gc_pause_seconds_count" -> scrape.pause(sample).count += value;
+                    case "jvm_gc_pause_seconds_sum" -> scrape.pause(sample).seconds += value;
+                    case "jvm_gc_pause_seconds_max" -> {
+                        Pause pause = scrape.pause(sample);
+                        pause.maxSeconds = Math.max(pause.maxSeconds, value);
+                    }
+                    case "jvm_gc_memory_allocated_bytes_total" -> scrape.allocatedBytes = sum(scrape.allocatedBytes, value);
+                    case "jvm_gc_memory_promoted_bytes_total" -> scrape.promotedBytes = sum(scrape.promotedBytes, value);
+                    case "jvm_gc_live_data_size_bytes" -> scrape.liveDataBytes = max(scrape.liveDataBytes, value);
+                    case "jvm_memory_used_bytes" -> scrape.pool(sample, value, Usage.USED);
+                    case "jvm_memory_committed_bytes" -> scrape.pool(sample, value, Usage.COMMITTED);
+                    case "jvm_memory_max_bytes" -> scrape.pool(sample, value, Usage.MAX);
+                    default -> {
+                    }
+                }
+            }
+            return scrape;
+        }
+
+        boolean isEmpty() {
+            return pauses.isEmpty() && heapUsed == null && allocatedBytes == null;
+        }
+
+        private Pause pause(PromSeries sample) {
+            String gc = sample.label("gc");
+            if (collector == null) {
+                collector = collectorOf(gc);
+            }
+            return pauses.computeIfAbsent(new PauseKey(gc, sample.label("action")), key -> new Pause());
+        }
+
+        private enum Usage { USED, COMMITTED, MAX }
+
+        private void pool(PromSeries sample, double value, Usage usage) {
+            String id = sample.label("id") == null ? "" : sample.label("id");
+            if (collector == null) {
+                collector = collectorOf(id);
+            }
+            // Undefined maxima are reported as -1
+            if (value < 0) {
+                return;
+            }
+            if ("heap".equals(sample.label("area"))) {
+                switch (usage) {
+                    case USED -> heapUsed = sum(heapUsed, value);
+                    case COMMITTED -> heapCommitted = sum(heapCommitted, value);
+                    case MAX -> heapMax = sum(heapMax, value);
+                }
+            } else if (usage == Usage.MAX) {
+                return;
+            } else if ("Metaspace".equals(id)) {
+                if (usage == Usage.USED) {
+                    metaspaceUsed = value;
+                } else {
+                    metaspaceCommitted = value;
+                }
+            } else if ("Compressed Class Space".equals(id) && usage == Usage.COMMITTED) {
+                compressedClassSpace = value;
+            } else if ((id.startsWith("CodeHeap") || id.equals("Code Cache")) && usage == Usage.COMMITTED) {
+                codeCache = sum(codeCache, value);
+            }
+        }
+
+        Pools pools() {
+            return new Pools(mb(heapUsed), mb(heapCommitted), mb(heapMax), mb(metaspaceUsed),
+                    mb(metaspaceCommitted), mb(compressedClassSpace), mb(codeCache), mb(liveDataBytes));
+        }
+
+        private static Double sum(Double total, double value) {
+            return total == null ? value : total + value;
+        }
+
+        private static Double max(Double current, double value) {
+            return current == null ? value : Math.max(current, value);
+        }
+
+        private static Double mb(Double bytes) {
+            return bytes == null ? null : bytes / MB;
+        }
+    }
+
+    /**
+     * What happened between two scrapes: pause deltas per collector and
+     * action, allocated and promoted MiB, and the pools at the end.
+     */
+    private record Interval(Instant end, double seconds, Map<PauseKey, Pause> pauses, Double allocatedMb,
+                            Double promotedMb, Pools pools, String collector) {
+    }
+
+    private static final class ServiceState {
+
+        private final Deque<Interval> intervals = new ArrayDeque<>();
+        private Scrape previous;
+        private Instant lastObserved;
+
+        synchronized void observe(Instant timestamp, Scrape current, Duration window) {
+            if (previous != null && timestamp.isAfter(lastObserved)) {
+                double seconds = Duration.between(lastObserved, timestamp).toMillis() / 1000.0;
+                Map<PauseKey, Pause> pauses = new HashMap<>();
+                current.pauses.forEach((key, after) -> {
+                    Pause before = previous.pauses.get(key);
+                    Pause delta = new Pause();
+                    boolean reset = before == null || after.count < before.count;
+                    delta.count = reset ? after.count : after.count - before.count;
+                    delta.seconds = reset ? after.seconds : Math.max(0, after.seconds - before.seconds);
+                    delta.maxSeconds = after.maxSeconds;
+                    pauses.put(key, delta);
+                });
+                intervals.addLast(new Interval(timestamp, seconds, pauses,
+                        delta(previous.allocatedBytes, current.allocatedBytes),
+                        delta(previous.promotedBytes, current.promotedBytes),
+                        current.pools(), current.collector));
+            }
+            previous = current;
+            lastObserved = timestamp;
+
+            Instant cutoff = timestamp.minus(window);
+            while (!intervals.isEmpty()
+                    && (intervals.size() > MAX_INTERVALS || intervals.peekFirst().end().isBefore(cutoff))) {
+                intervals.removeFirst();
+            }
+        }
+
+        private static Double delta(Double before, Double after) {
+            if (after == null) {
+                return null;
+            }
+            double bytes = before == null || after < before ? after : after - before;
+            return bytes / MB;
+        }
+
+        synchronized Optional<GcTelemetryReport> report(String serviceName) {
+            if (intervals.isEmpty()) {
+                return Optional.empty();
+            }
+            double window = 0;
+            Double allocatedMb = null;
+            Double promotedMb = null;
+            Map<PauseKey, Pause> pauses = new HashMap<>();
+            for (Interval interval : intervals) {
+                window += interval.seconds();
+                allocatedMb = add(allocatedMb, interval.allocatedMb());
+                promotedMb = add(promotedMb, interval.promotedMb());
+                interval.pauses().forEach((key, delta) -> {
+                    Pause total = pauses.computeIfAbsent(key, k -> new Pause());
+                    total.count += delta.count;
+                    total.seconds += delta.seconds;
+                    total.maxSeconds = Math.max(total.maxSeconds, delta.maxSeconds);
+                });
+            }
+
+            double pauseCount = 0;
+            double pauseSeconds = 0;
+            double maxPauseSeconds = 0;
+            for (Pause pause : pauses.values()) {
+                pauseCount += pause.count;
+                pauseSeconds += pause.seconds;
+                // The max gauge decays between scrapes; the mean pause is a lower bound
+                maxPauseSeconds = Math.max(maxPauseSeconds,
+                        Math.max(pause.maxSeconds, pause.count > 0 ? pause.seconds / pause.count : 0));
+            }
+
+            List<GcTelemetryReport.CollectorActivity> collectors = pauses.entrySet().stream()
+                    .map(entry -> GcTelemetryReport.CollectorActivity.builder()
+                            .gc(entry.getKey().gc())
+                            .action(entry.getKey().action())
+                            .pauses((long) entry.getValue().count)
+                            .avgPauseMs(entry.getValue().count > 0
+                                    ? entry.getValue().seconds / entry.getValue().count * 1000 : null)
+                            .maxPauseMs(entry.getValue().maxSeconds * 1000)
+                            .build())
+                    .sorted(Comparator.comparing(GcTelemetryReport.CollectorActivity::getPauses).reversed())
+                    .toList();
+
+            Interval latest = intervals.peekLast();
+            Pools pools = latest.pools();
+            return Optional.of(GcTelemetryReport.builder()
+                    .serviceName(serviceName)
+                    .asOf(latest.end())
+                    .windowSeconds(window)
+                    .intervals(intervals.size())
+                    .collector(latest.collector())
+                    .collectors(collectors)
+                    .gcTimeShare(window > 0 ? pauseSeconds / window : null)
+                    .pausesPerMinute(window > 0 ? pauseCount / window * 60 : null)
+                    .avgPauseMs(pauseCount > 0 ? pauseSeconds / pauseCount * 1000 : null)
+                    .maxPauseMs(pauses.isEmpty() ? null : maxPauseSeconds * 1000)
+                    .allocationRateMbPerSec(allocatedMb != null && window > 0 ? allocatedMb / window : null)
+                    .promotionRateMbPerSec(promotedMb != null && window > 0 ? promotedMb / window : null)
+                    .liveSetMb(liveSet())
+                    .heapUsedMb(peak(Pools::heapUsed))
+                    .heapCommittedMb(pools.heapCommitted())
+                    .heapMaxMb(pools.heapMax())
+                    .metaspaceUsedMb(peak(Pools::metaspaceUsed))
+                    .metaspaceCommittedMb(pools.metaspaceCommitted())
+                    .compressedClassSpaceMb(peak(Pools::compressedClassSpace))
+                    .codeCacheMb(peak(Pools::codeCache))
+                    .build());
+        }
+
+        /**
+         * The largest live data size reported after a collection; before
+         * the first one, the lowest heap usage seen is the closest estimate.
+         */
+        private Double liveSet() {
+            Double live = peak(Pools::liveData);
+            if (live != null && live > 0) {
+                return live;
+            }
+            return intervals.stream()
+                    .map(interval -> interval.pools().heapUsed())
+                    .filter(Objects::nonNull)
+                    .min(Double::compare)
+                    .orElse(null);
+        }
+
+        private Double peak(Function<Pools, Double> gauge) {
+            return intervals.stream()
+                    .map(interval -> gauge.apply(interval.pools()))
+                    .filter(Objects::nonNull)
+                    .max(Double::compare)
+                    .orElse(null);
+        }
+
+        private static Double add(Double total, Double value) {
+            if (value == null) {
+                return total;
+            }
+            return total == null ? value : total + value;
+        }
+    }
+}
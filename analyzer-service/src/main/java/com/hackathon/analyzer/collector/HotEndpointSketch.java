@@ -0,0 +1,111 @@
+package com.hackathon.analyzer.collector;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Weighted space-saving heavy-hitters sketch over routes.
+ *
+ * At most {@code capacity} routes are tracked. A new route replaces the one
+ * with the lowest count and inherits that count as its overestimate, so
+ * every route whose true weight exceeds {@code total / capacity} is kept.
+ * Errors and latency are only known for the requests a route was tracked
+ * for; rates derived from them use that observed weight.
+ */
+final class HotEndpointSketch {
+
+    private final int capacity;
+    private final Map<String, Entry> entries = new HashMap<>();
+    private double totalRequests;
+    private double totalLatencySeconds;
+
+    HotEndpointSketch(int capacity) {
+        this.capacity = Math.max(1, capacity);
+    }
+
+    void offer(String method, String uri, double requests, double errors, double latencySeconds) {
+        if (requests <= 0) {
+            return;
+        }
+        totalRequests += requests;
+        totalLatencySeconds += latencySeconds;
+
+        String key = method + " " + uri;
+        Entry entry = entries.get(key);
+        if (entry == null) {
+            entry = new Entry(method, uri);
+            if (entries.size() >= capacity) {
+                Entry evicted = entries.values().stream().min(Comparator.comparingDouble(Entry::count)).orElseThrow();
+                entries.remove(evicted.method + " " + evicted.uri);
+                entry.count = evicted.count;
+                entry.overestimate = evicted.count;
+            }
+            entries.put(key, entry);
+        }
+        entry.count += requests;
+        entry.observed += requests;
+        entry.errors += errors;
+        entry.latencySeconds += latencySeconds;
+    }
+
+    /** Scale every weight, for exponential decay of older traffic. */
+    void decay(double factor) {
+        totalRequests *= factor;
+        totalLatencySeconds *= factor;
+        for (Entry entry : entries.values()) {
+            entry.count *= factor;
+            entry.overestimate *= factor;
+            entry.observed *= factor;
+            entry.errors *= factor;
+            entry.latencySeconds *= factor;
+        }
+    }
+
+    List<Entry> top(int n) {
+        List<Entry> sorted = new ArrayList<>(entries.values());
+        sorted.sort(Comparator.comparingDouble(Entry::count).reversed().thenComparing(e -> e.uri));
+        return sorted.subList(0, Math.min(n, sorted.size()));
+    }
+
+    int size() {
+        return entries.size();
+    }
+
+    double totalRequests() {
+        return totalRequests;
+    }
+
+    double totalLatencySeconds() {
+        return totalLatencySeconds;
+    }
+
+    static final class Entry {
+        final String method;
+        final String uri;
+        double count;
+        double overestimate;
+        double observed;
+        double errors;
+        double latencySeconds;
+
+        Entry(String method, String uri) {
+            this.method = method;
+            this.uri = uri;
+        }
+
+        double count() {
+            return count;
+        }
+
+        double errorRate() {
+            return observed > 0 ? errors / observed : 0.0;
+        }
+
+        double avgLatencySeconds() {
+            return observed > 0 ? latencySeconds / observed : 0.0;
+        }
+    }
+}
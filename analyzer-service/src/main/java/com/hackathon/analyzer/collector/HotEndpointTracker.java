@@ -0,0 +1,166 @@
+package com.hackathon.analyzer.collector;
+
+import com.hackathon.analyzer.config.HotEndpointProperties;
+import com.hackathon.analyzer.model.HotEndpointReport;
+import com.hackathon.recommendation.ResourceRecommendation;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Keeps the busiest routes of each scraped service, by request count, with
+ * their error rate and latency, from the per-URI
+ * {@code http_server_requests_seconds_count/_sum} series.
+ *
+ * The sketch keeps at most {@code capacity} routes per service however many
+ * URIs a service exposes. Deltas also need the previous scrape's cumulative
+ * counters for every route, so per-service memory additionally grows with
+ * the route cardinality of the target: three numbers per route, the same
+ * series the target's own registry already holds. Older traffic decays with
+ * the configured half-life, so the report follows the current hot path.
+ * State lives on the replica that scrapes the service.
+ */
+@Component
+@RequiredArgsConstructor
+public class HotEndpointTracker {
+
+    private static final double LN2 = Math.log(2);
+
+    private final HotEndpointProperties properties;
+    private final Map<String, ServiceState> states = new ConcurrentHashMap<>();
+
+    public void observe(String serviceName, Instant timestamp, List<PromSeries> series) {
+        Map<Route, RouteCounters> current = countersByRoute(series);
+        if (current.isEmpty()) {
+            return;
+        }
+        states.computeIfAbsent(serviceName, name -> new ServiceState(properties.getCapacity(), timestamp))
+                .observe(timestamp, current, tau());
+    }
+
+    public Optional<HotEndpointReport> report(String serviceName) {
+        ServiceState state = states.get(serviceName);
+        return state == null ? Optional.empty() : Optional.of(state.report(serviceName, properties.getReportSize(), tau()));
+    }
+
+    /** Mean lifetime of the exponential decay, in seconds. */
+    private double tau() {
+        return properties.getHalfLife().toMillis() / 1000.0 / LN2;
+    }
+
+    /**
+     * Sum request counts, 5xx counts and latency per method and URI across
+     * status and outcome labels. Actuator routes are the scrape itself.
+     */
+    private static Map<Route, RouteCounters> countersByRoute(List<PromSeries> series) {
+        Map<Route, RouteCounters> routes = new HashMap<>();
+        for (PromSeries sample : series) {
+            boolean count = "http_server_requests_seconds_count".equals(sample.name());
+            if (!count && !"http_server_requests_seconds_sum".equals(sample.name())) {
+                continue;
+            }
+            String uri = sample.label("uri") == null ? "UNKNOWN" : sample.label("uri");
+            if (uri.startsWith("/actuator")) {
+                continue;
+            }
+            RouteCounters counters = routes.computeIfAbsent(new Route(sample.label("method"), uri),
+                    r -> new RouteCounters());
+            if (count) {
+                counters.requests += sample.value();
+                if (isServerError(sample)) {
+                    counters.errors += sample.value();
+                }
+            } else {
+                counters.latencySeconds += sample.value();
+            }
+        }
+        return routes;
+    }
+
+    private static boolean isServerError(PromSeries sample) {
+        String status = sample.label("status");
+        return "SERVER_ERROR".equals(sample.label("outcome")) || (status != null && status.startsWith("5"));
+    }
+
+    private record Route(String method, String uri) {
+    }
+
+    private static final class RouteCounters {
+        double requests;
+        double errors;
+        double latencySeconds;
+    }
+
+    private static final class ServiceState {
+
+        private final HotEndpointSketch sketch;
+        private final Instant started;
+        private Instant lastObserved;
+        /** Counters of every route in the last scrape, not just the tracked ones; see the class comment. */
+        private Map<Route, RouteCounters> previous;
+
+        ServiceState(int capacity, Instant started) {
+            this.sketch = new HotEndpointSketch(capacity);
+            this.started = started;
+        }
+
+        /**
+         * Offer the counter increase since the previous scrape. The first
+         * scrape only primes the counters; a route that went down (restart)
+         * counts from zero.
+         */
+        synchronized void observe(Instant timestamp, Map<Route, RouteCounters> current, double tau) {
+            if (previous != null) {
+                double elapsed = Math.max(0, Duration.between(lastObserved, timestamp).toMillis() / 1000.0);
+                sketch.decay(Math.exp(-elapsed / tau));
+                current.forEach((route, counters) -> {
+                    RouteCounters before = previous.get(route);
+                    boolean reset = before == null || counters.requests < before.requests;
+                    sketch.offer(route.method(), route.uri(),
+                            reset ? counters.requests : counters.requests - before.requests,
+                            reset ? counters.errors : Math.max(0, counters.errors - before.errors),
+                            reset ? counters.latencySeconds : Math.max(0, counters.latencySeconds - before.latencySeconds));
+                });
+            }
+            previous = current;
+            lastObserved = timestamp;
+        }
+
+        synchronized HotEndpointReport report(String serviceName, int size, double tau) {
+            // Decayed sums approach rate * tau; early on only the elapsed part of the window has filled
+            double age = lastObserved == null ? 0 : Duration.between(started, lastObserved).toMillis() / 1000.0;
+            double window = tau * (1 - Math.exp(-age / tau));
+            double totalRequests = sketch.totalRequests();
+            double totalLatency = sketch.totalLatencySeconds();
+
+            List<ResourceRecommendation.HotEndpoint> endpoints = sketch.top(size).stream()
+                    .map(entry -> ResourceRecommendation.HotEndpoint.builder()
+                            .method(entry.method)
+                            .uri(entry.uri)
+                            .requestRate(window > 0 ? entry.count / window : 0.0)
+                            .errorRate(entry.errorRate())
+                            .avgLatencyMs(entry.avgLatencySeconds() * 1000)
+                            .trafficShare(totalRequests > 0 ? entry.count / totalRequests : 0.0)
+                            .timeShare(totalLatency > 0 ? entry.latencySeconds / totalLatency : 0.0)
+                            .maxOverestimate(entry.overestimate)
+                            .build())
+                    .toList();
+
+            return HotEndpointReport.builder()
+                    .serviceName(serviceName)
+                    .asOf(lastObserved)
+                    .windowSeconds(window)
+                    .requestRate(window > 0 ? totalRequests / window : 0.0)
+                    .trackedRoutes(sketch.size())
+                    .endpoints(endpoints)
+                    .build();
+        }
+    }
+}
@@ -0,0 +1,122 @@
+package com.hackathon.analyzer.collector;
+
+import com.hackathon.analyzer.model.EndpointLatency;
+import com.hackathon.analyzer.model.MetricsSnapshot;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Turns the cumulative {@code http_server_requests_seconds_bucket} histograms
+ * of a scrape into latency percentiles for the interval since the previous
+ * scrape, across all routes and for the busiest ones.
+ *
+ * The previous bucket counts are kept in memory per service. After a restart,
+ * an ownership change or a counter reset the cumulative counts are used for
+ * one interval instead.
+ */
+@Component
+public class HttpLatencyTracker {
+
+    static final String BUCKET_SERIES = "http_server_requests_seconds_bucket";
+
+    private final int topEndpoints;
+    private final Map<String, Map<Route, LatencyHistogram>> previousByService = new ConcurrentHashMap<>();
+
+    public HttpLatencyTracker(@Value("${analyzer.latency.top-endpoints:5}") int topEndpoints) {
+        this.topEndpoints = topEndpoints;
+    }
+
+    public LatencyBreakdown observe(String serviceName, Instant timestamp, List<PromSeries> series) {
+        Map<Route, LatencyHistogram> current = histogramsByRoute(series);
+        if (current.isEmpty()) {
+            return LatencyBreakdown.EMPTY;
+        }
+        Map<Route, LatencyHistogram> previous = previousByService.put(serviceName, current);
+
+        LatencyHistogram overall = new LatencyHistogram();
+        Map<Route, LatencyHistogram> interval = new HashMap<>();
+        current.forEach((route, histogram) -> {
+            LatencyHistogram delta = histogram.since(previous == null ? null : previous.get(route));
+            interval.put(route, delta);
+            overall.merge(delta);
+        });
+
+        List<EndpointLatency> endpoints = interval.entrySet().stream()
+                .filter(e -> e.getValue().count() > 0)
+                .sorted(Comparator.comparingDouble((Map.Entry<Route, LatencyHistogram> e) -> e.getValue().count())
+                        .reversed()
+                        .thenComparing(e -> e.getKey().uri()))
+                .limit(topEndpoints)
+                .map(e -> EndpointLatency.builder()
+                        .serviceName(serviceName)
+                        .timestamp(timestamp)
+                        .method(e.getKey().method())
+                        .uri(e.getKey().uri())
+                        .requestCount((long) e.getValue().count())
+                        .p50(percentile(e.getValue(), 0.50))
+                        .p95(percentile(e.getValue(), 0.95))
+                        .p99(percentile(e.getValue(), 0.99))
+                        .build())
+                .toList();
+
+        return new LatencyBreakdown(percentile(overall, 0.50), percentile(overall, 0.95),
+                percentile(overall, 0.99), endpoints);
+    }
+
+    /**
+     * Group bucket series by method and URI. Several series for one route
+     * (e.g. per status or outcome) are summed; actuator routes are skipped so
+     * the scrape itself does not dilute application latency.
+     */
+    private static Map<Route, LatencyHistogram> histogramsByRoute(List<PromSeries> series) {
+        Map<Route, LatencyHistogram> routes = new HashMap<>();
+        for (PromSeries sample : series) {
+            if (!BUCKET_SERIES.equals(sample.name()) || sample.label("le") == null) {
+                continue;
+            }
+            String uri = sample.label("uri") == null ? "UNKNOWN" : sample.label("uri");
+            if (uri.startsWith("/actuator")) {
+                continue;
+            }
+            double upperBound;
+            try {
+                upperBound = SnapshotAssembler.parseValue(sample.label("le"));
+            } catch (NumberFormatException e) {
+                continue;
+            }
+            routes.computeIfAbsent(new Route(sample.label("method"), uri), r -> new LatencyHistogram())
+                    .add(upperBound, sample.value());
+        }
+        return routes;
+    }
+
+    private static Double percentile(LatencyHistogram histogram, double q) {
+        double value = histogram.quantile(q);
+        return Double.isNaN(value) ? null : value;
+    }
+
+    private record Route(String method, String uri) {
+    }
+
+    /**
+     * Interval percentiles in seconds, null when no request was observed,
+     * and the busiest routes.
+     */
+    public record LatencyBreakdown(Double p50, Double p95, Double p99, List<EndpointLatency> endpoints) {
+
+        static final LatencyBreakdown EMPTY = new LatencyBreakdown(null, null, null, List.of());
+
+        public void applyTo(MetricsSnapshot snapshot) {
+            snapshot.setHttpRequestDurationP50(p50);
+            snapshot.setHttpRequestDurationP95(p95);
+            snapshot.setHttpRequestDurationP99(p99);
+        }
+    }
+}
@@ -0,0 +1,106 @@
+package com.hackathon.analyzer.collector;
+
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+/**
+ * Cumulative latency histogram as exposed in {@code _bucket} series: upper
+ * bound ({@code le}) to the number of observations at or below it.
+ */
+final class LatencyHistogram {
+
+    private final NavigableMap<Double, Double> buckets = new TreeMap<>();
+
+    void add(double upperBound, double cumulativeCount) {
+        buckets.merge(upperBound, cumulativeCount, Double::sum);
+    }
+
+    boolean isEmpty() {
+        return buckets.isEmpty();
+    }
+
+    /** Total observations, the {@code +Inf} bucket. */
+    double count() {
+        return buckets.isEmpty() ? 0.0 : buckets.lastEntry().getValue();
+    }
+
+    /**
+     * Observations since {@code previous}. A counter reset (any bucket lower
+     * than before) or a changed bucket layout yields this histogram as is.
+     */
+    LatencyHistogram since(LatencyHistogram previous) {
+        if (previous == null || !previous.buckets.keySet().equals(buckets.keySet())) {
+            return this;
+        }
+        LatencyHistogram delta = new LatencyHistogram();
+        for (Map.Entry<Double, Double> bucket : buckets.entrySet()) {
+            double diff = bucket.getValue() - previous.buckets.get(bucket.getKey());
+            if (diff < 0) {
+                return this;
+            }
+            delta.buckets.put(bucket.getKey(), diff);
+        }
+        return delta;
+    }
+
+    /**
+     * Add another histogram into this one. Bounds missing on one side take
+     * the cumulative count of its next lower bound, so histograms with
+     * different layouts merge without overstating the lower buckets.
+     */
+    void merge(LatencyHistogram other) {
+        if (other.buckets.isEmpty()) {
+            return;
+        }
+        NavigableMap<Double, Double> merged = new TreeMap<>();
+        for (Double bound : union(other).keySet()) {
+            merged.put(bound, cumulativeAt(buckets, bound) + cumulativeAt(other.buckets, bound));
+        }
+        buckets.clear();
+        buckets.putAll(merged);
+    }
+
+    /**
+     * Quantile by linear interpolation inside the target bucket, as
+     * Prometheus' {@code histogram_quantile} does: the lowest bucket starts
+     * at zero and a quantile in the {@code +Inf} bucket returns the highest
+     * finite bound. NaN when there are no observations.
+     */
+    double quantile(double q) {
+        double total = count();
+        if (total <= 0 || !buckets.lastKey().isInfinite()) {
+            return Double.NaN;
+        }
+        double rank = q * total;
+        double lowerBound = 0.0;
+        double lowerCount = 0.0;
+        for (Map.Entry<Double, Double> bucket : buckets.entrySet()) {
+            double upperBound = bucket.getKey();
+            double count = bucket.getValue();
+            if (count >= rank) {
+                if (Double.isInfinite(upperBound)) {
+                    return lowerBound;
+                }
+                if (count == lowerCount) {
+                    return upperBound;
+                }
+                return lowerBound + (upperBound - lowerBound) * (rank - lowerCount) / (count - lowerCount);
+            }
+            lowerBound = upperBound;
+            lowerCount = count;
+        }
+        return lowerBound;
+    }
+
+    private TreeMap<Double, Double> union(LatencyHistogram other) {
+        TreeMap<Double, Double> bounds = new TreeMap<>(buckets);
+        bounds.putAll(other.buckets);
+        return bounds;
+    }
+
+    private static double cumulativeAt(NavigableMap<Double, Double> buckets, double bound) {
+        Map.Entry<Double, Double> floor = buckets.floorEntry(bound);
+        return floor == null ? 0.0 : floor.getValue();
+    }
+}
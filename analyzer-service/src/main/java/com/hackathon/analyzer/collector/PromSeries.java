@@ -0,0 +1,13 @@
+package com.hackathon.analyzer.collector;
+
+import java.util.Map;
+
+/**
+ * One series from a Prometheus text exposition: name, labels and value.
+ */
+public record PromSeries(String name, Map<String, String> labels, double value) {
+
+    public String label(String key) {
+        return labels.get(key);
+    }
+}
@@ -0,0 +1,222 @@
+package com.hackathon.analyzer.collector;
+
+import com.hackathon.analyzer.model.MetricsSnapshot;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Builds a MetricsSnapshot from flat metric values.
+ *
+ * Shared by the scrape loop (Prometheus text format) and push ingestion,
+ * so pulled and pushed samples land in storage with identical semantics.
+ */
+public final class SnapshotAssembler {
+
+    private static final Pattern METRIC_NAME = Pattern.compile("[a-zA-Z_:][a-zA-Z0-9_:]*");
+
+    /** Metric names read by {@link #assemble}; anything else is not stored. */
+    public static final Set<String> METRIC_NAMES = Set.of(
+            "process_cpu_usage",
+            "system_cpu_usage",
+            "jvm_memory_used_bytes",
+            "jvm_memory_max_bytes",
+            "jvm_gc_pause_seconds_sum",
+            "jvm_gc_pause_seconds_count",
+            "jvm_threads_live_threads",
+            "jvm_threads_daemon_threads",
+            "http_server_requests_seconds_count",
+            "http_server_requests_seconds_sum",
+            "http_server_requests_seconds_max",
+            "hikaricp_connections_active",
+            "hikaricp_connections_idle",
+            "hikaricp_connections_max",
+            "hikaricp_connections_min",
+            "hikaricp_connections_timeout_total",
+            "hikaricp_connections_pending");
+
+    private SnapshotAssembler() {
+    }
+
+    /**
+     * Parse Prometheus text format into metric name to value. Counters and
+     * summaries exposed per label set ({@code _count}, {@code _sum},
+     * {@code _total}) are summed and {@code _max} series take the maximum,
+     * so e.g. request totals cover every URI; for other names the last
+     * series wins.
+     */
+    public static Map<String, Double> parsePrometheusText(String prometheusText) {
+        return flatten(parseSeries(prometheusText));
+    }
+
+    public static Map<String, Double> flatten(List<PromSeries> series) {
+        Map<String, Double> metrics = new HashMap<>();
+        for (PromSeries sample : series) {
+            String name = sample.name();
+            if (name.endsWith("_count") || name.endsWith("_sum") || name.endsWith("_total")) {
+                metrics.merge(name, sample.value(), Double::sum);
+            } else if (name.endsWith("_max")) {
+                metrics.merge(name, sample.value(), Math::max);
+            } else {
+                metrics.put(name, sample.value());
+            }
+        }
+        return metrics;
+    }
+
+    /**
+     * Parse Prometheus text format keeping labels. Comments, blank lines and
+     * malformed lines are skipped; trailing timestamps are ignored.
+     */
+    public static List<PromSeries> parseSeries(String prometheusText) {
+        List<PromSeries> series = new ArrayList<>();
+        if (prometheusText == null) {
+            return series;
+        }
+        for (String line : prometheusText.split("\n")) {
+            String trimmed = line.trim();
+            if (trimmed.isEmpty() || trimmed.startsWith("#")) {
+                continue;
+            }
+            PromSeries sample = parseLine(trimmed);
+            if (sample != null) {
+                series.add(sample);
+            }
+        }
+        return series;
+    }
+
+    private static PromSeries parseLine(String line) {
+        Matcher name = METRIC_NAME.matcher(line);
+        if (!name.lookingAt()) {
+            return null;
+        }
+        int pos = name.end();
+        Map<String, String> labels = Map.of();
+        if (pos < line.length() && line.charAt(pos) == '{') {
+            labels = new HashMap<>();
+            pos = parseLabels(line, pos + 1, labels);
+            if (pos < 0) {
+                return null;
+            }
+        }
+        String[] rest = line.substring(pos).trim().split("\\s+");
+        if (rest.length == 0 || rest[0].isEmpty()) {
+            return null;
+        }
+        try {
+            return new PromSeries(name.group(), labels, parseValue(rest[0]));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Parse {@code key="value",...} up to the closing brace. Returns the
+     * index after the brace, or -1 when the label set is malformed.
+     */
+    private static int parseLabels(String line, int pos, Map<String, String> labels) {
+        while (pos < line.length()) {
+            char c = line.charAt(pos);
+            if (c == '}') {
+                return pos + 1;
+            }
+            if (c == ',' || c == ' ') {
+                pos++;
+                continue;
+            }
+            int eq = line.indexOf('=', pos);
+            if (eq < 0 || eq + 1 >= line.length() || line.charAt(eq + 1) != '"') {
+                return -1;
+            }
+            String key = line.substring(pos, eq).trim();
+            StringBuilder value = new StringBuilder();
+            int i = eq + 2;
+            for (; i < line.length() && line.charAt(i) != '"'; i++) {
+                char v = line.charAt(i);
+                if (v == '\\' && i + 1 < line.length()) {
+                    char escaped = line.charAt(++i);
+                    value.append(escaped == 'n' ? '\n' : escaped);
+                } else {
+                    value.append(v);
+                }
+            }
+            if (i >= line.length()) {
+                return -1;
+            }
+            labels.put(key, value.toString());
+            pos = i + 1;
+        }
+        return -1;
+    }
+
+    static double parseValue(String value) {
+        return switch (value) {
+            case "+Inf", "Inf" -> Double.POSITIVE_INFINITY;
+            case "-Inf" -> Double.NEGATIVE_INFINITY;
+            case "NaN" -> Double.NaN;
+            default -> Double.parseDouble(value);
+        };
+    }
+
+    /**
+     * Build a snapshot for one service at one point in time.
+     */
+    public static MetricsSnapshot assemble(String serviceName, Instant timestamp, Map<String, Double> metrics) {
+        return MetricsSnapshot.builder()
+                .serviceName(serviceName)
+                .timestamp(timestamp)
+                // CPU metrics
+                .cpuUsagePercent(metrics.getOrDefault("process_cpu_usage", 0.0) * 100)
+                .systemCpuUsagePercent(metrics.getOrDefault("system_cpu_usage", 0.0) * 100)
+                // Memory metrics
+                .heapUsedBytes(metrics.getOrDefault("jvm_memory_used_bytes", 0.0).longValue())
+                .heapMaxBytes(metrics.getOrDefault("jvm_memory_max_bytes", 1.0).longValue())
+                .heapUsagePercent(calculateHeapUsage(metrics))
+                .nonHeapUsedBytes(metrics.getOrDefault("jvm_memory_used_bytes", 0.0).longValue())
+                // GC metrics
+                .gcPauseTimeMs(counter(metrics, "jvm_gc_pause_seconds_sum", 1000))
+                .gcCount(counter(metrics, "jvm_gc_pause_seconds_count", 1))
+                // Thread metrics
+                .threadCount(metrics.getOrDefault("jvm_threads_live_threads", 0.0).intValue())
+                .daemonThreadCount(metrics.getOrDefault("jvm_threads_daemon_threads", 0.0).intValue())
+                // HTTP metrics
+                .httpRequestCount(counter(metrics, "http_server_requests_seconds_count", 1))
+                .httpRequestDurationAvg(metrics.getOrDefault("http_server_requests_seconds_sum", 0.0) /
+                        Math.max(1, metrics.getOrDefault("http_server_requests_seconds_count", 1.0)))
+                .httpRequestDurationMax(metrics.getOrDefault("http_server_requests_seconds_max", 0.0) * 1000)
+                // Connection pool (HikariCP)
+                .hikariActiveConnections(metrics.getOrDefault("hikaricp_connections_active", 0.0).intValue())
+                .hikariIdleConnections(metrics.getOrDefault("hikaricp_connections_idle", 0.0).intValue())
+                .hikariMaxConnections(metrics.getOrDefault("hikaricp_connections_max", 0.0).intValue())
+                .hikariMinConnections(metrics.getOrDefault("hikaricp_connections_min", 0.0).intValue())
+                .hikariConnectionTimeout(counter(metrics, "hikaricp_connections_timeout_total", 1))
+                .hikariPendingConnections(metrics.getOrDefault("hikaricp_connections_pending", 0.0).intValue())
+                .build();
+    }
+
+    /**
+     * A cumulative counter, or null when the target does not expose it, so
+     * no rate is derived from a value that was never observed.
+     */
+    private static Long counter(Map<String, Double> metrics, String name, double scale) {
+        Double value = metrics.get(name);
+        return value == null ? null : (long) (value * scale);
+    }
+
+    /**
+     * Calculate heap usage percentage
+     */
+    private static Double calculateHeapUsage(Map<String, Double> metrics) {
+        double used = metrics.getOrDefault("jvm_memory_used_bytes", 0.0);
+        double max = metrics.getOrDefault("jvm_memory_max_bytes", 1.0);
+
+        return max > 0 ? (used / max) * 100 : 0.0;
+    }
+}
@@ -0,0 +1,69 @@
+package com.hackathon.analyzer.collector;
+
+import com.hackathon.analyzer.model.MetricsSnapshot;
+import com.hackathon.analyzer.repository.MetricsSnapshotRepository;
+import com.hackathon.analyzer.service.AnomalyDetectionService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Single entry point for new snapshots, scraped or pushed: derives counter
+ * rates, persists them and runs anomaly detection once per affected service.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class SnapshotSink {
+
+    /** Last 60 snapshots, 10 minutes of data at 10-second intervals. */
+    private static final int ANOMALY_WINDOW = 60;
+
+    private final MetricsSnapshotRepository metricsRepository;
+    private final CounterRates counterRates;
+    private final AnomalyDetectionService anomalyDetectionService;
+
+    public void store(MetricsSnapshot snapshot) {
+        storeAll(List.of(snapshot));
+    }
+
+    public void storeAll(List<MetricsSnapshot> snapshots) {
+        if (snapshots.isEmpty()) {
+            return;
+        }
+        counterRates.apply(snapshots);
+        metricsRepository.saveAll(snapshots);
+
+        Set<String> services = new LinkedHashSet<>();
+        snapshots.forEach(snapshot -> services.add(snapshot.getServiceName()));
+        services.forEach(this::performAnomalyDetection);
+    }
+
+    /**
+     * Perform anomaly detection on recent metrics
+     */
+    private void performAnomalyDetection(String serviceName) {
+        try {
+            List<MetricsSnapshot> recentSnapshots = metricsRepository
+                    .findByServiceNameOrderByTimestampDesc(serviceName, PageRequest.of(0, ANOMALY_WINDOW))
+                    .getContent();
+
+            if (!recentSnapshots.isEmpty()) {
+                // Reverse to get chronological order
+                List<MetricsSnapshot> chronologicalSnapshots = new ArrayList<>(recentSnapshots);
+                Collections.reverse(chronologicalSnapshots);
+
+                anomalyDetectionService.analyzeAll(serviceName, chronologicalSnapshots);
+            }
+        } catch (Exception e) {
+            log.warn("Failed to perform anomaly detection for {}: {}", serviceName, e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package com.hackathon.analyzer.config;
+
+import com.hackathon.analyzer.admission.AdmissionLimiter;
+import com.hackathon.analyzer.admission.CostEstimate;
+import com.hackathon.analyzer.admission.RequestCostEstimator;
+import jakarta.servlet.DispatcherType;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import java.util.Optional;
+
+/**
+ * HTTP interceptor that admits analysis requests by estimated cost.
+ *
+ * Runs after rate limiting: the request is classed by the metric rows it
+ * will scan and must hold a slot of that class while the handler runs.
+ * When the class is saturated and its queue is full or the wait times out,
+ * the request is shed with 503 and a Retry-After.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class AdmissionInterceptor implements HandlerInterceptor {
+
+    static final String PERMIT_ATTRIBUTE = AdmissionInterceptor.class.getName() + ".permit";
+
+    private final RequestCostEstimator costEstimator;
+    private final AdmissionLimiter admissionLimiter;
+    private final AdmissionProperties properties;
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler)
+            throws Exception {
+        // An async re-dispatch still holds the permit taken on the first dispatch
+        if (request.getDispatcherType() == DispatcherType.ASYNC || !properties.isEnabled()) {
+            return true;
+        }
+        Optional<CostEstimate> estimate = costEstimator.estimate(request);
+        if (estimate.isEmpty()) {
+            return true;
+        }
+
+        CostEstimate cost = estimate.get();
+        response.setHeader("X-Cost-Class", cost.costClass().key());
+        Optional<AdmissionLimiter.Permit> permit = admissionLimiter.admit(cost);
+        if (permit.isPresent()) {
+            request.setAttribute(PERMIT_ATTRIBUTE, permit.get());
+            return true;
+        }
+
+        long retryAfter = Math.max(1, admissionLimiter.retryAfter(cost.costClass()).toSeconds());
+        log.warn("Shedding {} request for path: {} (~{} rows)", cost.costClass().key(),
+                request.getRequestURI(), cost.rows());
+        response.setStatus(HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+        response.setHeader("Retry-After", String.valueOf(retryAfter));
+        response.setContentType("application/json");
+        response.getWriter().write(
+                "{\"error\":\"Service Unavailable\",\"message\":\"Too many " + cost.costClass().key()
+                        + " analyses in progress. Please retry later.\",\"retryAfterMs\":" + retryAfter * 1000 + "}");
+        return false;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler,
+                                Exception ex) {
+        Object permit = request.getAttribute(PERMIT_ATTRIBUTE);
+        if (permit instanceof AdmissionLimiter.Permit held) {
+            request.removeAttribute(PERMIT_ATTRIBUTE);
+            held.close();
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package com.hackathon.analyzer.config;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Cost-aware admission for analysis endpoints. Each request is assigned a
+ * cost class from the number of metric rows it will scan; every class has
+ * its own concurrency budget, so heavy analyses queue or are shed without
+ * taking slots from light reads.
+ */
+@Configuration
+@ConfigurationProperties(prefix = "analyzer.admission")
+@Data
+public class AdmissionProperties {
+
+    private boolean enabled = true;
+
+    /** Estimated rows at or above which a request is classed as medium. */
+    private long mediumThreshold = 5_000;
+
+    /** Estimated rows at or above which a request is classed as heavy. */
+    private long heavyThreshold = 100_000;
+
+    /** How long a row count is reused before it is queried again. */
+    private Duration rowCountTtl = Duration.ofSeconds(15);
+
+    /** Upper bound on cached row counts. */
+    private int rowCountMaxEntries = 1_024;
+
+    private Map<String, Budget> budgets = new HashMap<>(Map.of(
+            "light", new Budget(32, 64, Duration.ofSeconds(1)),
+            "medium", new Budget(8, 16, Duration.ofSeconds(2)),
+            "heavy", new Budget(2, 4, Duration.ofSeconds(5))));
+
+    /**
+     * At most {@code maxConcurrent} requests run at once; up to
+     * {@code maxQueued} more wait for at most {@code queueTimeout}.
+     * Anything beyond that is rejected immediately.
+     */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Budget {
+        private int maxConcurrent;
+        private int maxQueued;
+        private Duration queueTimeout;
+    }
+}
@@ -0,0 +1,45 @@
+package com.hackathon.analyzer.config;
+
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadConfig;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * Protects the AI model backend with a bulkhead (bounded concurrent calls)
+ * and a circuit breaker (fail fast while the backend keeps failing).
+ */
+@Configuration
+public class AiResilienceConfiguration {
+
+    @Bean
+    public CircuitBreaker aiCircuitBreaker(
+            @Value("${ai.resilience.failure-rate-threshold:50}") float failureRateThreshold,
+            @Value("${ai.resilience.sliding-window-size:20}") int slidingWindowSize,
+            @Value("${ai.resilience.open-state-seconds:30}") long openStateSeconds) {
+        CircuitBreakerConfig config = CircuitBreakerConfig.custom()
+                .failureRateThreshold(failureRateThreshold)
+                .slidingWindowSize(slidingWindowSize)
+                .minimumNumberOfCalls(Math.min(5, slidingWindowSize))
+                .waitDurationInOpenState(Duration.ofSeconds(openStateSeconds))
+                .permittedNumberOfCallsInHalfOpenState(2)
+                .build();
+        return CircuitBreaker.of("ai", config);
+    }
+
+    @Bean
+    public Bulkhead aiBulkhead(
+            @Value("${ai.resilience.max-concurrent-calls:8}") int maxConcurrentCalls) {
+        // Reactive callers cannot wait for a permit, so excess calls are rejected immediately
+        BulkheadConfig config = BulkheadConfig.custom()
+                .maxConcurrentCalls(maxConcurrentCalls)
+                .maxWaitDuration(Duration.ZERO)
+                .build();
+        return Bulkhead.of("ai", config);
+    }
+}
@@ -0,0 +1,78 @@
+package com.hackathon.analyzer.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Multi-replica settings for the analyzer.
+ *
+ * When sharding is enabled, replicas agree on a membership list (either a
+ * static list from configuration or live heartbeats in the shared database)
+ * and split scrape targets between them with consistent hashing.
+ *
+ * Scheduled jobs can additionally be pinned to the elected leader, so
+ * cluster-wide work runs once instead of once per replica.
+ */
+@Configuration
+@ConfigurationProperties(prefix = "analyzer.cluster")
+@Data
+public class ClusterProperties {
+
+    private boolean shardingEnabled = false;
+
+    /** Identity of this replica; falls back to a generated id when blank. */
+    private String replicaId = "";
+
+    private Membership membership = Membership.STATIC;
+
+    /** Replica ids used when membership is STATIC. */
+    private List<String> staticMembers = new ArrayList<>();
+
+    /** Points placed on the hash ring per replica. */
+    private int virtualNodes = 128;
+
+    /** A JDBC member is considered gone after this many seconds without a heartbeat. */
+    private int leaseTtlSeconds = 30;
+
+    private long heartbeatIntervalMs = 10000;
+
+    private boolean leaderElectionEnabled = false;
+
+    /** Leadership is lost if the lease is not renewed within this many seconds. */
+    private int leaderLeaseSeconds = 30;
+
+    private long leaderRenewIntervalMs = 10000;
+
+    /**
+     * Execution mode per scheduled job, keyed by job name (e.g. collect-metrics).
+     * Health checks and scans run everywhere: the service registry is
+     * replica-local, and an entry no replica-local job re-checks would stay
+     * healthy forever.
+     */
+    private Map<String, JobMode> jobs = new HashMap<>(Map.of(
+            "collect-metrics", JobMode.SHARDED,
+            "health-check-services", JobMode.ALL,
+            "scan-for-services", JobMode.ALL,
+            "generate-insights", JobMode.LEADER,
+            "optimize-services", JobMode.SHARDED));
+
+    public enum Membership {
+        STATIC,
+        JDBC
+    }
+
+    public enum JobMode {
+        /** Every replica runs the job over every target (single-replica behaviour). */
+        ALL,
+        /** Only the elected leader runs the job. */
+        LEADER,
+        /** Every replica runs the job, but only over the targets it owns. */
+        SHARDED
+    }
+}
@@ -0,0 +1,23 @@
+package com.hackathon.analyzer.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Paging and streaming settings for history reads and exports.
+ */
+@Configuration
+@ConfigurationProperties(prefix = "analyzer.export")
+@Data
+public class ExportProperties {
+
+    /** Rows per history page when the client does not ask for a size. */
+    private int defaultPageSize = 100;
+
+    /** Largest history page a client may ask for. */
+    private int maxPageSize = 1_000;
+
+    /** Streamed rows between explicit flushes of the response. */
+    private int flushEveryRows = 1_000;
+}
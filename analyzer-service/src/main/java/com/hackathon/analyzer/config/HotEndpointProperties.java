@@ -0,0 +1,28 @@
+package com.hackathon.analyzer.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * Per-endpoint hot-path tracking of scraped services.
+ */
+@Configuration
+@ConfigurationProperties(prefix = "analyzer.hot-endpoints")
+@Data
+public class HotEndpointProperties {
+
+    /** Routes tracked per service; rarer routes are evicted (space-saving). */
+    private int capacity = 64;
+
+    /** Routes listed in a hot endpoints report. */
+    private int reportSize = 10;
+
+    /** Older traffic counts for half as much after this long. */
+    private Duration halfLife = Duration.ofMinutes(10);
+
+    /** Share of request time above which one route is reported as a hot spot. */
+    private double dominantTimeShare = 0.5;
+}
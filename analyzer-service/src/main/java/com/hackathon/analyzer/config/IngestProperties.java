@@ -0,0 +1,44 @@
+package com.hackathon.analyzer.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Push ingestion for agents the scrape loop cannot reach (services behind
+ * NAT, short-lived batch jobs). Pushed samples are stored exactly like
+ * scraped ones; each tenant's sample rate is limited by the
+ * {@code quota-tier} of {@code analyzer.rate-limit.tiers}.
+ */
+@Configuration
+@ConfigurationProperties(prefix = "analyzer.ingest")
+@Data
+public class IngestProperties {
+
+    private boolean enabled = true;
+
+    /** Largest accepted request body, as sent (compressed). */
+    private DataSize maxBodySize = DataSize.ofMegabytes(8);
+
+    /** Largest accepted body after decompression. */
+    private DataSize maxDecompressedSize = DataSize.ofMegabytes(64);
+
+    private int maxSamplesPerRequest = 100_000;
+
+    /** Samples older than this are rejected. */
+    private Duration maxSampleAge = Duration.ofHours(1);
+
+    /** Samples further in the future than this are rejected. */
+    private Duration maxFutureSkew = Duration.ofMinutes(5);
+
+    /** Labels that name the service, in order of preference. */
+    private List<String> serviceLabels = new ArrayList<>(List.of("service", "application", "job"));
+
+    /** Rate limit tier charged one token per received sample. */
+    private String quotaTier = "ingest-samples";
+}
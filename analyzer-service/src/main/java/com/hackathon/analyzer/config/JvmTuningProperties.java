@@ -0,0 +1,67 @@
+package com.hackathon.analyzer.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * JVM tuning of scraped services from their GC telemetry.
+ */
+@Configuration
+@ConfigurationProperties(prefix = "analyzer.jvm-tuning")
+@Data
+public class JvmTuningProperties {
+
+    public enum Goal {
+        /** Keep individual GC pauses under {@code maxPauseMillis}. */
+        PAUSE_TIME,
+        /** Keep the share of time spent in GC under {@code 1 - throughputTarget}. */
+        THROUGHPUT
+    }
+
+    /** Without telemetry, or when disabled, recommendations keep the fixed G1 defaults. */
+    private boolean enabled = true;
+
+    private Goal goal = Goal.PAUSE_TIME;
+
+    /** Per-service goal, overriding {@code goal}. */
+    private Map<String, Goal> goals = new HashMap<>();
+
+    private int maxPauseMillis = 200;
+
+    /** Share of wall time the application should get; the rest is the GC budget. */
+    private double throughputTarget = 0.95;
+
+    /** GC telemetry older than this is dropped. */
+    private Duration window = Duration.ofMinutes(15);
+
+    /** Scrape intervals needed before the telemetry is trusted. */
+    private int minIntervals = 6;
+
+    /** Heap as a multiple of the live set after GC. */
+    private double liveSetMultiplier = 3.0;
+
+    private long minHeapMb = 128;
+
+    /** Bounds on the heap share of the container memory limit. */
+    private double minRamPercentage = 25;
+    private double maxRamPercentage = 90;
+
+    /** Kept free in the container besides heap, metaspace and code cache (thread stacks, direct buffers). */
+    private long nativeReserveMb = 64;
+
+    /** MaxMetaspaceSize as a multiple of the metaspace in use. */
+    private double metaspaceHeadroom = 2.0;
+
+    /** ZGC is only recommended from this heap size and CPU count up. */
+    private long zgcMinHeapMb = 2048;
+    private double zgcMinCpus = 2;
+
+    public Goal goalOf(String serviceName) {
+        return goals.getOrDefault(serviceName, goal);
+    }
+}
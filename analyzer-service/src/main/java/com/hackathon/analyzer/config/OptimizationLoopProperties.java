@@ -0,0 +1,62 @@
+package com.hackathon.analyzer.config;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * Continuous re-evaluation of every service. Artifacts are generated only
+ * for material changes that held over several consecutive evaluations.
+ * The cadence itself is {@code analyzer.optimization-loop.interval-ms}.
+ *
+ * Off by default: the levels last generated are kept in memory only, so
+ * after a restart or a shard move every service counts as changed and is
+ * generated again once it has held for {@code stableWindows} evaluations.
+ */
+@Configuration
+@ConfigurationProperties(prefix = "analyzer.optimization-loop")
+@Data
+public class OptimizationLoopProperties {
+
+    private boolean enabled = false;
+
+    /** Longest wait for the code generator in one cycle; a timed-out batch is retried next cycle. */
+    private Duration generationTimeout = Duration.ofMinutes(5);
+
+    /** Consecutive evaluations a changed recommendation must hold before artifacts are generated. */
+    private int stableWindows = 3;
+
+    /**
+     * Once a change is pending it is dropped only when it falls below this
+     * fraction of the minimum change, so values near the threshold do not flap.
+     */
+    private double releaseRatio = 0.5;
+
+    /** New metrics snapshots required since the last evaluation; services without them are not re-analyzed. */
+    private int minNewSamples = 1;
+
+    /** CPU request and limit, absolute change in millicores. */
+    private Threshold cpu = new Threshold(50, 0.15);
+
+    /** Memory request and limit, absolute change in MiB. */
+    private Threshold memory = new Threshold(64, 0.15);
+
+    /** Maximum pool size, absolute change in connections. */
+    private Threshold connectionPool = new Threshold(2, 0.2);
+
+    /**
+     * A change is material when it exceeds both the absolute and the
+     * relative minimum.
+     */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Threshold {
+        private double minAbsoluteChange;
+        private double minRelativeChange;
+    }
+}
@@ -0,0 +1,55 @@
+package com.hackathon.analyzer.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+
+/**
+ * Connection pool and timeout settings for outbound HTTP, one pool per
+ * traffic class so slow AI calls can never starve scrapes or probes.
+ */
+@Configuration
+@ConfigurationProperties(prefix = "analyzer.http")
+@Data
+public class OutboundHttpProperties {
+
+    /** Prometheus scrapes: many targets, large bodies, connections kept warm. */
+    private Pool scrape = new Pool(200, Duration.ofSeconds(2), Duration.ofSeconds(10), DataSize.ofMegabytes(4));
+
+    /** Health checks and discovery probes: small bodies, fail fast. */
+    private Pool probe = new Pool(64, Duration.ofSeconds(1), Duration.ofSeconds(2), DataSize.ofKilobytes(256));
+
+    /** AI model backend: few long-running (streaming) calls. */
+    private Pool ai = new Pool(16, Duration.ofSeconds(5), Duration.ofSeconds(120), DataSize.ofMegabytes(2));
+
+    /** Code generator: a few fleet-wide batches, report returned once every service is rendered. */
+    private Pool codegen = new Pool(8, Duration.ofSeconds(2), Duration.ofSeconds(300), DataSize.ofMegabytes(16));
+
+    @Data
+    public static class Pool {
+        private int maxConnections;
+        private int pendingAcquireMaxCount = 1000;
+        private Duration pendingAcquireTimeout = Duration.ofSeconds(5);
+        private Duration maxIdleTime = Duration.ofSeconds(30);
+        private Duration maxLifeTime = Duration.ofMinutes(5);
+        private Duration evictInBackground = Duration.ofSeconds(30);
+        private Duration connectTimeout;
+        /** Maximum time between reads while receiving a response. */
+        private Duration responseTimeout;
+        /** Largest response body the codecs will buffer. */
+        private DataSize maxInMemorySize;
+
+        public Pool() {
+        }
+
+        Pool(int maxConnections, Duration connectTimeout, Duration responseTimeout, DataSize maxInMemorySize) {
+            this.maxConnections = maxConnections;
+            this.connectTimeout = connectTimeout;
+            this.responseTimeout = responseTimeout;
+            this.maxInMemorySize = maxInMemorySize;
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package com.hackathon.analyzer.config;
+
+import io.netty.channel.ChannelOption;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Outbound HTTP clients, one named Reactor Netty connection pool per
+ * traffic class. Pools are created once and shared by every caller of that
+ * class, so repeated scrapes of the same target reuse kept-alive connections.
+ *
+ * Pool metrics are published as {@code reactor.netty.connection.provider.*}
+ * tagged with the pool name ({@code analyzer-scrape}, {@code analyzer-probe},
+ * {@code analyzer-ai}, {@code analyzer-codegen}).
+ */
+@Slf4j
+public class OutboundWebClients {
+
+    public enum TrafficClass {
+        SCRAPE, PROBE, AI, CODEGEN
+    }
+
+    private final Map<TrafficClass, ConnectionProvider> providers = new EnumMap<>(TrafficClass.class);
+    private final Map<TrafficClass, WebClient.Builder> builders = new EnumMap<>(TrafficClass.class);
+    private final Map<TrafficClass, WebClient> clients = new EnumMap<>(TrafficClass.class);
+
+    public OutboundWebClients(OutboundHttpProperties properties) {
+        register(TrafficClass.SCRAPE, properties.getScrape());
+        register(TrafficClass.PROBE, properties.getProbe());
+        register(TrafficClass.AI, properties.getAi());
+        register(TrafficClass.CODEGEN, properties.getCodegen());
+    }
+
+    /** Shared client for Prometheus scrapes. */
+    public WebClient scrape() {
+        return clients.get(TrafficClass.SCRAPE);
+    }
+
+    /** Shared client for health checks and discovery probes. */
+    public WebClient probe() {
+        return clients.get(TrafficClass.PROBE);
+    }
+
+    /**
+     * New builder on the given pool, for callers that need their own base URL
+     * or default headers. The underlying connection pool is still shared.
+     */
+    public WebClient.Builder builder(TrafficClass trafficClass) {
+        return builders.get(trafficClass).clone();
+    }
+
+    public void dispose() {
+        providers.values().forEach(ConnectionProvider::dispose);
+    }
+
+    private void register(TrafficClass trafficClass, OutboundHttpProperties.Pool pool) {
+        String name = "analyzer-" + trafficClass.name().toLowerCase();
+        ConnectionProvider provider = ConnectionProvider.builder(name)
+                .maxConnections(pool.getMaxConnections())
+                .pendingAcquireMaxCount(pool.getPendingAcquireMaxCount())
+                .pendingAcquireTimeout(pool.getPendingAcquireTimeout())
+                .maxIdleTime(pool.getMaxIdleTime())
+                .maxLifeTime(pool.getMaxLifeTime())
+                .evictInBackground(pool.getEvictInBackground())
+                .metrics(true)
+                .build();
+
+        HttpClient httpClient = HttpClient.create(provider)
+                .keepAlive(true)
+                .option(ChannelOption.SO_KEEPALIVE, true)
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, (int) pool.getConnectTimeout().toMillis())
+                .responseTimeout(pool.getResponseTimeout());
+
+        int maxInMemorySize = (int) pool.getMaxInMemorySize().toBytes();
+        WebClient.Builder builder = WebClient.builder()
+                .clientConnector(new ReactorClientHttpConnector(httpClient))
+                .codecs(codecs -> codecs.defaultCodecs().maxInMemorySize(maxInMemorySize));
+
+        providers.put(trafficClass, provider);
+        builders.put(trafficClass, builder);
+        clients.put(trafficClass, builder.clone().build());
+        log.info("Outbound HTTP pool {}: maxConnections={}, connectTimeout={}, responseTimeout={}, maxInMemorySize={}",
+                name, pool.getMaxConnections(), pool.getConnectTimeout(), pool.getResponseTimeout(),
+                pool.getMaxInMemorySize());
+    }
+}
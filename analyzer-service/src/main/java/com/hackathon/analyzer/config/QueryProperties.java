@@ -0,0 +1,28 @@
+package com.hackathon.analyzer.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * Limits for the Prometheus-compatible query API.
+ */
+@Configuration
+@ConfigurationProperties(prefix = "analyzer.query")
+@Data
+public class QueryProperties {
+
+    /** Most points a range query may return per series (Prometheus uses 11,000). */
+    private int maxPointsPerSeries = 11_000;
+
+    /** How far back a plain selector looks for the latest sample. */
+    private Duration lookbackDelta = Duration.ofMinutes(5);
+
+    /** Longest selector range, e.g. the 7d in {@code avg_over_time(x[7d])}. */
+    private Duration maxRange = Duration.ofDays(31);
+
+    /** JDBC fetch size for streamed rows. */
+    private int fetchSize = 1_000;
+}
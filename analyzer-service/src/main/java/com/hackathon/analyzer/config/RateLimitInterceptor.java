@@ -1,7 +1,9 @@
 package com.hackathon.analyzer.config;
 
-import io.github.resilience4j.ratelimiter.RateLimiter;
-import io.github.resilience4j.ratelimiter.RequestNotPermitted;
+import com.hackathon.analyzer.ratelimit.ClientKeyResolver;
+import com.hackathon.analyzer.ratelimit.ClientRateLimiter;
+import com.hackathon.analyzer.ratelimit.RateLimitDecision;
+import jakarta.servlet.DispatcherType;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
@@ -10,51 +12,70 @@ import org.springframework.stereotype.Component;
 import org.springframework.web.servlet.HandlerInterceptor;
 
 /**
- * HTTP interceptor that applies tiered rate limiting to incoming requests.
- * Analysis and scaling endpoints get a stricter budget; auth gets brute-force
- * protection.
+ * HTTP interceptor that applies tiered, per-client rate limiting to incoming
+ * requests. Analysis and scaling endpoints get a stricter budget; auth gets
+ * brute-force protection keyed by IP address.
+ *
+ * Requests over the limit are rejected immediately with 429 and an exact
+ * Retry-After; request threads never wait for a permit. A request is charged
+ * on its first dispatch only: the async re-dispatch that completes an SSE
+ * stream or streamed export already has a committed response.
  */
 @Slf4j
 @Component
 @RequiredArgsConstructor
 public class RateLimitInterceptor implements HandlerInterceptor {
 
-    private final RateLimiter standardRateLimiter;
-    private final RateLimiter analysisRateLimiter;
-    private final RateLimiter authRateLimiter;
+    static final String TIER_STANDARD = "standard";
+    static final String TIER_ANALYSIS = "analysis";
+    static final String TIER_AUTH = "auth";
+
+    private final ClientRateLimiter rateLimiter;
+    private final ClientKeyResolver clientKeyResolver;
+    private final RateLimitProperties properties;
 
     @Override
     public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler)
             throws Exception {
         String path = request.getRequestURI();
 
-        if (path.startsWith("/api/health") || path.startsWith("/swagger-ui") || path.startsWith("/v3/api-docs")) {
+        if (request.getDispatcherType() == DispatcherType.ASYNC || !properties.isEnabled()
+                || path.startsWith("/api/health") || path.startsWith("/swagger-ui") || path.startsWith("/v3/api-docs")) {
             return true;
         }
 
-        RateLimiter limiter = resolveRateLimiter(path);
+        String tier = resolveTier(path);
+        String clientKey = TIER_AUTH.equals(tier)
+                ? "ip:" + clientKeyResolver.clientIp(request)
+                : clientKeyResolver.resolve(request);
 
-        try {
-            RateLimiter.waitForPermission(limiter);
+        RateLimitDecision decision = rateLimiter.tryAcquire(tier, clientKey);
+        if (decision.limit() >= 0) {
+            response.setHeader("X-RateLimit-Limit", String.valueOf(decision.limit()));
+            response.setHeader("X-RateLimit-Remaining", String.valueOf(decision.remaining()));
+        }
+        if (decision.allowed()) {
             return true;
-        } catch (RequestNotPermitted e) {
-            log.warn("Rate limit exceeded for path: {} from IP: {}", path, request.getRemoteAddr());
-            response.setStatus(429);
-            response.setContentType("application/json");
-            response.getWriter().write(
-                    "{\"error\":\"Too Many Requests\",\"message\":\"Rate limit exceeded. Please retry after a short delay.\",\"retryAfterMs\":1000}");
-            return false;
         }
+
+        log.warn("Rate limit exceeded for path: {} tier: {} client: {}", path, tier, clientKey);
+        response.setStatus(429);
+        response.setHeader("Retry-After", String.valueOf(decision.retryAfterSeconds()));
+        response.setContentType("application/json");
+        response.getWriter().write(
+                "{\"error\":\"Too Many Requests\",\"message\":\"Rate limit exceeded. Please retry after a short delay.\",\"retryAfterMs\":"
+                        + decision.retryAfterMillis() + "}");
+        return false;
     }
 
-    private RateLimiter resolveRateLimiter(String path) {
+    private String resolveTier(String path) {
         if (path.startsWith("/api/auth")) {
-            return authRateLimiter;
+            return TIER_AUTH;
         }
         if (path.contains("/analyze") || path.contains("/scaling") || path.contains("/predict")
                 || path.contains("/classify")) {
-            return analysisRateLimiter;
+            return TIER_ANALYSIS;
         }
-        return standardRateLimiter;
+        return TIER_STANDARD;
     }
 }
@@ -0,0 +1,47 @@
+package com.hackathon.analyzer.config;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Per-client rate limits. Every client (API key, JWT subject or IP address)
+ * gets its own token bucket per tier, so one noisy dashboard only exhausts
+ * its own budget.
+ */
+@Configuration
+@ConfigurationProperties(prefix = "analyzer.rate-limit")
+@Data
+public class RateLimitProperties {
+
+    private boolean enabled = true;
+
+    /** Use the first X-Forwarded-For address as client IP (only behind a trusted proxy). */
+    private boolean trustForwardedFor = false;
+
+    /** Buckets untouched (and full) for this long are dropped. */
+    private Duration idleTimeout = Duration.ofMinutes(10);
+
+    private Map<String, Tier> tiers = new HashMap<>(Map.of(
+            "standard", new Tier(20, Duration.ofSeconds(1)),
+            "analysis", new Tier(5, Duration.ofSeconds(10)),
+            "auth", new Tier(10, Duration.ofMinutes(1)),
+            "ingest-samples", new Tier(200_000, Duration.ofSeconds(10))));
+
+    /**
+     * {@code capacity} requests per {@code period}, with bursts up to {@code capacity}.
+     */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Tier {
+        private int capacity;
+        private Duration period;
+    }
+}
@@ -0,0 +1,37 @@
+package com.hackathon.analyzer.config;
+
+import org.springframework.boot.task.ThreadPoolTaskSchedulerBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+
+/**
+ * Schedulers for {@code @Scheduled} jobs.
+ *
+ * Lease renewal and membership heartbeats run on their own thread, so a
+ * scrape, AI batch or optimization cycle that blocks the shared pool cannot
+ * let the leader lease or the replica heartbeat expire.
+ */
+@Configuration
+public class SchedulingConfiguration {
+
+    /** Scheduler for the cluster's lease and heartbeat jobs. */
+    public static final String CLUSTER_SCHEDULER = "clusterTaskScheduler";
+
+    /**
+     * The shared pool for all other jobs, sized by {@code spring.task.scheduling.*}.
+     * Declared here because defining any scheduler bean turns Spring Boot's off.
+     */
+    @Bean
+    public ThreadPoolTaskScheduler taskScheduler(ThreadPoolTaskSchedulerBuilder builder) {
+        return builder.build();
+    }
+
+    @Bean(CLUSTER_SCHEDULER)
+    public ThreadPoolTaskScheduler clusterTaskScheduler() {
+        ThreadPoolTaskScheduler scheduler = new ThreadPoolTaskScheduler();
+        scheduler.setPoolSize(1);
+        scheduler.setThreadNamePrefix("cluster-");
+        return scheduler;
+    }
+}
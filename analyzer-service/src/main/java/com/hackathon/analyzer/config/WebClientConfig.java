@@ -2,13 +2,12 @@ package com.hackathon.analyzer.config;
 
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
-import org.springframework.web.reactive.function.client.WebClient;
 
 @Configuration
 public class WebClientConfig {
 
-    @Bean
-    public WebClient.Builder webClientBuilder() {
-        return WebClient.builder();
+    @Bean(destroyMethod = "dispose")
+    public OutboundWebClients outboundWebClients(OutboundHttpProperties properties) {
+        return new OutboundWebClients(properties);
     }
 }
@@ -6,17 +6,21 @@ import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 
 /**
- * Registers the rate-limit interceptor for all API paths.
+ * Registers the rate-limit and admission interceptors for all API paths.
+ * Rate limiting runs first, so rejected clients never occupy an admission slot.
  */
 @Configuration
 @RequiredArgsConstructor
 public class WebMvcConfig implements WebMvcConfigurer {
 
     private final RateLimitInterceptor rateLimitInterceptor;
+    private final AdmissionInterceptor admissionInterceptor;
 
     @Override
     public void addInterceptors(InterceptorRegistry registry) {
         registry.addInterceptor(rateLimitInterceptor)
                 .addPathPatterns("/api/**");
+        registry.addInterceptor(admissionInterceptor)
+                .addPathPatterns("/api/**");
     }
 }
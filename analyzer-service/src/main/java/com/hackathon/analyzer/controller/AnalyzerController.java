@@ -1,13 +1,26 @@
 package com.hackathon.analyzer.controller;
 
+import com.hackathon.analyzer.collector.GcTelemetryTracker;
+import com.hackathon.analyzer.collector.HotEndpointTracker;
 import com.hackathon.analyzer.collector.MetricsCollectorService;
 import com.hackathon.analyzer.discovery.ServiceDiscoveryService;
 import com.hackathon.analyzer.discovery.ServiceInfo;
+import com.hackathon.analyzer.export.HistoryExportService;
+import com.hackathon.analyzer.export.HistoryPage;
 import com.hackathon.analyzer.ml.CostPredictionService;
 import com.hackathon.analyzer.ml.WorkloadClassificationService;
 import com.hackathon.analyzer.model.*;
+import com.hackathon.analyzer.pipeline.CodeGenerationPipeline;
 import com.hackathon.analyzer.service.GeminiInsightService;
 import com.hackathon.analyzer.service.ResourceAnalyzerService;
+import com.hackathon.analyzer.service.insight.BatchInsightService;
+import com.hackathon.analyzer.service.insight.InsightInputs;
+import com.hackathon.analyzer.service.insight.InsightInputsCollector;
+import com.hackathon.analyzer.service.insight.PregeneratedInsightStore;
+import com.hackathon.analyzer.service.optimization.OptimizationLoopService;
+import com.hackathon.analyzer.service.optimization.OptimizationStatus;
+import com.hackathon.recommendation.BatchGenerationReport;
+import com.hackathon.recommendation.ResourceRecommendation;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
@@ -15,9 +28,18 @@ import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.codec.ServerSentEvent;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
 
+import java.io.IOException;
 import java.time.LocalDateTime;
 import java.util.*;
 
@@ -34,6 +56,14 @@ public class AnalyzerController {
     private final WorkloadClassificationService workloadClassificationService;
     private final GeminiInsightService geminiInsightService;
     private final ServiceDiscoveryService serviceDiscoveryService;
+    private final InsightInputsCollector insightInputsCollector;
+    private final PregeneratedInsightStore pregeneratedInsightStore;
+    private final BatchInsightService batchInsightService;
+    private final HistoryExportService historyExportService;
+    private final HotEndpointTracker hotEndpointTracker;
+    private final GcTelemetryTracker gcTelemetryTracker;
+    private final CodeGenerationPipeline codeGenerationPipeline;
+    private final OptimizationLoopService optimizationLoopService;
 
     @Operation(summary = "Health Check", description = "Check if the analyzer service is running")
     @ApiResponse(responseCode = "200", description = "Service is healthy")
@@ -90,13 +120,61 @@ public class AnalyzerController {
     }
 
     /**
-     * Get analysis history for a service
+     * Analyze all healthy services and hand each recommendation straight to
+     * the code generator as soon as it is ready.
      */
-    @GetMapping("/analysis-history/{serviceName}")
-    public ResponseEntity<List<AnalysisResult>> getAnalysisHistory(@PathVariable String serviceName) {
-        List<AnalysisResult> history = analyzerService.getAnalysisHistory(serviceName);
+    @Operation(summary = "Analyze and Generate", description = "Analyze every healthy service and generate deployment artifacts for all of them")
+    @PostMapping("/analyze-all/generate")
+    public ResponseEntity<BatchGenerationReport> analyzeAndGenerateAll() throws IOException {
+        log.info("Received request to analyze and generate all services");
+
+        Iterator<ResourceRecommendation> recommendations = serviceDiscoveryService.getHealthyServices().stream()
+                .map(service -> {
+                    try {
+                        return analyzerService.analyzeService(service.getName());
+                    } catch (Exception e) {
+                        log.warn("Failed to analyze service {}: {}", service.getName(), e.getMessage());
+                        return null;
+                    }
+                })
+                .filter(Objects::nonNull)
+                .iterator();
+        BatchGenerationReport report = codeGenerationPipeline.generate(recommendations);
+
+        log.info("Generated artifacts for {}/{} services", report.getSucceeded(), report.getTotal());
+        return ResponseEntity.ok(report);
+    }
+
+    /**
+     * Where each service stands in the continuous optimization loop.
+     */
+    @Operation(summary = "Optimization Loop Status", description = "Per-service phase, pending changes and stable windows of the continuous optimization loop")
+    @GetMapping("/optimization-loop")
+    public ResponseEntity<List<OptimizationStatus>> getOptimizationLoopStatus() {
+        return ResponseEntity.ok(optimizationLoopService.statuses());
+    }
 
-        return ResponseEntity.ok(history);
+    /**
+     * Get analysis history for a service, newest first, one keyset page at a time.
+     * Use /api/export/analysis-history for the complete history.
+     */
+    @GetMapping("/analysis-history/{serviceName}")
+    public ResponseEntity<List<AnalysisResult>> getAnalysisHistory(
+            @PathVariable String serviceName,
+            @Parameter(description = "Page size (default 100, max 1000)") @RequestParam(required = false) Integer limit,
+            @Parameter(description = "Cursor from the previous page's X-Next-Cursor header")
+            @RequestParam(required = false) String cursor) {
+        HistoryPage<AnalysisResult> page = historyExportService.analysisHistoryPage(serviceName, cursor, limit);
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (page.nextCursor() != null) {
+            String next = ServletUriComponentsBuilder.fromCurrentRequest()
+                    .replaceQueryParam("cursor", page.nextCursor())
+                    .toUriString();
+            response.header("X-Next-Cursor", page.nextCursor())
+                    .header(HttpHeaders.LINK, "<" + next + ">; rel=\"next\"");
+        }
+        return response.body(page.items());
     }
 
     /**
@@ -123,6 +201,34 @@ public class AnalyzerController {
         return ResponseEntity.ok(metrics);
     }
 
+    /**
+     * Get latency percentiles of the busiest routes from the latest scrape
+     */
+    @GetMapping("/metrics/{serviceName}/endpoints")
+    public ResponseEntity<Map<String, Object>> getEndpointLatency(@PathVariable String serviceName) {
+        return ResponseEntity.ok(metricsCollector.getEndpointLatency(serviceName));
+    }
+
+    /**
+     * Get the busiest routes of a service with request rate, error rate and latency
+     */
+    @GetMapping("/hot-endpoints/{serviceName}")
+    public ResponseEntity<HotEndpointReport> getHotEndpoints(@PathVariable String serviceName) {
+        return hotEndpointTracker.report(serviceName)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    /**
+     * Get GC pauses, allocation rate and memory pool usage of a service over the recent window
+     */
+    @GetMapping("/gc-telemetry/{serviceName}")
+    public ResponseEntity<GcTelemetryReport> getGcTelemetry(@PathVariable String serviceName) {
+        return gcTelemetryTracker.report(serviceName)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+
     /**
      * Trigger manual metrics collection
      */
@@ -364,42 +470,14 @@ public class AnalyzerController {
         }
 
         try {
-            // Get latest analysis data
-            Optional<AnalysisResult> latestAnalysis = analyzerService.getLatestAnalysis(serviceName);
-            CostForecast costForecast = costPredictionService.predictCosts(serviceName, 30);
-
-            double cpuUsage = latestAnalysis.map(a -> a.getP95CpuUsage() != null ? a.getP95CpuUsage() : 0.0).orElse(0.0);
-            double memoryUsage = latestAnalysis.map(a -> a.getP95MemoryUsage() != null ? a.getP95MemoryUsage() : 0.0).orElse(0.0);
-            double monthlyCost = costForecast.getCurrentMonthlyCost();
-            double savings = latestAnalysis.map(AnalysisResult::getEstimatedMonthlySavings).orElse(0.0);
-            double confidence = latestAnalysis.map(AnalysisResult::getConfidenceScore).orElse(0.0);
-
-            // Build detected issues map
-            Map<String, String> detectedIssues = new HashMap<>();
-            latestAnalysis.ifPresent(analysis -> {
-                if (Boolean.TRUE.equals(analysis.getCpuThrottlingDetected())) {
-                    detectedIssues.put("CPU Throttling", "CPU usage exceeds limits");
-                }
-                if (Boolean.TRUE.equals(analysis.getMemoryLeakDetected())) {
-                    detectedIssues.put("Memory Leak", "Memory shows continuous growth");
-                }
-                if (Boolean.TRUE.equals(analysis.getConnectionPoolExhaustion())) {
-                    detectedIssues.put("Connection Pool", "Pool frequently exhausted");
-                }
-            });
+            InsightInputs inputs = insightInputsCollector.collect(serviceName);
 
             String geminiInsight = geminiInsightService.generateOptimizationInsight(
-                    serviceName, cpuUsage, memoryUsage, monthlyCost, savings, confidence, detectedIssues);
+                    serviceName, inputs.cpuUsage(), inputs.memoryUsage(), inputs.monthlyCost(),
+                    inputs.savings(), inputs.confidence(), inputs.detectedIssues());
 
             response.put("insight", geminiInsight);
-            response.put("analysisData", Map.of(
-                    "cpuUsagePercent", cpuUsage,
-                    "memoryUsageMb", memoryUsage,
-                    "monthlyCost", monthlyCost,
-                    "estimatedSavings", savings,
-                    "confidenceScore", confidence,
-                    "detectedIssues", detectedIssues
-            ));
+            response.put("analysisData", inputs.toMap());
 
             log.info("Gemini insight generated successfully for {}", serviceName);
 
@@ -412,6 +490,63 @@ public class AnalyzerController {
         return ResponseEntity.ok(response);
     }
 
+    @Operation(summary = "Stream AI Optimization Insight",
+            description = "Stream the optimization report as Server-Sent Events while the model generates it. " +
+                    "Emits 'delta' events with text chunks, then a single 'done' or 'error' event.")
+    @ApiResponse(responseCode = "200", description = "Event stream opened")
+    @GetMapping(value = "/gemini/insight/{serviceName}/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public Flux<ServerSentEvent<String>> streamGeminiInsight(
+            @Parameter(description = "Service name to analyze") @PathVariable String serviceName) {
+
+        log.info("Streaming AI insight requested for {}", serviceName);
+
+        // Analysis lookups hit JPA, so they run off the request thread
+        return Mono.fromCallable(() -> insightInputsCollector.collect(serviceName))
+                .subscribeOn(Schedulers.boundedElastic())
+                .flatMapMany(inputs -> geminiInsightService.streamOptimizationInsight(
+                        serviceName, inputs.cpuUsage(), inputs.memoryUsage(), inputs.monthlyCost(),
+                        inputs.savings(), inputs.confidence(), inputs.detectedIssues()))
+                .map(chunk -> ServerSentEvent.builder(chunk).event("delta").build())
+                .concatWithValues(ServerSentEvent.builder("").event("done").build())
+                .onErrorResume(e -> {
+                    log.warn("AI insight stream failed for {}: {}", serviceName, e.getMessage());
+                    return Flux.just(ServerSentEvent.builder(String.valueOf(e.getMessage())).event("error").build());
+                });
+    }
+
+    @Operation(summary = "List Pre-generated AI Insights",
+            description = "Latest insight per service produced by the batch insight job")
+    @ApiResponse(responseCode = "200", description = "Pre-generated insights")
+    @GetMapping("/gemini/insights")
+    public ResponseEntity<Map<String, Object>> getPregeneratedInsights() {
+        List<Map<String, Object>> insights = pregeneratedInsightStore.findLatestPerService().stream()
+                .map(insight -> Map.<String, Object>of(
+                        "serviceName", insight.getServiceName(),
+                        "insight", insight.getInsight(),
+                        "generatedAt", insight.getGeneratedAt().toString(),
+                        "batchId", insight.getBatchId()))
+                .toList();
+
+        Map<String, Object> response = new HashMap<>();
+        response.put("count", insights.size());
+        response.put("insights", insights);
+        return ResponseEntity.ok(response);
+    }
+
+    @Operation(summary = "Run Batch AI Insight Generation",
+            description = "Generate insights for all known services now, packing several services into each model call")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Batch run finished"),
+            @ApiResponse(responseCode = "503", description = "AI API not configured")
+    })
+    @PostMapping("/gemini/insights/batch")
+    public ResponseEntity<Map<String, Object>> runBatchInsights() {
+        if (!geminiInsightService.isConfigured()) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(Map.of("error", "AI API is not configured"));
+        }
+        return ResponseEntity.ok(batchInsightService.generateAll().toMap());
+    }
+
     @Operation(summary = "Get AI Status", description = "Check if AI API is configured and available")
     @ApiResponse(responseCode = "200", description = "Status retrieved")
     @GetMapping("/gemini/status")
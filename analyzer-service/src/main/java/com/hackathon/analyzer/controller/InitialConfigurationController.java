@@ -1,9 +1,9 @@
 package com.hackathon.analyzer.controller;
 
-import com.hackathon.analyzer.model.ResourceRecommendation;
 import com.hackathon.analyzer.service.InitialConfigurationService;
 import com.hackathon.analyzer.service.InitialConfigurationService.ServiceType;
 import com.hackathon.analyzer.service.InitialConfigurationService.LoadLevel;
+import com.hackathon.recommendation.ResourceRecommendation;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
@@ -1,5 +1,7 @@
 package com.hackathon.analyzer.discovery;
 
+import com.hackathon.analyzer.cluster.ScheduledJobCoordinator;
+import com.hackathon.analyzer.config.OutboundWebClients;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
@@ -19,7 +21,8 @@ import java.util.concurrent.ConcurrentHashMap;
 @RequiredArgsConstructor
 public class ServiceDiscoveryService {
 
-    private final WebClient.Builder webClientBuilder;
+    private final OutboundWebClients webClients;
+    private final ScheduledJobCoordinator jobCoordinator;
 
     // Thread-safe registry of discovered services
     private final Map<String, ServiceInfo> serviceRegistry = new ConcurrentHashMap<>();
@@ -64,7 +67,7 @@ public class ServiceDiscoveryService {
      */
     @Scheduled(fixedDelay = 30000, initialDelay = 10000)
     public void scanForServices() {
-        if (!scanEnabled) {
+        if (!scanEnabled || !jobCoordinator.shouldRun(ScheduledJobCoordinator.SCAN_FOR_SERVICES)) {
             return;
         }
 
@@ -116,9 +119,7 @@ public class ServiceDiscoveryService {
      */
     private boolean checkActuatorEndpoint(String baseUrl) {
         try {
-            WebClient webClient = webClientBuilder.build();
-
-            String response = webClient.get()
+            String response = webClients.probe().get()
                     .uri(baseUrl + "/actuator/health")
                     .retrieve()
                     .bodyToMono(String.class)
@@ -137,7 +138,7 @@ public class ServiceDiscoveryService {
      */
     private String discoverServiceName(String baseUrl, int port) {
         try {
-            WebClient webClient = webClientBuilder.build();
+            WebClient webClient = webClients.probe();
 
             String infoResponse = webClient.get()
                     .uri(baseUrl + "/actuator/info")
@@ -301,11 +302,14 @@ public class ServiceDiscoveryService {
     }
 
     /**
-     * Health check all registered services
+     * Health check registered services (all of them, or only this replica's shard)
      */
     @Scheduled(fixedDelay = 15000, initialDelay = 5000)
     public void healthCheckServices() {
-        for (ServiceInfo service : serviceRegistry.values()) {
+        List<ServiceInfo> targets = jobCoordinator.selectTargets(
+                ScheduledJobCoordinator.HEALTH_CHECK_SERVICES, serviceRegistry.values());
+
+        for (ServiceInfo service : targets) {
             boolean healthy = checkActuatorEndpoint(service.getUrl());
             service.setHealthy(healthy);
 
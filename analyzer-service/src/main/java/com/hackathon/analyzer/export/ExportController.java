@@ -0,0 +1,84 @@
+package com.hackathon.analyzer.export;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.IOException;
+import java.time.Instant;
+
+/**
+ * Full-history downloads, streamed row by row as NDJSON or CSV.
+ */
+@RestController
+@RequestMapping("/api/export")
+@RequiredArgsConstructor
+@Tag(name = "Export", description = "Streaming NDJSON/CSV export of analysis and metrics history")
+public class ExportController {
+
+    private final HistoryExportService exportService;
+
+    @Operation(summary = "Export Analysis History",
+               description = "Stream every analysis result for a service in the time range, oldest first")
+    @GetMapping("/analysis-history/{serviceName}")
+    public void exportAnalysisHistory(
+            @PathVariable String serviceName,
+            @Parameter(description = "ndjson (default) or csv") @RequestParam(required = false) String format,
+            @Parameter(description = "Inclusive start (RFC 3339, default: beginning of history)")
+            @RequestParam(required = false) Instant from,
+            @Parameter(description = "Exclusive end (RFC 3339, default: now)")
+            @RequestParam(required = false) Instant to,
+            HttpServletResponse response) throws IOException {
+        ExportFormat exportFormat = ExportFormat.fromParam(format);
+        Instant start = from != null ? from : Instant.EPOCH;
+        Instant end = to != null ? to : Instant.now();
+        validateRange(start, end);
+
+        prepare(response, exportFormat, serviceName + "-analysis-history");
+        exportService.exportAnalysisHistory(serviceName, start, end, exportFormat, response.getOutputStream());
+    }
+
+    @Operation(summary = "Export Metrics",
+               description = "Stream every stored metrics snapshot for a service in the time range, oldest first")
+    @GetMapping("/metrics/{serviceName}")
+    public void exportMetrics(
+            @PathVariable String serviceName,
+            @Parameter(description = "ndjson (default) or csv") @RequestParam(required = false) String format,
+            @Parameter(description = "Inclusive start (RFC 3339, default: beginning of history)")
+            @RequestParam(required = false) Instant from,
+            @Parameter(description = "Exclusive end (RFC 3339, default: now)")
+            @RequestParam(required = false) Instant to,
+            HttpServletResponse response) throws IOException {
+        ExportFormat exportFormat = ExportFormat.fromParam(format);
+        Instant start = from != null ? from : Instant.EPOCH;
+        Instant end = to != null ? to : Instant.now();
+        validateRange(start, end);
+
+        prepare(response, exportFormat, serviceName + "-metrics");
+        exportService.exportMetrics(serviceName, start, end, exportFormat, response.getOutputStream());
+    }
+
+    private static void validateRange(Instant from, Instant to) {
+        if (!from.isBefore(to)) {
+            throw new IllegalArgumentException("from must be before to");
+        }
+    }
+
+    private static void prepare(HttpServletResponse response, ExportFormat format, String name) {
+        response.setContentType(format.contentType());
+        response.setCharacterEncoding("UTF-8");
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                .filename(name + "." + format.extension())
+                .build()
+                .toString());
+    }
+}
@@ -0,0 +1,111 @@
+package com.hackathon.analyzer.export;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hackathon.analyzer.config.ExportProperties;
+import com.hackathon.analyzer.model.AnalysisResult;
+import com.hackathon.analyzer.model.MetricsSnapshot;
+import com.hackathon.analyzer.repository.AnalysisResultRepository;
+import com.hackathon.analyzer.repository.MetricsSnapshotRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Window;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.Instant;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * Bounded reads of analysis and metric history.
+ *
+ * Pages use keyset queries, so fetching page N costs the same as page 1.
+ * Exports stream rows from a database cursor straight to the response and
+ * detach each entity once it is written, so memory stays flat however
+ * long the history is.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class HistoryExportService {
+
+    static final String ANALYSIS_TIMESTAMP = "analysisTimestamp";
+
+    private final AnalysisResultRepository analysisRepository;
+    private final MetricsSnapshotRepository metricsRepository;
+    private final EntityManager entityManager;
+    private final ObjectMapper objectMapper;
+    private final ExportProperties properties;
+    private final MeterRegistry meterRegistry;
+
+    /**
+     * Analysis results newest first, one page after {@code cursor}.
+     */
+    @Transactional(readOnly = true)
+    public HistoryPage<AnalysisResult> analysisHistoryPage(String serviceName, String cursor, Integer limit) {
+        Window<AnalysisResult> window = analysisRepository.findByServiceNameOrderByAnalysisTimestampDescIdDesc(
+                serviceName, KeysetCursor.decode(cursor, ANALYSIS_TIMESTAMP), Limit.of(pageSize(limit)));
+        return new HistoryPage<>(window.getContent(), KeysetCursor.next(window, ANALYSIS_TIMESTAMP));
+    }
+
+    @Transactional(readOnly = true)
+    public long exportAnalysisHistory(String serviceName, Instant from, Instant to,
+                                      ExportFormat format, OutputStream out) throws IOException {
+        try (Stream<AnalysisResult> rows = analysisRepository.streamHistory(serviceName, from, to)) {
+            return write("analysis", rows, format, out);
+        }
+    }
+
+    @Transactional(readOnly = true)
+    public long exportMetrics(String serviceName, Instant from, Instant to,
+                              ExportFormat format, OutputStream out) throws IOException {
+        try (Stream<MetricsSnapshot> rows = metricsRepository.streamHistory(serviceName, from, to)) {
+            return write("metrics", rows, format, out);
+        }
+    }
+
+    int pageSize(Integer requested) {
+        if (requested == null) {
+            return properties.getDefaultPageSize();
+        }
+        return Math.max(1, Math.min(requested, properties.getMaxPageSize()));
+    }
+
+    private long write(String type, Stream<?> rows, ExportFormat format, OutputStream out) throws IOException {
+        Timer.Sample timer = Timer.start(meterRegistry);
+        long count = 0;
+        try (RowWriter writer = RowWriter.create(format, objectMapper, out)) {
+            Iterator<?> iterator = rows.iterator();
+            while (iterator.hasNext()) {
+                Object row = iterator.next();
+                writer.write(row);
+                // Written rows must not accumulate in the persistence context
+                entityManager.detach(row);
+                if (++count % properties.getFlushEveryRows() == 0) {
+                    writer.flush();
+                }
+            }
+        } finally {
+            timer.stop(Timer.builder("analyzer.export.duration")
+                    .description("Time spent streaming a history export")
+                    .tag("type", type)
+                    .tag("format", format.extension())
+                    .register(meterRegistry));
+            Counter.builder("analyzer.export.rows")
+                    .description("Rows written by history exports")
+                    .tag("type", type)
+                    .tag("format", format.extension())
+                    .register(meterRegistry)
+                    .increment(count);
+        }
+        log.debug("Exported {} {} rows as {}", count, type, format.extension());
+        return count;
+    }
+}
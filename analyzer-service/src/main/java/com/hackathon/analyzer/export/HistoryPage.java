@@ -0,0 +1,9 @@
+package com.hackathon.analyzer.export;
+
+import java.util.List;
+
+/**
+ * One keyset page; {@code nextCursor} is {@code null} on the last page.
+ */
+public record HistoryPage<T>(List<T> items, String nextCursor) {
+}
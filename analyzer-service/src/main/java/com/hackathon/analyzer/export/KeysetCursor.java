@@ -0,0 +1,66 @@
+package com.hackathon.analyzer.export;
+
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Window;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Opaque page cursor for keyset queries ordered by a timestamp and the id.
+ *
+ * The token is the last row's (timestamp, id) pair, base64url-encoded, so
+ * the next page is a range scan on the index rather than an OFFSET that
+ * re-reads every earlier row.
+ */
+public final class KeysetCursor {
+
+    private static final String ID = "id";
+    private static final char SEPARATOR = '|';
+
+    private KeysetCursor() {
+    }
+
+    /**
+     * Position for the page after {@code token}, or the first page when the
+     * token is absent.
+     */
+    public static ScrollPosition decode(String token, String timestampProperty) {
+        if (token == null || token.isBlank()) {
+            return ScrollPosition.keyset();
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token.trim()), StandardCharsets.UTF_8);
+            int split = raw.lastIndexOf(SEPARATOR);
+            if (split < 0) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+            Map<String, Object> keys = new LinkedHashMap<>();
+            keys.put(timestampProperty, Instant.parse(raw.substring(0, split)));
+            keys.put(ID, Long.parseLong(raw.substring(split + 1)));
+            return ScrollPosition.forward(keys);
+        } catch (DateTimeParseException | IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid cursor", e);
+        }
+    }
+
+    /**
+     * Cursor for the page after {@code window}, or {@code null} on the last page.
+     */
+    public static String next(Window<?> window, String timestampProperty) {
+        if (window.isEmpty() || !window.hasNext()) {
+            return null;
+        }
+        if (!(window.positionAt(window.size() - 1) instanceof KeysetScrollPosition position)) {
+            throw new IllegalStateException("Window was not produced by a keyset query");
+        }
+        Map<String, ?> keys = position.getKeys();
+        String raw = keys.get(timestampProperty).toString() + SEPARATOR + keys.get(ID);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,130 @@
+package com.hackathon.analyzer.export;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * Writes one entity per line. Rows are serialized with the application's
+ * ObjectMapper, so field names and timestamp formats match the JSON API.
+ */
+abstract class RowWriter implements AutoCloseable {
+
+    static RowWriter create(ExportFormat format, ObjectMapper mapper, OutputStream out) throws IOException {
+        return switch (format) {
+            case NDJSON -> new Ndjson(mapper, out);
+            case CSV -> new Csv(mapper, out);
+        };
+    }
+
+    abstract void write(Object row) throws IOException;
+
+    abstract void flush() throws IOException;
+
+    @Override
+    public abstract void close() throws IOException;
+
+    private static final class Ndjson extends RowWriter {
+
+        private final ObjectWriter rowWriter;
+        private final JsonGenerator generator;
+
+        Ndjson(ObjectMapper mapper, OutputStream out) throws IOException {
+            // Flushing is done in batches by the caller, not per row
+            this.rowWriter = mapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+            this.generator = mapper.getFactory().createGenerator(out)
+                    .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            generator.setRootValueSeparator(null);
+        }
+
+        @Override
+        void write(Object row) throws IOException {
+            rowWriter.writeValue(generator, row);
+            generator.writeRaw('\n');
+        }
+
+        @Override
+        void flush() throws IOException {
+            generator.flush();
+        }
+
+        @Override
+        public void close() throws IOException {
+            generator.close();
+        }
+    }
+
+    /**
+     * RFC 4180 CSV. The header is taken from the first row's properties.
+     */
+    private static final class Csv extends RowWriter {
+
+        private final ObjectMapper mapper;
+        private final Writer writer;
+        private List<String> columns;
+
+        Csv(ObjectMapper mapper, OutputStream out) {
+            this.mapper = mapper;
+            this.writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        }
+
+        @Override
+        void write(Object row) throws IOException {
+            ObjectNode node = mapper.valueToTree(row);
+            if (columns == null) {
+                columns = new ArrayList<>();
+                Iterator<String> names = node.fieldNames();
+                names.forEachRemaining(columns::add);
+                writeLine(columns);
+            }
+            List<String> values = new ArrayList<>(columns.size());
+            for (String column : columns) {
+                JsonNode value = node.get(column);
+                values.add(value == null || value.isNull() ? ""
+                        : value.isValueNode() ? value.asText() : value.toString());
+            }
+            writeLine(values);
+        }
+
+        @Override
+        void flush() throws IOException {
+            writer.flush();
+        }
+
+        @Override
+        public void close() throws IOException {
+            writer.flush();
+        }
+
+        private void writeLine(List<String> values) throws IOException {
+            for (int i = 0; i < values.size(); i++) {
+                if (i > 0) {
+                    writer.write(',');
+                }
+                writer.write(escape(values.get(i)));
+            }
+            writer.write("\r\n");
+        }
+    }
+
+    static String escape(String text) {
+        if (text.indexOf(',') < 0 && text.indexOf('"') < 0
+                && text.indexOf('\n') < 0 && text.indexOf('\r') < 0) {
+            return text;
+        }
+        return '"' + text.replace("\"", "\"\"") + '"';
+    }
+}
@@ -0,0 +1,77 @@
+package com.hackathon.analyzer.ingest;
+
+import com.hackathon.analyzer.ratelimit.ClientKeyResolver;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.IOException;
+import java.util.Map;
+
+@Slf4j
+@RestController
+@RequestMapping("/api/ingest")
+@RequiredArgsConstructor
+@Tag(name = "Ingestion", description = "Push endpoints for agents the scrape loop cannot reach")
+public class IngestController {
+
+    private final IngestService ingestService;
+    private final ClientKeyResolver clientKeyResolver;
+
+    @Operation(summary = "Prometheus Remote Write",
+               description = "Accept a remote-write 1.0 request (snappy-compressed protobuf WriteRequest). " +
+                           "Series are attributed to a service by their service, application or job label.")
+    @ApiResponses({
+        @ApiResponse(responseCode = "200", description = "Batch stored"),
+        @ApiResponse(responseCode = "400", description = "Malformed batch"),
+        @ApiResponse(responseCode = "413", description = "Batch too large"),
+        @ApiResponse(responseCode = "415", description = "Missing snappy content encoding"),
+        @ApiResponse(responseCode = "429", description = "Tenant sample quota exceeded")
+    })
+    @PostMapping(value = "/remote-write", consumes = "application/x-protobuf")
+    public ResponseEntity<Map<String, Object>> remoteWrite(
+            HttpServletRequest request,
+            @RequestHeader(value = HttpHeaders.CONTENT_ENCODING, required = false) String contentEncoding)
+            throws IOException {
+        if (!"snappy".equalsIgnoreCase(contentEncoding)) {
+            throw new IngestException(HttpStatus.UNSUPPORTED_MEDIA_TYPE, "Remote write requires Content-Encoding: snappy");
+        }
+        IngestService.IngestResult result =
+                ingestService.ingestRemoteWrite(request.getInputStream(), clientKeyResolver.resolve(request));
+        return ResponseEntity.ok(result.toMap());
+    }
+
+    @Operation(summary = "Line-delimited JSON",
+               description = "Accept one JSON sample per line ({service, name, value, timestamp}), " +
+                           "optionally with Content-Encoding: gzip.")
+    @ApiResponses({
+        @ApiResponse(responseCode = "200", description = "Batch stored"),
+        @ApiResponse(responseCode = "400", description = "Malformed batch"),
+        @ApiResponse(responseCode = "413", description = "Batch too large"),
+        @ApiResponse(responseCode = "429", description = "Tenant sample quota exceeded")
+    })
+    @PostMapping(value = "/ndjson", consumes = {"application/x-ndjson", "application/jsonl"})
+    public ResponseEntity<Map<String, Object>> ndjson(
+            HttpServletRequest request,
+            @RequestHeader(value = HttpHeaders.CONTENT_ENCODING, required = false) String contentEncoding)
+            throws IOException {
+        boolean gzip = "gzip".equalsIgnoreCase(contentEncoding);
+        if (!gzip && contentEncoding != null && !"identity".equalsIgnoreCase(contentEncoding)) {
+            throw new IngestException(HttpStatus.UNSUPPORTED_MEDIA_TYPE, "Unsupported Content-Encoding: " + contentEncoding);
+        }
+        IngestService.IngestResult result =
+                ingestService.ingestNdjson(request.getInputStream(), gzip, clientKeyResolver.resolve(request));
+        return ResponseEntity.ok(result.toMap());
+    }
+}
@@ -0,0 +1,24 @@
+package com.hackathon.analyzer.ingest;
+
+import lombok.Getter;
+import org.springframework.http.HttpStatus;
+
+/**
+ * A push batch that cannot be accepted, with the status to report.
+ */
+@Getter
+public class IngestException extends RuntimeException {
+
+    private final HttpStatus status;
+    private final long retryAfterSeconds;
+
+    public IngestException(HttpStatus status, String message) {
+        this(status, message, 0);
+    }
+
+    public IngestException(HttpStatus status, String message, long retryAfterSeconds) {
+        super(message);
+        this.status = status;
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+}
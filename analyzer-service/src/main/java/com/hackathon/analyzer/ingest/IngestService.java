@@ -0,0 +1,219 @@
+package com.hackathon.analyzer.ingest;
+
+import com.hackathon.analyzer.collector.SnapshotAssembler;
+import com.hackathon.analyzer.collector.SnapshotSink;
+import com.hackathon.analyzer.config.IngestProperties;
+import com.hackathon.analyzer.model.MetricsSnapshot;
+import com.hackathon.analyzer.ratelimit.ClientRateLimiter;
+import com.hackathon.analyzer.ratelimit.RateLimitDecision;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Accepts pushed sample batches and feeds them into the same storage and
+ * anomaly pipeline as scraped data.
+ *
+ * Samples are validated, charged against the tenant's quota, grouped into
+ * one snapshot per service and second, and handed to {@link SnapshotSink}.
+ * Only metrics the snapshot model uses are kept; other valid samples are
+ * counted as ignored.
+ */
+@Slf4j
+@Service
+public class IngestService {
+
+    private static final Pattern METRIC_NAME = Pattern.compile("[a-zA-Z_:][a-zA-Z0-9_:]*");
+    private static final Pattern SERVICE_NAME = Pattern.compile("[a-zA-Z0-9][a-zA-Z0-9._-]{0,62}");
+
+    private final SnapshotSink snapshotSink;
+    private final ClientRateLimiter rateLimiter;
+    private final IngestProperties properties;
+    private final MeterRegistry meterRegistry;
+    private final Map<String, Counter> counters = new ConcurrentHashMap<>();
+
+    public IngestService(SnapshotSink snapshotSink, ClientRateLimiter rateLimiter, IngestProperties properties,
+                         MeterRegistry meterRegistry) {
+        this.snapshotSink = snapshotSink;
+        this.rateLimiter = rateLimiter;
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * Ingest a Prometheus remote-write request (snappy-compressed protobuf).
+     */
+    public IngestResult ingestRemoteWrite(InputStream body, String tenant) {
+        return ingest(Format.REMOTE_WRITE, tenant, () -> {
+            byte[] compressed = readBody(body);
+            recordPayload(Format.REMOTE_WRITE, compressed.length);
+            return RemoteWriteDecoder.decode(compressed, properties.getMaxDecompressedSize().toBytes(),
+                    properties.getMaxSamplesPerRequest(), properties.getServiceLabels());
+        });
+    }
+
+    /**
+     * Ingest line-delimited JSON, optionally gzip-compressed.
+     */
+    public IngestResult ingestNdjson(InputStream body, boolean gzip, String tenant) {
+        return ingest(Format.NDJSON, tenant, () -> {
+            LimitedInputStream raw = new LimitedInputStream(body, properties.getMaxBodySize().toBytes(), "Request body");
+            InputStream decoded = raw;
+            if (gzip) {
+                try {
+                    decoded = new LimitedInputStream(new GZIPInputStream(raw),
+                            properties.getMaxDecompressedSize().toBytes(), "Decompressed body");
+                } catch (IOException e) {
+                    throw new IngestException(HttpStatus.BAD_REQUEST, "Malformed gzip body: " + e.getMessage());
+                }
+            }
+            List<Sample> samples = NdjsonDecoder.decode(decoded, properties.getMaxSamplesPerRequest(),
+                    properties.getServiceLabels(), System.currentTimeMillis());
+            recordPayload(Format.NDJSON, raw.bytesRead());
+            return samples;
+        });
+    }
+
+    private IngestResult ingest(Format format, String tenant, Decoder decoder) {
+        if (!properties.isEnabled()) {
+            throw new IngestException(HttpStatus.SERVICE_UNAVAILABLE, "Push ingestion is disabled");
+        }
+        Timer.Sample timer = Timer.start(meterRegistry);
+        try {
+            List<Sample> samples = decoder.decode();
+
+            RateLimitDecision quota = rateLimiter.tryAcquire(properties.getQuotaTier(), tenant,
+                    Math.max(1, samples.size()));
+            if (!quota.allowed()) {
+                throw new IngestException(HttpStatus.TOO_MANY_REQUESTS,
+                        "Sample quota exceeded for " + tenant, quota.retryAfterSeconds());
+            }
+
+            IngestResult result = store(samples);
+            counter("analyzer.ingest.samples", format, "result", "accepted").increment(result.accepted());
+            counter("analyzer.ingest.samples", format, "result", "ignored").increment(result.ignored());
+            counter("analyzer.ingest.samples", format, "result", "invalid").increment(result.invalid());
+            counter("analyzer.ingest.snapshots", format, null, null).increment(result.snapshots());
+            log.debug("Ingested {} batch from {}: {}", format.tag, tenant, result);
+            return result;
+        } catch (IngestException e) {
+            counter("analyzer.ingest.rejected", format, "status", String.valueOf(e.getStatus().value())).increment();
+            throw e;
+        } finally {
+            timer.stop(Timer.builder("analyzer.ingest.duration")
+                    .description("Time to decode, validate and store one pushed batch")
+                    .tag("format", format.tag)
+                    .register(meterRegistry));
+        }
+    }
+
+    private IngestResult store(List<Sample> samples) {
+        long now = System.currentTimeMillis();
+        long oldest = now - properties.getMaxSampleAge().toMillis();
+        long newest = now + properties.getMaxFutureSkew().toMillis();
+
+        // service -> epoch second -> metric -> value
+        Map<String, TreeMap<Long, Map<String, Double>>> grouped = new HashMap<>();
+        int accepted = 0;
+        int ignored = 0;
+        int invalid = 0;
+        for (Sample sample : samples) {
+            if (sample.service() == null || !SERVICE_NAME.matcher(sample.service()).matches()
+                    || sample.name() == null || !METRIC_NAME.matcher(sample.name()).matches()
+                    || sample.timestampMs() < oldest || sample.timestampMs() > newest) {
+                invalid++;
+            } else if (!Double.isFinite(sample.value()) || !SnapshotAssembler.METRIC_NAMES.contains(sample.name())) {
+                // Includes remote-write staleness markers (NaN)
+                ignored++;
+            } else {
+                grouped.computeIfAbsent(sample.service(), s -> new TreeMap<>())
+                        .computeIfAbsent(Math.floorDiv(sample.timestampMs(), 1000L), t -> new HashMap<>())
+                        .put(sample.name(), sample.value());
+                accepted++;
+            }
+        }
+
+        List<MetricsSnapshot> snapshots = new ArrayList<>();
+        grouped.forEach((service, bySecond) -> bySecond.forEach((second, metrics) ->
+                snapshots.add(SnapshotAssembler.assemble(service, Instant.ofEpochSecond(second), metrics))));
+        snapshotSink.storeAll(snapshots);
+
+        return new IngestResult(samples.size(), accepted, ignored, invalid, snapshots.size());
+    }
+
+    private byte[] readBody(InputStream body) {
+        try (InputStream in = new LimitedInputStream(body, properties.getMaxBodySize().toBytes(), "Request body")) {
+            return in.readAllBytes();
+        } catch (IOException e) {
+            throw new IngestException(HttpStatus.BAD_REQUEST, "Could not read request body: " + e.getMessage());
+        }
+    }
+
+    private void recordPayload(Format format, long bytes) {
+        DistributionSummary.builder("analyzer.ingest.payload")
+                .description("Size of pushed batches as received")
+                .baseUnit("bytes")
+                .tag("format", format.tag)
+                .register(meterRegistry)
+                .record(bytes);
+    }
+
+    private Counter counter(String name, Format format, String tagKey, String tagValue) {
+        String key = name + '|' + format.tag + '|' + tagValue;
+        return counters.computeIfAbsent(key, k -> {
+            Counter.Builder builder = Counter.builder(name).tag("format", format.tag);
+            if (tagKey != null) {
+                builder.tag(tagKey, tagValue);
+            }
+            return builder.register(meterRegistry);
+        });
+    }
+
+    private enum Format {
+        REMOTE_WRITE("remote_write"),
+        NDJSON("ndjson");
+
+        private final String tag;
+
+        Format(String tag) {
+            this.tag = tag;
+        }
+    }
+
+    @FunctionalInterface
+    private interface Decoder {
+        List<Sample> decode();
+    }
+
+    /**
+     * Outcome of one pushed batch.
+     */
+    public record IngestResult(int received, int accepted, int ignored, int invalid, int snapshots) {
+
+        public Map<String, Object> toMap() {
+            Map<String, Object> map = new HashMap<>();
+            map.put("received", received);
+            map.put("accepted", accepted);
+            map.put("ignored", ignored);
+            map.put("invalid", invalid);
+            map.put("snapshots", snapshots);
+            return map;
+        }
+    }
+}
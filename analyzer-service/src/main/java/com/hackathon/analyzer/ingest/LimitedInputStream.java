@@ -0,0 +1,65 @@
+package com.hackathon.analyzer.ingest;
+
+import org.springframework.http.HttpStatus;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Fails with 413 as soon as more than {@code limit} bytes are read, so
+ * oversized or highly compressed bodies are never buffered in full.
+ */
+final class LimitedInputStream extends FilterInputStream {
+
+    private final long limit;
+    private final String what;
+    private long count;
+
+    LimitedInputStream(InputStream in, long limit, String what) {
+        super(in);
+        this.limit = limit;
+        this.what = what;
+    }
+
+    @Override
+    public int read() throws IOException {
+        int b = super.read();
+        if (b >= 0) {
+            advance(1);
+        }
+        return b;
+    }
+
+    @Override
+    public int read(byte[] buffer, int offset, int length) throws IOException {
+        int n = super.read(buffer, offset, length);
+        if (n > 0) {
+            advance(n);
+        }
+        return n;
+    }
+
+    @Override
+    public long skip(long n) throws IOException {
+        long skipped = super.skip(n);
+        advance(skipped);
+        return skipped;
+    }
+
+    long bytesRead() {
+        return count;
+    }
+
+    @Override
+    public boolean markSupported() {
+        return false;
+    }
+
+    private void advance(long n) {
+        count += n;
+        if (count > limit) {
+            throw new IngestException(HttpStatus.PAYLOAD_TOO_LARGE, what + " exceeds " + limit + " bytes");
+        }
+    }
+}
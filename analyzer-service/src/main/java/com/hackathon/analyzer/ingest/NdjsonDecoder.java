@@ -0,0 +1,72 @@
+package com.hackathon.analyzer.ingest;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import org.springframework.http.HttpStatus;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Decodes line-delimited JSON, one sample per line:
+ *
+ * <pre>
+ * {"service":"batch-job","name":"process_cpu_usage","value":0.42,"timestamp":1760000000000}
+ * </pre>
+ *
+ * {@code service} and {@code name} may instead be given as labels
+ * ({@code "labels":{"job":"batch-job","__name__":"process_cpu_usage"}}).
+ * A missing timestamp means "now".
+ */
+final class NdjsonDecoder {
+
+    private static final ObjectReader LINE_READER = new ObjectMapper()
+            .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES)
+            .readerFor(Line.class);
+
+    private NdjsonDecoder() {
+    }
+
+    static List<Sample> decode(InputStream body, int maxSamples, List<String> serviceLabels, long nowMs) {
+        List<Sample> samples = new ArrayList<>();
+        try (MappingIterator<Line> lines = LINE_READER.readValues(body)) {
+            while (lines.hasNextValue()) {
+                Line line = lines.nextValue();
+                if (samples.size() >= maxSamples) {
+                    throw new IngestException(HttpStatus.PAYLOAD_TOO_LARGE, "Batch exceeds " + maxSamples + " samples");
+                }
+                if (line.value() == null) {
+                    throw new IngestException(HttpStatus.BAD_REQUEST,
+                            "Missing value on line " + lines.getCurrentLocation().getLineNr());
+                }
+                samples.add(new Sample(
+                        line.service() != null ? line.service() : fromLabels(line.labels(), serviceLabels),
+                        line.name() != null ? line.name() : fromLabels(line.labels(), List.of("__name__")),
+                        line.value(),
+                        line.timestamp() != null ? line.timestamp() : nowMs));
+            }
+        } catch (JsonProcessingException e) {
+            throw new IngestException(HttpStatus.BAD_REQUEST, "Malformed NDJSON on line "
+                    + (e.getLocation() != null ? e.getLocation().getLineNr() : -1) + ": " + e.getOriginalMessage());
+        } catch (IOException e) {
+            throw new IngestException(HttpStatus.BAD_REQUEST, "Could not read NDJSON body: " + e.getMessage());
+        }
+        return samples;
+    }
+
+    private static String fromLabels(Map<String, String> labels, List<String> keys) {
+        if (labels == null) {
+            return null;
+        }
+        return keys.stream().map(labels::get).filter(v -> v != null && !v.isEmpty()).findFirst().orElse(null);
+    }
+
+    private record Line(String service, String name, Double value, Long timestamp, Map<String, String> labels) {
+    }
+}
@@ -0,0 +1,144 @@
+package com.hackathon.analyzer.ingest;
+
+import com.google.protobuf.CodedInputStream;
+import com.google.protobuf.WireFormat;
+import io.airlift.compress.MalformedInputException;
+import io.airlift.compress.snappy.SnappyDecompressor;
+import org.springframework.http.HttpStatus;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Decodes a Prometheus remote-write 1.0 request: a snappy (block format)
+ * compressed {@code prometheus.WriteRequest} protobuf.
+ *
+ * Only the fields needed here are read (series labels and float samples);
+ * metadata, exemplars and native histograms are skipped on the wire, so no
+ * generated protobuf classes are required.
+ */
+final class RemoteWriteDecoder {
+
+    private static final int WRITE_REQUEST_TIMESERIES = 1;
+    private static final int TIMESERIES_LABELS = 1;
+    private static final int TIMESERIES_SAMPLES = 2;
+    private static final int LABEL_NAME = 1;
+    private static final int LABEL_VALUE = 2;
+    private static final int SAMPLE_VALUE = 1;
+    private static final int SAMPLE_TIMESTAMP = 2;
+    private static final String METRIC_NAME_LABEL = "__name__";
+
+    private RemoteWriteDecoder() {
+    }
+
+    static List<Sample> decode(byte[] compressed, long maxDecompressedBytes, int maxSamples,
+                               List<String> serviceLabels) {
+        byte[] raw = uncompress(compressed, maxDecompressedBytes);
+        List<Sample> samples = new ArrayList<>();
+        try {
+            CodedInputStream in = CodedInputStream.newInstance(raw);
+            int tag;
+            while ((tag = in.readTag()) != 0) {
+                if (WireFormat.getTagFieldNumber(tag) == WRITE_REQUEST_TIMESERIES
+                        && WireFormat.getTagWireType(tag) == WireFormat.WIRETYPE_LENGTH_DELIMITED) {
+                    int limit = in.pushLimit(in.readRawVarint32());
+                    readTimeSeries(in, samples, maxSamples, serviceLabels);
+                    in.popLimit(limit);
+                } else {
+                    in.skipField(tag);
+                }
+            }
+        } catch (IOException e) {
+            throw new IngestException(HttpStatus.BAD_REQUEST, "Malformed remote-write protobuf: " + e.getMessage());
+        }
+        return samples;
+    }
+
+    private static byte[] uncompress(byte[] compressed, long maxDecompressedBytes) {
+        try {
+            int length = SnappyDecompressor.getUncompressedLength(compressed, 0);
+            if (length > maxDecompressedBytes) {
+                throw new IngestException(HttpStatus.PAYLOAD_TOO_LARGE,
+                        "Decompressed body exceeds " + maxDecompressedBytes + " bytes");
+            }
+            byte[] raw = new byte[length];
+            int written = new SnappyDecompressor().decompress(compressed, 0, compressed.length, raw, 0, length);
+            return written == length ? raw : Arrays.copyOf(raw, written);
+        } catch (MalformedInputException e) {
+            throw new IngestException(HttpStatus.BAD_REQUEST, "Malformed snappy body: " + e.getMessage());
+        }
+    }
+
+    private static void readTimeSeries(CodedInputStream in, List<Sample> out, int maxSamples,
+                                       List<String> serviceLabels) throws IOException {
+        Map<String, String> labels = new HashMap<>();
+        double[] values = new double[4];
+        long[] timestamps = new long[4];
+        int count = 0;
+
+        int tag;
+        while ((tag = in.readTag()) != 0) {
+            int field = WireFormat.getTagFieldNumber(tag);
+            if (field == TIMESERIES_LABELS && WireFormat.getTagWireType(tag) == WireFormat.WIRETYPE_LENGTH_DELIMITED) {
+                int limit = in.pushLimit(in.readRawVarint32());
+                readLabel(in, labels);
+                in.popLimit(limit);
+            } else if (field == TIMESERIES_SAMPLES
+                    && WireFormat.getTagWireType(tag) == WireFormat.WIRETYPE_LENGTH_DELIMITED) {
+                if (out.size() + count >= maxSamples) {
+                    throw new IngestException(HttpStatus.PAYLOAD_TOO_LARGE,
+                            "Batch exceeds " + maxSamples + " samples");
+                }
+                if (count == values.length) {
+                    values = Arrays.copyOf(values, count * 2);
+                    timestamps = Arrays.copyOf(timestamps, count * 2);
+                }
+                int limit = in.pushLimit(in.readRawVarint32());
+                readSample(in, values, timestamps, count++);
+                in.popLimit(limit);
+            } else {
+                in.skipField(tag);
+            }
+        }
+
+        String name = labels.get(METRIC_NAME_LABEL);
+        if (name == null) {
+            throw new IngestException(HttpStatus.BAD_REQUEST, "Time series without a " + METRIC_NAME_LABEL + " label");
+        }
+        String service = serviceLabels.stream().map(labels::get).filter(v -> v != null && !v.isEmpty())
+                .findFirst().orElse(null);
+        for (int i = 0; i < count; i++) {
+            out.add(new Sample(service, name, values[i], timestamps[i]));
+        }
+    }
+
+    private static void readLabel(CodedInputStream in, Map<String, String> labels) throws IOException {
+        String name = "";
+        String value = "";
+        int tag;
+        while ((tag = in.readTag()) != 0) {
+            switch (WireFormat.getTagFieldNumber(tag)) {
+                case LABEL_NAME -> name = in.readStringRequireUtf8();
+                case LABEL_VALUE -> value = in.readStringRequireUtf8();
+                default -> in.skipField(tag);
+            }
+        }
+        labels.put(name, value);
+    }
+
+    private static void readSample(CodedInputStream in, double[] values, long[] timestamps, int index)
+            throws IOException {
+        int tag;
+        while ((tag = in.readTag()) != 0) {
+            switch (WireFormat.getTagFieldNumber(tag)) {
+                case SAMPLE_VALUE -> values[index] = in.readDouble();
+                case SAMPLE_TIMESTAMP -> timestamps[index] = in.readInt64();
+                default -> in.skipField(tag);
+            }
+        }
+    }
+}
@@ -0,0 +1,11 @@
+package com.hackathon.analyzer.ingest;
+
+/**
+ * One pushed sample.
+ *
+ * @param service     service the sample belongs to, or null when no service label was present
+ * @param name        metric name
+ * @param timestampMs sample time in epoch milliseconds
+ */
+public record Sample(String service, String name, double value, long timestampMs) {
+}
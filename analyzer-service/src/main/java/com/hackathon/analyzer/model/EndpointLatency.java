@@ -0,0 +1,47 @@
+package com.hackathon.analyzer.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+/**
+ * Latency of one route over one scrape interval, from the
+ * {@code http_server_requests_seconds} histogram. Only the busiest routes
+ * of each scrape are kept; percentiles are in seconds.
+ */
+@Entity
+@Table(name = "endpoint_latency", indexes = {
+        @Index(name = "idx_endpoint_latency_service_ts", columnList = "serviceName, timestamp")
+})
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class EndpointLatency {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private String serviceName;
+
+    @Column(nullable = false)
+    private Instant timestamp;
+
+    private String method;
+
+    @Column(nullable = false)
+    private String uri;
+
+    /** Requests observed in the interval. */
+    private Long requestCount;
+
+    private Double p50;
+    private Double p95;
+    private Double p99;
+}
@@ -0,0 +1,64 @@
+package com.hackathon.analyzer.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Garbage collection and memory pool behaviour of a service over the
+ * recent window, from its {@code jvm_gc_*} and {@code jvm_memory_*}
+ * series. Sizes are in MiB.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class GcTelemetryReport {
+
+    private String serviceName;
+    private Instant asOf;
+    private Double windowSeconds;
+    private Integer intervals;
+
+    /** G1, ZGC, Parallel, Serial or Shenandoah, from the collector and pool names; null when unknown. */
+    private String collector;
+    private List<CollectorActivity> collectors;
+
+    /** Share of wall time spent in GC pauses. */
+    private Double gcTimeShare;
+    private Double pausesPerMinute;
+    private Double avgPauseMs;
+    private Double maxPauseMs;
+
+    private Double allocationRateMbPerSec;
+    private Double promotionRateMbPerSec;
+
+    /** Heap still in use after collection: the largest live data size seen, else the lowest heap usage. */
+    private Double liveSetMb;
+    private Double heapUsedMb;
+    private Double heapCommittedMb;
+    private Double heapMaxMb;
+    private Double metaspaceUsedMb;
+    private Double metaspaceCommittedMb;
+    private Double compressedClassSpaceMb;
+    private Double codeCacheMb;
+
+    /**
+     * Pauses of one collector and GC action (minor or major) in the window.
+     */
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class CollectorActivity {
+        private String gc;
+        private String action;
+        private Long pauses;
+        private Double avgPauseMs;
+        private Double maxPauseMs;
+    }
+}
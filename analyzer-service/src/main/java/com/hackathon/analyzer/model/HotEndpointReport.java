@@ -0,0 +1,29 @@
+package com.hackathon.analyzer.model;
+
+import com.hackathon.recommendation.ResourceRecommendation;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Busiest routes of a service over the recent, exponentially decayed window.
+ * Request counts come from a bounded heavy-hitters sketch, so a route's
+ * count may be overstated by at most {@code maxOverestimate}.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class HotEndpointReport {
+
+    private String serviceName;
+    private Instant asOf;
+    private Double windowSeconds;
+    private Double requestRate;
+    private Integer trackedRoutes;
+    private List<ResourceRecommendation.HotEndpoint> endpoints;
+}
@@ -0,0 +1,38 @@
+package com.hackathon.analyzer.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+/**
+ * Named leadership lease. The holder stays leader while it keeps pushing
+ * {@code expiresAt} forward; any replica may take over an expired lease.
+ */
+@Entity
+@Table(name = "leader_lease")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class LeaderLease {
+
+    @Id
+    private String leaseName;
+
+    @Column(nullable = false)
+    private String holder;
+
+    @Column(nullable = false)
+    private Instant acquiredAt;
+
+    @Column(nullable = false)
+    private Instant expiresAt;
+
+    /** Null until first persisted, so saving a new lease always INSERTs instead of merging. */
+    @Version
+    private Long version;
+}
@@ -9,7 +9,10 @@ import lombok.NoArgsConstructor;
 import java.time.Instant;
 
 @Entity
-@Table(name = "metrics_snapshot")
+@Table(name = "metrics_snapshot", indexes = {
+        @Index(name = "idx_metrics_snapshot_service_ts", columnList = "serviceName, timestamp, id"),
+        @Index(name = "idx_metrics_snapshot_ts", columnList = "timestamp")
+})
 @Data
 @Builder
 @NoArgsConstructor
@@ -45,6 +48,8 @@ public class MetricsSnapshot {
     private Long httpRequestCount;
     private Double httpRequestDurationAvg;
     private Double httpRequestDurationMax;
+    // Interval percentiles in seconds, from the request duration histogram
+    private Double httpRequestDurationP50;
     private Double httpRequestDurationP95;
     private Double httpRequestDurationP99;
 
@@ -55,4 +60,16 @@ public class MetricsSnapshot {
     private Integer hikariMinConnections;
     private Long hikariConnectionTimeout;
     private Integer hikariPendingConnections;
+
+    // Derived from the cumulative counters above and the previous snapshot
+    // of the same service; null for a service's first snapshot
+    private Long httpRequestDelta;
+    private Double httpRequestRate;
+    private Long gcCountDelta;
+    private Double gcCountRate;
+    private Long gcPauseTimeDeltaMs;
+    private Double gcPauseTimeRate;
+    private Long hikariConnectionTimeoutDelta;
+    private Double hikariConnectionTimeoutRate;
+    private Boolean counterReset;
 }
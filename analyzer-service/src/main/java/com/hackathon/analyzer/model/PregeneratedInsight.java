@@ -0,0 +1,46 @@
+package com.hackathon.analyzer.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+/**
+ * AI optimization report produced ahead of time by the batch insight job.
+ * Keyed by the fingerprint of the prompt inputs it was generated from, so a
+ * dashboard request with unchanged inputs can reuse it instead of calling the model.
+ */
+@Entity
+@Table(name = "pregenerated_insight", indexes = {
+        @Index(name = "idx_pregenerated_insight_fingerprint", columnList = "fingerprint"),
+        @Index(name = "idx_pregenerated_insight_service", columnList = "serviceName")
+})
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PregeneratedInsight {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private String serviceName;
+
+    @Column(nullable = false, length = 64)
+    private String fingerprint;
+
+    @Lob
+    @Column(nullable = false)
+    private String insight;
+
+    private String model;
+    private String batchId;
+
+    @Column(nullable = false)
+    private Instant generatedAt;
+}
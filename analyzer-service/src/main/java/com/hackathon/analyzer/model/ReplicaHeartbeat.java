@@ -0,0 +1,31 @@
+package com.hackathon.analyzer.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+/**
+ * Membership lease of one analyzer replica. A replica is part of the
+ * cluster as long as it keeps refreshing {@code lastHeartbeatAt}.
+ */
+@Entity
+@Table(name = "replica_heartbeat")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReplicaHeartbeat {
+
+    @Id
+    private String replicaId;
+
+    @Column(nullable = false)
+    private Instant startedAt;
+
+    @Column(nullable = false)
+    private Instant lastHeartbeatAt;
+}
@@ -0,0 +1,104 @@
+package com.hackathon.analyzer.pipeline;
+
+import com.hackathon.analyzer.config.OutboundWebClients;
+import com.hackathon.recommendation.BatchGenerationReport;
+import com.hackathon.recommendation.RecommendationCodec;
+import com.hackathon.recommendation.RecommendationGenerator;
+import com.hackathon.recommendation.ResourceRecommendation;
+import lombok.extern.slf4j.Slf4j;
+import org.reactivestreams.Publisher;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.web.reactive.function.BodyInserters;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.scheduler.Schedulers;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.concurrent.Executor;
+
+/**
+ * Hands recommendations to the code generator.
+ *
+ * When a {@link RecommendationGenerator} is present in this application
+ * context (both services in one JVM) it is called directly with the objects.
+ * Otherwise they are streamed to the code generator's batch endpoint in the
+ * {@link RecommendationCodec} binary encoding as they are produced, so
+ * generation starts before the last service has been analyzed.
+ */
+@Slf4j
+@Service
+public class CodeGenerationPipeline {
+
+    private static final Executor BODY_WRITER = task -> Schedulers.boundedElastic().schedule(task);
+
+    private final ObjectProvider<RecommendationGenerator> localGenerator;
+    private final WebClient webClient;
+    private final Duration timeout;
+
+    public CodeGenerationPipeline(
+            ObjectProvider<RecommendationGenerator> localGenerator,
+            OutboundWebClients webClients,
+            @Value("${analyzer.codegen.url:http://localhost:8085}") String codegenUrl,
+            @Value("${analyzer.codegen.timeout:10m}") Duration timeout) {
+        this.localGenerator = localGenerator;
+        this.webClient = webClients.builder(OutboundWebClients.TrafficClass.CODEGEN)
+                .baseUrl(codegenUrl)
+                .build();
+        this.timeout = timeout;
+    }
+
+    /**
+     * Generate artifacts for every recommendation. The iterator is consumed
+     * lazily, on the caller's thread in-process or while the request body is
+     * being written remotely.
+     */
+    public BatchGenerationReport generate(Iterator<ResourceRecommendation> recommendations) throws IOException {
+        return generate(recommendations, timeout);
+    }
+
+    /**
+     * As {@link #generate(Iterator)}, waiting at most {@code timeout} for the
+     * remote code generator. An in-process generator runs to completion.
+     */
+    public BatchGenerationReport generate(Iterator<ResourceRecommendation> recommendations, Duration timeout)
+            throws IOException {
+        RecommendationGenerator generator = localGenerator.getIfAvailable();
+        if (generator != null) {
+            log.debug("Generating in-process with {}", generator.getClass().getSimpleName());
+            return generator.generate(recommendations);
+        }
+
+        Publisher<DataBuffer> body = DataBufferUtils.outputStreamPublisher(
+                out -> write(out, recommendations), DefaultDataBufferFactory.sharedInstance, BODY_WRITER);
+
+        return webClient.post()
+                .uri("/api/generate/batch")
+                .contentType(MediaType.parseMediaType(RecommendationCodec.MEDIA_TYPE))
+                .accept(MediaType.APPLICATION_JSON)
+                .body(BodyInserters.fromDataBuffers(body))
+                .retrieve()
+                .bodyToMono(BatchGenerationReport.class)
+                .block(timeout);
+    }
+
+    private static void write(OutputStream out, Iterator<ResourceRecommendation> recommendations) {
+        try {
+            RecommendationCodec.Writer writer = RecommendationCodec.writer(out);
+            while (recommendations.hasNext()) {
+                writer.write(recommendations.next());
+            }
+            writer.finish();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,11 @@
+package com.hackathon.analyzer.query;
+
+import java.io.IOException;
+
+/**
+ * Receives evaluated points, grouped by series and in time order.
+ */
+interface PointSink {
+
+    void point(String service, long timestampMs, double value) throws IOException;
+}
@@ -0,0 +1,65 @@
+package com.hackathon.analyzer.query;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.regex.Pattern;
+
+/**
+ * A parsed query: a series selector, optionally wrapped in a range function.
+ *
+ * @param parameter quantile for {@code quantile_over_time}, otherwise unused
+ * @param range     range of the selector ({@code [5m]}), null for a plain selector
+ */
+public record PromQuery(Function function, double parameter, SeriesColumn column,
+                        List<LabelMatcher> matchers, Duration range) {
+
+    public enum Function {
+        SELECTOR(null),
+        RATE("rate"),
+        INCREASE("increase"),
+        AVG_OVER_TIME("avg_over_time"),
+        MIN_OVER_TIME("min_over_time"),
+        MAX_OVER_TIME("max_over_time"),
+        SUM_OVER_TIME("sum_over_time"),
+        COUNT_OVER_TIME("count_over_time"),
+        LAST_OVER_TIME("last_over_time"),
+        QUANTILE_OVER_TIME("quantile_over_time");
+
+        private final String promName;
+
+        Function(String promName) {
+            this.promName = promName;
+        }
+
+        public String promName() {
+            return promName;
+        }
+
+        /** Aggregations SQL can compute per step bucket. */
+        public boolean isSqlAggregate() {
+            return this == AVG_OVER_TIME || this == MIN_OVER_TIME || this == MAX_OVER_TIME
+                    || this == SUM_OVER_TIME || this == COUNT_OVER_TIME;
+        }
+    }
+
+    /**
+     * Matcher on the {@code service} label.
+     */
+    public record LabelMatcher(Op op, String value) {
+
+        public enum Op { EQ, NEQ, RE, NRE }
+
+        public boolean matches(String service) {
+            return switch (op) {
+                case EQ -> value.equals(service);
+                case NEQ -> !value.equals(service);
+                case RE -> Pattern.compile(value).matcher(service).matches();
+                case NRE -> !Pattern.compile(value).matcher(service).matches();
+            };
+        }
+
+        public boolean isRegex() {
+            return op == Op.RE || op == Op.NRE;
+        }
+    }
+}
@@ -0,0 +1,277 @@
+package com.hackathon.analyzer.query;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+import java.util.stream.Collectors;
+
+/**
+ * Parser for the supported PromQL subset:
+ *
+ * <pre>
+ * cpu_usage_percent{service="cpu-hungry-service"}
+ * rate(http_request_count{service=~"cpu-.*"}[5m])
+ * quantile_over_time(0.95, heap_usage_percent[1h])
+ * </pre>
+ *
+ * Metric names are snapshot columns ({@link SeriesColumn}); the only label
+ * is {@code service}; rate and increase accept counter columns only.
+ * Invalid input raises IllegalArgumentException with a message suitable
+ * for the client.
+ */
+public final class PromQueryParser {
+
+    private static final Pattern DURATION_PART = Pattern.compile("(\\d+)(ms|s|m|h|d|w|y)");
+
+    private final String input;
+    private int pos;
+
+    private PromQueryParser(String input) {
+        this.input = input;
+    }
+
+    public static PromQuery parse(String query) {
+        if (query == null || query.isBlank()) {
+            throw new IllegalArgumentException("query must not be empty");
+        }
+        PromQueryParser parser = new PromQueryParser(query);
+        PromQuery parsed = parser.parseExpression();
+        parser.skipWhitespace();
+        if (parser.pos < parser.input.length()) {
+            throw parser.error("unexpected input");
+        }
+        return parsed;
+    }
+
+    /**
+     * Parse a Prometheus duration ({@code 1h30m}, {@code 90s}) or a number of seconds.
+     */
+    public static Duration parseDuration(String value) {
+        try {
+            return Duration.ofMillis(Math.round(Double.parseDouble(value) * 1000));
+        } catch (NumberFormatException ignored) {
+            // Fall through to the unit syntax
+        }
+        Matcher matcher = DURATION_PART.matcher(value);
+        Duration total = Duration.ZERO;
+        int end = 0;
+        while (matcher.find() && matcher.start() == end) {
+            long amount = Long.parseLong(matcher.group(1));
+            total = total.plus(switch (matcher.group(2)) {
+                case "ms" -> Duration.ofMillis(amount);
+                case "s" -> Duration.ofSeconds(amount);
+                case "m" -> Duration.ofMinutes(amount);
+                case "h" -> Duration.ofHours(amount);
+                case "d" -> Duration.ofDays(amount);
+                case "w" -> Duration.ofDays(7 * amount);
+                default -> Duration.ofDays(365 * amount);
+            });
+            end = matcher.end();
+        }
+        if (end == 0 || end != value.length() || total.isZero()) {
+            throw new IllegalArgumentException("invalid duration \"" + value + "\"");
+        }
+        return total;
+    }
+
+    /**
+     * Parse a timestamp given as unix seconds (with optional fraction) or RFC 3339.
+     */
+    public static Instant parseTime(String value) {
+        try {
+            return Instant.ofEpochMilli(Math.round(Double.parseDouble(value) * 1000));
+        } catch (NumberFormatException ignored) {
+            // Fall through to RFC 3339
+        }
+        try {
+            return OffsetDateTime.parse(value).toInstant();
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("cannot parse \"" + value + "\" to a valid timestamp");
+        }
+    }
+
+    private PromQuery parseExpression() {
+        String name = identifier();
+        skipWhitespace();
+        if (peek() != '(') {
+            return selector(name, PromQuery.Function.SELECTOR, 0, false);
+        }
+
+        PromQuery.Function function = Arrays.stream(PromQuery.Function.values())
+                .filter(f -> name.equals(f.promName()))
+                .findFirst()
+                .orElseThrow(() -> error("unknown function \"" + name + "\", supported: " + supportedFunctions()));
+        expect('(');
+        double parameter = 0;
+        if (function == PromQuery.Function.QUANTILE_OVER_TIME) {
+            parameter = number();
+            if (parameter < 0 || parameter > 1) {
+                throw error("quantile must be between 0 and 1");
+            }
+            expect(',');
+        }
+        skipWhitespace();
+        PromQuery query = selector(identifier(), function, parameter, true);
+        expect(')');
+        return query;
+    }
+
+    private PromQuery selector(String metric, PromQuery.Function function, double parameter, boolean withRange) {
+        SeriesColumn column = SeriesColumn.fromMetricName(metric)
+                .orElseThrow(() -> error("unknown metric \"" + metric + "\""));
+        if ((function == PromQuery.Function.RATE || function == PromQuery.Function.INCREASE) && !column.isCounter()) {
+            throw error(function.promName() + "() needs a counter, \"" + metric + "\" is a gauge");
+        }
+        List<PromQuery.LabelMatcher> matchers = new ArrayList<>();
+        skipWhitespace();
+        if (peek() == '{') {
+            pos++;
+            skipWhitespace();
+            while (peek() != '}') {
+                matchers.add(matcher());
+                skipWhitespace();
+                if (peek() == ',') {
+                    pos++;
+                    skipWhitespace();
+                } else if (peek() != '}') {
+                    throw error("expected ',' or '}'");
+                }
+            }
+            pos++;
+        }
+
+        Duration range = null;
+        skipWhitespace();
+        if (withRange) {
+            expect('[');
+            int start = pos;
+            while (pos < input.length() && input.charAt(pos) != ']') {
+                pos++;
+            }
+            range = parseDuration(input.substring(start, pos).trim());
+            expect(']');
+        } else if (peek() == '[') {
+            throw error("range vector is only allowed inside a function");
+        }
+        return new PromQuery(function, parameter, column, List.copyOf(matchers), range);
+    }
+
+    private PromQuery.LabelMatcher matcher() {
+        String label = identifier();
+        if (!"service".equals(label)) {
+            throw error("unknown label \"" + label + "\", only \"service\" is supported");
+        }
+        skipWhitespace();
+        PromQuery.LabelMatcher.Op op;
+        if (input.startsWith("=~", pos)) {
+            op = PromQuery.LabelMatcher.Op.RE;
+        } else if (input.startsWith("!~", pos)) {
+            op = PromQuery.LabelMatcher.Op.NRE;
+        } else if (input.startsWith("!=", pos)) {
+            op = PromQuery.LabelMatcher.Op.NEQ;
+        } else if (input.startsWith("=", pos)) {
+            op = PromQuery.LabelMatcher.Op.EQ;
+        } else {
+            throw error("expected label matcher operator");
+        }
+        pos += op == PromQuery.LabelMatcher.Op.EQ ? 1 : 2;
+        skipWhitespace();
+        String value = string();
+        if (op == PromQuery.LabelMatcher.Op.RE || op == PromQuery.LabelMatcher.Op.NRE) {
+            try {
+                Pattern.compile(value);
+            } catch (PatternSyntaxException e) {
+                throw error("invalid regular expression \"" + value + "\"");
+            }
+        }
+        return new PromQuery.LabelMatcher(op, value);
+    }
+
+    private String identifier() {
+        skipWhitespace();
+        int start = pos;
+        while (pos < input.length()) {
+            char c = input.charAt(pos);
+            boolean valid = Character.isLetter(c) || c == '_' || c == ':' || (pos > start && Character.isDigit(c));
+            if (!valid) {
+                break;
+            }
+            pos++;
+        }
+        if (start == pos) {
+            throw error("expected identifier");
+        }
+        return input.substring(start, pos);
+    }
+
+    private String string() {
+        char quote = peek();
+        if (quote != '"' && quote != '\'') {
+            throw error("expected quoted string");
+        }
+        StringBuilder value = new StringBuilder();
+        pos++;
+        while (pos < input.length() && input.charAt(pos) != quote) {
+            char c = input.charAt(pos++);
+            if (c == '\\' && pos < input.length()) {
+                c = input.charAt(pos++);
+            }
+            value.append(c);
+        }
+        if (pos >= input.length()) {
+            throw error("unterminated string");
+        }
+        pos++;
+        return value.toString();
+    }
+
+    private double number() {
+        skipWhitespace();
+        int start = pos;
+        while (pos < input.length() && "0123456789.eE+-".indexOf(input.charAt(pos)) >= 0) {
+            pos++;
+        }
+        try {
+            return Double.parseDouble(input.substring(start, pos));
+        } catch (NumberFormatException e) {
+            throw error("expected number");
+        }
+    }
+
+    private void expect(char c) {
+        skipWhitespace();
+        if (peek() != c) {
+            throw error("expected '" + c + "'");
+        }
+        pos++;
+    }
+
+    private char peek() {
+        return pos < input.length() ? input.charAt(pos) : '\0';
+    }
+
+    private void skipWhitespace() {
+        while (pos < input.length() && Character.isWhitespace(input.charAt(pos))) {
+            pos++;
+        }
+    }
+
+    private IllegalArgumentException error(String message) {
+        return new IllegalArgumentException(String.format(Locale.ROOT, "parse error at char %d: %s", pos + 1, message));
+    }
+
+    private static String supportedFunctions() {
+        return Arrays.stream(PromQuery.Function.values())
+                .map(PromQuery.Function::promName)
+                .filter(name -> name != null)
+                .collect(Collectors.joining(", "));
+    }
+}
@@ -0,0 +1,115 @@
+package com.hackathon.analyzer.query;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Writes the Prometheus HTTP API response envelope point by point, so a
+ * result is never held in memory as a whole.
+ */
+final class PromResponseWriter implements PointSink, Closeable {
+
+    private static final JsonFactory JSON = new JsonFactory();
+
+    private final JsonGenerator generator;
+    private final boolean vector;
+    private final String metricName;
+    private String currentService;
+
+    /**
+     * @param vector     instant query ({@code "value"}) rather than range query ({@code "values"})
+     * @param metricName {@code __name__} label of result series, or null to omit it
+     */
+    PromResponseWriter(OutputStream out, boolean vector, String metricName) throws IOException {
+        this.generator = JSON.createGenerator(out, JsonEncoding.UTF8);
+        this.vector = vector;
+        this.metricName = metricName;
+
+        generator.writeStartObject();
+        generator.writeStringField("status", "success");
+        generator.writeObjectFieldStart("data");
+        generator.writeStringField("resultType", vector ? "vector" : "matrix");
+        generator.writeArrayFieldStart("result");
+    }
+
+    @Override
+    public void point(String service, long timestampMs, double value) throws IOException {
+        if (!service.equals(currentService)) {
+            closeSeries();
+            openSeries(service);
+        }
+        generator.writeStartArray();
+        generator.writeNumber(formatTimestamp(timestampMs));
+        generator.writeString(formatValue(value));
+        generator.writeEndArray();
+    }
+
+    @Override
+    public void close() throws IOException {
+        closeSeries();
+        generator.writeEndArray();
+        generator.writeEndObject();
+        generator.writeEndObject();
+        generator.close();
+    }
+
+    private void openSeries(String service) throws IOException {
+        currentService = service;
+        generator.writeStartObject();
+        generator.writeObjectFieldStart("metric");
+        if (metricName != null) {
+            generator.writeStringField("__name__", metricName);
+        }
+        generator.writeStringField("service", service);
+        generator.writeEndObject();
+        if (!vector) {
+            generator.writeArrayFieldStart("values");
+        } else {
+            generator.writeFieldName("value");
+        }
+    }
+
+    private void closeSeries() throws IOException {
+        if (currentService == null) {
+            return;
+        }
+        if (!vector) {
+            generator.writeEndArray();
+        }
+        generator.writeEndObject();
+        currentService = null;
+    }
+
+    /** Unix seconds with millisecond fraction, never in exponent notation. */
+    static String formatTimestamp(long timestampMs) {
+        long seconds = Math.floorDiv(timestampMs, 1000L);
+        int millis = (int) Math.floorMod(timestampMs, 1000L);
+        if (millis == 0) {
+            return Long.toString(seconds);
+        }
+        String fraction = String.format("%03d", millis);
+        int end = fraction.length();
+        while (fraction.charAt(end - 1) == '0') {
+            end--;
+        }
+        return seconds + "." + fraction.substring(0, end);
+    }
+
+    static String formatValue(double value) {
+        if (Double.isNaN(value)) {
+            return "NaN";
+        }
+        if (Double.isInfinite(value)) {
+            return value > 0 ? "+Inf" : "-Inf";
+        }
+        if (value == Math.rint(value) && Math.abs(value) < 1e15) {
+            return Long.toString((long) value);
+        }
+        return Double.toString(value);
+    }
+}
@@ -0,0 +1,126 @@
+package com.hackathon.analyzer.query;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Prometheus HTTP API subset over stored snapshot history, so Grafana-style
+ * clients can chart it with a Prometheus data source. Query results are
+ * streamed straight to the response.
+ */
+@Slf4j
+@RestController
+@RequestMapping("/api/v1")
+@RequiredArgsConstructor
+@Tag(name = "Query", description = "Prometheus-compatible instant and range queries over stored metrics")
+public class QueryController {
+
+    private final SeriesQueryExecutor queryExecutor;
+
+    @Operation(summary = "Instant Query",
+               description = "Evaluate a query at a single point in time, e.g. max_over_time(cpu_usage_percent[1h])")
+    @RequestMapping(value = "/query", method = {RequestMethod.GET, RequestMethod.POST})
+    public void query(
+            @Parameter(description = "Query expression") @RequestParam String query,
+            @Parameter(description = "Evaluation time (unix seconds or RFC 3339, default: now)")
+            @RequestParam(required = false) String time,
+            HttpServletResponse response) throws IOException {
+        PromQuery parsed;
+        Instant at;
+        try {
+            parsed = PromQueryParser.parse(query);
+            at = time != null ? PromQueryParser.parseTime(time) : Instant.now();
+        } catch (IllegalArgumentException e) {
+            writeError(response, e.getMessage());
+            return;
+        }
+        stream(response, () -> queryExecutor.queryInstant(parsed, at, response.getOutputStream()));
+    }
+
+    @Operation(summary = "Range Query",
+               description = "Evaluate a query at every step between start and end, e.g. rate(http_request_count[5m])")
+    @RequestMapping(value = "/query_range", method = {RequestMethod.GET, RequestMethod.POST})
+    public void queryRange(
+            @Parameter(description = "Query expression") @RequestParam String query,
+            @Parameter(description = "Start time (unix seconds or RFC 3339)") @RequestParam String start,
+            @Parameter(description = "End time (unix seconds or RFC 3339)") @RequestParam String end,
+            @Parameter(description = "Step as duration (30s, 5m) or seconds") @RequestParam String step,
+            HttpServletResponse response) throws IOException {
+        PromQuery parsed;
+        Instant from;
+        Instant to;
+        Duration resolution;
+        try {
+            parsed = PromQueryParser.parse(query);
+            from = PromQueryParser.parseTime(start);
+            to = PromQueryParser.parseTime(end);
+            resolution = PromQueryParser.parseDuration(step);
+        } catch (IllegalArgumentException e) {
+            writeError(response, e.getMessage());
+            return;
+        }
+        stream(response, () -> queryExecutor.queryRange(parsed, from, to, resolution, response.getOutputStream()));
+    }
+
+    @Operation(summary = "Label Values",
+               description = "Values of __name__ (queryable metrics) or service")
+    @GetMapping("/label/{name}/values")
+    public ResponseEntity<Map<String, Object>> labelValues(@PathVariable String name) {
+        List<String> values = switch (name) {
+            case "__name__" -> Arrays.stream(SeriesColumn.values()).map(SeriesColumn::metricName).sorted().toList();
+            case "service" -> queryExecutor.serviceNames();
+            default -> List.of();
+        };
+
+        Map<String, Object> body = new HashMap<>();
+        body.put("status", "success");
+        body.put("data", values);
+        return ResponseEntity.ok(body);
+    }
+
+    private void stream(HttpServletResponse response, QueryCall call) throws IOException {
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        try {
+            call.run();
+        } catch (IllegalArgumentException e) {
+            writeError(response, e.getMessage());
+        }
+    }
+
+    private void writeError(HttpServletResponse response, String message) throws IOException {
+        log.debug("Rejected query: {}", message);
+        response.setStatus(HttpStatus.BAD_REQUEST.value());
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        // The output stream may already have been obtained, so the writer cannot be used
+        String body = "{\"status\":\"error\",\"errorType\":\"bad_data\",\"error\":\""
+                + message.replace("\\", "\\\\").replace("\"", "\\\"") + "\"}";
+        response.getOutputStream().write(body.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @FunctionalInterface
+    private interface QueryCall {
+        void run() throws IOException;
+    }
+}
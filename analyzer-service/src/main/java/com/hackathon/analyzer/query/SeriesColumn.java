@@ -0,0 +1,73 @@
+package com.hackathon.analyzer.query;
+
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Snapshot columns that can be queried as series. The metric name is the
+ * column name, so queries map to SQL without any string interpolation of
+ * user input.
+ */
+public enum SeriesColumn {
+    CPU_USAGE_PERCENT(false),
+    SYSTEM_CPU_USAGE_PERCENT(false),
+    HEAP_USED_BYTES(false),
+    HEAP_MAX_BYTES(false),
+    HEAP_USAGE_PERCENT(false),
+    NON_HEAP_USED_BYTES(false),
+    GC_PAUSE_TIME_MS(true),
+    GC_COUNT(true),
+    THREAD_COUNT(false),
+    DAEMON_THREAD_COUNT(false),
+    HTTP_REQUEST_COUNT(true),
+    HTTP_REQUEST_DURATION_AVG(false),
+    HTTP_REQUEST_DURATION_MAX(false),
+    HTTP_REQUEST_DURATION_P50(false),
+    HTTP_REQUEST_DURATION_P95(false),
+    HTTP_REQUEST_DURATION_P99(false),
+    HIKARI_ACTIVE_CONNECTIONS(false),
+    HIKARI_IDLE_CONNECTIONS(false),
+    HIKARI_MAX_CONNECTIONS(false),
+    HIKARI_MIN_CONNECTIONS(false),
+    HIKARI_CONNECTION_TIMEOUT(true),
+    HIKARI_PENDING_CONNECTIONS(false),
+    HTTP_REQUEST_DELTA(false),
+    HTTP_REQUEST_RATE(false),
+    GC_COUNT_DELTA(false),
+    GC_COUNT_RATE(false),
+    GC_PAUSE_TIME_DELTA_MS(false),
+    GC_PAUSE_TIME_RATE(false),
+    HIKARI_CONNECTION_TIMEOUT_DELTA(false),
+    HIKARI_CONNECTION_TIMEOUT_RATE(false);
+
+    private static final Map<String, SeriesColumn> BY_METRIC_NAME = Arrays.stream(values())
+            .collect(Collectors.toMap(SeriesColumn::metricName, Function.identity()));
+
+    private final boolean counter;
+
+    SeriesColumn(boolean counter) {
+        this.counter = counter;
+    }
+
+    public static Optional<SeriesColumn> fromMetricName(String name) {
+        return Optional.ofNullable(BY_METRIC_NAME.get(name));
+    }
+
+    /** Metric name as used in queries, identical to the column name. */
+    public String metricName() {
+        return name().toLowerCase(Locale.ROOT);
+    }
+
+    public String columnName() {
+        return metricName();
+    }
+
+    /** Whether the column holds a cumulative counter (suitable for rate/increase). */
+    public boolean isCounter() {
+        return counter;
+    }
+}
@@ -0,0 +1,155 @@
+package com.hackathon.analyzer.query;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Iterator;
+
+/**
+ * Evaluates a range function at step-aligned times over raw samples that
+ * arrive ordered by service, then time.
+ *
+ * Only the samples inside the current window are kept, so memory is bounded
+ * by the window length regardless of how much history is scanned. Each step
+ * is emitted as soon as the first sample after it arrives. Windows are
+ * left-open, right-closed ({@code (t - range, t]}) as in Prometheus.
+ */
+final class SeriesEvaluator {
+
+    private final PromQuery query;
+    private final long startMs;
+    private final long endMs;
+    private final long stepMs;
+    private final long windowMs;
+    private final PointSink sink;
+    private final ArrayDeque<Sample> window = new ArrayDeque<>();
+
+    private String service;
+    private long nextStep;
+
+    /**
+     * @param windowMs the selector range, or the lookback for a plain selector
+     */
+    SeriesEvaluator(PromQuery query, long startMs, long endMs, long stepMs, long windowMs, PointSink sink) {
+        this.query = query;
+        this.startMs = startMs;
+        this.endMs = endMs;
+        this.stepMs = stepMs;
+        this.windowMs = windowMs;
+        this.sink = sink;
+    }
+
+    void add(String sampleService, long timestampMs, double value) throws IOException {
+        if (!sampleService.equals(service)) {
+            finishSeries();
+            service = sampleService;
+            nextStep = startMs;
+        }
+        while (nextStep <= endMs && nextStep < timestampMs) {
+            evict(nextStep);
+            if (window.isEmpty()) {
+                // Nothing to report until this sample; jump to the next step it can contribute to
+                nextStep = firstStepAtOrAfter(timestampMs);
+                break;
+            }
+            emit(nextStep);
+            nextStep += stepMs;
+        }
+        window.addLast(new Sample(timestampMs, value));
+    }
+
+    void finish() throws IOException {
+        finishSeries();
+    }
+
+    private void finishSeries() throws IOException {
+        if (service == null) {
+            return;
+        }
+        while (nextStep <= endMs) {
+            evict(nextStep);
+            if (window.isEmpty()) {
+                break;
+            }
+            emit(nextStep);
+            nextStep += stepMs;
+        }
+        window.clear();
+        service = null;
+    }
+
+    private void evict(long stepTime) {
+        while (!window.isEmpty() && window.peekFirst().timestampMs() <= stepTime - windowMs) {
+            window.pollFirst();
+        }
+    }
+
+    private long firstStepAtOrAfter(long timestampMs) {
+        if (timestampMs <= startMs) {
+            return startMs;
+        }
+        long steps = (timestampMs - startMs + stepMs - 1) / stepMs;
+        return startMs + steps * stepMs;
+    }
+
+    private void emit(long stepTime) throws IOException {
+        double value = evaluate();
+        if (!Double.isNaN(value)) {
+            sink.point(service, stepTime, value);
+        }
+    }
+
+    private double evaluate() {
+        return switch (query.function()) {
+            case SELECTOR, LAST_OVER_TIME -> window.peekLast().value();
+            case RATE -> window.size() < 2 ? Double.NaN
+                    : increase() / ((window.peekLast().timestampMs() - window.peekFirst().timestampMs()) / 1000.0);
+            case INCREASE -> window.size() < 2 ? Double.NaN : increase();
+            case AVG_OVER_TIME -> sum() / window.size();
+            case SUM_OVER_TIME -> sum();
+            case COUNT_OVER_TIME -> window.size();
+            case MIN_OVER_TIME -> window.stream().mapToDouble(Sample::value).min().orElse(Double.NaN);
+            case MAX_OVER_TIME -> window.stream().mapToDouble(Sample::value).max().orElse(Double.NaN);
+            case QUANTILE_OVER_TIME -> quantile(query.parameter());
+        };
+    }
+
+    /**
+     * Counter increase across the window. A decrease is a counter reset
+     * (process restart), after which the counter restarted from zero.
+     * No extrapolation to the window edges is applied.
+     */
+    private double increase() {
+        Iterator<Sample> it = window.iterator();
+        double previous = it.next().value();
+        double increase = 0;
+        while (it.hasNext()) {
+            double current = it.next().value();
+            increase += current >= previous ? current - previous : current;
+            previous = current;
+        }
+        return increase;
+    }
+
+    private double sum() {
+        double sum = 0;
+        for (Sample sample : window) {
+            sum += sample.value();
+        }
+        return sum;
+    }
+
+    /** Linear interpolation between closest ranks, as quantile_over_time does. */
+    private double quantile(double q) {
+        double[] values = window.stream().mapToDouble(Sample::value).toArray();
+        Arrays.sort(values);
+        double rank = q * (values.length - 1);
+        int lower = (int) Math.floor(rank);
+        int upper = Math.min(lower + 1, values.length - 1);
+        double weight = rank - lower;
+        return values[lower] * (1 - weight) + values[upper] * weight;
+    }
+
+    private record Sample(long timestampMs, double value) {
+    }
+}
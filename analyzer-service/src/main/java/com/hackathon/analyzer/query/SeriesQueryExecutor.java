@@ -0,0 +1,227 @@
+package com.hackathon.analyzer.query;
+
+import com.hackathon.analyzer.config.QueryProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Executes parsed queries against the snapshot table.
+ *
+ * Only the queried column is read, through plain JDBC with a fetch size,
+ * and results are written to the response as they are produced. When a
+ * {@code *_over_time} aggregate uses a range equal to the step (the usual
+ * dashboard setup), the aggregation runs in SQL over step buckets and only
+ * one row per point leaves the database; any other query streams raw
+ * samples through a {@link SeriesEvaluator}.
+ */
+@Slf4j
+@Component
+public class SeriesQueryExecutor {
+
+    private static final String TABLE = "metrics_snapshot";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final QueryProperties properties;
+    private final MeterRegistry meterRegistry;
+
+    public SeriesQueryExecutor(DataSource dataSource, QueryProperties properties, MeterRegistry meterRegistry) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.jdbcTemplate.setFetchSize(properties.getFetchSize());
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * Evaluate {@code query} at {@code time} and write a vector result.
+     */
+    @Transactional(readOnly = true)
+    public void queryInstant(PromQuery query, Instant time, OutputStream out) throws IOException {
+        long t = time.toEpochMilli();
+        long step = query.range() != null ? query.range().toMillis() : 1;
+        execute(query, t, t, step, true, out);
+    }
+
+    /**
+     * Evaluate {@code query} at every step from {@code start} to {@code end}
+     * and write a matrix result.
+     */
+    @Transactional(readOnly = true)
+    public void queryRange(PromQuery query, Instant start, Instant end, Duration step, OutputStream out)
+            throws IOException {
+        if (step.isNegative() || step.isZero()) {
+            throw new IllegalArgumentException("zero or negative query resolution step widths are not accepted");
+        }
+        if (end.isBefore(start)) {
+            throw new IllegalArgumentException("end timestamp must not be before start time");
+        }
+        long points = (end.toEpochMilli() - start.toEpochMilli()) / step.toMillis() + 1;
+        if (points > properties.getMaxPointsPerSeries()) {
+            throw new IllegalArgumentException("exceeded maximum resolution of " + properties.getMaxPointsPerSeries()
+                    + " points per timeseries. Try decreasing the query resolution (?step=XX)");
+        }
+        execute(query, start.toEpochMilli(), end.toEpochMilli(), step.toMillis(), false, out);
+    }
+
+    /**
+     * Distinct service names, for label value lookups.
+     */
+    @Transactional(readOnly = true)
+    public List<String> serviceNames() {
+        return jdbcTemplate.queryForList(
+                "SELECT DISTINCT service_name FROM " + TABLE + " WHERE service_name IS NOT NULL ORDER BY service_name",
+                String.class);
+    }
+
+    private void execute(PromQuery query, long startMs, long endMs, long stepMs, boolean vector, OutputStream out)
+            throws IOException {
+        if (query.range() != null && query.range().compareTo(properties.getMaxRange()) > 0) {
+            throw new IllegalArgumentException("range " + query.range() + " exceeds the maximum of "
+                    + properties.getMaxRange());
+        }
+        long windowMs = query.range() != null ? query.range().toMillis() : properties.getLookbackDelta().toMillis();
+        long lastStep = startMs + (endMs - startMs) / stepMs * stepMs;
+        boolean pushdown = query.function().isSqlAggregate() && windowMs == stepMs;
+
+        // Resolved before any output so that errors can still become a 400
+        ServiceFilter filter = serviceFilter(query, startMs - windowMs, lastStep);
+
+        Timer.Sample timer = Timer.start(meterRegistry);
+        try {
+            PromResponseWriter writer = new PromResponseWriter(out, vector,
+                    query.function() == PromQuery.Function.SELECTOR ? query.column().metricName() : null);
+            if (!filter.matchesNothing()) {
+                if (pushdown) {
+                    aggregateInSql(query, startMs, lastStep, stepMs, filter, writer);
+                } else {
+                    streamSamples(query, startMs, lastStep, stepMs, windowMs, filter, writer);
+                }
+            }
+            // Only completed results get a closed envelope; a failure leaves the JSON truncated
+            writer.close();
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        } finally {
+            timer.stop(Timer.builder("analyzer.query.duration")
+                    .description("Query API execution time")
+                    .tag("type", vector ? "instant" : "range")
+                    .tag("mode", pushdown ? "pushdown" : "stream")
+                    .register(meterRegistry));
+        }
+    }
+
+    private void streamSamples(PromQuery query, long startMs, long lastStep, long stepMs, long windowMs,
+                               ServiceFilter filter, PromResponseWriter writer) throws IOException {
+        String column = query.column().columnName();
+        List<Object> args = new ArrayList<>(List.of(utc(startMs - windowMs), utc(lastStep)));
+        String sql = "SELECT service_name, timestamp, " + column + " FROM " + TABLE
+                + " WHERE timestamp > ? AND timestamp <= ? AND " + column + " IS NOT NULL"
+                + filter.sql(args)
+                + " ORDER BY service_name, timestamp";
+
+        SeriesEvaluator evaluator = new SeriesEvaluator(query, startMs, lastStep, stepMs, windowMs, writer);
+        jdbcTemplate.query(sql, (ResultSet rs) -> {
+            try {
+                evaluator.add(rs.getString(1), rs.getObject(2, OffsetDateTime.class).toInstant().toEpochMilli(),
+                        rs.getDouble(3));
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }, args.toArray());
+        evaluator.finish();
+    }
+
+    /**
+     * Step buckets are right-closed: a sample at {@code ts} belongs to the
+     * step {@code start + ceil((ts - start) / step) * step}, which matches
+     * the window {@code (t - step, t]} of the streamed evaluation.
+     */
+    private void aggregateInSql(PromQuery query, long startMs, long lastStep, long stepMs,
+                                ServiceFilter filter, PromResponseWriter writer) {
+        String column = query.column().columnName();
+        String aggregate = switch (query.function()) {
+            case AVG_OVER_TIME -> "AVG(v)";
+            case MIN_OVER_TIME -> "MIN(v)";
+            case MAX_OVER_TIME -> "MAX(v)";
+            case SUM_OVER_TIME -> "SUM(v)";
+            case COUNT_OVER_TIME -> "COUNT(v)";
+            default -> throw new IllegalStateException("Not an SQL aggregate: " + query.function());
+        };
+        List<Object> args = new ArrayList<>(List.of(startMs, stepMs, utc(startMs - stepMs), utc(lastStep)));
+        String sql = "SELECT service_name, bucket, " + aggregate + " FROM ("
+                + "SELECT service_name,"
+                + " CEIL((EXTRACT(EPOCH FROM timestamp) * 1000 - CAST(? AS BIGINT)) / CAST(? AS BIGINT)) AS bucket,"
+                + " CAST(" + column + " AS DOUBLE PRECISION) AS v"
+                + " FROM " + TABLE
+                + " WHERE timestamp > ? AND timestamp <= ? AND " + column + " IS NOT NULL"
+                + filter.sql(args)
+                + ") buckets GROUP BY service_name, bucket ORDER BY service_name, bucket";
+
+        jdbcTemplate.query(sql, (ResultSet rs) -> {
+            try {
+                writer.point(rs.getString(1), startMs + rs.getLong(2) * stepMs, rs.getDouble(3));
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }, args.toArray());
+    }
+
+    /**
+     * Equality matchers become SQL predicates. Regex matchers are resolved
+     * against the services present in the time range, since SQL regex
+     * syntax differs between databases.
+     */
+    private ServiceFilter serviceFilter(PromQuery query, long fromMs, long toMs) {
+        if (query.matchers().stream().noneMatch(PromQuery.LabelMatcher::isRegex)) {
+            return new ServiceFilter(query.matchers(), null);
+        }
+        List<String> services = jdbcTemplate.queryForList(
+                "SELECT DISTINCT service_name FROM " + TABLE + " WHERE timestamp > ? AND timestamp <= ?",
+                String.class, utc(fromMs), utc(toMs));
+        List<String> matching = services.stream()
+                .filter(service -> service != null
+                        && query.matchers().stream().allMatch(matcher -> matcher.matches(service)))
+                .toList();
+        return new ServiceFilter(List.of(), matching);
+    }
+
+    private static OffsetDateTime utc(long epochMs) {
+        return OffsetDateTime.ofInstant(Instant.ofEpochMilli(epochMs), ZoneOffset.UTC);
+    }
+
+    private record ServiceFilter(List<PromQuery.LabelMatcher> matchers, List<String> services) {
+
+        boolean matchesNothing() {
+            return services != null && services.isEmpty();
+        }
+
+        String sql(List<Object> args) {
+            StringBuilder sql = new StringBuilder();
+            for (PromQuery.LabelMatcher matcher : matchers) {
+                sql.append(matcher.op() == PromQuery.LabelMatcher.Op.EQ ? " AND service_name = ?" : " AND service_name <> ?");
+                args.add(matcher.value());
+            }
+            if (services != null) {
+                sql.append(" AND service_name IN (").append("?, ".repeat(services.size() - 1)).append("?)");
+                args.addAll(services);
+            }
+            return sql.toString();
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package com.hackathon.analyzer.ratelimit;
+
+import com.hackathon.analyzer.config.RateLimitProperties;
+import com.hackathon.analyzer.security.JwtTokenProvider;
+import io.jsonwebtoken.Claims;
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+/**
+ * Identifies the client a request is charged to: a valid API key, then a
+ * valid JWT subject, then the client IP address.
+ *
+ * Only credentials that verify are used as keys, so rotating made-up keys or
+ * tokens cannot be used to get fresh buckets.
+ */
+@Component
+@RequiredArgsConstructor
+public class ClientKeyResolver {
+
+    private static final String API_KEY_HEADER = "X-API-Key";
+    private static final String BEARER_PREFIX = "Bearer ";
+
+    private final JwtTokenProvider tokenProvider;
+    private final RateLimitProperties properties;
+
+    @Value("${app.security.api-key:${APP_API_KEY:}}")
+    private String apiKey;
+
+    public String resolve(HttpServletRequest request) {
+        String requestApiKey = request.getHeader(API_KEY_HEADER);
+        if (StringUtils.hasText(apiKey) && apiKey.equals(requestApiKey)) {
+            return "apikey:" + fingerprint(requestApiKey);
+        }
+
+        String authorization = request.getHeader("Authorization");
+        if (StringUtils.hasText(authorization) && authorization.startsWith(BEARER_PREFIX)) {
+            String subject = tokenProvider.resolveClaims(authorization.substring(BEARER_PREFIX.length()))
+                    .map(Claims::getSubject)
+                    .orElse(null);
+            if (StringUtils.hasText(subject)) {
+                return "user:" + subject;
+            }
+        }
+
+        return "ip:" + clientIp(request);
+    }
+
+    /**
+     * Client IP used for anonymous requests and for the auth tier.
+     */
+    public String clientIp(HttpServletRequest request) {
+        if (properties.isTrustForwardedFor()) {
+            String forwarded = request.getHeader("X-Forwarded-For");
+            if (StringUtils.hasText(forwarded)) {
+                return forwarded.split(",")[0].trim();
+            }
+        }
+        return request.getRemoteAddr();
+    }
+
+    private static String fingerprint(String value) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(value.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest, 0, 8);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
@@ -0,0 +1,127 @@
+package com.hackathon.analyzer.ratelimit;
+
+import com.hackathon.analyzer.config.RateLimitProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongSupplier;
+
+/**
+ * Token buckets per (tier, client), spread over independent stripes.
+ *
+ * Lookups and acquisitions never block: buckets live in concurrent maps and
+ * each bucket is a single CAS-updated value. Idle buckets are swept one
+ * stripe at a time so memory stays bounded by the number of active clients.
+ */
+@Slf4j
+@Component
+public class ClientRateLimiter {
+
+    private static final int STRIPES = 16;
+
+    private final RateLimitProperties properties;
+    private final LongSupplier nanoClock;
+    private final Map<String, TokenBucket>[] stripes;
+    private final MeterRegistry meterRegistry;
+    private final Map<String, Counter> rejectedCounters = new ConcurrentHashMap<>();
+
+    @Autowired
+    public ClientRateLimiter(RateLimitProperties properties, MeterRegistry meterRegistry) {
+        this(properties, meterRegistry, System::nanoTime);
+    }
+
+    @SuppressWarnings("unchecked")
+    ClientRateLimiter(RateLimitProperties properties, MeterRegistry meterRegistry, LongSupplier nanoClock) {
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+        this.nanoClock = nanoClock;
+        this.stripes = new Map[STRIPES];
+        Arrays.setAll(stripes, i -> new ConcurrentHashMap<>());
+        Gauge.builder("analyzer.ratelimit.buckets", this, ClientRateLimiter::bucketCount)
+                .description("Active per-client rate limit buckets")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Try to admit one request of {@code clientKey} in {@code tier}. Unknown
+     * tiers are not limited.
+     */
+    public RateLimitDecision tryAcquire(String tier, String clientKey) {
+        return tryAcquire(tier, clientKey, 1);
+    }
+
+    /**
+     * Try to take {@code permits} tokens for {@code clientKey} in {@code tier},
+     * e.g. one per sample of an ingested batch. Requests for more than the
+     * tier capacity are always rejected.
+     */
+    public RateLimitDecision tryAcquire(String tier, String clientKey, int permits) {
+        RateLimitProperties.Tier limits = properties.getTiers().get(tier);
+        if (limits == null) {
+            return RateLimitDecision.unlimited();
+        }
+        if (permits > limits.getCapacity()) {
+            rejectedCounter(tier).increment();
+            return RateLimitDecision.rejected(limits.getCapacity(), limits.getPeriod().toNanos());
+        }
+
+        long now = nanoClock.getAsLong();
+        String key = tier + '|' + clientKey;
+        TokenBucket bucket = stripeFor(key).computeIfAbsent(key,
+                k -> new TokenBucket(limits.getCapacity(), limits.getPeriod().toNanos(), now));
+
+        long result = bucket.tryAcquire(now, permits);
+        if (result >= 0) {
+            return RateLimitDecision.allowed(limits.getCapacity(), result);
+        }
+        rejectedCounter(tier).increment();
+        return RateLimitDecision.rejected(limits.getCapacity(), -result);
+    }
+
+    /**
+     * Drop buckets that are full and have been idle longer than the configured timeout.
+     */
+    @Scheduled(fixedDelayString = "${analyzer.rate-limit.eviction-interval-ms:60000}")
+    public void evictIdle() {
+        long now = nanoClock.getAsLong();
+        long idleNanos = properties.getIdleTimeout().toNanos();
+        int evicted = 0;
+        for (Map<String, TokenBucket> stripe : stripes) {
+            for (Map.Entry<String, TokenBucket> entry : stripe.entrySet()) {
+                if (entry.getValue().isIdle(now, idleNanos) && stripe.remove(entry.getKey(), entry.getValue())) {
+                    evicted++;
+                }
+            }
+        }
+        if (evicted > 0) {
+            log.debug("Evicted {} idle rate limit buckets", evicted);
+        }
+    }
+
+    int bucketCount() {
+        int count = 0;
+        for (Map<String, TokenBucket> stripe : stripes) {
+            count += stripe.size();
+        }
+        return count;
+    }
+
+    private Map<String, TokenBucket> stripeFor(String key) {
+        return stripes[(key.hashCode() & 0x7fffffff) % STRIPES];
+    }
+
+    private Counter rejectedCounter(String tier) {
+        return rejectedCounters.computeIfAbsent(tier, t -> Counter.builder("analyzer.ratelimit.rejected")
+                .description("Requests rejected by per-client rate limits")
+                .tag("tier", t)
+                .register(meterRegistry));
+    }
+}
@@ -0,0 +1,32 @@
+package com.hackathon.analyzer.ratelimit;
+
+/**
+ * Outcome of a rate limit check.
+ *
+ * @param limit           bucket capacity, or -1 when the request is not limited
+ * @param remaining       tokens left after this request
+ * @param retryAfterNanos time until the next token when rejected, otherwise 0
+ */
+public record RateLimitDecision(boolean allowed, int limit, long remaining, long retryAfterNanos) {
+
+    static RateLimitDecision unlimited() {
+        return new RateLimitDecision(true, -1, 0, 0);
+    }
+
+    static RateLimitDecision allowed(int limit, long remaining) {
+        return new RateLimitDecision(true, limit, remaining, 0);
+    }
+
+    static RateLimitDecision rejected(int limit, long retryAfterNanos) {
+        return new RateLimitDecision(false, limit, 0, retryAfterNanos);
+    }
+
+    /** Retry-After header value: whole seconds, rounded up, at least 1. */
+    public long retryAfterSeconds() {
+        return Math.max(1, (retryAfterNanos + 999_999_999L) / 1_000_000_000L);
+    }
+
+    public long retryAfterMillis() {
+        return (retryAfterNanos + 999_999L) / 1_000_000L;
+    }
+}
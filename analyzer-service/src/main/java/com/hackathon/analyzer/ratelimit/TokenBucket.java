@@ -0,0 +1,66 @@
+package com.hackathon.analyzer.ratelimit;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Lock-free token bucket.
+ *
+ * Implemented as a generic cell rate algorithm: the whole bucket state is a
+ * single "theoretical arrival time" updated with CAS, which gives exact
+ * retry-after values without a refill thread or locks.
+ */
+final class TokenBucket {
+
+    private final long intervalNanos;
+    private final long burstNanos;
+    private final AtomicLong theoreticalArrival;
+
+    TokenBucket(int capacity, long periodNanos, long nowNanos) {
+        if (capacity <= 0 || periodNanos <= 0) {
+            throw new IllegalArgumentException("capacity and period must be positive");
+        }
+        this.intervalNanos = Math.max(1, periodNanos / capacity);
+        this.burstNanos = intervalNanos * capacity;
+        this.theoreticalArrival = new AtomicLong(nowNanos);
+    }
+
+    /**
+     * Take one token if available.
+     *
+     * @return remaining tokens (>= 0) when allowed, otherwise the negated
+     *         number of nanoseconds until a token becomes available
+     */
+    long tryAcquire(long nowNanos) {
+        return tryAcquire(nowNanos, 1);
+    }
+
+    /**
+     * Take {@code permits} tokens at once, or none. Asking for more than the
+     * capacity never succeeds.
+     *
+     * @return remaining tokens (>= 0) when allowed, otherwise the negated
+     *         number of nanoseconds until enough tokens are available
+     */
+    long tryAcquire(long nowNanos, int permits) {
+        long costNanos = intervalNanos * permits;
+        while (true) {
+            long tat = theoreticalArrival.get();
+            long base = Math.max(tat, nowNanos);
+            long newTat = base + costNanos;
+            long allowAt = newTat - burstNanos;
+            if (allowAt > nowNanos) {
+                return -(allowAt - nowNanos);
+            }
+            if (theoreticalArrival.compareAndSet(tat, newTat)) {
+                return (burstNanos - (newTat - nowNanos)) / intervalNanos;
+            }
+        }
+    }
+
+    /**
+     * Whether the bucket is full and has not been used for at least {@code idleNanos}.
+     */
+    boolean isIdle(long nowNanos, long idleNanos) {
+        return nowNanos - theoreticalArrival.get() >= idleNanos;
+    }
+}
@@ -1,11 +1,20 @@
 package com.hackathon.analyzer.repository;
 
 import com.hackathon.analyzer.model.AnalysisResult;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.AvailableHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Window;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
+import java.time.Instant;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface AnalysisResultRepository extends JpaRepository<AnalysisResult, Long> {
@@ -13,4 +22,25 @@ public interface AnalysisResultRepository extends JpaRepository<AnalysisResult,
     List<AnalysisResult> findByServiceNameOrderByAnalysisTimestampDesc(String serviceName);
 
     Optional<AnalysisResult> findFirstByServiceNameOrderByAnalysisTimestampDesc(String serviceName);
+
+    /**
+     * Keyset page, newest first; id breaks ties between equal timestamps.
+     */
+    Window<AnalysisResult> findByServiceNameOrderByAnalysisTimestampDescIdDesc(
+            String serviceName, ScrollPosition position, Limit limit);
+
+    /**
+     * Cursor over a time range, oldest first. Must be consumed inside a
+     * transaction and closed. The ordering repeats the index columns so the
+     * database can read rows in index order instead of sorting (and
+     * buffering) the whole range first.
+     */
+    @QueryHints({
+            @QueryHint(name = AvailableHints.HINT_FETCH_SIZE, value = MetricsSnapshotRepository.EXPORT_FETCH_SIZE),
+            @QueryHint(name = AvailableHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT a FROM AnalysisResult a WHERE a.serviceName = :serviceName "
+            + "AND a.analysisTimestamp >= :from AND a.analysisTimestamp < :to "
+            + "ORDER BY a.serviceName, a.analysisTimestamp, a.id")
+    Stream<AnalysisResult> streamHistory(String serviceName, Instant from, Instant to);
 }
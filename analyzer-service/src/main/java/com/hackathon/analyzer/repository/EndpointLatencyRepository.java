@@ -0,0 +1,17 @@
+package com.hackathon.analyzer.repository;
+
+import com.hackathon.analyzer.model.EndpointLatency;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface EndpointLatencyRepository extends JpaRepository<EndpointLatency, Long> {
+
+    Optional<EndpointLatency> findFirstByServiceNameOrderByTimestampDesc(String serviceName);
+
+    List<EndpointLatency> findByServiceNameAndTimestampOrderByRequestCountDesc(String serviceName, Instant timestamp);
+}
@@ -0,0 +1,50 @@
+package com.hackathon.analyzer.repository;
+
+import com.hackathon.analyzer.model.LeaderLease;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+
+@Repository
+public interface LeaderLeaseRepository extends JpaRepository<LeaderLease, String> {
+
+    /**
+     * Extend a lease this replica already holds. Returns 0 if someone else holds it.
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE LeaderLease l SET l.expiresAt = :expiresAt " +
+           "WHERE l.leaseName = :leaseName AND l.holder = :holder")
+    int renew(@Param("leaseName") String leaseName,
+              @Param("holder") String holder,
+              @Param("expiresAt") Instant expiresAt);
+
+    /**
+     * Take over an expired lease. Only one replica can win, because the row
+     * stops matching as soon as the first update commits.
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE LeaderLease l SET l.holder = :holder, l.acquiredAt = :now, l.expiresAt = :expiresAt " +
+           "WHERE l.leaseName = :leaseName AND l.expiresAt < :now")
+    int takeOver(@Param("leaseName") String leaseName,
+                 @Param("holder") String holder,
+                 @Param("now") Instant now,
+                 @Param("expiresAt") Instant expiresAt);
+
+    /**
+     * Give up a lease on shutdown so another replica can take over immediately.
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE LeaderLease l SET l.expiresAt = :now " +
+           "WHERE l.leaseName = :leaseName AND l.holder = :holder")
+    int release(@Param("leaseName") String leaseName,
+                @Param("holder") String holder,
+                @Param("now") Instant now);
+}
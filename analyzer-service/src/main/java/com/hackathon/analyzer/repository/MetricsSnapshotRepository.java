@@ -1,26 +1,54 @@
 package com.hackathon.analyzer.repository;
 
 import com.hackathon.analyzer.model.MetricsSnapshot;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.AvailableHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
 import java.time.Instant;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface MetricsSnapshotRepository extends JpaRepository<MetricsSnapshot, Long> {
 
-    List<MetricsSnapshot> findByServiceName(String serviceName);
+    /** Rows per round trip for streamed exports. */
+    String EXPORT_FETCH_SIZE = "500";
 
     List<MetricsSnapshot> findByServiceNameAndTimestampAfter(String serviceName, Instant since);
 
+    List<MetricsSnapshot> findByServiceNameAndTimestampAfterOrderByTimestampAsc(
+            String serviceName, Instant since, Limit limit);
+
+    long countByServiceNameAndTimestampAfter(String serviceName, Instant since);
+
+    long countByTimestampAfter(Instant since);
+
     Page<MetricsSnapshot> findByServiceNameOrderByTimestampDesc(String serviceName, Pageable pageable);
 
-    @Query("SELECT m FROM MetricsSnapshot m WHERE m.serviceName = :serviceName ORDER BY m.timestamp DESC")
-    List<MetricsSnapshot> findRecentMetrics(String serviceName);
+    Optional<MetricsSnapshot> findFirstByServiceNameAndTimestampBeforeOrderByTimestampDesc(
+            String serviceName, Instant before);
+
+    /**
+     * Cursor over a time range, oldest first. Must be consumed inside a
+     * transaction and closed. Ordered like the (service, timestamp, id)
+     * index, see {@link AnalysisResultRepository#streamHistory}.
+     */
+    @QueryHints({
+            @QueryHint(name = AvailableHints.HINT_FETCH_SIZE, value = EXPORT_FETCH_SIZE),
+            @QueryHint(name = AvailableHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT m FROM MetricsSnapshot m WHERE m.serviceName = :serviceName "
+            + "AND m.timestamp >= :from AND m.timestamp < :to "
+            + "ORDER BY m.serviceName, m.timestamp, m.id")
+    Stream<MetricsSnapshot> streamHistory(String serviceName, Instant from, Instant to);
 
     void deleteByTimestampBefore(Instant before);
 }
@@ -0,0 +1,24 @@
+package com.hackathon.analyzer.repository;
+
+import com.hackathon.analyzer.model.PregeneratedInsight;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface PregeneratedInsightRepository extends JpaRepository<PregeneratedInsight, Long> {
+
+    Optional<PregeneratedInsight> findFirstByFingerprintAndGeneratedAtAfterOrderByGeneratedAtDesc(
+            String fingerprint, Instant since);
+
+    List<PregeneratedInsight> findByGeneratedAtAfterOrderByGeneratedAtDesc(Instant since);
+
+    @Modifying
+    @Transactional
+    long deleteByGeneratedAtBefore(Instant before);
+}
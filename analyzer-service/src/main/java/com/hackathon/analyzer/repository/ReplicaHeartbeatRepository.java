@@ -0,0 +1,20 @@
+package com.hackathon.analyzer.repository;
+
+import com.hackathon.analyzer.model.ReplicaHeartbeat;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.List;
+
+@Repository
+public interface ReplicaHeartbeatRepository extends JpaRepository<ReplicaHeartbeat, String> {
+
+    List<ReplicaHeartbeat> findByLastHeartbeatAtAfter(Instant since);
+
+    @Modifying
+    @Transactional
+    long deleteByLastHeartbeatAtBefore(Instant before);
+}
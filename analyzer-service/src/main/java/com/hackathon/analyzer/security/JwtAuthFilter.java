@@ -1,5 +1,6 @@
 package com.hackathon.analyzer.security;
 
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -15,11 +16,12 @@ import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
 import java.util.List;
+import java.util.Optional;
 
 /**
  * JWT authentication filter.
  * Extracts the Bearer token from the Authorization header,
- * validates it, and sets the SecurityContext.
+ * validates it (a single parse, or a cache hit), and sets the SecurityContext.
  */
 @Slf4j
 @Component
@@ -37,8 +39,9 @@ public class JwtAuthFilter extends OncePerRequestFilter {
 
         String token = extractToken(request);
 
-        if (StringUtils.hasText(token) && tokenProvider.validateToken(token)) {
-            String username = tokenProvider.getUsernameFromToken(token);
+        Optional<Claims> claims = StringUtils.hasText(token) ? tokenProvider.resolveClaims(token) : Optional.empty();
+        if (claims.isPresent()) {
+            String username = claims.get().getSubject();
 
             UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken(
                     username, null,
@@ -2,6 +2,7 @@ package com.hackathon.analyzer.security;
 
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.security.Keys;
+import io.jsonwebtoken.security.SecurityException;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
@@ -9,10 +10,15 @@ import org.springframework.stereotype.Component;
 import javax.crypto.SecretKey;
 import java.nio.charset.StandardCharsets;
 import java.util.Date;
+import java.util.Optional;
 
 /**
  * JWT token management using jjwt library.
  * Generates and validates stateless Bearer tokens for API authentication.
+ *
+ * Validation uses a single prebuilt parser and parses each token once;
+ * verified tokens are remembered until they expire, so repeated requests
+ * with the same token skip signature verification entirely.
  */
 @Slf4j
 @Component
@@ -20,12 +26,19 @@ public class JwtTokenProvider {
 
     private final SecretKey signingKey;
     private final long expirationMs;
+    private final JwtParser parser;
+    private final VerifiedTokenCache verifiedTokens;
 
     public JwtTokenProvider(
             @Value("${app.security.jwt.secret:SaveYourMoneyHackathon2026SecretKeyMustBe256Bits!}") String secret,
-            @Value("${app.security.jwt.expiration-ms:86400000}") long expirationMs) {
+            @Value("${app.security.jwt.expiration-ms:86400000}") long expirationMs,
+            @Value("${app.security.jwt.cache-max-entries:10000}") int cacheMaxEntries) {
         this.signingKey = Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8));
         this.expirationMs = expirationMs;
+        this.parser = Jwts.parser()
+                .verifyWith(signingKey)
+                .build();
+        this.verifiedTokens = new VerifiedTokenCache(cacheMaxEntries);
     }
 
     /**
@@ -43,37 +56,60 @@ public class JwtTokenProvider {
                 .compact();
     }
 
+    /**
+     * Validate the token and return its claims in one step, or empty if the
+     * token is invalid or expired. Served from the verified-token cache when
+     * the same token was seen before.
+     */
+    public Optional<Claims> resolveClaims(String token) {
+        if (token == null || token.isBlank()) {
+            return Optional.empty();
+        }
+        long now = System.currentTimeMillis();
+        Optional<Claims> cached = verifiedTokens.get(token, now);
+        if (cached.isPresent()) {
+            return cached;
+        }
+
+        Optional<Claims> claims = parseClaims(token);
+        claims.ifPresent(c -> verifiedTokens.put(token, c, now));
+        return claims;
+    }
+
     /**
      * Extract the username from a valid token.
      */
     public String getUsernameFromToken(String token) {
-        return Jwts.parser()
-                .verifyWith(signingKey)
-                .build()
-                .parseSignedClaims(token)
-                .getPayload()
-                .getSubject();
+        return resolveClaims(token)
+                .map(Claims::getSubject)
+                .orElseThrow(() -> new JwtException("Invalid JWT token"));
     }
 
     /**
      * Validate a JWT token's signature and expiration.
      */
     public boolean validateToken(String token) {
+        return resolveClaims(token).isPresent();
+    }
+
+    int cachedTokenCount() {
+        return verifiedTokens.size();
+    }
+
+    private Optional<Claims> parseClaims(String token) {
         try {
-            Jwts.parser()
-                    .verifyWith(signingKey)
-                    .build()
-                    .parseSignedClaims(token);
-            return true;
+            return Optional.of(parser.parseSignedClaims(token).getPayload());
         } catch (ExpiredJwtException ex) {
             log.warn("JWT token expired: {}", ex.getMessage());
         } catch (MalformedJwtException ex) {
             log.warn("Malformed JWT token: {}", ex.getMessage());
         } catch (SecurityException ex) {
             log.warn("Invalid JWT signature: {}", ex.getMessage());
+        } catch (JwtException ex) {
+            log.warn("Unsupported JWT token: {}", ex.getMessage());
         } catch (IllegalArgumentException ex) {
             log.warn("JWT claims string is empty: {}", ex.getMessage());
         }
-        return false;
+        return Optional.empty();
     }
 }
@@ -0,0 +1,86 @@
+package com.hackathon.analyzer.security;
+
+import io.jsonwebtoken.Claims;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Date;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Bounded cache of tokens whose signature has already been verified.
+ *
+ * Entries are keyed by the SHA-256 of the raw token, so bearer tokens are
+ * never kept in memory, and are only served until the token's own expiry.
+ * Tokens without an expiry claim are not cached.
+ */
+class VerifiedTokenCache {
+
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    private final int maxEntries;
+
+    VerifiedTokenCache(int maxEntries) {
+        this.maxEntries = maxEntries;
+    }
+
+    Optional<Claims> get(String token, long nowMillis) {
+        if (maxEntries <= 0) {
+            return Optional.empty();
+        }
+        String key = hash(token);
+        Entry entry = entries.get(key);
+        if (entry == null) {
+            return Optional.empty();
+        }
+        if (nowMillis >= entry.expiresAtMillis()) {
+            entries.remove(key, entry);
+            return Optional.empty();
+        }
+        return Optional.of(entry.claims());
+    }
+
+    void put(String token, Claims claims, long nowMillis) {
+        Date expiration = claims.getExpiration();
+        if (maxEntries <= 0 || expiration == null || expiration.getTime() <= nowMillis) {
+            return;
+        }
+        if (entries.size() >= maxEntries) {
+            evict(nowMillis);
+        }
+        entries.put(hash(token), new Entry(claims, expiration.getTime()));
+    }
+
+    int size() {
+        return entries.size();
+    }
+
+    /**
+     * Drop expired entries; if still full, drop arbitrary entries (they are
+     * simply re-verified on next use).
+     */
+    private void evict(long nowMillis) {
+        entries.values().removeIf(entry -> nowMillis >= entry.expiresAtMillis());
+        Iterator<String> keys = entries.keySet().iterator();
+        while (entries.size() >= maxEntries && keys.hasNext()) {
+            keys.next();
+            keys.remove();
+        }
+    }
+
+    private static String hash(String token) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(token.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    private record Entry(Claims claims, long expiresAtMillis) {
+    }
+}
@@ -1,7 +1,7 @@
 package com.hackathon.analyzer.service;
 
 import com.hackathon.analyzer.model.AnalysisResult;
-import com.hackathon.analyzer.model.ResourceRecommendation;
+import com.hackathon.recommendation.ResourceRecommendation;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.math3.stat.descriptive.DescriptiveStatistics;
 import org.springframework.stereotype.Service;
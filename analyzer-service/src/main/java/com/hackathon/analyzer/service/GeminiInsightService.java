@@ -1,14 +1,31 @@
 package com.hackathon.analyzer.service;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hackathon.analyzer.config.OutboundWebClients;
+import com.hackathon.analyzer.service.insight.InsightCache;
+import com.hackathon.analyzer.service.insight.InsightFingerprint;
+import com.hackathon.analyzer.service.insight.PregeneratedInsightStore;
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.reactor.bulkhead.operator.BulkheadOperator;
+import io.github.resilience4j.reactor.circuitbreaker.operator.CircuitBreakerOperator;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.ServerSentEvent;
 import org.springframework.stereotype.Service;
 import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
 
+import java.io.IOException;
 import java.time.Duration;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
  * AI-powered optimizasyon önerileri üretir.
@@ -18,23 +35,41 @@ import java.util.Map;
 @Service
 public class GeminiInsightService {
 
+    private static final int DEFAULT_MAX_TOKENS = 1024;
+
     private final WebClient webClient;
     private final String apiKey;
     private final String model;
     private final boolean enabled;
+    private final InsightCache insightCache;
+    private final PregeneratedInsightStore pregeneratedStore;
+    private final CircuitBreaker circuitBreaker;
+    private final Bulkhead bulkhead;
+    private final Duration streamTimeout;
+    private final ObjectMapper objectMapper = new ObjectMapper();
 
     public GeminiInsightService(
-            WebClient.Builder webClientBuilder,
+            OutboundWebClients webClients,
+            InsightCache insightCache,
+            PregeneratedInsightStore pregeneratedStore,
+            CircuitBreaker aiCircuitBreaker,
+            Bulkhead aiBulkhead,
             @Value("${ai.api-key:sk-4a2814af1df6436aa2bf93b1d800dc26}") String apiKey,
             @Value("${ai.base-url:http://127.0.0.1:8045}") String baseUrl,
             @Value("${ai.model:gemini-3-pro-high}") String model,
-            @Value("${ai.enabled:true}") boolean enabled) {
-        this.webClient = webClientBuilder
+            @Value("${ai.enabled:true}") boolean enabled,
+            @Value("${ai.stream-timeout-seconds:120}") long streamTimeoutSeconds) {
+        this.webClient = webClients.builder(OutboundWebClients.TrafficClass.AI)
                 .baseUrl(baseUrl)
                 .build();
         this.apiKey = apiKey;
         this.model = model;
         this.enabled = enabled;
+        this.insightCache = insightCache;
+        this.pregeneratedStore = pregeneratedStore;
+        this.circuitBreaker = aiCircuitBreaker;
+        this.bulkhead = aiBulkhead;
+        this.streamTimeout = Duration.ofSeconds(streamTimeoutSeconds);
         log.info("AI Insight Service initialized - baseUrl: {}, model: {}, enabled: {}", baseUrl, model, enabled);
     }
 
@@ -54,6 +89,8 @@ public class GeminiInsightService {
 
     /**
      * Servis metrikleri hakkında AI'dan optimizasyon raporu iste.
+     * Aynı (yuvarlanmış) girdiler için sonuç önbellekten ya da batch job'un
+     * ürettiği kayıtlardan döner; eş zamanlı istekler tek bir API çağrısını paylaşır.
      */
     public String generateOptimizationInsight(String serviceName,
                                                double cpuUsagePercent,
@@ -70,7 +107,55 @@ public class GeminiInsightService {
         String prompt = buildOptimizationPrompt(serviceName, cpuUsagePercent, memoryUsageMb,
                 monthlyCost, estimatedSavings, confidenceScore, detectedIssues);
 
-        return callAnthropicAPI(prompt);
+        String key = InsightFingerprint.of(serviceName, cpuUsagePercent, memoryUsageMb,
+                monthlyCost, estimatedSavings, confidenceScore, detectedIssues);
+        try {
+            return insightCache.get(key, () -> pregeneratedStore.find(key)
+                    .orElseGet(() -> requestInsight(prompt, DEFAULT_MAX_TOKENS)));
+        } catch (Exception e) {
+            log.error("Error calling AI API: {}", e.getMessage());
+            return "AI insight temporarily unavailable: " + e.getMessage();
+        }
+    }
+
+    /**
+     * Optimizasyon raporunu model ürettikçe parça parça (text delta) döndürür.
+     * İstek thread'i bloklanmaz; taze bir önbellek ya da batch kaydı varsa model çağrılmaz.
+     * Akış {@code message_stop} ile tamamlandığında birleşik metin önbelleğe yazılır.
+     */
+    public Flux<String> streamOptimizationInsight(String serviceName,
+                                                  double cpuUsagePercent,
+                                                  double memoryUsageMb,
+                                                  double monthlyCost,
+                                                  double estimatedSavings,
+                                                  double confidenceScore,
+                                                  Map<String, String> detectedIssues) {
+        if (!isConfigured()) {
+            return Flux.error(new IllegalStateException("AI API is not configured"));
+        }
+
+        String key = InsightFingerprint.of(serviceName, cpuUsagePercent, memoryUsageMb,
+                monthlyCost, estimatedSavings, confidenceScore, detectedIssues);
+        return Mono.fromCallable(() -> insightCache.getFresh(key).or(() -> pregeneratedStore.find(key)))
+                .subscribeOn(Schedulers.boundedElastic())
+                .flatMapMany(cached -> cached.map(insight -> {
+                    insightCache.put(key, insight);
+                    return Flux.just(insight);
+                }).orElseGet(() -> {
+                    String prompt = buildOptimizationPrompt(serviceName, cpuUsagePercent, memoryUsageMb,
+                            monthlyCost, estimatedSavings, confidenceScore, detectedIssues);
+                    // One buffer per subscription, so a retry does not append to the failed attempt
+                    return Flux.defer(() -> {
+                        StringBuilder full = new StringBuilder();
+                        return streamMessages(prompt)
+                                .doOnNext(full::append)
+                                .doOnComplete(() -> {
+                                    if (!full.isEmpty()) {
+                                        insightCache.put(key, full.toString());
+                                    }
+                                });
+                    });
+                }));
     }
 
     /**
@@ -84,46 +169,130 @@ public class GeminiInsightService {
         return callAnthropicAPI(prompt);
     }
 
+    /**
+     * Önbelleği atlayarak tek bir tamamlama ister (batch job için).
+     * Hata durumunda exception fırlatır.
+     */
+    public String requestCompletion(String prompt, int maxTokens) {
+        if (!isConfigured()) {
+            throw new IllegalStateException("AI API is not configured");
+        }
+        return requestInsight(prompt, maxTokens);
+    }
+
     private String callAnthropicAPI(String prompt) {
         try {
-            log.info("Calling AI API with model: {}", model);
-
-            // Anthropic Messages API format
-            Map<String, Object> requestBody = Map.of(
-                "model", model,
-                "max_tokens", 1024,
-                "messages", List.of(
-                    Map.of(
-                        "role", "user",
-                        "content", prompt
-                    )
-                )
-            );
-
-            String response = webClient.post()
-                .uri("/v1/messages")
-                .header("Content-Type", "application/json")
-                .header("x-api-key", apiKey)
-                .header("anthropic-version", "2023-06-01")
-                .bodyValue(requestBody)
-                .retrieve()
-                .bodyToMono(String.class)
-                .timeout(Duration.ofSeconds(60))
-                .onErrorResume(e -> {
-                    log.error("AI API call failed: {}", e.getMessage());
-                    return Mono.just("{\"error\":\"" + e.getMessage() + "\"}");
-                })
-                .block();
-
-            log.debug("AI API response: {}", response);
-            return extractTextFromAnthropicResponse(response);
-
+            return requestInsight(prompt, DEFAULT_MAX_TOKENS);
         } catch (Exception e) {
             log.error("Error calling AI API: {}", e.getMessage(), e);
             return "AI insight temporarily unavailable: " + e.getMessage();
         }
     }
 
+    /**
+     * Tek bir Messages API çağrısı yapar. Hata durumunda exception fırlatır,
+     * böylece hata mesajları önbelleğe girmez.
+     */
+    private String requestInsight(String prompt, int maxTokens) {
+        log.info("Calling AI API with model: {}", model);
+
+        // Anthropic Messages API format
+        Map<String, Object> requestBody = Map.of(
+            "model", model,
+            "max_tokens", maxTokens,
+            "messages", List.of(
+                Map.of(
+                    "role", "user",
+                    "content", prompt
+                )
+            )
+        );
+
+        String response = webClient.post()
+            .uri("/v1/messages")
+            .header("Content-Type", "application/json")
+            .header("x-api-key", apiKey)
+            .header("anthropic-version", "2023-06-01")
+            .bodyValue(requestBody)
+            .retrieve()
+            .bodyToMono(String.class)
+            .timeout(Duration.ofSeconds(60))
+            .transformDeferred(CircuitBreakerOperator.of(circuitBreaker))
+            .transformDeferred(BulkheadOperator.of(bulkhead))
+            .block();
+
+        log.debug("AI API response: {}", response);
+        if (response == null || response.contains("\"error\"")) {
+            log.error("AI API returned error: {}", response);
+            throw new IllegalStateException("AI API error: " + response);
+        }
+        return extractTextFromAnthropicResponse(response);
+    }
+
+    /**
+     * Messages API'yi {@code stream: true} ile çağırır ve yalnızca
+     * {@code content_block_delta} olaylarındaki metin parçalarını yayar.
+     * Bağlantı {@code message_stop} gelmeden kapanırsa akış hata ile biter,
+     * böylece yarım kalan rapor tamamlanmış gibi önbelleğe yazılmaz.
+     */
+    private Flux<String> streamMessages(String prompt) {
+        log.info("Streaming AI API response with model: {}", model);
+
+        Map<String, Object> requestBody = Map.of(
+            "model", model,
+            "max_tokens", DEFAULT_MAX_TOKENS,
+            "stream", true,
+            "messages", List.of(Map.of("role", "user", "content", prompt))
+        );
+
+        return Flux.defer(() -> {
+                AtomicBoolean stopped = new AtomicBoolean();
+                return webClient.post()
+                    .uri("/v1/messages")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .accept(MediaType.TEXT_EVENT_STREAM)
+                    .header("x-api-key", apiKey)
+                    .header("anthropic-version", "2023-06-01")
+                    .bodyValue(requestBody)
+                    .retrieve()
+                    .bodyToFlux(new ParameterizedTypeReference<ServerSentEvent<String>>() { })
+                    .takeUntil(event -> {
+                        boolean stop = "message_stop".equals(event.event());
+                        if (stop) {
+                            stopped.set(true);
+                        }
+                        return stop;
+                    })
+                    .concatMap(this::extractDelta)
+                    .concatWith(Mono.defer(() -> stopped.get()
+                            ? Mono.<String>empty()
+                            : Mono.error(new IllegalStateException("AI stream ended before message_stop"))));
+            })
+            .timeout(streamTimeout)
+            .transformDeferred(CircuitBreakerOperator.of(circuitBreaker))
+            .transformDeferred(BulkheadOperator.of(bulkhead));
+    }
+
+    private Mono<String> extractDelta(ServerSentEvent<String> event) {
+        String type = event.event();
+        if (event.data() == null || type == null) {
+            return Mono.empty();
+        }
+        try {
+            JsonNode data = objectMapper.readTree(event.data());
+            if ("error".equals(type)) {
+                String message = data.path("error").path("message").asText("unknown error");
+                return Mono.error(new IllegalStateException("AI API error: " + message));
+            }
+            if ("content_block_delta".equals(type) && "text_delta".equals(data.path("delta").path("type").asText())) {
+                return Mono.just(data.path("delta").path("text").asText());
+            }
+            return Mono.empty();
+        } catch (IOException e) {
+            return Mono.error(new IllegalStateException("Malformed AI stream event: " + e.getMessage(), e));
+        }
+    }
+
     private String buildOptimizationPrompt(String serviceName, double cpu,
                                             double memory, double cost,
                                             double savings, double confidence,
@@ -1,6 +1,6 @@
 package com.hackathon.analyzer.service;
 
-import com.hackathon.analyzer.model.ResourceRecommendation;
+import com.hackathon.recommendation.ResourceRecommendation;
 import org.springframework.stereotype.Service;
 import lombok.extern.slf4j.Slf4j;
 
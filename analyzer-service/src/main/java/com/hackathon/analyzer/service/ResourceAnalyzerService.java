@@ -1,11 +1,15 @@
 package com.hackathon.analyzer.service;
 
+import com.hackathon.analyzer.collector.HotEndpointTracker;
+import com.hackathon.analyzer.config.HotEndpointProperties;
 import com.hackathon.analyzer.model.AnalysisResult;
+import com.hackathon.analyzer.model.HotEndpointReport;
 import com.hackathon.analyzer.model.MetricsSnapshot;
-import com.hackathon.analyzer.model.ResourceRecommendation;
 import com.hackathon.analyzer.repository.AnalysisResultRepository;
 import com.hackathon.analyzer.repository.MetricsSnapshotRepository;
+import com.hackathon.analyzer.service.optimization.JvmTuningService;
 import com.hackathon.analyzer.service.strategy.ResourceAnalysisStrategy;
+import com.hackathon.recommendation.ResourceRecommendation;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.math3.stat.descriptive.DescriptiveStatistics;
@@ -34,6 +38,9 @@ public class ResourceAnalyzerService {
     private final AnalysisResultRepository analysisRepository;
     private final CostCalculationService costService;
     private final List<ResourceAnalysisStrategy> strategies;
+    private final HotEndpointTracker hotEndpointTracker;
+    private final HotEndpointProperties hotEndpointProperties;
+    private final JvmTuningService jvmTuningService;
 
     /**
      * Analyze a service and generate resource recommendations.
@@ -148,6 +155,18 @@ public class ResourceAnalyzerService {
             detectedIssues.put("Connection Pool Exhaustion", "Connection pool frequently at maximum capacity");
         }
 
+        List<ResourceRecommendation.HotEndpoint> hotEndpoints = hotEndpointTracker.report(serviceName)
+                .map(HotEndpointReport::getEndpoints)
+                .orElse(List.of());
+        String hotSpot = describeHotSpot(hotEndpoints, analysis);
+        if (hotSpot != null) {
+            detectedIssues.put("Hot Endpoint", hotSpot);
+        }
+        JvmTuningService.JvmTuning jvm = jvmTuningService.recommend(serviceName,
+                analysis.getRecommendedMemoryLimit(), analysis.getRecommendedCpuLimit(),
+                analysis.getRecommendedJvmXms(), analysis.getRecommendedJvmXmx());
+        detectedIssues.putAll(jvm.issues());
+
         return ResourceRecommendation.builder()
                 .serviceName(serviceName)
                 .kubernetes(ResourceRecommendation.KubernetesResources.builder()
@@ -156,15 +175,7 @@ public class ResourceAnalyzerService {
                         .memoryRequest(analysis.getRecommendedMemoryRequest())
                         .memoryLimit(analysis.getRecommendedMemoryLimit())
                         .build())
-                .jvm(ResourceRecommendation.JvmConfiguration.builder()
-                        .xms(analysis.getRecommendedJvmXms())
-                        .xmx(analysis.getRecommendedJvmXmx())
-                        .gcType("G1GC")
-                        .additionalFlags(Map.of(
-                                "XX:+UseG1GC", "",
-                                "XX:MaxGCPauseMillis", "200",
-                                "XX:+HeapDumpOnOutOfMemoryError", ""))
-                        .build())
+                .jvm(jvm.configuration())
                 .connectionPool(ResourceRecommendation.ConnectionPoolConfig.builder()
                         .maximumPoolSize(analysis.getRecommendedMaxPoolSize())
                         .minimumIdle(analysis.getRecommendedMinIdle())
@@ -177,11 +188,33 @@ public class ResourceAnalyzerService {
                         .build())
                 .costAnalysis(costService.calculateCostAnalysis(analysis))
                 .confidenceScore(analysis.getConfidenceScore())
-                .rationale(buildRationale(analysis))
+                .rationale(buildRationale(analysis) + jvm.rationale() + (hotSpot != null ? hotSpot + "." : ""))
                 .detectedIssues(detectedIssues)
+                .hotEndpoints(hotEndpoints)
                 .build();
     }
 
+    /**
+     * Name the route that takes most of the service's request time, when one
+     * dominates. Time spent serving a request is what holds threads, CPU and
+     * pooled connections, so it is attributed the detected pressure.
+     */
+    private String describeHotSpot(List<ResourceRecommendation.HotEndpoint> hotEndpoints, AnalysisResult analysis) {
+        Optional<ResourceRecommendation.HotEndpoint> top = hotEndpoints.stream()
+                .max(Comparator.comparingDouble(ResourceRecommendation.HotEndpoint::getTimeShare));
+        if (top.isEmpty() || top.get().getTimeShare() < hotEndpointProperties.getDominantTimeShare()) {
+            return null;
+        }
+        ResourceRecommendation.HotEndpoint endpoint = top.get();
+        String pressure = Boolean.TRUE.equals(analysis.getConnectionPoolExhaustion()) ? "connection pool pressure"
+                : Boolean.TRUE.equals(analysis.getCpuThrottlingDetected()) ? "CPU pressure"
+                : "request time";
+        return String.format("%s %s accounts for %.0f%% of request time (%.0f%% of requests, avg %.0fms) "
+                        + "and is the likely source of %s",
+                endpoint.getMethod(), endpoint.getUri(), endpoint.getTimeShare() * 100,
+                endpoint.getTrafficShare() * 100, endpoint.getAvgLatencyMs(), pressure);
+    }
+
     private Double calculateConfidence(int sampleCount,
             DescriptiveStatistics cpuStats,
             DescriptiveStatistics memoryStats) {
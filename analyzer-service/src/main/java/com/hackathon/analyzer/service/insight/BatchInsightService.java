@@ -0,0 +1,329 @@
+package com.hackathon.analyzer.service.insight;
+
+import com.hackathon.analyzer.cluster.ScheduledJobCoordinator;
+import com.hackathon.analyzer.discovery.ServiceDiscoveryService;
+import com.hackathon.analyzer.discovery.ServiceInfo;
+import com.hackathon.analyzer.model.PregeneratedInsight;
+import com.hackathon.analyzer.service.GeminiInsightService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * Generates optimization insights for the whole fleet ahead of time.
+ *
+ * Services are packed into as few prompts as fit the token budget, so the
+ * shared instructions are sent once per batch instead of once per service.
+ * The model answers with one marked section per service; each section is
+ * persisted and seeded into the insight cache under the same fingerprint
+ * the on-demand endpoints use, so dashboards read results instead of
+ * triggering model calls.
+ */
+@Slf4j
+@Service
+public class BatchInsightService {
+
+    static final String SECTION_PREFIX = "=== SERVICE: ";
+    static final String SECTION_SUFFIX = " ===";
+    private static final Pattern SECTION_HEADER =
+            Pattern.compile("^\\s*=== SERVICE: (.+?) ===\\s*$", Pattern.MULTILINE);
+
+    private static final String PREAMBLE = """
+            You are a Kubernetes resource optimization and cloud cost management expert.
+            For EACH service below write a concise optimization report in English (markdown, maximum 5 points):
+            1. **Current Status:** (1 sentence summary)
+            2. **Main Issue:** (if any, otherwise "No critical issues")
+            3. **Recommendations:** (with specific CPU/Memory values)
+            4. **Estimated Savings:** (monthly and yearly)
+            5. **Priority:** (Low/Medium/High/Critical)
+
+            Start each report with a line containing exactly "%sservice-name%s" and nothing else.
+            Cover every service listed, in the same order, and do not add any other text.
+
+            ## Services
+            """.formatted(SECTION_PREFIX, SECTION_SUFFIX);
+
+    private final GeminiInsightService geminiInsightService;
+    private final InsightInputsCollector inputsCollector;
+    private final InsightCache insightCache;
+    private final PregeneratedInsightStore pregeneratedStore;
+    private final ServiceDiscoveryService discoveryService;
+    private final ScheduledJobCoordinator jobCoordinator;
+
+    private final boolean enabled;
+    private final int maxPromptTokens;
+    private final int maxServicesPerBatch;
+    private final int outputTokensPerService;
+
+    private final Counter batchCalls;
+    private final Counter generatedInsights;
+    private final Counter failedServices;
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    public BatchInsightService(GeminiInsightService geminiInsightService,
+                               InsightInputsCollector inputsCollector,
+                               InsightCache insightCache,
+                               PregeneratedInsightStore pregeneratedStore,
+                               ServiceDiscoveryService discoveryService,
+                               ScheduledJobCoordinator jobCoordinator,
+                               MeterRegistry meterRegistry,
+                               @Value("${ai.batch.enabled:true}") boolean enabled,
+                               @Value("${ai.batch.max-prompt-tokens:4000}") int maxPromptTokens,
+                               @Value("${ai.batch.max-services-per-batch:8}") int maxServicesPerBatch,
+                               @Value("${ai.batch.output-tokens-per-service:400}") int outputTokensPerService) {
+        this.geminiInsightService = geminiInsightService;
+        this.inputsCollector = inputsCollector;
+        this.insightCache = insightCache;
+        this.pregeneratedStore = pregeneratedStore;
+        this.discoveryService = discoveryService;
+        this.jobCoordinator = jobCoordinator;
+        this.enabled = enabled;
+        this.maxPromptTokens = maxPromptTokens;
+        this.maxServicesPerBatch = maxServicesPerBatch;
+        this.outputTokensPerService = outputTokensPerService;
+
+        this.batchCalls = Counter.builder("analyzer.ai.batch.calls")
+                .description("Model calls made by the batch insight job")
+                .register(meterRegistry);
+        this.generatedInsights = Counter.builder("analyzer.ai.batch.insights")
+                .description("Insights generated by the batch insight job")
+                .register(meterRegistry);
+        this.failedServices = Counter.builder("analyzer.ai.batch.failures")
+                .description("Services the batch insight job could not produce an insight for")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Scheduled fleet run; leader-only by default (see {@code analyzer.cluster.jobs}).
+     */
+    @Scheduled(fixedDelayString = "${ai.batch.interval-ms:900000}",
+               initialDelayString = "${ai.batch.initial-delay-ms:120000}")
+    public void generateScheduled() {
+        if (!enabled || !geminiInsightService.isConfigured()
+                || !jobCoordinator.shouldRun(ScheduledJobCoordinator.GENERATE_INSIGHTS)) {
+            return;
+        }
+        generateAll();
+    }
+
+    /**
+     * Generate insights for every known service whose inputs changed since
+     * its last insight.
+     */
+    public BatchRunResult generateAll() {
+        if (!running.compareAndSet(false, true)) {
+            log.info("Batch insight run already in progress, skipping");
+            return new BatchRunResult(0, 0, 0, List.of());
+        }
+        try {
+            long purged = pregeneratedStore.purgeExpired();
+            if (purged > 0) {
+                log.debug("Purged {} expired pre-generated insights", purged);
+            }
+
+            List<InsightInputs> pending = new ArrayList<>();
+            int unchanged = 0;
+            for (ServiceInfo service : discoveryService.getAllServices()) {
+                InsightInputs inputs = inputsCollector.collect(service.getName());
+                if (hasCurrentInsight(inputs.fingerprint())) {
+                    unchanged++;
+                } else {
+                    pending.add(inputs);
+                }
+            }
+
+            List<List<InsightInputs>> batches = pack(pending, maxPromptTokens, maxServicesPerBatch);
+            int generated = 0;
+            List<String> failed = new ArrayList<>();
+            for (List<InsightInputs> batch : batches) {
+                List<String> missing = runBatch(batch);
+                generated += batch.size() - missing.size();
+                failed.addAll(missing);
+            }
+
+            log.info("Batch insight run: {} services in {} model calls, {} unchanged, {} failed",
+                    generated, batches.size(), unchanged, failed.size());
+            return new BatchRunResult(batches.size(), generated, unchanged, failed);
+        } finally {
+            running.set(false);
+        }
+    }
+
+    /**
+     * The fingerprint covers every input of the prompt, so an insight for it
+     * that is still servable (stale but within the stale window, or persisted
+     * within {@code ai.batch.max-age-seconds}) would come back the same. The
+     * store also covers a restart or a new leader with an empty cache.
+     */
+    private boolean hasCurrentInsight(String fingerprint) {
+        return insightCache.peek(fingerprint).isPresent() || pregeneratedStore.find(fingerprint).isPresent();
+    }
+
+    /**
+     * Run one batch; returns the services that did not get an insight.
+     */
+    private List<String> runBatch(List<InsightInputs> batch) {
+        List<String> names = batch.stream().map(InsightInputs::serviceName).toList();
+        String response;
+        try {
+            batchCalls.increment();
+            response = geminiInsightService.requestCompletion(buildPrompt(batch),
+                    outputTokensPerService * batch.size());
+        } catch (Exception e) {
+            log.warn("Batch insight call for {} failed: {}", names, e.getMessage());
+            failedServices.increment(batch.size());
+            return names;
+        }
+
+        Map<String, String> sections = parseSections(response);
+        String batchId = UUID.randomUUID().toString();
+        Instant now = Instant.now();
+        List<PregeneratedInsight> results = new ArrayList<>();
+        List<String> missing = new ArrayList<>();
+
+        for (InsightInputs inputs : batch) {
+            String insight = sections.get(normalize(inputs.serviceName()));
+            if (insight == null) {
+                missing.add(inputs.serviceName());
+                continue;
+            }
+            insightCache.put(inputs.fingerprint(), insight);
+            results.add(PregeneratedInsight.builder()
+                    .serviceName(inputs.serviceName())
+                    .fingerprint(inputs.fingerprint())
+                    .insight(insight)
+                    .model(geminiInsightService.getModel())
+                    .batchId(batchId)
+                    .generatedAt(now)
+                    .build());
+        }
+
+        pregeneratedStore.saveAll(results);
+        generatedInsights.increment(results.size());
+        if (!missing.isEmpty()) {
+            // Left for the next run or an on-demand request
+            log.warn("Batch response had no section for {}", missing);
+            failedServices.increment(missing.size());
+        }
+        return missing;
+    }
+
+    /**
+     * Greedily fill batches in order until the next service would exceed the
+     * prompt budget or the per-batch service limit. A service that alone
+     * exceeds the budget still gets a batch of its own.
+     */
+    static List<List<InsightInputs>> pack(List<InsightInputs> services, int maxPromptTokens, int maxPerBatch) {
+        List<List<InsightInputs>> batches = new ArrayList<>();
+        int preambleTokens = estimateTokens(PREAMBLE);
+        List<InsightInputs> current = new ArrayList<>();
+        int currentTokens = preambleTokens;
+
+        for (InsightInputs inputs : services) {
+            int tokens = estimateTokens(compact(inputs));
+            boolean full = current.size() >= maxPerBatch || currentTokens + tokens > maxPromptTokens;
+            if (!current.isEmpty() && full) {
+                batches.add(current);
+                current = new ArrayList<>();
+                currentTokens = preambleTokens;
+            }
+            current.add(inputs);
+            currentTokens += tokens;
+        }
+        if (!current.isEmpty()) {
+            batches.add(current);
+        }
+        return batches;
+    }
+
+    static String buildPrompt(List<InsightInputs> batch) {
+        StringBuilder prompt = new StringBuilder(PREAMBLE);
+        batch.forEach(inputs -> prompt.append(compact(inputs)));
+        return prompt.toString();
+    }
+
+    /**
+     * One line per service, only the fields the report needs.
+     */
+    static String compact(InsightInputs inputs) {
+        String issues = inputs.detectedIssues() == null || inputs.detectedIssues().isEmpty()
+                ? "none"
+                : inputs.detectedIssues().entrySet().stream()
+                        .sorted(Map.Entry.comparingByKey())
+                        .map(e -> e.getKey() + " (" + e.getValue() + ")")
+                        .collect(Collectors.joining("; "));
+        return String.format(Locale.ROOT,
+                "- %s: cpu=%.1f%% mem=%.0fMB cost=$%.2f/mo savings=$%.2f/mo confidence=%.0f%% issues=%s%n",
+                inputs.serviceName(), inputs.cpuUsage(), inputs.memoryUsage(), inputs.monthlyCost(),
+                inputs.savings(), inputs.confidence() * 100, issues);
+    }
+
+    /**
+     * Split the response on section headers, keyed by normalized service name.
+     * Empty sections are dropped.
+     */
+    static Map<String, String> parseSections(String response) {
+        Map<String, String> sections = new LinkedHashMap<>();
+        if (response == null) {
+            return sections;
+        }
+        Matcher matcher = SECTION_HEADER.matcher(response);
+        String name = null;
+        int bodyStart = 0;
+        while (matcher.find()) {
+            if (name != null) {
+                putSection(sections, name, response.substring(bodyStart, matcher.start()));
+            }
+            name = matcher.group(1);
+            bodyStart = matcher.end();
+        }
+        if (name != null) {
+            putSection(sections, name, response.substring(bodyStart));
+        }
+        return sections;
+    }
+
+    /** Rough token estimate: about four characters per token. */
+    static int estimateTokens(String text) {
+        return (text.length() + 3) / 4;
+    }
+
+    private static void putSection(Map<String, String> sections, String name, String body) {
+        String text = body.strip();
+        if (!text.isEmpty()) {
+            sections.putIfAbsent(normalize(name), text);
+        }
+    }
+
+    private static String normalize(String serviceName) {
+        return serviceName.strip().toLowerCase(Locale.ROOT);
+    }
+
+    public record BatchRunResult(int modelCalls, int generated, int unchanged, List<String> failed) {
+
+        public Map<String, Object> toMap() {
+            Map<String, Object> map = new HashMap<>();
+            map.put("modelCalls", modelCalls);
+            map.put("generated", generated);
+            map.put("unchanged", unchanged);
+            map.put("failed", failed);
+            return map;
+        }
+    }
+}
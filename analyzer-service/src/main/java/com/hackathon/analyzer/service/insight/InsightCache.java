@@ -0,0 +1,239 @@
+package com.hackathon.analyzer.service.insight;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Supplier;
+
+/**
+ * Request-coalescing, stale-while-revalidate cache for AI insights.
+ *
+ * <ul>
+ *   <li>fresh entries are returned directly;</li>
+ *   <li>stale entries are returned immediately while one background refresh runs;</li>
+ *   <li>on a miss, concurrent callers for the same key share a single in-flight load.</li>
+ * </ul>
+ * Failed loads are never cached, so a model outage does not pin an error message.
+ */
+@Slf4j
+@Component
+public class InsightCache {
+
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    private final Map<String, CompletableFuture<String>> inFlight = new ConcurrentHashMap<>();
+    private final ExecutorService refreshExecutor;
+
+    private final long freshTtlNanos;
+    private final long staleTtlNanos;
+    private final int maxEntries;
+
+    private final Counter hits;
+    private final Counter staleHits;
+    private final Counter misses;
+    private final Counter coalesced;
+
+    @Autowired
+    public InsightCache(@Value("${ai.cache.fresh-ttl-seconds:300}") long freshTtlSeconds,
+                        @Value("${ai.cache.stale-ttl-seconds:3600}") long staleTtlSeconds,
+                        @Value("${ai.cache.max-entries:500}") int maxEntries,
+                        MeterRegistry meterRegistry) {
+        this(Duration.ofSeconds(freshTtlSeconds), Duration.ofSeconds(staleTtlSeconds), maxEntries, meterRegistry);
+    }
+
+    public InsightCache(Duration freshTtl, Duration staleTtl, int maxEntries, MeterRegistry meterRegistry) {
+        if (staleTtl.compareTo(freshTtl) < 0) {
+            throw new IllegalArgumentException("stale TTL must not be shorter than fresh TTL");
+        }
+        this.freshTtlNanos = freshTtl.toNanos();
+        this.staleTtlNanos = staleTtl.toNanos();
+        this.maxEntries = maxEntries;
+        this.refreshExecutor = Executors.newFixedThreadPool(2, runnable -> {
+            Thread thread = new Thread(runnable, "insight-refresh");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        this.hits = cacheCounter(meterRegistry, "hit");
+        this.staleHits = cacheCounter(meterRegistry, "stale");
+        this.misses = cacheCounter(meterRegistry, "miss");
+        this.coalesced = cacheCounter(meterRegistry, "coalesced");
+        Gauge.builder("analyzer.ai.insight.cache.size", entries, Map::size)
+                .description("Cached AI insights")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Return the cached value for {@code key}, loading it with {@code loader} if
+     * needed. The loader signals failure by throwing; failures are propagated to
+     * every coalesced caller and are not cached.
+     */
+    public String get(String key, Supplier<String> loader) {
+        Entry entry = entries.get(key);
+        if (entry != null) {
+            long age = System.nanoTime() - entry.loadedAtNanos();
+            if (age < freshTtlNanos) {
+                hits.increment();
+                return entry.value();
+            }
+            if (age < staleTtlNanos) {
+                staleHits.increment();
+                refreshInBackground(key, loader);
+                return entry.value();
+            }
+        }
+
+        misses.increment();
+        return load(key, loader);
+    }
+
+    /**
+     * Seed the cache with a value produced elsewhere (e.g. a batch job).
+     */
+    public void put(String key, String value) {
+        store(key, value);
+    }
+
+    public Optional<String> peek(String key) {
+        Entry entry = entries.get(key);
+        if (entry == null || System.nanoTime() - entry.loadedAtNanos() >= staleTtlNanos) {
+            return Optional.empty();
+        }
+        return Optional.of(entry.value());
+    }
+
+    public boolean isFresh(String key) {
+        Entry entry = entries.get(key);
+        return entry != null && System.nanoTime() - entry.loadedAtNanos() < freshTtlNanos;
+    }
+
+    /**
+     * Cached value only if it is still fresh; never triggers a load or refresh.
+     */
+    public Optional<String> getFresh(String key) {
+        Entry entry = entries.get(key);
+        if (entry == null || System.nanoTime() - entry.loadedAtNanos() >= freshTtlNanos) {
+            return Optional.empty();
+        }
+        hits.increment();
+        return Optional.of(entry.value());
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        refreshExecutor.shutdownNow();
+    }
+
+    private String load(String key, Supplier<String> loader) {
+        CompletableFuture<String> created = new CompletableFuture<>();
+        CompletableFuture<String> existing = inFlight.putIfAbsent(key, created);
+        if (existing != null) {
+            coalesced.increment();
+            return join(existing);
+        }
+
+        try {
+            String value = loader.get();
+            store(key, value);
+            created.complete(value);
+            return value;
+        } catch (RuntimeException e) {
+            created.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, created);
+        }
+    }
+
+    private void refreshInBackground(String key, Supplier<String> loader) {
+        CompletableFuture<String> created = new CompletableFuture<>();
+        if (inFlight.putIfAbsent(key, created) != null) {
+            return; // a refresh or load is already running
+        }
+
+        try {
+            refreshExecutor.execute(() -> {
+                try {
+                    String value = loader.get();
+                    store(key, value);
+                    created.complete(value);
+                } catch (RuntimeException e) {
+                    log.warn("Background insight refresh failed, keeping stale value: {}", e.getMessage());
+                    created.completeExceptionally(e);
+                } finally {
+                    inFlight.remove(key, created);
+                }
+            });
+        } catch (RuntimeException e) {
+            inFlight.remove(key, created);
+            created.completeExceptionally(e);
+        }
+    }
+
+    private void store(String key, String value) {
+        if (value == null) {
+            return;
+        }
+        entries.put(key, new Entry(value, System.nanoTime()));
+        if (entries.size() > maxEntries) {
+            evict();
+        }
+    }
+
+    /**
+     * Drop expired entries, then the oldest ones until back under the limit.
+     */
+    private void evict() {
+        long now = System.nanoTime();
+        entries.entrySet().removeIf(e -> now - e.getValue().loadedAtNanos() >= staleTtlNanos);
+
+        int excess = entries.size() - maxEntries;
+        if (excess > 0) {
+            entries.entrySet().stream()
+                    .sorted(Comparator.comparingLong(e -> e.getValue().loadedAtNanos()))
+                    .limit(excess)
+                    .map(Map.Entry::getKey)
+                    .toList()
+                    .forEach(entries::remove);
+        }
+    }
+
+    private static String join(CompletableFuture<String> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    private static Counter cacheCounter(MeterRegistry registry, String result) {
+        return Counter.builder("analyzer.ai.insight.cache")
+                .description("AI insight cache lookups by result")
+                .tag("result", result)
+                .register(registry);
+    }
+
+    private record Entry(String value, long loadedAtNanos) {
+    }
+}
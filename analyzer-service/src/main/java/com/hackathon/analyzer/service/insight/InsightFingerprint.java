@@ -0,0 +1,60 @@
+package com.hackathon.analyzer.service.insight;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeSet;
+
+/**
+ * Normalized cache key for AI optimization insights.
+ *
+ * Metrics are rounded to coarse buckets and issues are reduced to a sorted
+ * set of names, so scrape-to-scrape jitter maps to the same key and only a
+ * material change in the prompt inputs causes a new model call.
+ */
+public final class InsightFingerprint {
+
+    static final double USAGE_BUCKET = 5.0;
+    static final double MONEY_BUCKET = 1.0;
+    static final double CONFIDENCE_BUCKET = 0.05;
+
+    private InsightFingerprint() {
+    }
+
+    public static String of(String serviceName,
+                            double cpuUsagePercent,
+                            double memoryUsage,
+                            double monthlyCost,
+                            double estimatedSavings,
+                            double confidenceScore,
+                            Map<String, String> detectedIssues) {
+        String canonical = String.join("|",
+                serviceName == null ? "" : serviceName.trim().toLowerCase(Locale.ROOT),
+                bucket(cpuUsagePercent, USAGE_BUCKET),
+                bucket(memoryUsage, USAGE_BUCKET),
+                bucket(monthlyCost, MONEY_BUCKET),
+                bucket(estimatedSavings, MONEY_BUCKET),
+                bucket(confidenceScore, CONFIDENCE_BUCKET),
+                String.join(",", detectedIssues == null ? new TreeSet<>() : new TreeSet<>(detectedIssues.keySet())));
+        return sha256(canonical);
+    }
+
+    private static String bucket(double value, double size) {
+        if (Double.isNaN(value) || Double.isInfinite(value)) {
+            return "na";
+        }
+        return Long.toString(Math.round(value / size));
+    }
+
+    private static String sha256(String value) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(value.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
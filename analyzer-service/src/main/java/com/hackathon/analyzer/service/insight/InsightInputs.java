@@ -0,0 +1,31 @@
+package com.hackathon.analyzer.service.insight;
+
+import java.util.Map;
+
+/**
+ * Metrics and detected issues that feed one service's optimization prompt.
+ */
+public record InsightInputs(String serviceName,
+                            double cpuUsage,
+                            double memoryUsage,
+                            double monthlyCost,
+                            double savings,
+                            double confidence,
+                            Map<String, String> detectedIssues) {
+
+    public String fingerprint() {
+        return InsightFingerprint.of(serviceName, cpuUsage, memoryUsage, monthlyCost,
+                savings, confidence, detectedIssues);
+    }
+
+    public Map<String, Object> toMap() {
+        return Map.of(
+                "cpuUsagePercent", cpuUsage,
+                "memoryUsageMb", memoryUsage,
+                "monthlyCost", monthlyCost,
+                "estimatedSavings", savings,
+                "confidenceScore", confidence,
+                "detectedIssues", detectedIssues
+        );
+    }
+}
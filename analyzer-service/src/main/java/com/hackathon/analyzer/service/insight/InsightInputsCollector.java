@@ -0,0 +1,51 @@
+package com.hackathon.analyzer.service.insight;
+
+import com.hackathon.analyzer.ml.CostPredictionService;
+import com.hackathon.analyzer.model.AnalysisResult;
+import com.hackathon.analyzer.model.CostForecast;
+import com.hackathon.analyzer.service.ResourceAnalyzerService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Gathers the latest analysis and cost forecast of a service into
+ * {@link InsightInputs}, so on-demand and batch insights share one key.
+ */
+@Component
+@RequiredArgsConstructor
+public class InsightInputsCollector {
+
+    private final ResourceAnalyzerService analyzerService;
+    private final CostPredictionService costPredictionService;
+
+    public InsightInputs collect(String serviceName) {
+        Optional<AnalysisResult> latestAnalysis = analyzerService.getLatestAnalysis(serviceName);
+        CostForecast costForecast = costPredictionService.predictCosts(serviceName, 30);
+
+        double cpuUsage = latestAnalysis.map(a -> a.getP95CpuUsage() != null ? a.getP95CpuUsage() : 0.0).orElse(0.0);
+        double memoryUsage = latestAnalysis.map(a -> a.getP95MemoryUsage() != null ? a.getP95MemoryUsage() : 0.0).orElse(0.0);
+        double monthlyCost = costForecast.getCurrentMonthlyCost();
+        double savings = latestAnalysis.map(AnalysisResult::getEstimatedMonthlySavings).orElse(0.0);
+        double confidence = latestAnalysis.map(AnalysisResult::getConfidenceScore).orElse(0.0);
+
+        // Build detected issues map
+        Map<String, String> detectedIssues = new HashMap<>();
+        latestAnalysis.ifPresent(analysis -> {
+            if (Boolean.TRUE.equals(analysis.getCpuThrottlingDetected())) {
+                detectedIssues.put("CPU Throttling", "CPU usage exceeds limits");
+            }
+            if (Boolean.TRUE.equals(analysis.getMemoryLeakDetected())) {
+                detectedIssues.put("Memory Leak", "Memory shows continuous growth");
+            }
+            if (Boolean.TRUE.equals(analysis.getConnectionPoolExhaustion())) {
+                detectedIssues.put("Connection Pool", "Pool frequently exhausted");
+            }
+        });
+
+        return new InsightInputs(serviceName, cpuUsage, memoryUsage, monthlyCost, savings, confidence, detectedIssues);
+    }
+}
@@ -0,0 +1,66 @@
+package com.hackathon.analyzer.service.insight;
+
+import com.hackathon.analyzer.model.PregeneratedInsight;
+import com.hackathon.analyzer.repository.PregeneratedInsightRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Database-backed view of pre-generated insights. The in-memory cache is
+ * replica-local, so replicas that did not run the batch job find the
+ * leader's results here.
+ */
+@Slf4j
+@Component
+public class PregeneratedInsightStore {
+
+    private final PregeneratedInsightRepository repository;
+    private final Duration maxAge;
+
+    public PregeneratedInsightStore(PregeneratedInsightRepository repository,
+                                    @Value("${ai.batch.max-age-seconds:3600}") long maxAgeSeconds) {
+        this.repository = repository;
+        this.maxAge = Duration.ofSeconds(maxAgeSeconds);
+    }
+
+    /**
+     * Most recent insight generated from exactly these inputs, if not too old.
+     */
+    public Optional<String> find(String fingerprint) {
+        try {
+            return repository.findFirstByFingerprintAndGeneratedAtAfterOrderByGeneratedAtDesc(
+                            fingerprint, Instant.now().minus(maxAge))
+                    .map(PregeneratedInsight::getInsight);
+        } catch (Exception e) {
+            log.warn("Pre-generated insight lookup failed: {}", e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    public void saveAll(Collection<PregeneratedInsight> insights) {
+        repository.saveAll(insights);
+    }
+
+    /**
+     * Latest non-expired insight per service.
+     */
+    public List<PregeneratedInsight> findLatestPerService() {
+        Map<String, PregeneratedInsight> latest = new LinkedHashMap<>();
+        repository.findByGeneratedAtAfterOrderByGeneratedAtDesc(Instant.now().minus(maxAge))
+                .forEach(insight -> latest.putIfAbsent(insight.getServiceName(), insight));
+        return List.copyOf(latest.values());
+    }
+
+    public long purgeExpired() {
+        return repository.deleteByGeneratedAtBefore(Instant.now().minus(maxAge));
+    }
+}
@@ -0,0 +1,254 @@
+package com.hackathon.analyzer.service.optimization;
+
+import com.hackathon.analyzer.collector.GcTelemetryTracker;
+import com.hackathon.analyzer.config.JvmTuningProperties;
+import com.hackathon.analyzer.model.GcTelemetryReport;
+import com.hackathon.recommendation.ResourceRecommendation;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Recommends the collector, heap, region and metaspace sizing of a service
+ * from its GC telemetry, for either a pause-time or a throughput goal.
+ *
+ * <ul>
+ *   <li>Heap: the live set times {@code liveSetMultiplier}, and at least
+ *       enough free heap that collections at the observed allocation rate
+ *       and pause length stay within the GC time budget. It is expressed as
+ *       MaxRAMPercentage of the container limit, after room for metaspace,
+ *       code cache and native memory.</li>
+ *   <li>Collector: Parallel with a matching GCTimeRatio for throughput. For
+ *       pause time, ZGC once G1 missed the goal on a heap and CPU budget big
+ *       enough for it, otherwise G1 with MaxGCPauseMillis and a pinned
+ *       region size.</li>
+ *   <li>Metaspace: the first metaspace GC just above what the service uses,
+ *       and a cap at {@code metaspaceHeadroom} times that.</li>
+ * </ul>
+ *
+ * Without enough telemetry the fixed G1 defaults are kept. Only flags
+ * available on JDK 17 are emitted.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class JvmTuningService {
+
+    /** G1 sizes regions for about this many regions in the heap. */
+    private static final int G1_TARGET_REGIONS = 2048;
+    private static final int G1_MAX_REGION_MB = 32;
+    /** The first metaspace GC triggers this far above the metaspace in use. */
+    private static final double METASPACE_TRIGGER_HEADROOM = 1.25;
+    private static final long METASPACE_MIN_MB = 64;
+    private static final long METASPACE_GRANULE_MB = 16;
+
+    private final JvmTuningProperties properties;
+    private final GcTelemetryTracker telemetryTracker;
+
+    /**
+     * JVM configuration and the GC findings behind it.
+     */
+    public record JvmTuning(ResourceRecommendation.JvmConfiguration configuration,
+                            Map<String, String> issues,
+                            String rationale) {
+    }
+
+    /**
+     * @param memoryLimit recommended container memory limit, e.g. {@code 768Mi}
+     * @param cpuLimit    recommended container CPU limit, e.g. {@code 500m}
+     * @param xms         heap floor from the memory analysis, kept when there is no telemetry
+     * @param xmx         heap ceiling from the memory analysis, kept when there is no telemetry
+     */
+    public JvmTuning recommend(String serviceName, String memoryLimit, String cpuLimit, String xms, String xmx) {
+        if (!properties.isEnabled()) {
+            return defaults(xms, xmx);
+        }
+        return telemetryTracker.report(serviceName)
+                .filter(report -> report.getIntervals() >= properties.getMinIntervals())
+                .filter(report -> report.getLiveSetMb() != null && report.getLiveSetMb() > 0)
+                .map(report -> tune(serviceName, report, memoryLimit, cpuLimit))
+                .orElseGet(() -> defaults(xms, xmx));
+    }
+
+    JvmTuning tune(String serviceName, GcTelemetryReport telemetry, String memoryLimit, String cpuLimit) {
+        JvmTuningProperties.Goal goal = properties.goalOf(serviceName);
+        Map<String, String> issues = new LinkedHashMap<>();
+        double gcBudget = 1 - properties.getThroughputTarget();
+        double live = telemetry.getLiveSetMb();
+
+        double heap = Math.max(properties.getMinHeapMb(), live * properties.getLiveSetMultiplier());
+        // A young collection comes about every (heap - live) / allocation rate seconds
+        if (telemetry.getAllocationRateMbPerSec() != null && telemetry.getAvgPauseMs() != null && gcBudget > 0) {
+            heap = Math.max(heap, live
+                    + telemetry.getAllocationRateMbPerSec() * telemetry.getAvgPauseMs() / 1000 / gcBudget);
+        }
+
+        Long metaspaceSize = null;
+        Long maxMetaspaceSize = null;
+        if (telemetry.getMetaspaceUsedMb() != null && telemetry.getMetaspaceUsedMb() > 0) {
+            double used = telemetry.getMetaspaceUsedMb();
+            metaspaceSize = roundUp(used * METASPACE_TRIGGER_HEADROOM, METASPACE_GRANULE_MB);
+            maxMetaspaceSize = roundUp(Math.max(METASPACE_MIN_MB, used * properties.getMetaspaceHeadroom()),
+                    METASPACE_GRANULE_MB);
+        }
+
+        Double containerMb = ResourceLevels.mebibytes(memoryLimit);
+        Double ramPercentage = null;
+        if (containerMb != null && containerMb > 0) {
+            double nonHeap = (maxMetaspaceSize != null ? maxMetaspaceSize : orZero(telemetry.getMetaspaceCommittedMb()))
+                    + orZero(telemetry.getCodeCacheMb()) + properties.getNativeReserveMb();
+            double fits = Math.min(containerMb * properties.getMaxRamPercentage() / 100, containerMb - nonHeap);
+            if (heap > fits) {
+                issues.put("Heap Headroom", String.format(Locale.ROOT,
+                        "The %s goal needs a %.0fMi heap, but only %.0fMi fits the %s memory limit",
+                        goalName(goal), heap, Math.max(0, fits), memoryLimit));
+                heap = fits;
+            }
+            ramPercentage = Math.round(Math.max(properties.getMinRamPercentage(),
+                    Math.min(properties.getMaxRamPercentage(), heap / containerMb * 100)) * 10) / 10.0;
+            heap = containerMb * ramPercentage / 100;
+        }
+        long heapMb = Math.max(1, (long) heap);
+
+        Double cpus = ResourceLevels.millicores(cpuLimit);
+        cpus = cpus == null ? null : cpus / 1000;
+        boolean pauseGoalMissed = telemetry.getMaxPauseMs() != null
+                && telemetry.getMaxPauseMs() > properties.getMaxPauseMillis();
+        String collector;
+        if (goal == JvmTuningProperties.Goal.THROUGHPUT) {
+            collector = "Parallel";
+        } else if ("ZGC".equals(telemetry.getCollector())
+                || (pauseGoalMissed && heapMb >= properties.getZgcMinHeapMb()
+                    && cpus != null && cpus >= properties.getZgcMinCpus())) {
+            collector = "ZGC";
+        } else {
+            collector = "G1";
+        }
+
+        if (goal == JvmTuningProperties.Goal.PAUSE_TIME && pauseGoalMissed) {
+            issues.put("GC Pauses", String.format(Locale.ROOT, "Longest GC pause of %.0fms exceeds the %dms goal%s",
+                    telemetry.getMaxPauseMs(), properties.getMaxPauseMillis(),
+                    "ZGC".equals(collector) && !"ZGC".equals(telemetry.getCollector()) ? "; switching to ZGC" : ""));
+        }
+        if (telemetry.getGcTimeShare() != null && telemetry.getGcTimeShare() > gcBudget) {
+            issues.put("GC Overhead", String.format(Locale.ROOT, "GC pauses take %.1f%% of wall time, above the %.1f%% budget",
+                    telemetry.getGcTimeShare() * 100, gcBudget * 100));
+        }
+
+        Map<String, String> flags = new LinkedHashMap<>();
+        Integer maxGcPauseMillis = null;
+        String regionSize = null;
+        switch (collector) {
+            case "Parallel" -> {
+                flags.put("XX:+UseParallelGC", "");
+                flags.put("XX:GCTimeRatio", String.valueOf(Math.max(1,
+                        Math.round(properties.getThroughputTarget() / Math.max(gcBudget, 1e-3)))));
+            }
+            case "ZGC" -> flags.put("XX:+UseZGC", "");
+            default -> {
+                maxGcPauseMillis = properties.getMaxPauseMillis();
+                regionSize = g1RegionSizeMb(heapMb) + "m";
+                flags.put("XX:+UseG1GC", "");
+                flags.put("XX:MaxGCPauseMillis", String.valueOf(maxGcPauseMillis));
+                flags.put("XX:G1HeapRegionSize", regionSize);
+            }
+        }
+        // A fixed-size heap never pauses to resize, and G1 sizes regions from initial and maximum heap
+        if (ramPercentage != null) {
+            String percentage = String.format(Locale.ROOT, "%.1f", ramPercentage);
+            flags.put("XX:InitialRAMPercentage", percentage);
+            flags.put("XX:MaxRAMPercentage", percentage);
+        } else {
+            flags.put("Xms" + heapMb + "m", "");
+            flags.put("Xmx" + heapMb + "m", "");
+        }
+        if (metaspaceSize != null) {
+            flags.put("XX:MetaspaceSize", metaspaceSize + "m");
+            flags.put("XX:MaxMetaspaceSize", maxMetaspaceSize + "m");
+        }
+        flags.put("XX:+HeapDumpOnOutOfMemoryError", "");
+
+        ResourceRecommendation.JvmConfiguration configuration = ResourceRecommendation.JvmConfiguration.builder()
+                .xms(heapMb + "m")
+                .xmx(heapMb + "m")
+                .gcType(gcType(collector))
+                .additionalFlags(flags)
+                .goal(goal.name())
+                .maxRamPercentage(ramPercentage)
+                .initialRamPercentage(ramPercentage)
+                .maxGcPauseMillis(maxGcPauseMillis)
+                .g1HeapRegionSize(regionSize)
+                .metaspaceSize(metaspaceSize != null ? metaspaceSize + "m" : null)
+                .maxMetaspaceSize(maxMetaspaceSize != null ? maxMetaspaceSize + "m" : null)
+                .javaToolOptions(toolOptions(flags))
+                .build();
+
+        String rationale = String.format(Locale.ROOT,
+                "JVM tuned for %s: live set %.0fMi, allocation %s, longest pause %s; %s with a %dMi heap%s. ",
+                goalName(goal), live,
+                telemetry.getAllocationRateMbPerSec() != null
+                        ? String.format(Locale.ROOT, "%.1fMi/s", telemetry.getAllocationRateMbPerSec()) : "unknown",
+                telemetry.getMaxPauseMs() != null
+                        ? String.format(Locale.ROOT, "%.0fms", telemetry.getMaxPauseMs()) : "none seen",
+                collector, heapMb,
+                ramPercentage != null
+                        ? String.format(Locale.ROOT, " (%.1f%% of %s)", ramPercentage, memoryLimit) : "");
+        log.debug("JVM tuning for {}: {}", serviceName, configuration.getJavaToolOptions());
+        return new JvmTuning(configuration, issues, rationale);
+    }
+
+    /**
+     * The fixed configuration used before there is GC telemetry.
+     */
+    static JvmTuning defaults(String xms, String xmx) {
+        return new JvmTuning(ResourceRecommendation.JvmConfiguration.builder()
+                .xms(xms)
+                .xmx(xmx)
+                .gcType("G1GC")
+                .additionalFlags(Map.of(
+                        "XX:+UseG1GC", "",
+                        "XX:MaxGCPauseMillis", "200",
+                        "XX:+HeapDumpOnOutOfMemoryError", ""))
+                .build(), Map.of(), "");
+    }
+
+    /**
+     * The region size G1 would pick for this heap: a power of two between
+     * 1 and 32 MiB giving about 2048 regions.
+     */
+    static int g1RegionSizeMb(long heapMb) {
+        long target = Math.max(1, heapMb / G1_TARGET_REGIONS);
+        return (int) Math.min(G1_MAX_REGION_MB, Long.highestOneBit(target));
+    }
+
+    private static String toolOptions(Map<String, String> flags) {
+        return flags.entrySet().stream()
+                .map(flag -> "-" + flag.getKey() + (flag.getValue().isEmpty() ? "" : "=" + flag.getValue()))
+                .collect(Collectors.joining(" "));
+    }
+
+    private static String gcType(String collector) {
+        return switch (collector) {
+            case "Parallel" -> "ParallelGC";
+            case "ZGC" -> "ZGC";
+            default -> "G1GC";
+        };
+    }
+
+    private static String goalName(JvmTuningProperties.Goal goal) {
+        return goal.name().toLowerCase(Locale.ROOT).replace('_', '-');
+    }
+
+    private static long roundUp(double mb, long granule) {
+        return (long) Math.ceil(mb / granule) * granule;
+    }
+
+    private static double orZero(Double value) {
+        return value == null ? 0 : value;
+    }
+}
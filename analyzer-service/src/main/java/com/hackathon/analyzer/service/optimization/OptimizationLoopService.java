@@ -0,0 +1,218 @@
+package com.hackathon.analyzer.service.optimization;
+
+import com.hackathon.analyzer.cluster.ScheduledJobCoordinator;
+import com.hackathon.analyzer.config.OptimizationLoopProperties;
+import com.hackathon.analyzer.discovery.ServiceDiscoveryService;
+import com.hackathon.analyzer.discovery.ServiceInfo;
+import com.hackathon.analyzer.pipeline.CodeGenerationPipeline;
+import com.hackathon.analyzer.repository.MetricsSnapshotRepository;
+import com.hackathon.analyzer.service.ResourceAnalyzerService;
+import com.hackathon.recommendation.BatchGenerationReport;
+import com.hackathon.recommendation.ResourceRecommendation;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Re-evaluates every owned service on a fixed cadence and generates
+ * artifacts only for recommendations that changed materially and held
+ * steady (see {@link ServiceOptimizationState}).
+ *
+ * A service is re-analyzed only when new metrics snapshots arrived since
+ * its last evaluation. All services that became ready in a cycle go to the
+ * code generator in one batch; a service whose generation fails stays
+ * ready and is retried in the next cycle.
+ *
+ * Cycles run on the loop's own thread, so analysis and a slow code
+ * generator never hold up the shared scheduler; a trigger that arrives
+ * while a cycle is still running is skipped.
+ */
+@Slf4j
+@Service
+public class OptimizationLoopService {
+
+    private final OptimizationLoopProperties properties;
+    private final ServiceDiscoveryService discoveryService;
+    private final ScheduledJobCoordinator jobCoordinator;
+    private final MetricsSnapshotRepository metricsRepository;
+    private final ResourceAnalyzerService analyzerService;
+    private final CodeGenerationPipeline codeGenerationPipeline;
+    private final MeterRegistry meterRegistry;
+    private final Clock clock;
+
+    private final Map<String, ServiceOptimizationState> states = new ConcurrentHashMap<>();
+    private final AtomicBoolean running = new AtomicBoolean();
+    private final ExecutorService cycleExecutor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "optimization-loop");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    @Autowired
+    public OptimizationLoopService(OptimizationLoopProperties properties,
+                                   ServiceDiscoveryService discoveryService,
+                                   ScheduledJobCoordinator jobCoordinator,
+                                   MetricsSnapshotRepository metricsRepository,
+                                   ResourceAnalyzerService analyzerService,
+                                   CodeGenerationPipeline codeGenerationPipeline,
+                                   MeterRegistry meterRegistry) {
+        this(properties, discoveryService, jobCoordinator, metricsRepository, analyzerService,
+                codeGenerationPipeline, meterRegistry, Clock.systemUTC());
+    }
+
+    OptimizationLoopService(OptimizationLoopProperties properties,
+                            ServiceDiscoveryService discoveryService,
+                            ScheduledJobCoordinator jobCoordinator,
+                            MetricsSnapshotRepository metricsRepository,
+                            ResourceAnalyzerService analyzerService,
+                            CodeGenerationPipeline codeGenerationPipeline,
+                            MeterRegistry meterRegistry,
+                            Clock clock) {
+        this.properties = properties;
+        this.discoveryService = discoveryService;
+        this.jobCoordinator = jobCoordinator;
+        this.metricsRepository = metricsRepository;
+        this.analyzerService = analyzerService;
+        this.codeGenerationPipeline = codeGenerationPipeline;
+        this.meterRegistry = meterRegistry;
+        this.clock = clock;
+    }
+
+    /**
+     * Scheduled trigger; sharded by default (see {@code analyzer.cluster.jobs}),
+     * so each service's state lives on the replica that owns it. Hands the
+     * cycle to the loop's thread and returns.
+     */
+    @Scheduled(fixedDelayString = "${analyzer.optimization-loop.interval-ms:300000}",
+               initialDelayString = "${analyzer.optimization-loop.initial-delay-ms:120000}")
+    public void optimizeScheduled() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        if (running.get()) {
+            log.info("Optimization cycle still in progress, skipping this interval");
+            return;
+        }
+        List<ServiceInfo> owned = jobCoordinator.selectTargets(
+                ScheduledJobCoordinator.OPTIMIZE_SERVICES, discoveryService.getHealthyServices());
+        cycleExecutor.execute(() -> runCycle(owned));
+    }
+
+    /**
+     * Evaluate the given services once and generate artifacts for the ones
+     * that are ready.
+     */
+    public void runCycle(List<ServiceInfo> services) {
+        if (!running.compareAndSet(false, true)) {
+            log.info("Optimization cycle already in progress, skipping");
+            return;
+        }
+        try {
+            Instant now = clock.instant();
+            Map<String, ResourceRecommendation> ready = new LinkedHashMap<>();
+            for (ServiceInfo service : services) {
+                ResourceRecommendation recommendation = evaluate(service.getName(), now);
+                if (recommendation != null) {
+                    ready.put(service.getName(), recommendation);
+                }
+            }
+            if (!ready.isEmpty()) {
+                generate(ready, now);
+            }
+        } finally {
+            running.set(false);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        cycleExecutor.shutdownNow();
+    }
+
+    public List<OptimizationStatus> statuses() {
+        return states.values().stream()
+                .map(state -> state.status(properties.getStableWindows()))
+                .sorted(Comparator.comparing(OptimizationStatus::serviceName))
+                .toList();
+    }
+
+    /**
+     * Returns the recommendation when the service is ready for generation.
+     */
+    private ResourceRecommendation evaluate(String serviceName, Instant now) {
+        ServiceOptimizationState state = states.computeIfAbsent(serviceName, ServiceOptimizationState::new);
+        Instant lastEvaluated = state.lastEvaluatedAt();
+        // A ready service whose generation failed is retried even without new data
+        if (lastEvaluated != null && !state.isReady()
+                && metricsRepository.countByServiceNameAndTimestampAfter(serviceName, lastEvaluated)
+                < properties.getMinNewSamples()) {
+            record("unchanged-data");
+            return null;
+        }
+
+        ResourceRecommendation recommendation;
+        try {
+            recommendation = analyzerService.analyzeService(serviceName);
+        } catch (Exception e) {
+            log.warn("Optimization loop could not analyze {}: {}", serviceName, e.getMessage());
+            record("failed");
+            return null;
+        }
+        ResourceLevels levels = ResourceLevels.of(recommendation);
+        if (levels.isEmpty()) {
+            record("no-recommendation");
+            return null;
+        }
+
+        OptimizationStatus.Phase phase = state.observe(levels, now, properties);
+        record(phase.name().toLowerCase(Locale.ROOT).replace('_', '-'));
+        if (phase == OptimizationStatus.Phase.READY) {
+            log.info("Recommendation for {} changed and held for {} windows: {}", serviceName,
+                    properties.getStableWindows(), state.status(properties.getStableWindows()).pendingChanges());
+            return recommendation;
+        }
+        return null;
+    }
+
+    private void generate(Map<String, ResourceRecommendation> ready, Instant now) {
+        BatchGenerationReport report;
+        try {
+            report = codeGenerationPipeline.generate(ready.values().iterator(), properties.getGenerationTimeout());
+        } catch (Exception e) {
+            log.warn("Artifact generation for {} services failed, retrying next cycle: {}",
+                    ready.size(), e.getMessage());
+            return;
+        }
+        int generated = 0;
+        for (BatchGenerationReport.ServiceResult result : Objects.requireNonNullElse(
+                report.getResults(), List.<BatchGenerationReport.ServiceResult>of())) {
+            ResourceRecommendation recommendation = ready.get(result.getServiceName());
+            if (recommendation != null && Boolean.TRUE.equals(result.getSuccess())) {
+                states.get(result.getServiceName()).applied(ResourceLevels.of(recommendation), now);
+                generated++;
+            }
+        }
+        meterRegistry.counter("analyzer.optimization.generations").increment(generated);
+        log.info("Optimization cycle generated artifacts for {}/{} ready services", generated, ready.size());
+    }
+
+    private void record(String outcome) {
+        meterRegistry.counter("analyzer.optimization.evaluations", "outcome", outcome).increment();
+    }
+}
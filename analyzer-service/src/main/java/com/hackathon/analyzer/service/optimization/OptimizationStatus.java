@@ -0,0 +1,25 @@
+package com.hackathon.analyzer.service.optimization;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Where a service stands in the optimization loop.
+ *
+ * @param stableWindows   consecutive windows the pending change has held
+ * @param pendingChanges  material differences from the last generated artifacts
+ */
+public record OptimizationStatus(String serviceName, Phase phase, int stableWindows, int requiredWindows,
+                                 List<String> pendingChanges, Instant lastEvaluatedAt, Instant lastGeneratedAt) {
+
+    public enum Phase {
+        /** Not evaluated yet. */
+        NEW,
+        /** Recommendation within the minimum change of the generated artifacts. */
+        IN_BAND,
+        /** Material change, not yet stable for enough windows. */
+        PENDING,
+        /** Material and stable; artifacts are generated in this cycle. */
+        READY
+    }
+}
@@ -0,0 +1,107 @@
+package com.hackathon.analyzer.service.optimization;
+
+import com.hackathon.analyzer.config.OptimizationLoopProperties;
+import com.hackathon.analyzer.config.OptimizationLoopProperties.Threshold;
+import com.hackathon.recommendation.ResourceRecommendation;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * The recommended values the optimization loop compares between windows:
+ * CPU in millicores, memory in MiB and the maximum pool size. A null value
+ * means the recommendation does not set that dimension.
+ */
+record ResourceLevels(Double cpuRequest, Double cpuLimit, Double memoryRequest, Double memoryLimit,
+                      Double maxPoolSize) {
+
+    static ResourceLevels of(ResourceRecommendation recommendation) {
+        ResourceRecommendation.KubernetesResources k8s = recommendation.getKubernetes();
+        ResourceRecommendation.ConnectionPoolConfig pool = recommendation.getConnectionPool();
+        return new ResourceLevels(
+                k8s == null ? null : millicores(k8s.getCpuRequest()),
+                k8s == null ? null : millicores(k8s.getCpuLimit()),
+                k8s == null ? null : mebibytes(k8s.getMemoryRequest()),
+                k8s == null ? null : mebibytes(k8s.getMemoryLimit()),
+                pool == null || pool.getMaximumPoolSize() == null ? null : pool.getMaximumPoolSize().doubleValue());
+    }
+
+    boolean isEmpty() {
+        return cpuRequest == null && cpuLimit == null && memoryRequest == null && memoryLimit == null
+                && maxPoolSize == null;
+    }
+
+    /**
+     * Dimensions that moved by at least {@code scale} times their minimum
+     * change relative to {@code from}, as {@code "cpuRequest 200m -> 350m"}.
+     */
+    List<String> changesFrom(ResourceLevels from, OptimizationLoopProperties thresholds, double scale) {
+        List<String> changes = new ArrayList<>();
+        compare(changes, "cpuRequest", from.cpuRequest, cpuRequest, thresholds.getCpu(), scale, "m");
+        compare(changes, "cpuLimit", from.cpuLimit, cpuLimit, thresholds.getCpu(), scale, "m");
+        compare(changes, "memoryRequest", from.memoryRequest, memoryRequest, thresholds.getMemory(), scale, "Mi");
+        compare(changes, "memoryLimit", from.memoryLimit, memoryLimit, thresholds.getMemory(), scale, "Mi");
+        compare(changes, "maxPoolSize", from.maxPoolSize, maxPoolSize, thresholds.getConnectionPool(), scale, "");
+        return changes;
+    }
+
+    private static void compare(List<String> changes, String name, Double from, Double to, Threshold threshold,
+                                double scale, String unit) {
+        if (from == null && to == null) {
+            return;
+        }
+        if (from == null || to == null) {
+            // A dimension appearing or disappearing is always material
+            changes.add(name + " " + format(from, unit) + " -> " + format(to, unit));
+            return;
+        }
+        double minChange = Math.max(threshold.getMinAbsoluteChange(),
+                threshold.getMinRelativeChange() * Math.abs(from)) * scale;
+        if (Math.abs(to - from) >= minChange && to.doubleValue() != from.doubleValue()) {
+            changes.add(name + " " + format(from, unit) + " -> " + format(to, unit));
+        }
+    }
+
+    private static String format(Double value, String unit) {
+        return value == null ? "unset" : String.format(Locale.ROOT, "%.0f%s", value, unit);
+    }
+
+    /** {@code 350m}, {@code 0.5} or {@code 2} cores, in millicores. */
+    static Double millicores(String quantity) {
+        if (quantity == null || quantity.isBlank()) {
+            return null;
+        }
+        String q = quantity.trim();
+        try {
+            return q.endsWith("m") ? Double.parseDouble(q.substring(0, q.length() - 1))
+                    : Double.parseDouble(q) * 1000;
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    /** {@code 512Mi}, {@code 1Gi}, {@code 1G} or bytes, in MiB. */
+    static Double mebibytes(String quantity) {
+        if (quantity == null || quantity.isBlank()) {
+            return null;
+        }
+        String q = quantity.trim();
+        try {
+            if (q.endsWith("Ki")) {
+                return Double.parseDouble(q.substring(0, q.length() - 2)) / 1024;
+            } else if (q.endsWith("Mi")) {
+                return Double.parseDouble(q.substring(0, q.length() - 2));
+            } else if (q.endsWith("Gi")) {
+                return Double.parseDouble(q.substring(0, q.length() - 2)) * 1024;
+            } else if (q.endsWith("M")) {
+                return Double.parseDouble(q.substring(0, q.length() - 1)) * 1_000_000 / (1024 * 1024);
+            } else if (q.endsWith("G")) {
+                return Double.parseDouble(q.substring(0, q.length() - 1)) * 1_000_000_000 / (1024 * 1024);
+            }
+            return Double.parseDouble(q) / (1024 * 1024);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package com.hackathon.analyzer.service.optimization;
+
+import com.hackathon.analyzer.config.OptimizationLoopProperties;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Hysteresis for one service's recommendations.
+ *
+ * A window's recommendation starts a pending change only when it moves some
+ * dimension by the full minimum change away from what was last generated.
+ * The pending change is dropped again only when it falls back below
+ * {@code releaseRatio} of that minimum, and it counts as stable while each
+ * new window stays within the minimum change of where it started. Any
+ * larger move restarts the count, so oscillating recommendations never
+ * become ready.
+ */
+final class ServiceOptimizationState {
+
+    private static final ResourceLevels NOTHING_APPLIED = new ResourceLevels(null, null, null, null, null);
+
+    private final String serviceName;
+    private ResourceLevels applied;
+    private ResourceLevels pending;
+    private int stableWindows;
+    private List<String> pendingChanges = List.of();
+    private OptimizationStatus.Phase phase = OptimizationStatus.Phase.NEW;
+    private Instant lastEvaluatedAt;
+    private Instant lastGeneratedAt;
+
+    ServiceOptimizationState(String serviceName) {
+        this.serviceName = serviceName;
+    }
+
+    /**
+     * Record one window's recommendation and return whether artifacts
+     * should be generated for it.
+     */
+    synchronized OptimizationStatus.Phase observe(ResourceLevels levels, Instant now,
+                                                  OptimizationLoopProperties properties) {
+        lastEvaluatedAt = now;
+        double scale = pending == null ? 1.0 : properties.getReleaseRatio();
+        List<String> changes = levels.changesFrom(applied == null ? NOTHING_APPLIED : applied, properties, scale);
+        if (changes.isEmpty()) {
+            pending = null;
+            stableWindows = 0;
+            pendingChanges = List.of();
+            return phase = OptimizationStatus.Phase.IN_BAND;
+        }
+
+        if (pending != null && levels.changesFrom(pending, properties, 1.0).isEmpty()) {
+            stableWindows++;
+        } else {
+            pending = levels;
+            stableWindows = 1;
+        }
+        pendingChanges = changes;
+        return phase = stableWindows >= properties.getStableWindows()
+                ? OptimizationStatus.Phase.READY
+                : OptimizationStatus.Phase.PENDING;
+    }
+
+    /**
+     * Artifacts for {@code levels} were generated; later windows are compared against them.
+     */
+    synchronized void applied(ResourceLevels levels, Instant now) {
+        applied = levels;
+        pending = null;
+        stableWindows = 0;
+        pendingChanges = List.of();
+        phase = OptimizationStatus.Phase.IN_BAND;
+        lastGeneratedAt = now;
+    }
+
+    synchronized OptimizationStatus status(int requiredWindows) {
+        return new OptimizationStatus(serviceName, phase, stableWindows, requiredWindows, pendingChanges,
+                lastEvaluatedAt, lastGeneratedAt);
+    }
+
+    synchronized boolean isReady() {
+        return phase == OptimizationStatus.Phase.READY;
+    }
+
+    synchronized Instant lastEvaluatedAt() {
+        return lastEvaluatedAt;
+    }
+}
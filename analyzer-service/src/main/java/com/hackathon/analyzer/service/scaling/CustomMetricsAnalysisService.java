@@ -10,6 +10,7 @@ import org.springframework.stereotype.Service;
 import java.time.Instant;
 import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
+import java.util.DoubleSummaryStatistics;
 import java.util.List;
 
 @Slf4j
@@ -49,13 +50,13 @@ public class CustomMetricsAnalysisService {
     }
 
     private CustomMetricsAnalysis.CustomMetricScaling analyzeRequestRate(List<MetricsSnapshot> metrics) {
-        // Calculate requests per second
-        double totalRequests = metrics.stream()
-                .mapToDouble(m -> m.getHttpRequestCount() != null ? m.getHttpRequestCount() : 0)
-                .sum();
-
-        double durationMinutes = metrics.size() / 6.0; // Assuming 10-second intervals
-        double requestsPerSecond = (totalRequests / (durationMinutes * 60));
+        // Per-second rates derived from the request counter at ingestion
+        DoubleSummaryStatistics rates = metrics.stream()
+                .filter(m -> m.getHttpRequestRate() != null)
+                .mapToDouble(MetricsSnapshot::getHttpRequestRate)
+                .summaryStatistics();
+        double requestsPerSecond = rates.getCount() > 0 ? rates.getAverage() : 0.0;
+        double peakRequestsPerSecond = rates.getCount() > 0 ? rates.getMax() : 0.0;
 
         int currentReplicas = 3;
         double currentPerPodRPS = requestsPerSecond / currentReplicas;
@@ -66,8 +67,8 @@ public class CustomMetricsAnalysisService {
         recommendedReplicas = Math.max(2, Math.min(10, recommendedReplicas));
 
         String rationale = String.format(
-                "Current: %.1f RPS total, %.1f RPS per pod. Target: %.1f RPS per pod.",
-                requestsPerSecond, currentPerPodRPS, targetPerPodRPS);
+                "Current: %.1f RPS total (peak %.1f), %.1f RPS per pod. Target: %.1f RPS per pod.",
+                requestsPerSecond, peakRequestsPerSecond, currentPerPodRPS, targetPerPodRPS);
 
         String recommendation;
         if (currentPerPodRPS > targetPerPodRPS * 1.2) {
@@ -146,12 +147,23 @@ public class CustomMetricsAnalysisService {
     }
 
     private CustomMetricsAnalysis.CustomMetricScaling analyzeResponseTime(List<MetricsSnapshot> metrics) {
-        // Calculate P95 response time
-        double p95ResponseTime = metrics.stream()
-                .filter(m -> m.getHttpRequestDurationP95() != null)
-                .mapToDouble(MetricsSnapshot::getHttpRequestDurationP95)
-                .max()
-                .orElse(0.0) * 1000; // Convert to ms
+        // Interval P95 from the request duration histogram, weighted by the
+        // requests each interval served so idle intervals do not dominate
+        double weightedSum = 0.0;
+        double weight = 0.0;
+        double p99ResponseTime = 0.0;
+        for (MetricsSnapshot m : metrics) {
+            if (m.getHttpRequestDurationP95() == null) {
+                continue;
+            }
+            double requests = m.getHttpRequestDelta() != null ? m.getHttpRequestDelta() : 1.0;
+            weightedSum += m.getHttpRequestDurationP95() * requests;
+            weight += requests;
+            if (m.getHttpRequestDurationP99() != null) {
+                p99ResponseTime = Math.max(p99ResponseTime, m.getHttpRequestDurationP99() * 1000);
+            }
+        }
+        double p95ResponseTime = weight > 0 ? weightedSum / weight * 1000 : 0.0; // Convert to ms
 
         int currentReplicas = 3;
 
@@ -166,8 +178,8 @@ public class CustomMetricsAnalysisService {
         }
 
         String rationale = String.format(
-                "P95 response time: %.1fms. Target: %.1fms. %s",
-                p95ResponseTime, targetP95,
+                "P95 response time: %.1fms (worst interval P99: %.1fms). Target: %.1fms. %s",
+                p95ResponseTime, p99ResponseTime, targetP95,
                 p95ResponseTime > targetP95 ? "Performance degradation detected" : "Performance is good");
 
         String recommendation;
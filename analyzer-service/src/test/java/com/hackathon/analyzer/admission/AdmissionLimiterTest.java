@@ -0,0 +1,176 @@
+package com.hackathon.analyzer.admission;
+
+import com.hackathon.analyzer.config.AdmissionProperties;
+import com.hackathon.analyzer.repository.MetricsSnapshotRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests for AdmissionLimiter and RequestCostEstimator.
+ * Covers cost estimation, class isolation, queueing and shedding.
+ */
+@ExtendWith(MockitoExtension.class)
+class AdmissionLimiterTest {
+
+    @Mock
+    private MetricsSnapshotRepository metricsRepository;
+
+    private AdmissionProperties properties;
+    private SimpleMeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        properties = new AdmissionProperties();
+        properties.setBudgets(Map.of(
+                "light", new AdmissionProperties.Budget(4, 4, Duration.ofMillis(50)),
+                "medium", new AdmissionProperties.Budget(2, 1, Duration.ofMillis(50)),
+                "heavy", new AdmissionProperties.Budget(1, 1, Duration.ofMillis(100))));
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    @Test
+    @DisplayName("Should estimate cost from window row counts and the forecast horizon")
+    void testEstimateFromRowCounts() {
+        when(metricsRepository.countByServiceNameAndTimestampAfter(eq("cpu-hungry-service"), any(Instant.class)))
+                .thenReturn(250_000L);
+        RequestCostEstimator estimator = new RequestCostEstimator(metricsRepository, properties);
+
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/predict/costs/cpu-hungry-service");
+        request.setParameter("daysAhead", "90");
+        Optional<CostEstimate> estimate = estimator.estimate(request);
+
+        assertThat(estimate).isPresent();
+        assertThat(estimate.get().rows()).isEqualTo(250_090L);
+        assertThat(estimate.get().costClass()).isEqualTo(CostClass.HEAVY);
+        assertThat(estimator.estimate(new MockHttpServletRequest("GET", "/api/latest-analysis/cpu-hungry-service")))
+                .isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should class fleet analysis routes, including analyze-and-generate, by fleet-wide rows")
+    void testFleetRoutes() {
+        when(metricsRepository.countByTimestampAfter(any(Instant.class))).thenReturn(6_000L);
+        RequestCostEstimator estimator = new RequestCostEstimator(metricsRepository, properties);
+
+        Optional<CostEstimate> generate = estimator.estimate(
+                new MockHttpServletRequest("POST", "/api/analyze-all/generate"));
+
+        assertThat(generate).isPresent();
+        assertThat(generate.get().route()).isEqualTo("/api/analyze-all/generate");
+        assertThat(generate.get().costClass()).isEqualTo(CostClass.MEDIUM);
+        assertThat(estimator.estimate(new MockHttpServletRequest("POST", "/api/analyze-all"))).isPresent();
+        verify(metricsRepository, never()).countByServiceNameAndTimestampAfter(any(), any());
+    }
+
+    @Test
+    @DisplayName("Should reuse row counts within the TTL and bound the count cache")
+    void testRowCountCache() {
+        AtomicLong clock = new AtomicLong();
+        properties.setRowCountMaxEntries(2);
+        RequestCostEstimator estimator = new RequestCostEstimator(metricsRepository, properties, clock::get);
+
+        estimator.estimate(new MockHttpServletRequest("GET", "/api/classify/workload/a"));
+        estimator.estimate(new MockHttpServletRequest("GET", "/api/classify/workload/a"));
+        verify(metricsRepository, times(1)).countByServiceNameAndTimestampAfter(eq("a"), any(Instant.class));
+
+        clock.addAndGet(properties.getRowCountTtl().toNanos());
+        estimator.estimate(new MockHttpServletRequest("GET", "/api/classify/workload/a"));
+        verify(metricsRepository, times(2)).countByServiceNameAndTimestampAfter(eq("a"), any(Instant.class));
+
+        estimator.estimate(new MockHttpServletRequest("GET", "/api/classify/workload/b"));
+        estimator.estimate(new MockHttpServletRequest("GET", "/api/classify/workload/c"));
+        assertThat(estimator.cachedRowCounts()).isLessThanOrEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Should keep admitting light requests while the heavy class is saturated")
+    void testHeavyDoesNotStarveLight() {
+        AdmissionLimiter limiter = new AdmissionLimiter(properties, meterRegistry);
+        CostEstimate heavy = new CostEstimate("/api/predict/costs/{serviceName}", 300_000, CostClass.HEAVY);
+        CostEstimate light = new CostEstimate("/api/analyze/{serviceName}", 30, CostClass.LIGHT);
+
+        Optional<AdmissionLimiter.Permit> running = limiter.admit(heavy);
+        assertThat(running).isPresent();
+        assertThat(limiter.admit(heavy)).isEmpty();
+
+        for (int i = 0; i < 4; i++) {
+            assertThat(limiter.admit(light)).isPresent();
+        }
+        assertThat(limiter.inFlight(CostClass.HEAVY)).isEqualTo(1);
+        assertThat(limiter.inFlight(CostClass.LIGHT)).isEqualTo(4);
+
+        running.get().close();
+        running.get().close();
+        assertThat(limiter.inFlight(CostClass.HEAVY)).isZero();
+        assertThat(meterRegistry.get("analyzer.admission.rejected").tag("class", "heavy").tag("reason", "timeout")
+                .counter().count()).isEqualTo(1.0);
+    }
+
+    @Test
+    @DisplayName("Should hand a released slot to a queued request")
+    void testQueuedRequestIsAdmitted() throws Exception {
+        AdmissionLimiter limiter = new AdmissionLimiter(properties, meterRegistry);
+        CostEstimate heavy = new CostEstimate("/api/ai/overview", 300_000, CostClass.HEAVY);
+        AdmissionLimiter.Permit running = limiter.admit(heavy).orElseThrow();
+
+        Thread releaser = new Thread(() -> {
+            try {
+                Thread.sleep(20);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            running.close();
+        });
+        releaser.start();
+        Optional<AdmissionLimiter.Permit> queued = limiter.admit(heavy);
+        releaser.join();
+
+        assertThat(queued).isPresent();
+        assertThat(queued.get().costClass()).isEqualTo(CostClass.HEAVY);
+        assertThat(limiter.queued(CostClass.HEAVY)).isZero();
+    }
+
+    @Test
+    @DisplayName("Should shed immediately when the class queue is full")
+    void testShedWhenQueueFull() throws Exception {
+        properties.getBudgets().get("medium").setQueueTimeout(Duration.ofSeconds(5));
+        AdmissionLimiter limiter = new AdmissionLimiter(properties, meterRegistry);
+        CostEstimate medium = new CostEstimate("/api/classify/workload/{serviceName}", 60_000, CostClass.MEDIUM);
+        limiter.admit(medium).orElseThrow();
+        limiter.admit(medium).orElseThrow();
+
+        Thread waiter = new Thread(() -> limiter.admit(medium));
+        waiter.start();
+        while (limiter.queued(CostClass.MEDIUM) == 0) {
+            Thread.onSpinWait();
+        }
+
+        long start = System.nanoTime();
+        assertThat(limiter.admit(medium)).isEmpty();
+        assertThat(Duration.ofNanos(System.nanoTime() - start)).isLessThan(Duration.ofSeconds(1));
+        assertThat(meterRegistry.get("analyzer.admission.rejected").tag("reason", "queue_full")
+                .counter().count()).isEqualTo(1.0);
+        assertThat(meterRegistry.get("analyzer.admission.cost").tag("class", "medium")
+                .summary().count()).isEqualTo(4);
+
+        waiter.interrupt();
+        waiter.join();
+    }
+}
@@ -0,0 +1,89 @@
+package com.hackathon.analyzer.cluster;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Tests for ConsistentHashRing.
+ * Covers ownership stability, balance and churn on membership changes.
+ */
+class ConsistentHashRingTest {
+
+    private static final List<String> SERVICES = IntStream.range(0, 3000)
+            .mapToObj(i -> "service-" + i)
+            .toList();
+
+    @Test
+    @DisplayName("Empty ring should own nothing")
+    void ownerOf_emptyRing_shouldReturnNull() {
+        ConsistentHashRing ring = new ConsistentHashRing(List.of(), 64);
+
+        assertThat(ring.isEmpty()).isTrue();
+        assertThat(ring.ownerOf("cpu-hungry-service")).isNull();
+    }
+
+    @Test
+    @DisplayName("Ownership should not depend on member order")
+    void ownerOf_shouldBeDeterministic() {
+        ConsistentHashRing a = new ConsistentHashRing(List.of("r1", "r2", "r3"), 128);
+        ConsistentHashRing b = new ConsistentHashRing(List.of("r3", "r1", "r2"), 128);
+
+        SERVICES.forEach(s -> assertThat(a.ownerOf(s)).isEqualTo(b.ownerOf(s)));
+    }
+
+    @Test
+    @DisplayName("Targets should be spread roughly evenly across replicas")
+    void ownerOf_shouldBalanceTargets() {
+        ConsistentHashRing ring = new ConsistentHashRing(List.of("r1", "r2", "r3"), 128);
+
+        Map<String, Integer> counts = assignmentCounts(ring);
+
+        assertThat(counts).containsOnlyKeys("r1", "r2", "r3");
+        counts.values().forEach(count -> assertThat(count).isBetween(700, 1300));
+    }
+
+    @Test
+    @DisplayName("Adding a replica should only move targets onto the new replica")
+    void ownerOf_whenReplicaJoins_shouldMoveAboutOneNth() {
+        ConsistentHashRing before = new ConsistentHashRing(List.of("r1", "r2", "r3"), 128);
+        ConsistentHashRing after = new ConsistentHashRing(List.of("r1", "r2", "r3", "r4"), 128);
+
+        long moved = SERVICES.stream()
+                .filter(s -> !before.ownerOf(s).equals(after.ownerOf(s)))
+                .peek(s -> assertThat(after.ownerOf(s)).isEqualTo("r4"))
+                .count();
+
+        assertThat(moved).isBetween(500L, 1000L);
+    }
+
+    @Test
+    @DisplayName("Removing a replica should only move that replica's targets")
+    void ownerOf_whenReplicaLeaves_shouldKeepOtherAssignments() {
+        ConsistentHashRing before = new ConsistentHashRing(List.of("r1", "r2", "r3"), 128);
+        ConsistentHashRing after = new ConsistentHashRing(List.of("r1", "r3"), 128);
+
+        SERVICES.stream()
+                .filter(s -> !"r2".equals(before.ownerOf(s)))
+                .forEach(s -> assertThat(after.ownerOf(s)).isEqualTo(before.ownerOf(s)));
+    }
+
+    @Test
+    void constructor_withoutVirtualNodes_shouldFail() {
+        assertThatThrownBy(() -> new ConsistentHashRing(List.of("r1"), 0))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private Map<String, Integer> assignmentCounts(ConsistentHashRing ring) {
+        Map<String, Integer> counts = new HashMap<>();
+        SERVICES.forEach(s -> counts.merge(ring.ownerOf(s), 1, Integer::sum));
+        return counts;
+    }
+}
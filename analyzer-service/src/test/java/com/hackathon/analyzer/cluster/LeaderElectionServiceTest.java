@@ -0,0 +1,143 @@
+package com.hackathon.analyzer.cluster;
+
+import com.hackathon.analyzer.config.ClusterProperties;
+import com.hackathon.analyzer.config.SchedulingConfiguration;
+import com.hackathon.analyzer.discovery.ServiceInfo;
+import com.hackathon.analyzer.model.LeaderLease;
+import com.hackathon.analyzer.repository.LeaderLeaseRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import java.time.Instant;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests for LeaderElectionService.
+ * Covers lease creation, take-over, renewal failure and hand-off metrics.
+ */
+@ExtendWith(MockitoExtension.class)
+class LeaderElectionServiceTest {
+
+    @Mock
+    private ClusterMembershipService membershipService;
+
+    @Mock
+    private LeaderLeaseRepository leaseRepository;
+
+    private ClusterProperties properties;
+    private SimpleMeterRegistry meterRegistry;
+    private LeaderElectionService service;
+
+    @BeforeEach
+    void setUp() {
+        properties = new ClusterProperties();
+        properties.setLeaderElectionEnabled(true);
+        meterRegistry = new SimpleMeterRegistry();
+        lenient().when(membershipService.getReplicaId()).thenReturn("replica-a");
+        service = new LeaderElectionService(properties, membershipService, leaseRepository, meterRegistry);
+    }
+
+    @Test
+    @DisplayName("Every replica is leader when election is disabled")
+    void isLeader_whenDisabled_shouldAlwaysBeTrue() {
+        properties.setLeaderElectionEnabled(false);
+
+        service.electOrRenew();
+
+        assertThat(service.isLeader()).isTrue();
+        verifyNoInteractions(leaseRepository);
+    }
+
+    @Test
+    @DisplayName("First replica should create the lease and become leader")
+    void electOrRenew_withoutLease_shouldCreateLease() {
+        when(leaseRepository.renew(anyString(), anyString(), any())).thenReturn(0);
+        when(leaseRepository.takeOver(anyString(), anyString(), any(), any())).thenReturn(0);
+        when(leaseRepository.existsById(LeaderElectionService.LEASE_NAME)).thenReturn(false);
+
+        service.electOrRenew();
+
+        assertThat(service.isLeader()).isTrue();
+        verify(leaseRepository).saveAndFlush(any(LeaderLease.class));
+        assertThat(meterRegistry.counter("analyzer.cluster.leader.acquired").count()).isEqualTo(1.0);
+    }
+
+    @Test
+    @DisplayName("Follower should stay follower while another replica holds a live lease")
+    void electOrRenew_whenLeaseHeldElsewhere_shouldNotLead() {
+        when(leaseRepository.renew(anyString(), anyString(), any())).thenReturn(0);
+        when(leaseRepository.takeOver(anyString(), anyString(), any(), any())).thenReturn(0);
+        when(leaseRepository.existsById(LeaderElectionService.LEASE_NAME)).thenReturn(true);
+
+        service.electOrRenew();
+
+        assertThat(service.isLeader()).isFalse();
+        verify(leaseRepository, never()).saveAndFlush(any());
+    }
+
+    @Test
+    @DisplayName("Losing the lease should be counted as a hand-off")
+    void electOrRenew_whenLeaseTakenOver_shouldRecordLoss() {
+        when(leaseRepository.takeOver(anyString(), eq("replica-a"), any(), any())).thenReturn(1);
+        service.electOrRenew();
+        assertThat(service.isLeader()).isTrue();
+
+        when(leaseRepository.renew(anyString(), anyString(), any())).thenReturn(0);
+        when(leaseRepository.takeOver(anyString(), anyString(), any(), any())).thenReturn(0);
+        when(leaseRepository.existsById(LeaderElectionService.LEASE_NAME)).thenReturn(true);
+        service.electOrRenew();
+
+        assertThat(service.isLeader()).isFalse();
+        assertThat(meterRegistry.counter("analyzer.cluster.leader.acquired").count()).isEqualTo(1.0);
+        assertThat(meterRegistry.counter("analyzer.cluster.leader.lost").count()).isEqualTo(1.0);
+    }
+
+    @Test
+    @DisplayName("Database errors should not drop leadership before the lease expires")
+    void electOrRenew_whenDatabaseFails_shouldKeepLeaseUntilExpiry() {
+        when(leaseRepository.renew(anyString(), anyString(), any())).thenReturn(1);
+        service.electOrRenew();
+
+        when(leaseRepository.renew(anyString(), anyString(), any(Instant.class)))
+                .thenThrow(new IllegalStateException("connection refused"));
+        service.electOrRenew();
+
+        assertThat(service.isLeader()).isTrue();
+        assertThat(meterRegistry.counter("analyzer.cluster.leader.lost").count()).isZero();
+    }
+
+    @Test
+    @DisplayName("Lease renewal and heartbeats should not wait behind the shared scheduler pool")
+    void electOrRenew_shouldRunOnTheClusterScheduler() throws Exception {
+        Scheduled renew = LeaderElectionService.class.getMethod("electOrRenew").getAnnotation(Scheduled.class);
+        Scheduled heartbeat = ClusterMembershipService.class.getMethod("heartbeat").getAnnotation(Scheduled.class);
+
+        assertThat(renew.scheduler()).isEqualTo(SchedulingConfiguration.CLUSTER_SCHEDULER);
+        assertThat(heartbeat.scheduler()).isEqualTo(SchedulingConfiguration.CLUSTER_SCHEDULER);
+    }
+
+    @Test
+    @DisplayName("Health checks should cover every registered service, not only the owned shard")
+    void healthChecks_byDefault_shouldRunOverAllServices() {
+        TargetShardingService shardingService = mock(TargetShardingService.class);
+        ScheduledJobCoordinator coordinator = new ScheduledJobCoordinator(properties, service, shardingService);
+        List<ServiceInfo> services = List.of(ServiceInfo.builder().name("a").build(),
+                ServiceInfo.builder().name("b").build());
+
+        assertThat(coordinator.selectTargets(ScheduledJobCoordinator.HEALTH_CHECK_SERVICES, services))
+                .containsExactlyElementsOf(services);
+        verifyNoInteractions(shardingService);
+    }
+}
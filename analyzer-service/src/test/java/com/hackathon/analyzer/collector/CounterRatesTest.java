@@ -0,0 +1,103 @@
+package com.hackathon.analyzer.collector;
+
+import com.hackathon.analyzer.model.MetricsSnapshot;
+import com.hackathon.analyzer.repository.MetricsSnapshotRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.when;
+
+/**
+ * Tests for CounterRates.
+ * Covers deltas against the stored snapshot, counter resets and mixed, unordered batches.
+ */
+@ExtendWith(MockitoExtension.class)
+class CounterRatesTest {
+
+    private static final Instant T0 = Instant.parse("2026-01-01T00:00:00Z");
+
+    @Mock
+    private MetricsSnapshotRepository metricsRepository;
+
+    @InjectMocks
+    private CounterRates counterRates;
+
+    @Test
+    @DisplayName("Should derive deltas and per-second rates from the latest stored snapshot")
+    void testRatesAgainstStoredSnapshot() {
+        when(metricsRepository.findFirstByServiceNameAndTimestampBeforeOrderByTimestampDesc("svc", T0.plusSeconds(10)))
+                .thenReturn(Optional.of(snapshot("svc", 0, 10_000L, 40L, 1_200L)));
+        MetricsSnapshot current = snapshot("svc", 10, 10_500L, 42L, 1_250L);
+
+        counterRates.apply(List.of(current));
+
+        assertThat(current.getHttpRequestDelta()).isEqualTo(500L);
+        assertThat(current.getHttpRequestRate()).isEqualTo(50.0);
+        assertThat(current.getGcCountDelta()).isEqualTo(2L);
+        assertThat(current.getGcCountRate()).isEqualTo(0.2);
+        assertThat(current.getGcPauseTimeDeltaMs()).isEqualTo(50L);
+        assertThat(current.getGcPauseTimeRate()).isEqualTo(5.0);
+        assertThat(current.getCounterReset()).isFalse();
+        // The raw cumulative values are kept
+        assertThat(current.getHttpRequestCount()).isEqualTo(10_500L);
+    }
+
+    @Test
+    @DisplayName("Should count from zero after a restart instead of producing a negative delta")
+    void testCounterReset() {
+        MetricsSnapshot before = snapshot("svc", 0, 90_000L, 300L, 8_000L);
+        MetricsSnapshot after = snapshot("svc", 20, 400L, 3L, 100L);
+
+        CounterRates.derive(before, after);
+
+        assertThat(after.getHttpRequestDelta()).isEqualTo(400L);
+        assertThat(after.getHttpRequestRate()).isEqualTo(20.0);
+        assertThat(after.getGcCountDelta()).isEqualTo(3L);
+        assertThat(after.getCounterReset()).isTrue();
+    }
+
+    @Test
+    @DisplayName("Should chain snapshots within a batch per service and leave first samples without a rate")
+    void testUnorderedMixedBatch() {
+        when(metricsRepository.findFirstByServiceNameAndTimestampBeforeOrderByTimestampDesc("a", T0))
+                .thenReturn(Optional.empty());
+        when(metricsRepository.findFirstByServiceNameAndTimestampBeforeOrderByTimestampDesc("b", T0.plusSeconds(5)))
+                .thenReturn(Optional.empty());
+        MetricsSnapshot a0 = snapshot("a", 0, 100L, 1L, 10L);
+        MetricsSnapshot a1 = snapshot("a", 10, 300L, 1L, 10L);
+        MetricsSnapshot a2 = snapshot("a", 20, 600L, 2L, 30L);
+        MetricsSnapshot b0 = snapshot("b", 5, 7L, 0L, 0L);
+        MetricsSnapshot b1 = snapshot("b", 15, 17L, 0L, 0L);
+        a1.setHikariConnectionTimeout(null);
+
+        counterRates.apply(List.of(a2, b1, a0, a1, b0));
+
+        assertThat(a0.getHttpRequestRate()).isNull();
+        assertThat(a0.getCounterReset()).isNull();
+        assertThat(a1.getHttpRequestRate()).isEqualTo(20.0);
+        assertThat(a1.getHikariConnectionTimeoutDelta()).isNull();
+        assertThat(a2.getHttpRequestRate()).isEqualTo(30.0);
+        assertThat(b0.getHttpRequestRate()).isNull();
+        assertThat(b1.getHttpRequestRate()).isEqualTo(1.0);
+    }
+
+    private static MetricsSnapshot snapshot(String service, long second, Long requests, Long gcCount, Long gcPauseMs) {
+        return MetricsSnapshot.builder()
+                .serviceName(service)
+                .timestamp(T0.plusSeconds(second))
+                .httpRequestCount(requests)
+                .gcCount(gcCount)
+                .gcPauseTimeMs(gcPauseMs)
+                .hikariConnectionTimeout(0L)
+                .build();
+    }
+}
@@ -0,0 +1,145 @@
+package com.hackathon.analyzer.collector;
+
+import com.hackathon.analyzer.config.JvmTuningProperties;
+import com.hackathon.analyzer.model.GcTelemetryReport;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+/**
+ * Tests for GcTelemetryTracker.
+ * Covers pause and allocation deltas per collector, memory pools by area,
+ * the live set estimate, counter resets and the window.
+ */
+class GcTelemetryTrackerTest {
+
+    private static final Instant T0 = Instant.parse("2026-01-01T00:00:00Z");
+    private static final double MB = 1024 * 1024;
+
+    @Test
+    @DisplayName("Should derive pause share, pause rate and allocation rate from counter deltas")
+    void testPauseAndAllocationDeltas() {
+        GcTelemetryTracker tracker = new GcTelemetryTracker(new JvmTuningProperties());
+        tracker.observe("svc", T0, scrape(g1Pauses(100, 2.0, 0.05), allocated(1000), pools(50, 100), liveData(80)));
+        assertThat(tracker.report("svc")).isEmpty();
+
+        tracker.observe("svc", T0.plusSeconds(10),
+                scrape(g1Pauses(110, 2.2, 0.03), allocated(1500), pools(70, 110), liveData(90)));
+
+        GcTelemetryReport report = tracker.report("svc").orElseThrow();
+        assertThat(report.getCollector()).isEqualTo("G1");
+        assertThat(report.getGcTimeShare()).isCloseTo(0.02, within(1e-9));
+        assertThat(report.getPausesPerMinute()).isCloseTo(60.0, within(1e-9));
+        assertThat(report.getAvgPauseMs()).isCloseTo(20.0, within(1e-6));
+        assertThat(report.getMaxPauseMs()).isCloseTo(30.0, within(1e-6));
+        assertThat(report.getAllocationRateMbPerSec()).isCloseTo(50.0, within(1e-9));
+        assertThat(report.getCollectors()).singleElement()
+                .satisfies(activity -> {
+                    assertThat(activity.getGc()).isEqualTo("G1 Young Generation");
+                    assertThat(activity.getPauses()).isEqualTo(10L);
+                });
+    }
+
+    @Test
+    @DisplayName("Should sum heap pools, read metaspace and code cache, and take the live data size as live set")
+    void testMemoryPools() {
+        GcTelemetryTracker tracker = new GcTelemetryTracker(new JvmTuningProperties());
+        tracker.observe("svc", T0, scrape(pools(50, 100), liveData(80)));
+        tracker.observe("svc", T0.plusSeconds(10), scrape(pools(70, 110), liveData(90)));
+
+        GcTelemetryReport report = tracker.report("svc").orElseThrow();
+        assertThat(report.getHeapUsedMb()).isCloseTo(180.0, within(1e-9));
+        assertThat(report.getHeapCommittedMb()).isCloseTo(300.0, within(1e-9));
+        // Eden's undefined maximum (-1) is not part of the heap maximum
+        assertThat(report.getHeapMaxMb()).isCloseTo(512.0, within(1e-9));
+        assertThat(report.getMetaspaceUsedMb()).isCloseTo(60.0, within(1e-9));
+        assertThat(report.getMetaspaceCommittedMb()).isCloseTo(64.0, within(1e-9));
+        assertThat(report.getCodeCacheMb()).isCloseTo(24.0, within(1e-9));
+        assertThat(report.getLiveSetMb()).isCloseTo(90.0, within(1e-9));
+    }
+
+    @Test
+    @DisplayName("Should fall back to the lowest heap usage as live set and detect the collector from pool names")
+    void testLiveSetFallback() {
+        GcTelemetryTracker tracker = new GcTelemetryTracker(new JvmTuningProperties());
+        int second = 0;
+        for (double used : new double[] {300, 200, 120, 180}) {
+            tracker.observe("svc", T0.plusSeconds(second += 10), List.of(
+                    new PromSeries("jvm_memory_used_bytes", Map.of("area", "heap", "id", "PS Old Gen"), used * MB)));
+        }
+
+        GcTelemetryReport report = tracker.report("svc").orElseThrow();
+        assertThat(report.getLiveSetMb()).isCloseTo(120.0, within(1e-9));
+        assertThat(report.getCollector()).isEqualTo("Parallel");
+        assertThat(report.getMaxPauseMs()).isNull();
+    }
+
+    @Test
+    @DisplayName("Should count a restarted JVM from zero and drop intervals outside the window")
+    void testResetAndWindow() {
+        JvmTuningProperties properties = new JvmTuningProperties();
+        properties.setWindow(Duration.ofMinutes(1));
+        GcTelemetryTracker tracker = new GcTelemetryTracker(properties);
+
+        tracker.observe("svc", T0, scrape(g1Pauses(100, 2.0, 0.05)));
+        tracker.observe("svc", T0.plusSeconds(10), scrape(g1Pauses(110, 2.2, 0.05)));
+        tracker.observe("svc", T0.plusSeconds(20), scrape(g1Pauses(5, 0.1, 0.05)));
+        assertThat(tracker.report("svc").orElseThrow().getCollectors().get(0).getPauses()).isEqualTo(15L);
+
+        tracker.observe("svc", T0.plusSeconds(120), scrape(g1Pauses(6, 0.12, 0.02)));
+        GcTelemetryReport report = tracker.report("svc").orElseThrow();
+        assertThat(report.getIntervals()).isEqualTo(1);
+        assertThat(report.getWindowSeconds()).isCloseTo(100.0, within(1e-9));
+        assertThat(report.getCollectors().get(0).getPauses()).isEqualTo(1L);
+    }
+
+    @SafeVarargs
+    private static List<PromSeries> scrape(List<PromSeries>... parts) {
+        List<PromSeries> series = new ArrayList<>();
+        for (List<PromSeries> part : parts) {
+            series.addAll(part);
+        }
+        return series;
+    }
+
+    private static List<PromSeries> g1Pauses(double count, double seconds, double maxSeconds) {
+        Map<String, String> labels = Map.of("gc", "G1 Young Generation", "action", "end of minor GC",
+                "cause", "G1 Evacuation Pause");
+        return List.of(
+                new PromSeries("jvm_gc_pause_seconds_count", labels, count),
+                new PromSeries("jvm_gc_pause_seconds_sum", labels, seconds),
+                new PromSeries("jvm_gc_pause_seconds_max", labels, maxSeconds));
+    }
+
+    private static List<PromSeries> allocated(double mb) {
+        return List.of(new PromSeries("jvm_gc_memory_allocated_bytes_total", Map.of(), mb * MB));
+    }
+
+    private static List<PromSeries> liveData(double mb) {
+        return List.of(new PromSeries("jvm_gc_live_data_size_bytes", Map.of(), mb * MB));
+    }
+
+    private static List<PromSeries> pools(double edenMb, double oldMb) {
+        return List.of(
+                new PromSeries("jvm_memory_used_bytes", Map.of("area", "heap", "id", "G1 Eden Space"), edenMb * MB),
+                new PromSeries("jvm_memory_used_bytes", Map.of("area", "heap", "id", "G1 Old Gen"), oldMb * MB),
+                new PromSeries("jvm_memory_committed_bytes", Map.of("area", "heap", "id", "G1 Eden Space"), 100 * MB),
+                new PromSeries("jvm_memory_committed_bytes", Map.of("area", "heap", "id", "G1 Old Gen"), 200 * MB),
+                new PromSeries("jvm_memory_max_bytes", Map.of("area", "heap", "id", "G1 Eden Space"), -1),
+                new PromSeries("jvm_memory_max_bytes", Map.of("area", "heap", "id", "G1 Old Gen"), 512 * MB),
+                new PromSeries("jvm_memory_used_bytes", Map.of("area", "nonheap", "id", "Metaspace"), 60 * MB),
+                new PromSeries("jvm_memory_committed_bytes", Map.of("area", "nonheap", "id", "Metaspace"), 64 * MB),
+                new PromSeries("jvm_memory_committed_bytes",
+                        Map.of("area", "nonheap", "id", "CodeHeap 'non-nmethods'"), 4 * MB),
+                new PromSeries("jvm_memory_committed_bytes",
+                        Map.of("area", "nonheap", "id", "CodeHeap 'profiled nmethods'"), 20 * MB));
+    }
+}
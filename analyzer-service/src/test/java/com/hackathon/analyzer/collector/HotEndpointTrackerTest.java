@@ -0,0 +1,123 @@
+package com.hackathon.analyzer.collector;
+
+import com.hackathon.analyzer.config.HotEndpointProperties;
+import com.hackathon.analyzer.model.HotEndpointReport;
+import com.hackathon.recommendation.ResourceRecommendation;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+/**
+ * Tests for HotEndpointTracker and its space-saving sketch.
+ * Covers counter deltas per route, error and latency attribution, decay and bounded cardinality.
+ */
+class HotEndpointTrackerTest {
+
+    private static final Instant T0 = Instant.parse("2026-01-01T00:00:00Z");
+
+    @Test
+    @DisplayName("Should attribute request time, errors and traffic per route from counter deltas")
+    void testReportsRouteDeltas() {
+        HotEndpointTracker tracker = new HotEndpointTracker(properties(64));
+        tracker.observe("db", T0, scrape(
+                counters("GET", "/api/orders/complex-query", "200", 100, 50.0),
+                counters("GET", "/api/orders", "200", 1_000, 10.0),
+                counters("GET", "/actuator/prometheus", "200", 10, 1.0)));
+
+        tracker.observe("db", T0.plusSeconds(10), scrape(
+                counters("GET", "/api/orders/complex-query", "200", 180, 90.0),
+                counters("GET", "/api/orders/complex-query", "500", 20, 10.0),
+                counters("GET", "/api/orders", "200", 1_300, 13.0),
+                counters("GET", "/actuator/prometheus", "200", 11, 1.1)));
+
+        HotEndpointReport report = tracker.report("db").orElseThrow();
+        assertThat(report.getEndpoints()).extracting(ResourceRecommendation.HotEndpoint::getUri)
+                .containsExactly("/api/orders", "/api/orders/complex-query");
+
+        ResourceRecommendation.HotEndpoint complex = report.getEndpoints().get(1);
+        assertThat(complex.getErrorRate()).isCloseTo(0.2, within(1e-9));
+        assertThat(complex.getAvgLatencyMs()).isCloseTo(500.0, within(1e-6));
+        assertThat(complex.getTrafficShare()).isCloseTo(0.25, within(1e-9));
+        assertThat(complex.getTimeShare()).isCloseTo(50.0 / 53.0, within(1e-9));
+        assertThat(report.getRequestRate()).isCloseTo(40.0, within(0.1));
+    }
+
+    @Test
+    @DisplayName("Should prime on the first scrape and count a restarted route from zero")
+    void testFirstScrapeAndReset() {
+        HotEndpointTracker tracker = new HotEndpointTracker(properties(64));
+        tracker.observe("svc", T0, scrape(counters("GET", "/a", "200", 5_000, 5.0)));
+        assertThat(tracker.report("svc").orElseThrow().getEndpoints()).isEmpty();
+
+        tracker.observe("svc", T0.plusSeconds(10), scrape(counters("GET", "/a", "200", 30, 0.3)));
+
+        ResourceRecommendation.HotEndpoint a = tracker.report("svc").orElseThrow().getEndpoints().get(0);
+        assertThat(a.getRequestRate()).isCloseTo(3.0, within(0.01));
+        assertThat(tracker.report("unknown")).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should keep heavy hitters within a bounded number of tracked routes")
+    void testBoundedCardinality() {
+        HotEndpointTracker tracker = new HotEndpointTracker(properties(8));
+        // One heavy route plus a long tail of distinct, rarely hit URIs
+        for (int round = 1; round <= 20; round++) {
+            int r = round;
+            List<PromSeries> series = new ArrayList<>(counters("GET", "/hot", "200", 100L * r, r));
+            IntStream.range(0, 50).forEach(i -> series.addAll(counters("GET", "/item/" + r + "-" + i, "200", 1, 0.001)));
+            tracker.observe("svc", T0.plusSeconds(10L * r), series);
+        }
+
+        HotEndpointReport report = tracker.report("svc").orElseThrow();
+        assertThat(report.getTrackedRoutes()).isLessThanOrEqualTo(8);
+        assertThat(report.getEndpoints().get(0).getUri()).isEqualTo("/hot");
+        // Space-saving bound: no count is overstated by more than total / capacity
+        double totalRequests = report.getRequestRate() * report.getWindowSeconds();
+        assertThat(report.getEndpoints().get(0).getMaxOverestimate()).isLessThanOrEqualTo(totalRequests / 8);
+        assertThat(report.getEndpoints().get(0).getTrafficShare()).isGreaterThan(0.5);
+    }
+
+    @Test
+    @DisplayName("Should let old traffic decay with the configured half-life")
+    void testDecay() {
+        HotEndpointSketch sketch = new HotEndpointSketch(4);
+        sketch.offer("GET", "/old", 100, 0, 1.0);
+        sketch.decay(0.5);
+        sketch.offer("GET", "/new", 60, 0, 1.0);
+
+        assertThat(sketch.top(2)).extracting(e -> e.uri).containsExactly("/new", "/old");
+        assertThat(sketch.totalRequests()).isEqualTo(110.0);
+    }
+
+    private static HotEndpointProperties properties(int capacity) {
+        HotEndpointProperties properties = new HotEndpointProperties();
+        properties.setCapacity(capacity);
+        properties.setHalfLife(Duration.ofHours(1));
+        return properties;
+    }
+
+    @SafeVarargs
+    private static List<PromSeries> scrape(List<PromSeries>... routes) {
+        List<PromSeries> series = new ArrayList<>();
+        for (List<PromSeries> route : routes) {
+            series.addAll(route);
+        }
+        return series;
+    }
+
+    private static List<PromSeries> counters(String method, String uri, String status, long count, double sumSeconds) {
+        Map<String, String> labels = Map.of("method", method, "uri", uri, "status", status);
+        return List.of(
+                new PromSeries("http_server_requests_seconds_count", labels, count),
+                new PromSeries("http_server_requests_seconds_sum", labels, sumSeconds));
+    }
+}
@@ -0,0 +1,119 @@
+package com.hackathon.analyzer.collector;
+
+import com.hackathon.analyzer.model.EndpointLatency;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+/**
+ * Tests for HttpLatencyTracker and the labelled Prometheus parsing it relies on.
+ * Covers quantile interpolation, aggregation across routes, interval deltas and top-N routes.
+ */
+class HttpLatencyTrackerTest {
+
+    private static final Instant T0 = Instant.parse("2026-01-01T00:00:00Z");
+
+    @Test
+    @DisplayName("Should parse labels and sum request counters across URIs")
+    void testParseLabelledSeries() {
+        String text = """
+                # TYPE http_server_requests_seconds histogram
+                http_server_requests_seconds_bucket{method="GET",uri="/a",le="0.1"} 3.0
+                http_server_requests_seconds_bucket{method="GET",uri="/a,b\\"c",le="+Inf"} 4.0 1700000000000
+                http_server_requests_seconds_count{method="GET",uri="/a"} 10.0
+                http_server_requests_seconds_count{method="POST",uri="/b"} 5.0
+                http_server_requests_seconds_max{method="GET",uri="/a"} 0.3
+                http_server_requests_seconds_max{method="POST",uri="/b"} 0.9
+                """;
+
+        List<PromSeries> series = SnapshotAssembler.parseSeries(text);
+        Map<String, Double> flat = SnapshotAssembler.flatten(series);
+
+        assertThat(series).hasSize(6);
+        assertThat(series.get(1).label("uri")).isEqualTo("/a,b\"c");
+        assertThat(series.get(1).value()).isEqualTo(4.0);
+        assertThat(flat.get("http_server_requests_seconds_count")).isEqualTo(15.0);
+        assertThat(flat.get("http_server_requests_seconds_max")).isEqualTo(0.9);
+    }
+
+    @Test
+    @DisplayName("Should interpolate quantiles within buckets like histogram_quantile")
+    void testQuantileInterpolation() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.add(0.1, 50);
+        histogram.add(0.5, 90);
+        histogram.add(1.0, 100);
+        histogram.add(Double.POSITIVE_INFINITY, 100);
+
+        assertThat(histogram.quantile(0.5)).isCloseTo(0.1, within(1e-9));
+        assertThat(histogram.quantile(0.25)).isCloseTo(0.05, within(1e-9));
+        assertThat(histogram.quantile(0.95)).isCloseTo(0.75, within(1e-9));
+        assertThat(new LatencyHistogram().quantile(0.5)).isNaN();
+
+        LatencyHistogram overflow = new LatencyHistogram();
+        overflow.add(0.1, 1);
+        overflow.add(Double.POSITIVE_INFINITY, 10);
+        assertThat(overflow.quantile(0.99)).isEqualTo(0.1);
+    }
+
+    @Test
+    @DisplayName("Should aggregate routes, skip actuator and report the interval since the last scrape")
+    void testIntervalPercentilesAcrossRoutes() {
+        HttpLatencyTracker tracker = new HttpLatencyTracker(5);
+        tracker.observe("svc", T0, scrape(
+                route("GET", "/fast", 100, 100, 100),
+                route("GET", "/slow", 0, 10, 10),
+                route("GET", "/actuator/prometheus", 500, 500, 500)));
+
+        HttpLatencyTracker.LatencyBreakdown breakdown = tracker.observe("svc", T0.plusSeconds(10), scrape(
+                route("GET", "/fast", 100, 100, 100),
+                route("GET", "/slow", 0, 110, 110),
+                route("GET", "/actuator/prometheus", 600, 600, 600)));
+
+        // Only /slow served requests in the interval, all between 0.1s and 1s
+        assertThat(breakdown.p50()).isCloseTo(0.55, within(1e-9));
+        assertThat(breakdown.p99()).isCloseTo(0.991, within(1e-9));
+        assertThat(breakdown.endpoints()).extracting(EndpointLatency::getUri).containsExactly("/slow");
+        assertThat(breakdown.endpoints().get(0).getRequestCount()).isEqualTo(100L);
+    }
+
+    @Test
+    @DisplayName("Should keep only the busiest routes and fall back to cumulative counts on reset")
+    void testTopRoutesAndReset() {
+        HttpLatencyTracker tracker = new HttpLatencyTracker(2);
+        tracker.observe("svc", T0, scrape(route("GET", "/a", 1000, 1000, 1000)));
+
+        HttpLatencyTracker.LatencyBreakdown breakdown = tracker.observe("svc", T0.plusSeconds(10), scrape(
+                route("GET", "/a", 5, 5, 5),
+                route("GET", "/b", 30, 30, 30),
+                route("POST", "/c", 10, 20, 20)));
+
+        assertThat(breakdown.endpoints()).extracting(EndpointLatency::getUri).containsExactly("/b", "/c");
+        assertThat(breakdown.endpoints().get(1).getMethod()).isEqualTo("POST");
+        assertThat(breakdown.p50()).isNotNull();
+        assertThat(tracker.observe("other", T0, List.of())).isEqualTo(HttpLatencyTracker.LatencyBreakdown.EMPTY);
+    }
+
+    @SafeVarargs
+    private static List<PromSeries> scrape(List<PromSeries>... routes) {
+        return Arrays.stream(routes).flatMap(List::stream).toList();
+    }
+
+    private static List<PromSeries> route(String method, String uri, double le01, double le1, double inf) {
+        return List.of(
+                bucket(method, uri, "0.1", le01),
+                bucket(method, uri, "1.0", le1),
+                bucket(method, uri, "+Inf", inf));
+    }
+
+    private static PromSeries bucket(String method, String uri, String le, double value) {
+        return new PromSeries(HttpLatencyTracker.BUCKET_SERIES, Map.of("method", method, "uri", uri, "le", le), value);
+    }
+}
@@ -0,0 +1,127 @@
+package com.hackathon.analyzer.collector;
+
+import com.hackathon.analyzer.cluster.ScheduledJobCoordinator;
+import com.hackathon.analyzer.config.HotEndpointProperties;
+import com.hackathon.analyzer.config.JvmTuningProperties;
+import com.hackathon.analyzer.config.OutboundHttpProperties;
+import com.hackathon.analyzer.config.OutboundWebClients;
+import com.hackathon.analyzer.discovery.ServiceDiscoveryService;
+import com.hackathon.analyzer.discovery.ServiceInfo;
+import com.hackathon.analyzer.model.MetricsSnapshot;
+import com.hackathon.analyzer.repository.EndpointLatencyRepository;
+import com.hackathon.analyzer.repository.MetricsSnapshotRepository;
+import com.hackathon.analyzer.service.AnomalyDetectionService;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Page;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests for the scrape-to-snapshot path of MetricsCollectorService against
+ * a stub target. Covers failed scrapes leaving a gap instead of a zeroed
+ * snapshot that would read as a counter reset.
+ */
+class MetricsCollectorScrapeTest {
+
+    private final Queue<String> responses = new ConcurrentLinkedQueue<>();
+    private final List<MetricsSnapshot> stored = new ArrayList<>();
+    private final MetricsSnapshotRepository metricsRepository = mock(MetricsSnapshotRepository.class);
+    private HttpServer server;
+    private MetricsCollectorService collector;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/actuator/prometheus", this::respond);
+        server.start();
+
+        when(metricsRepository.saveAll(anyList())).thenAnswer(call -> {
+            stored.addAll(call.getArgument(0));
+            return call.getArgument(0);
+        });
+        when(metricsRepository.findFirstByServiceNameAndTimestampBeforeOrderByTimestampDesc(anyString(), any()))
+                .thenAnswer(call -> stored.stream()
+                        .filter(s -> s.getTimestamp().isBefore(call.getArgument(1)))
+                        .max(Comparator.comparing(MetricsSnapshot::getTimestamp)));
+        when(metricsRepository.findByServiceNameOrderByTimestampDesc(anyString(), any())).thenReturn(Page.empty());
+
+        ServiceDiscoveryService discoveryService = mock(ServiceDiscoveryService.class);
+        ScheduledJobCoordinator jobCoordinator = mock(ScheduledJobCoordinator.class);
+        List<ServiceInfo> services = List.of(ServiceInfo.builder().name("svc").healthy(true)
+                .url("http://127.0.0.1:" + server.getAddress().getPort()).build());
+        when(discoveryService.getHealthyServices()).thenReturn(services);
+        when(jobCoordinator.selectTargets(eq(ScheduledJobCoordinator.COLLECT_METRICS), any())).thenReturn(services);
+
+        SnapshotSink sink = new SnapshotSink(metricsRepository, new CounterRates(metricsRepository),
+                mock(AnomalyDetectionService.class));
+        collector = new MetricsCollectorService(metricsRepository, new OutboundWebClients(new OutboundHttpProperties()),
+                sink, new HttpLatencyTracker(5), new HotEndpointTracker(new HotEndpointProperties()),
+                new GcTelemetryTracker(new JvmTuningProperties()), mock(EndpointLatencyRepository.class),
+                discoveryService, jobCoordinator);
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.stop(0);
+    }
+
+    @Test
+    @DisplayName("Should skip a failed scrape so the next good scrape is compared with the last good one")
+    void testFailedScrapeBetweenGoodScrapes() {
+        responses.add(scrape(1_000));
+        responses.add("");
+        responses.add(scrape(1_100));
+
+        collector.collectMetrics();
+        collector.collectMetrics();
+        collector.collectMetrics();
+
+        assertThat(stored).hasSize(2);
+        MetricsSnapshot latest = stored.get(1);
+        assertThat(latest.getHttpRequestCount()).isEqualTo(1_100L);
+        assertThat(latest.getHttpRequestDelta()).isEqualTo(100L);
+        assertThat(latest.getCounterReset()).isFalse();
+        // Not exposed by the target: no value and no rate rather than a zero
+        assertThat(latest.getHikariConnectionTimeout()).isNull();
+        assertThat(latest.getHikariConnectionTimeoutRate()).isNull();
+    }
+
+    private void respond(HttpExchange exchange) throws IOException {
+        String body = Optional.ofNullable(responses.poll()).orElse("");
+        int status = body.isEmpty() ? 503 : 200;
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.sendResponseHeaders(status, bytes.length == 0 ? -1 : bytes.length);
+        exchange.getResponseBody().write(bytes);
+        exchange.close();
+    }
+
+    private static String scrape(long requests) {
+        return """
+                process_cpu_usage 0.5
+                jvm_memory_used_bytes 536870912.0
+                jvm_memory_max_bytes 1073741824.0
+                http_server_requests_seconds_count{method="GET",uri="/api/orders",status="200"} %d
+                http_server_requests_seconds_sum{method="GET",uri="/api/orders",status="200"} 12.5
+                """.formatted(requests);
+    }
+}
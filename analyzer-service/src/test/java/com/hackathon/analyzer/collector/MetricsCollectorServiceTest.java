@@ -9,6 +9,7 @@ import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
 import org.springframework.test.util.ReflectionTestUtils;
 import org.springframework.web.reactive.function.client.WebClient;
 import reactor.core.publisher.Mono;
@@ -133,16 +134,20 @@ class MetricsCollectorServiceTest {
                                                 .cpuUsagePercent(50.0)
                                                 .build());
 
-                when(metricsRepository.findByServiceNameAndTimestampAfter(anyString(), any(Instant.class)))
+                when(metricsRepository.findByServiceNameAndTimestampAfterOrderByTimestampAsc(
+                                anyString(), any(Instant.class), eq(Limit.of(100))))
                                 .thenReturn(mockSnapshots);
+                when(metricsRepository.countByServiceNameAndTimestampAfter(anyString(), any(Instant.class)))
+                                .thenReturn(250L);
 
                 Map<String, Object> result = metricsCollectorService.getRecentMetrics("test-service", 100);
 
                 assertThat(result).containsKeys("serviceName", "snapshotCount", "snapshots");
                 assertThat(result.get("serviceName")).isEqualTo("test-service");
-                assertThat(result.get("snapshotCount")).isEqualTo(1);
+                assertThat(result.get("snapshotCount")).isEqualTo(250L);
+                assertThat(result.get("snapshots")).isEqualTo(mockSnapshots);
 
-                verify(metricsRepository, times(1))
+                verify(metricsRepository, never())
                                 .findByServiceNameAndTimestampAfter(anyString(), any(Instant.class));
         }
 }
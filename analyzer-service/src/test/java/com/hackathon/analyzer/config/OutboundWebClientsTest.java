@@ -0,0 +1,111 @@
+package com.hackathon.analyzer.config;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.buffer.DataBufferLimitException;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Tests for OutboundWebClients.
+ * Covers connection reuse, per-class body size limits and response timeouts.
+ */
+class OutboundWebClientsTest {
+
+    private static final int LARGE_BODY_BYTES = 600 * 1024;
+
+    private HttpServer server;
+    private final Set<Integer> clientPorts = ConcurrentHashMap.newKeySet();
+    private OutboundWebClients webClients;
+    private String baseUrl;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/actuator/prometheus", exchange -> {
+            clientPorts.add(exchange.getRemoteAddress().getPort());
+            respond(exchange, "x".repeat(LARGE_BODY_BYTES));
+        });
+        server.createContext("/slow", exchange -> {
+            try {
+                Thread.sleep(1_000);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            respond(exchange, "late");
+        });
+        server.start();
+        baseUrl = "http://127.0.0.1:" + server.getAddress().getPort();
+
+        OutboundHttpProperties properties = new OutboundHttpProperties();
+        properties.getProbe().setResponseTimeout(Duration.ofMillis(300));
+        webClients = new OutboundWebClients(properties);
+    }
+
+    @AfterEach
+    void tearDown() {
+        webClients.dispose();
+        server.stop(0);
+    }
+
+    @Test
+    @DisplayName("Should scrape bodies larger than the default 256 KB codec limit")
+    void testScrapeLargeBody() {
+        String body = webClients.scrape().get().uri(baseUrl + "/actuator/prometheus")
+                .retrieve().bodyToMono(String.class).block(Duration.ofSeconds(5));
+
+        assertThat(body).hasSize(LARGE_BODY_BYTES);
+    }
+
+    @Test
+    @DisplayName("Should enforce the smaller body limit on the probe pool")
+    void testProbeBodyLimit() {
+        assertThat(new OutboundHttpProperties().getProbe().getMaxInMemorySize()).isEqualTo(DataSize.ofKilobytes(256));
+        assertThatThrownBy(() -> webClients.probe().get().uri(baseUrl + "/actuator/prometheus")
+                .retrieve().bodyToMono(String.class).block(Duration.ofSeconds(5)))
+                .hasRootCauseInstanceOf(DataBufferLimitException.class);
+    }
+
+    @Test
+    @DisplayName("Should reuse pooled connections across sequential scrapes")
+    void testConnectionReuse() {
+        for (int i = 0; i < 20; i++) {
+            webClients.scrape().get().uri(baseUrl + "/actuator/prometheus")
+                    .retrieve().bodyToMono(String.class).block(Duration.ofSeconds(5));
+        }
+
+        // A handful of connections at most, instead of one per request
+        assertThat(clientPorts.size()).isLessThan(5);
+    }
+
+    @Test
+    @DisplayName("Should fail probes that exceed the response timeout")
+    void testProbeResponseTimeout() {
+        assertThatThrownBy(() -> webClients.probe().get().uri(baseUrl + "/slow")
+                .retrieve().bodyToMono(String.class).block(Duration.ofSeconds(5)))
+                .isNotInstanceOf(WebClientResponseException.class);
+    }
+
+    private static void respond(HttpExchange exchange, String body) throws IOException {
+        byte[] payload = body.getBytes(StandardCharsets.UTF_8);
+        exchange.sendResponseHeaders(200, payload.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(payload);
+        }
+    }
+}
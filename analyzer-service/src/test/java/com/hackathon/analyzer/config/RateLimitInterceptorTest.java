@@ -0,0 +1,73 @@
+package com.hackathon.analyzer.config;
+
+import com.hackathon.analyzer.ratelimit.ClientKeyResolver;
+import com.hackathon.analyzer.ratelimit.ClientRateLimiter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.DispatcherType;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+
+/**
+ * Tests for RateLimitInterceptor.
+ * Covers charging streamed responses once across their request and async dispatches.
+ */
+@ExtendWith(MockitoExtension.class)
+class RateLimitInterceptorTest {
+
+    private static final String STREAM_PATH = "/api/gemini/insight/cpu-hungry-service/stream";
+
+    @Mock
+    private ClientKeyResolver clientKeyResolver;
+
+    private RateLimitInterceptor interceptor;
+
+    @BeforeEach
+    void setUp() {
+        RateLimitProperties properties = new RateLimitProperties();
+        properties.getTiers().put(RateLimitInterceptor.TIER_STANDARD, new RateLimitProperties.Tier(1, Duration.ofMinutes(1)));
+        ClientRateLimiter rateLimiter = new ClientRateLimiter(properties, new SimpleMeterRegistry());
+        interceptor = new RateLimitInterceptor(rateLimiter, clientKeyResolver, properties);
+    }
+
+    @Test
+    @DisplayName("Should charge an SSE stream on its first dispatch only, not again on the async dispatch")
+    void testStreamChargedOnce() throws Exception {
+        when(clientKeyResolver.resolve(any())).thenReturn("user:alice");
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", STREAM_PATH);
+
+        assertThat(interceptor.preHandle(request, new MockHttpServletResponse(), null)).isTrue();
+
+        // The stream completes with an async dispatch of the same request after the response was committed
+        request.setDispatcherType(DispatcherType.ASYNC);
+        MockHttpServletResponse committed = new MockHttpServletResponse();
+        committed.setCommitted(true);
+        assertThat(interceptor.preHandle(request, committed, null)).isTrue();
+        assertThat(committed.getStatus()).isEqualTo(200);
+        assertThat(committed.getHeader("Retry-After")).isNull();
+    }
+
+    @Test
+    @DisplayName("Should still reject a new stream request once the client's budget is spent")
+    void testNewStreamRejected() throws Exception {
+        when(clientKeyResolver.resolve(any())).thenReturn("user:alice");
+        interceptor.preHandle(new MockHttpServletRequest("GET", STREAM_PATH), new MockHttpServletResponse(), null);
+
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        boolean allowed = interceptor.preHandle(new MockHttpServletRequest("GET", STREAM_PATH), response, null);
+
+        assertThat(allowed).isFalse();
+        assertThat(response.getStatus()).isEqualTo(429);
+    }
+}
@@ -9,6 +9,7 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.test.context.ActiveProfiles;
 
+import java.util.List;
 import java.util.Map;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -78,6 +79,30 @@ class AnalyzerControllerTest {
                 assertThat(r.getBody()).containsEntry("serviceName", "cpu-hungry-service");
         }
 
+        @Test
+        void analysisHistory_shouldReturnBoundedPage() {
+                ResponseEntity<List> r = rest.getForEntity(
+                                url("/api/analysis-history/cpu-hungry-service?limit=5"), List.class);
+
+                assertThat(r.getStatusCode()).isEqualTo(HttpStatus.OK);
+                assertThat(r.getBody()).hasSizeLessThanOrEqualTo(5);
+
+                ResponseEntity<Map> invalid = rest.getForEntity(
+                                url("/api/analysis-history/cpu-hungry-service?cursor=bogus"), Map.class);
+                assertThat(invalid.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+        }
+
+        @Test
+        void exportMetrics_shouldStreamCsv() {
+                ResponseEntity<String> r = rest.getForEntity(
+                                url("/api/export/metrics/cpu-hungry-service?format=csv"), String.class);
+
+                assertThat(r.getStatusCode()).isEqualTo(HttpStatus.OK);
+                assertThat(r.getHeaders().getContentType().toString()).startsWith("text/csv");
+                assertThat(r.getHeaders().getContentDisposition().getFilename())
+                                .isEqualTo("cpu-hungry-service-metrics.csv");
+        }
+
         // ═══════════════════════════════════════════════════
         // Analysis Endpoints (depend on external services)
         // ═══════════════════════════════════════════════════
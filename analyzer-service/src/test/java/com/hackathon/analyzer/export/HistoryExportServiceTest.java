@@ -0,0 +1,168 @@
+package com.hackathon.analyzer.export;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.hackathon.analyzer.config.ExportProperties;
+import com.hackathon.analyzer.model.AnalysisResult;
+import com.hackathon.analyzer.model.MetricsSnapshot;
+import com.hackathon.analyzer.repository.AnalysisResultRepository;
+import com.hackathon.analyzer.repository.MetricsSnapshotRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
+import org.hibernate.Session;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Tests for HistoryExportService against the JPA schema.
+ * Covers keyset paging, cursor validation and NDJSON/CSV streaming exports.
+ */
+@DataJpaTest
+class HistoryExportServiceTest {
+
+    private static final Instant T0 = Instant.parse("2026-01-01T00:00:00Z");
+
+    @Autowired
+    private AnalysisResultRepository analysisRepository;
+
+    @Autowired
+    private MetricsSnapshotRepository metricsRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private final ObjectMapper mapper = new ObjectMapper()
+            .registerModule(new JavaTimeModule())
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+
+    private HistoryExportService service;
+
+    @BeforeEach
+    void setUp() {
+        ExportProperties properties = new ExportProperties();
+        properties.setFlushEveryRows(7);
+        service = new HistoryExportService(analysisRepository, metricsRepository, entityManager,
+                mapper, properties, new SimpleMeterRegistry());
+
+        // Pairs of results share a timestamp, so the id has to break ties
+        List<AnalysisResult> results = new ArrayList<>();
+        for (int i = 0; i < 250; i++) {
+            results.add(AnalysisResult.builder()
+                    .serviceName("cpu-hungry-service")
+                    .analysisTimestamp(T0.plusSeconds(i / 2 * 60L))
+                    .recommendedCpuLimit("500m")
+                    .confidenceScore(0.8)
+                    .build());
+        }
+        results.add(AnalysisResult.builder().serviceName("other-service").analysisTimestamp(T0).build());
+        analysisRepository.saveAllAndFlush(results);
+
+        List<MetricsSnapshot> snapshots = new ArrayList<>();
+        for (int i = 0; i < 30; i++) {
+            snapshots.add(MetricsSnapshot.builder()
+                    .serviceName("cpu-hungry-service")
+                    .timestamp(T0.plusSeconds(i * 10L))
+                    .cpuUsagePercent(40.0 + i)
+                    .build());
+        }
+        metricsRepository.saveAllAndFlush(snapshots);
+        entityManager.clear();
+    }
+
+    @Test
+    @DisplayName("Should walk the whole history newest first without gaps or duplicates")
+    void testKeysetPaging() {
+        List<AnalysisResult> seen = new ArrayList<>();
+        List<Integer> pageSizes = new ArrayList<>();
+        String cursor = null;
+        do {
+            HistoryPage<AnalysisResult> page = service.analysisHistoryPage("cpu-hungry-service", cursor, 100);
+            pageSizes.add(page.items().size());
+            seen.addAll(page.items());
+            cursor = page.nextCursor();
+        } while (cursor != null);
+
+        assertThat(pageSizes).containsExactly(100, 100, 50);
+        Set<Long> ids = new HashSet<>();
+        seen.forEach(r -> ids.add(r.getId()));
+        assertThat(ids).hasSize(250);
+        for (int i = 1; i < seen.size(); i++) {
+            AnalysisResult previous = seen.get(i - 1);
+            AnalysisResult current = seen.get(i);
+            assertThat(current.getAnalysisTimestamp()).isBeforeOrEqualTo(previous.getAnalysisTimestamp());
+            if (current.getAnalysisTimestamp().equals(previous.getAnalysisTimestamp())) {
+                assertThat(current.getId()).isLessThan(previous.getId());
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Should clamp page sizes and reject malformed cursors")
+    void testPageSizeAndCursorValidation() {
+        assertThat(service.pageSize(null)).isEqualTo(100);
+        assertThat(service.pageSize(0)).isEqualTo(1);
+        assertThat(service.pageSize(50_000)).isEqualTo(1_000);
+
+        assertThatThrownBy(() -> service.analysisHistoryPage("cpu-hungry-service", "not-a-cursor", 10))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Invalid cursor");
+    }
+
+    @Test
+    @DisplayName("Should stream the time range as NDJSON oldest first and detach written rows")
+    void testNdjsonExport() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        long rows = service.exportAnalysisHistory("cpu-hungry-service", T0, T0.plusSeconds(60 * 60),
+                ExportFormat.NDJSON, out);
+
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertThat(rows).isEqualTo(120);
+        assertThat(lines).hasSize(120);
+        JsonNode first = mapper.readTree(lines[0]);
+        assertThat(first.get("serviceName").asText()).isEqualTo("cpu-hungry-service");
+        assertThat(first.get("analysisTimestamp").asText()).isEqualTo("2026-01-01T00:00:00Z");
+        assertThat(mapper.readTree(lines[119]).get("analysisTimestamp").asText()).isEqualTo("2026-01-01T00:59:00Z");
+        assertThat(out.toString(StandardCharsets.UTF_8)).endsWith("}\n");
+        assertThat(entityManager.unwrap(Session.class).getStatistics().getEntityCount()).isZero();
+    }
+
+    @Test
+    @DisplayName("Should stream metrics as CSV with a header row")
+    void testCsvExport() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        long rows = service.exportMetrics("cpu-hungry-service", T0, T0.plusSeconds(3600), ExportFormat.CSV, out);
+
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\r\n");
+        assertThat(rows).isEqualTo(30);
+        assertThat(lines).hasSize(31);
+        List<String> header = List.of(lines[0].split(","));
+        assertThat(header).contains("serviceName", "timestamp", "cpuUsagePercent");
+        String[] firstRow = lines[1].split(",", -1);
+        assertThat(firstRow[header.indexOf("timestamp")]).isEqualTo("2026-01-01T00:00:00Z");
+        assertThat(firstRow[header.indexOf("cpuUsagePercent")]).isEqualTo("40.0");
+        assertThat(firstRow[header.indexOf("heapUsedBytes")]).isEmpty();
+
+        assertThat(RowWriter.escape("plain")).isEqualTo("plain");
+        assertThat(RowWriter.escape("a,\"b\"")).isEqualTo("\"a,\"\"b\"\"\"");
+        assertThatThrownBy(() -> ExportFormat.fromParam("xml")).hasMessageContaining("Unsupported export format");
+    }
+}
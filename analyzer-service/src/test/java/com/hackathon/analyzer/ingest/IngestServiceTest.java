@@ -0,0 +1,210 @@
+package com.hackathon.analyzer.ingest;
+
+import com.google.protobuf.CodedOutputStream;
+import com.hackathon.analyzer.collector.SnapshotSink;
+import com.hackathon.analyzer.config.IngestProperties;
+import com.hackathon.analyzer.config.RateLimitProperties;
+import com.hackathon.analyzer.model.MetricsSnapshot;
+import com.hackathon.analyzer.ratelimit.ClientRateLimiter;
+import io.airlift.compress.snappy.SnappyCompressor;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpStatus;
+import org.springframework.util.unit.DataSize;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.GZIPOutputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests for IngestService.
+ * Covers remote-write and NDJSON decoding, validation, snapshot assembly,
+ * tenant quotas and decompression limits.
+ */
+@ExtendWith(MockitoExtension.class)
+class IngestServiceTest {
+
+    @Mock
+    private SnapshotSink snapshotSink;
+
+    private IngestProperties properties;
+    private RateLimitProperties rateLimitProperties;
+    private SimpleMeterRegistry meterRegistry;
+    private IngestService service;
+
+    @BeforeEach
+    void setUp() {
+        properties = new IngestProperties();
+        rateLimitProperties = new RateLimitProperties();
+        meterRegistry = new SimpleMeterRegistry();
+        service = new IngestService(snapshotSink, new ClientRateLimiter(rateLimitProperties, meterRegistry),
+                properties, meterRegistry);
+    }
+
+    @Test
+    @DisplayName("Should decode remote-write series into one snapshot per service and second")
+    @SuppressWarnings("unchecked")
+    void testRemoteWrite() throws IOException {
+        long t0 = Instant.now().minusSeconds(30).toEpochMilli() / 1000 * 1000;
+        byte[] body = remoteWrite(
+                series(Map.of("__name__", "process_cpu_usage", "job", "batch-job"), new double[]{0.5, 0.25},
+                        new long[]{t0, t0 + 10_000}),
+                series(Map.of("__name__", "jvm_threads_live_threads", "job", "batch-job", "service", "nat-service"),
+                        new double[]{42}, new long[]{t0}),
+                series(Map.of("__name__", "some_custom_metric", "job", "batch-job"), new double[]{1}, new long[]{t0}),
+                series(Map.of("__name__", "process_cpu_usage"), new double[]{0.1}, new long[]{t0}));
+
+        IngestService.IngestResult result = service.ingestRemoteWrite(new ByteArrayInputStream(body), "apikey:abc");
+
+        assertThat(result).isEqualTo(new IngestService.IngestResult(5, 3, 1, 1, 3));
+        ArgumentCaptor<List<MetricsSnapshot>> stored = ArgumentCaptor.forClass(List.class);
+        verify(snapshotSink).storeAll(stored.capture());
+        assertThat(stored.getValue())
+                .extracting(MetricsSnapshot::getServiceName, MetricsSnapshot::getTimestamp, MetricsSnapshot::getCpuUsagePercent)
+                .containsExactlyInAnyOrder(
+                        tuple("batch-job", Instant.ofEpochMilli(t0), 50.0),
+                        tuple("batch-job", Instant.ofEpochMilli(t0 + 10_000), 25.0),
+                        tuple("nat-service", Instant.ofEpochMilli(t0), 0.0));
+        assertThat(meterRegistry.get("analyzer.ingest.samples").tag("format", "remote_write")
+                .tag("result", "accepted").counter().count()).isEqualTo(3.0);
+    }
+
+    @Test
+    @DisplayName("Should accept gzip NDJSON and reject stale or malformed samples")
+    @SuppressWarnings("unchecked")
+    void testNdjson() throws IOException {
+        long now = System.currentTimeMillis();
+        String ndjson = """
+                {"service":"cron-report","name":"process_cpu_usage","value":0.8,"timestamp":%d}
+                {"labels":{"application":"cron-report","__name__":"jvm_memory_used_bytes"},"value":1048576,"timestamp":%d}
+                {"service":"cron-report","name":"process_cpu_usage","value":0.1,"timestamp":%d}
+                {"service":"bad name!","name":"process_cpu_usage","value":0.1}
+                """.formatted(now, now, now - Duration.ofDays(1).toMillis());
+
+        IngestService.IngestResult result = service.ingestNdjson(
+                new ByteArrayInputStream(gzip(ndjson)), true, "user:alice");
+
+        assertThat(result.accepted()).isEqualTo(2);
+        assertThat(result.invalid()).isEqualTo(2);
+        ArgumentCaptor<List<MetricsSnapshot>> stored = ArgumentCaptor.forClass(List.class);
+        verify(snapshotSink).storeAll(stored.capture());
+        assertThat(stored.getValue()).singleElement().satisfies(snapshot -> {
+            assertThat(snapshot.getCpuUsagePercent()).isEqualTo(80.0);
+            assertThat(snapshot.getHeapUsedBytes()).isEqualTo(1_048_576L);
+        });
+
+        assertThatThrownBy(() -> service.ingestNdjson(
+                new ByteArrayInputStream("{\"service\":\"x\",".getBytes(StandardCharsets.UTF_8)), false, "user:alice"))
+                .isInstanceOfSatisfying(IngestException.class,
+                        e -> assertThat(e.getStatus()).isEqualTo(HttpStatus.BAD_REQUEST));
+    }
+
+    @Test
+    @DisplayName("Should enforce the sample quota per tenant")
+    void testTenantQuota() {
+        rateLimitProperties.getTiers().put("ingest-samples", new RateLimitProperties.Tier(3, Duration.ofMinutes(1)));
+        String batch = """
+                {"service":"svc","name":"process_cpu_usage","value":0.1}
+                {"service":"svc","name":"system_cpu_usage","value":0.2}
+                """;
+
+        service.ingestNdjson(stream(batch), false, "apikey:tenant-a");
+
+        assertThatThrownBy(() -> service.ingestNdjson(stream(batch), false, "apikey:tenant-a"))
+                .isInstanceOfSatisfying(IngestException.class, e -> {
+                    assertThat(e.getStatus()).isEqualTo(HttpStatus.TOO_MANY_REQUESTS);
+                    assertThat(e.getRetryAfterSeconds()).isPositive();
+                });
+        assertThat(service.ingestNdjson(stream(batch), false, "apikey:tenant-b").accepted()).isEqualTo(2);
+        verify(snapshotSink, times(2)).storeAll(anyList());
+    }
+
+    @Test
+    @DisplayName("Should refuse bodies that decompress beyond the limit")
+    void testDecompressionLimit() throws IOException {
+        properties.setMaxDecompressedSize(DataSize.ofKilobytes(1));
+        String line = "{\"service\":\"svc\",\"name\":\"process_cpu_usage\",\"value\":0.1}\n";
+        byte[] bomb = gzip(line.repeat(1_000));
+
+        assertThatThrownBy(() -> service.ingestNdjson(new ByteArrayInputStream(bomb), true, "ip:10.0.0.1"))
+                .isInstanceOfSatisfying(IngestException.class,
+                        e -> assertThat(e.getStatus()).isEqualTo(HttpStatus.PAYLOAD_TOO_LARGE));
+
+        byte[] remoteWrite = remoteWrite(series(Map.of("__name__", "process_cpu_usage", "job", "svc"),
+                new double[2_000], new long[2_000]));
+        assertThatThrownBy(() -> service.ingestRemoteWrite(new ByteArrayInputStream(remoteWrite), "ip:10.0.0.1"))
+                .isInstanceOfSatisfying(IngestException.class,
+                        e -> assertThat(e.getStatus()).isEqualTo(HttpStatus.PAYLOAD_TOO_LARGE));
+        verifyNoInteractions(snapshotSink);
+    }
+
+    private static ByteArrayInputStream stream(String text) {
+        return new ByteArrayInputStream(text.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static byte[] gzip(String text) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(text.getBytes(StandardCharsets.UTF_8));
+        }
+        return out.toByteArray();
+    }
+
+    /** Encode a WriteRequest (field 1: repeated TimeSeries) and snappy-compress it. */
+    private static byte[] remoteWrite(byte[]... series) throws IOException {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        CodedOutputStream out = CodedOutputStream.newInstance(buffer);
+        for (byte[] s : series) {
+            out.writeByteArray(1, s);
+        }
+        out.flush();
+        byte[] raw = buffer.toByteArray();
+
+        SnappyCompressor compressor = new SnappyCompressor();
+        byte[] compressed = new byte[compressor.maxCompressedLength(raw.length)];
+        int length = compressor.compress(raw, 0, raw.length, compressed, 0, compressed.length);
+        return Arrays.copyOf(compressed, length);
+    }
+
+    /** TimeSeries: field 1 labels {1 name, 2 value}, field 2 samples {1 double value, 2 int64 timestamp}. */
+    private static byte[] series(Map<String, String> labels, double[] values, long[] timestamps) throws IOException {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        CodedOutputStream out = CodedOutputStream.newInstance(buffer);
+        for (Map.Entry<String, String> label : labels.entrySet()) {
+            ByteArrayOutputStream labelBuffer = new ByteArrayOutputStream();
+            CodedOutputStream labelOut = CodedOutputStream.newInstance(labelBuffer);
+            labelOut.writeString(1, label.getKey());
+            labelOut.writeString(2, label.getValue());
+            labelOut.flush();
+            out.writeByteArray(1, labelBuffer.toByteArray());
+        }
+        for (int i = 0; i < values.length; i++) {
+            ByteArrayOutputStream sampleBuffer = new ByteArrayOutputStream();
+            CodedOutputStream sampleOut = CodedOutputStream.newInstance(sampleBuffer);
+            sampleOut.writeDouble(1, values[i]);
+            sampleOut.writeInt64(2, timestamps[i]);
+            sampleOut.flush();
+            out.writeByteArray(2, sampleBuffer.toByteArray());
+        }
+        out.flush();
+        return buffer.toByteArray();
+    }
+}
@@ -0,0 +1,116 @@
+package com.hackathon.analyzer.pipeline;
+
+import com.hackathon.analyzer.config.OutboundHttpProperties;
+import com.hackathon.analyzer.config.OutboundWebClients;
+import com.hackathon.recommendation.BatchGenerationReport;
+import com.hackathon.recommendation.RecommendationCodec;
+import com.hackathon.recommendation.RecommendationGenerator;
+import com.hackathon.recommendation.ResourceRecommendation;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for CodeGenerationPipeline against a local stub of the code
+ * generator's batch endpoint. Covers the binary hand-off and the in-process
+ * path that skips HTTP entirely.
+ */
+class CodeGenerationPipelineTest {
+
+    private HttpServer server;
+    private final List<String> contentTypes = new CopyOnWriteArrayList<>();
+    private final List<String> receivedServices = new CopyOnWriteArrayList<>();
+    private OutboundWebClients webClients;
+    private String baseUrl;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/api/generate/batch", exchange -> {
+            contentTypes.add(exchange.getRequestHeaders().getFirst("Content-Type"));
+            RecommendationCodec.reader(exchange.getRequestBody())
+                    .forEachRemaining(r -> receivedServices.add(r.getServiceName()));
+            byte[] body = ("{\"batchId\":\"b-1\",\"total\":" + receivedServices.size()
+                    + ",\"succeeded\":" + receivedServices.size() + ",\"failed\":0}").getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+        server.start();
+        baseUrl = "http://127.0.0.1:" + server.getAddress().getPort();
+        webClients = new OutboundWebClients(new OutboundHttpProperties());
+    }
+
+    @AfterEach
+    void tearDown() {
+        webClients.dispose();
+        server.stop(0);
+    }
+
+    @Test
+    @DisplayName("Should stream recommendations to the code generator in the binary encoding")
+    void testRemoteBinaryHandOff() throws Exception {
+        CodeGenerationPipeline pipeline = pipeline(new StaticListableBeanFactory());
+
+        BatchGenerationReport report = pipeline.generate(fleet(250).iterator());
+
+        assertThat(contentTypes).containsExactly(RecommendationCodec.MEDIA_TYPE);
+        assertThat(receivedServices).hasSize(250).startsWith("svc-0", "svc-1").endsWith("svc-249");
+        assertThat(report.getSucceeded()).isEqualTo(250);
+    }
+
+    @Test
+    @DisplayName("Should call an in-process generator directly without any HTTP request")
+    void testInProcessHandOff() throws Exception {
+        List<ResourceRecommendation> handedOver = new ArrayList<>();
+        RecommendationGenerator generator = recommendations -> {
+            recommendations.forEachRemaining(handedOver::add);
+            return BatchGenerationReport.builder().total(handedOver.size()).succeeded(handedOver.size()).build();
+        };
+        StaticListableBeanFactory beans = new StaticListableBeanFactory();
+        beans.addBean("batchGenerationService", generator);
+        List<ResourceRecommendation> fleet = fleet(3);
+
+        BatchGenerationReport report = pipeline(beans).generate(fleet.iterator());
+
+        assertThat(report.getSucceeded()).isEqualTo(3);
+        // The very same objects, never serialized
+        assertThat(handedOver).hasSize(3);
+        assertThat(handedOver.get(0)).isSameAs(fleet.get(0));
+        assertThat(contentTypes).isEmpty();
+    }
+
+    private CodeGenerationPipeline pipeline(StaticListableBeanFactory beans) {
+        return new CodeGenerationPipeline(beans.getBeanProvider(RecommendationGenerator.class), webClients,
+                baseUrl, Duration.ofSeconds(10));
+    }
+
+    private static List<ResourceRecommendation> fleet(int size) {
+        return IntStream.range(0, size)
+                .mapToObj(i -> ResourceRecommendation.builder()
+                        .serviceName("svc-" + i)
+                        .kubernetes(ResourceRecommendation.KubernetesResources.builder()
+                                .cpuRequest("250m").cpuLimit("500m").memoryRequest("256Mi").memoryLimit("512Mi")
+                                .build())
+                        .confidenceScore(0.9)
+                        .build())
+                .toList();
+    }
+}
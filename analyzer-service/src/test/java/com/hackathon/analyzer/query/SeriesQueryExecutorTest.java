@@ -0,0 +1,171 @@
+package com.hackathon.analyzer.query;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hackathon.analyzer.config.QueryProperties;
+import com.hackathon.analyzer.model.MetricsSnapshot;
+import com.hackathon.analyzer.repository.MetricsSnapshotRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+
+import javax.sql.DataSource;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Tests for the query API parser and SeriesQueryExecutor against the JPA schema.
+ * Covers selectors, counter rates across resets, SQL pushdown, regex matchers and limits.
+ */
+@DataJpaTest
+class SeriesQueryExecutorTest {
+
+    private static final Instant T0 = Instant.parse("2026-01-01T00:00:00Z");
+    private static final ObjectMapper JSON = new ObjectMapper();
+
+    @Autowired
+    private MetricsSnapshotRepository repository;
+
+    @Autowired
+    private DataSource dataSource;
+
+    private SeriesQueryExecutor executor;
+
+    @BeforeEach
+    void setUp() {
+        executor = new SeriesQueryExecutor(dataSource, new QueryProperties(), new SimpleMeterRegistry());
+
+        // Two services, one sample every 10s for 10 minutes; the counter restarts at minute 5
+        List<MetricsSnapshot> snapshots = new ArrayList<>();
+        for (int i = 0; i <= 60; i++) {
+            Instant ts = T0.plusSeconds(i * 10L);
+            long requests = i < 30 ? 1_000 + i * 50L : (i - 29) * 50L;
+            snapshots.add(snapshot("cpu-hungry-service", ts, 40 + (i % 6), requests));
+            snapshots.add(snapshot("memory-leaker-service", ts, 10, 0));
+        }
+        repository.saveAllAndFlush(snapshots);
+    }
+
+    @Test
+    @DisplayName("Should parse functions, matchers and durations and reject unknown input")
+    void testParser() {
+        PromQuery query = PromQueryParser.parse(
+                "quantile_over_time(0.95, cpu_usage_percent{service=~\"cpu-.*\", service!=\"x\"}[1h30m])");
+
+        assertThat(query.function()).isEqualTo(PromQuery.Function.QUANTILE_OVER_TIME);
+        assertThat(query.parameter()).isEqualTo(0.95);
+        assertThat(query.column()).isEqualTo(SeriesColumn.CPU_USAGE_PERCENT);
+        assertThat(query.matchers()).hasSize(2);
+        assertThat(query.range()).isEqualTo(Duration.ofMinutes(90));
+
+        assertThatThrownBy(() -> PromQueryParser.parse("heap_used_bytes; DROP TABLE metrics_snapshot"))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> PromQueryParser.parse("unknown_metric")).hasMessageContaining("unknown metric");
+        assertThatThrownBy(() -> PromQueryParser.parse("rate(gc_count)")).hasMessageContaining("expected '['");
+        assertThatThrownBy(() -> PromQueryParser.parse("cpu_usage_percent{pod=\"a\"}")).hasMessageContaining("label");
+    }
+
+    @Test
+    @DisplayName("Should accept rate and increase on counters only")
+    void testParserRejectsRateOnGauge() {
+        assertThat(PromQueryParser.parse("rate(http_request_count[5m])").column())
+                .isEqualTo(SeriesColumn.HTTP_REQUEST_COUNT);
+        assertThat(PromQueryParser.parse("increase(gc_count[1h])").function())
+                .isEqualTo(PromQuery.Function.INCREASE);
+
+        assertThatThrownBy(() -> PromQueryParser.parse("rate(cpu_usage_percent[5m])"))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("needs a counter");
+        assertThatThrownBy(() -> PromQueryParser.parse("increase(heap_used_bytes[1h])"))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("needs a counter");
+    }
+
+    @Test
+    @DisplayName("Should return the latest sample per service for an instant selector")
+    void testInstantSelector() throws IOException {
+        JsonNode result = instant("cpu_usage_percent", T0.plusSeconds(305));
+
+        assertThat(result.path("resultType").asText()).isEqualTo("vector");
+        assertThat(result.path("result")).hasSize(2);
+        JsonNode first = result.path("result").get(0);
+        assertThat(first.path("metric").path("__name__").asText()).isEqualTo("cpu_usage_percent");
+        assertThat(first.path("metric").path("service").asText()).isEqualTo("cpu-hungry-service");
+        assertThat(first.path("value").get(0).asText()).isEqualTo(String.valueOf(T0.plusSeconds(305).getEpochSecond()));
+        assertThat(first.path("value").get(1).asText()).isEqualTo("40");
+    }
+
+    @Test
+    @DisplayName("Should compute counter rates per step and treat a decrease as a reset")
+    void testRateAcrossReset() throws IOException {
+        JsonNode result = range("rate(http_request_count{service=\"cpu-hungry-service\"}[1m])",
+                T0.plusSeconds(60), T0.plusSeconds(600), "60s");
+
+        JsonNode values = result.path("result").get(0).path("values");
+        assertThat(values).hasSize(10);
+        // 50 requests per 10s everywhere, including the window containing the restart
+        values.forEach(point -> assertThat(Double.parseDouble(point.get(1).asText())).isEqualTo(5.0));
+    }
+
+    @Test
+    @DisplayName("Should give the same result for SQL-aggregated and streamed evaluation")
+    void testPushdownMatchesStreaming() throws IOException {
+        JsonNode pushedDown = range("avg_over_time(cpu_usage_percent{service=~\"cpu.*\"}[2m])",
+                T0.plusSeconds(120), T0.plusSeconds(600), "2m");
+        JsonNode streamed = range("avg_over_time(cpu_usage_percent{service=~\"cpu.*\"}[2m])",
+                T0.plusSeconds(120), T0.plusSeconds(600), "120001ms");
+
+        assertThat(pushedDown.path("result")).hasSize(1);
+        JsonNode a = pushedDown.path("result").get(0).path("values");
+        assertThat(a).hasSize(5);
+        for (int i = 0; i < a.size(); i++) {
+            assertThat(Double.parseDouble(a.get(i).get(1).asText())).isEqualTo(42.5);
+        }
+        assertThat(streamed.path("result").get(0).path("values")).hasSize(4);
+    }
+
+    @Test
+    @DisplayName("Should reject queries exceeding the point limit")
+    void testPointLimit() {
+        assertThatThrownBy(() -> executor.queryRange(PromQueryParser.parse("gc_count"),
+                T0, T0.plus(Duration.ofDays(30)), Duration.ofSeconds(10), new ByteArrayOutputStream()))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("maximum resolution");
+    }
+
+    private JsonNode instant(String query, Instant time) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        executor.queryInstant(PromQueryParser.parse(query), time, out);
+        JsonNode root = JSON.readTree(out.toByteArray());
+        assertThat(root.path("status").asText()).isEqualTo("success");
+        return root.path("data");
+    }
+
+    private JsonNode range(String query, Instant start, Instant end, String step) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        executor.queryRange(PromQueryParser.parse(query), start, end, PromQueryParser.parseDuration(step), out);
+        JsonNode root = JSON.readTree(out.toByteArray());
+        assertThat(root.path("status").asText()).isEqualTo("success");
+        return root.path("data");
+    }
+
+    private static MetricsSnapshot snapshot(String service, Instant ts, double cpu, long requests) {
+        return MetricsSnapshot.builder()
+                .serviceName(service)
+                .timestamp(ts)
+                .cpuUsagePercent(cpu)
+                .httpRequestCount(requests)
+                .gcCount(0L)
+                .build();
+    }
+}
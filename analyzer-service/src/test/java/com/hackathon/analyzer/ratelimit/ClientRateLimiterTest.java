@@ -0,0 +1,126 @@
+package com.hackathon.analyzer.ratelimit;
+
+import com.hackathon.analyzer.config.RateLimitProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for ClientRateLimiter and TokenBucket.
+ * Covers bursts, exact retry-after, per-client isolation, refill and idle eviction.
+ */
+class ClientRateLimiterTest {
+
+    private final AtomicLong clock = new AtomicLong(1_000_000_000L);
+    private SimpleMeterRegistry meterRegistry;
+    private ClientRateLimiter limiter;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        RateLimitProperties properties = new RateLimitProperties();
+        properties.setIdleTimeout(Duration.ofMinutes(1));
+        limiter = new ClientRateLimiter(properties, meterRegistry, clock::get);
+    }
+
+    @Test
+    @DisplayName("Should allow a full burst, then reject with the exact time to the next token")
+    void testBurstThenReject() {
+        for (int i = 0; i < 5; i++) {
+            RateLimitDecision decision = limiter.tryAcquire("analysis", "user:alice");
+            assertThat(decision.allowed()).isTrue();
+            assertThat(decision.remaining()).isEqualTo(4 - i);
+        }
+
+        RateLimitDecision rejected = limiter.tryAcquire("analysis", "user:alice");
+
+        assertThat(rejected.allowed()).isFalse();
+        assertThat(rejected.retryAfterNanos()).isEqualTo(TimeUnit.SECONDS.toNanos(2));
+        assertThat(rejected.retryAfterSeconds()).isEqualTo(2);
+        assertThat(meterRegistry.get("analyzer.ratelimit.rejected").tag("tier", "analysis").counter().count())
+                .isEqualTo(1.0);
+    }
+
+    @Test
+    @DisplayName("Should give every client its own bucket")
+    void testClientsAreIsolated() {
+        for (int i = 0; i < 5; i++) {
+            limiter.tryAcquire("analysis", "user:noisy-dashboard");
+        }
+
+        assertThat(limiter.tryAcquire("analysis", "user:noisy-dashboard").allowed()).isFalse();
+        assertThat(limiter.tryAcquire("analysis", "user:bob").allowed()).isTrue();
+        assertThat(limiter.tryAcquire("standard", "user:noisy-dashboard").allowed()).isTrue();
+    }
+
+    @Test
+    @DisplayName("Should take several permits at once and never more than the capacity")
+    void testMultiplePermits() {
+        assertThat(limiter.tryAcquire("analysis", "apikey:agent", 3).remaining()).isEqualTo(2);
+        assertThat(limiter.tryAcquire("analysis", "apikey:agent", 3).allowed()).isFalse();
+        assertThat(limiter.tryAcquire("analysis", "apikey:agent", 2).allowed()).isTrue();
+        assertThat(limiter.tryAcquire("analysis", "apikey:other", 6).allowed()).isFalse();
+    }
+
+    @Test
+    @DisplayName("Should refill tokens as time passes")
+    void testRefill() {
+        for (int i = 0; i < 5; i++) {
+            limiter.tryAcquire("analysis", "ip:10.0.0.1");
+        }
+        RateLimitDecision rejected = limiter.tryAcquire("analysis", "ip:10.0.0.1");
+
+        clock.addAndGet(rejected.retryAfterNanos());
+
+        assertThat(limiter.tryAcquire("analysis", "ip:10.0.0.1").allowed()).isTrue();
+        assertThat(limiter.tryAcquire("analysis", "ip:10.0.0.1").allowed()).isFalse();
+    }
+
+    @Test
+    @DisplayName("Should not limit unknown tiers")
+    void testUnknownTier() {
+        assertThat(limiter.tryAcquire("unknown", "ip:10.0.0.1").allowed()).isTrue();
+        assertThat(limiter.bucketCount()).isZero();
+    }
+
+    @Test
+    @DisplayName("Should evict only buckets that are full and idle")
+    void testIdleEviction() {
+        limiter.tryAcquire("standard", "ip:idle");
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(30));
+        limiter.tryAcquire("standard", "ip:active");
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(40));
+
+        limiter.evictIdle();
+
+        assertThat(limiter.bucketCount()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should never admit more than the capacity under concurrent access")
+    void testConcurrentAcquire() throws InterruptedException {
+        AtomicInteger admitted = new AtomicInteger();
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        for (int i = 0; i < 400; i++) {
+            pool.execute(() -> {
+                if (limiter.tryAcquire("standard", "user:shared").allowed()) {
+                    admitted.incrementAndGet();
+                }
+            });
+        }
+        pool.shutdown();
+        assertThat(pool.awaitTermination(5, TimeUnit.SECONDS)).isTrue();
+
+        assertThat(admitted.get()).isEqualTo(20);
+    }
+}
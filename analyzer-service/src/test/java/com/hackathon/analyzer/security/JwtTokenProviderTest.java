@@ -0,0 +1,74 @@
+package com.hackathon.analyzer.security;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Tests for JwtTokenProvider.
+ * Covers single-parse validation, the verified-token cache and expiry handling.
+ */
+class JwtTokenProviderTest {
+
+    private static final String SECRET = "TestSecretKeyForJwtTokenProviderMustBe256Bits!!";
+
+    @Test
+    @DisplayName("Should return claims for a valid token and cache it")
+    void testResolveClaimsCachesVerifiedToken() {
+        JwtTokenProvider provider = new JwtTokenProvider(SECRET, 60_000, 100);
+        String token = provider.generateToken("alice");
+
+        Optional<Claims> first = provider.resolveClaims(token);
+        Optional<Claims> second = provider.resolveClaims(token);
+
+        assertThat(first).map(Claims::getSubject).contains("alice");
+        assertThat(second).map(Claims::getSubject).contains("alice");
+        assertThat(provider.cachedTokenCount()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should reject tampered tokens and tokens signed with another key")
+    void testRejectsInvalidTokens() {
+        JwtTokenProvider provider = new JwtTokenProvider(SECRET, 60_000, 100);
+        JwtTokenProvider other = new JwtTokenProvider(SECRET.replace('T', 'X'), 60_000, 100);
+        String token = provider.generateToken("alice");
+        String tampered = token.substring(0, token.length() - 2) + (token.endsWith("AA") ? "BB" : "AA");
+
+        assertThat(provider.resolveClaims(tampered)).isEmpty();
+        assertThat(provider.resolveClaims(other.generateToken("alice"))).isEmpty();
+        assertThat(provider.resolveClaims("not-a-jwt")).isEmpty();
+        assertThat(provider.resolveClaims("")).isEmpty();
+        assertThat(provider.cachedTokenCount()).isZero();
+    }
+
+    @Test
+    @DisplayName("Should stop serving a cached token once it expires")
+    void testCachedTokenExpires() throws InterruptedException {
+        JwtTokenProvider provider = new JwtTokenProvider(SECRET, 1_000, 100);
+        String token = provider.generateToken("alice");
+
+        assertThat(provider.validateToken(token)).isTrue();
+        Thread.sleep(1_100);
+
+        assertThat(provider.validateToken(token)).isFalse();
+        assertThatThrownBy(() -> provider.getUsernameFromToken(token)).isInstanceOf(JwtException.class);
+    }
+
+    @Test
+    @DisplayName("Should keep the cache within its size bound")
+    void testCacheIsBounded() {
+        JwtTokenProvider provider = new JwtTokenProvider(SECRET, 60_000, 3);
+
+        for (int i = 0; i < 10; i++) {
+            assertThat(provider.validateToken(provider.generateToken("user-" + i))).isTrue();
+        }
+
+        assertThat(provider.cachedTokenCount()).isLessThanOrEqualTo(3);
+    }
+}
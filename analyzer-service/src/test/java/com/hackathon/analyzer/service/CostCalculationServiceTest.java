@@ -1,7 +1,7 @@
 package com.hackathon.analyzer.service;
 
 import com.hackathon.analyzer.model.AnalysisResult;
-import com.hackathon.analyzer.model.ResourceRecommendation;
+import com.hackathon.recommendation.ResourceRecommendation;
 import org.apache.commons.math3.stat.descriptive.DescriptiveStatistics;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -0,0 +1,214 @@
+package com.hackathon.analyzer.service;
+
+import com.hackathon.analyzer.config.OutboundHttpProperties;
+import com.hackathon.analyzer.config.OutboundWebClients;
+import com.hackathon.analyzer.service.insight.InsightCache;
+import com.hackathon.analyzer.service.insight.InsightFingerprint;
+import com.hackathon.analyzer.service.insight.PregeneratedInsightStore;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadConfig;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Tests for GeminiInsightService against a local stub of the Messages API.
+ * Covers streamed text deltas, stream errors, caching and the circuit breaker.
+ */
+class GeminiInsightServiceTest {
+
+    private static final String STREAM_BODY = """
+            event: message_start
+            data: {"type":"message_start","message":{"id":"msg_1","content":[]}}
+
+            event: content_block_start
+            data: {"type":"content_block_start","index":0,"content_block":{"type":"text","text":""}}
+
+            event: ping
+            data: {"type":"ping"}
+
+            event: content_block_delta
+            data: {"type":"content_block_delta","index":0,"delta":{"type":"text_delta","text":"Reduce CPU "}}
+
+            event: content_block_delta
+            data: {"type":"content_block_delta","index":0,"delta":{"type":"text_delta","text":"limit to 350m."}}
+
+            event: content_block_stop
+            data: {"type":"content_block_stop","index":0}
+
+            event: message_stop
+            data: {"type":"message_stop"}
+
+            """;
+
+    private static final String ERROR_BODY = """
+            event: content_block_delta
+            data: {"type":"content_block_delta","index":0,"delta":{"type":"text_delta","text":"Partial"}}
+
+            event: error
+            data: {"type":"error","error":{"type":"overloaded_error","message":"Overloaded"}}
+
+            """;
+
+    /** The connection drops after the first delta, before message_stop. */
+    private static final String TRUNCATED_BODY = STREAM_BODY.substring(0, STREAM_BODY.indexOf("event: content_block_delta",
+            STREAM_BODY.indexOf("Reduce CPU ")));
+
+    private HttpServer server;
+    private final AtomicInteger requests = new AtomicInteger();
+    private final Queue<String> nextBodies = new ConcurrentLinkedQueue<>();
+    private volatile int status = 200;
+    private volatile String body = STREAM_BODY;
+
+    private OutboundWebClients webClients;
+    private InsightCache cache;
+    private CircuitBreaker circuitBreaker;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/v1/messages", this::handle);
+        server.start();
+
+        webClients = new OutboundWebClients(new OutboundHttpProperties());
+        cache = new InsightCache(Duration.ofMinutes(5), Duration.ofHours(1), 100, new SimpleMeterRegistry());
+        circuitBreaker = CircuitBreaker.of("ai-test", CircuitBreakerConfig.custom()
+                .slidingWindowSize(2)
+                .minimumNumberOfCalls(2)
+                .failureRateThreshold(50)
+                .waitDurationInOpenState(Duration.ofMinutes(1))
+                .build());
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.stop(0);
+        cache.shutdown();
+        webClients.dispose();
+    }
+
+    @Test
+    @DisplayName("Should emit only text deltas from the event stream")
+    void testStreamsTextDeltas() {
+        List<String> chunks = service().streamOptimizationInsight("cpu-hungry-service",
+                82.0, 512.0, 120.0, 40.0, 0.9, Map.of()).collectList().block(Duration.ofSeconds(10));
+
+        assertThat(chunks).containsExactly("Reduce CPU ", "limit to 350m.");
+    }
+
+    @Test
+    @DisplayName("Should serve a completed stream from cache on the next request")
+    void testCompletedStreamIsCached() {
+        GeminiInsightService service = service();
+
+        service.streamOptimizationInsight("cpu-hungry-service", 82.0, 512.0, 120.0, 40.0, 0.9, Map.of())
+                .blockLast(Duration.ofSeconds(10));
+        List<String> cached = service.streamOptimizationInsight("cpu-hungry-service",
+                81.0, 511.0, 120.2, 40.1, 0.9, Map.of()).collectList().block(Duration.ofSeconds(10));
+
+        assertThat(cached).containsExactly("Reduce CPU limit to 350m.");
+        assertThat(requests.get()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should surface an error event as a stream error and not cache the partial text")
+    void testErrorEvent() {
+        body = ERROR_BODY;
+        GeminiInsightService service = service();
+
+        assertThatThrownBy(() -> service.streamOptimizationInsight("cpu-hungry-service",
+                82.0, 512.0, 120.0, 40.0, 0.9, Map.of()).blockLast(Duration.ofSeconds(10)))
+                .hasMessageContaining("Overloaded");
+        assertThat(cache.size()).isZero();
+    }
+
+    @Test
+    @DisplayName("Should fail a stream that ends before message_stop and not cache the truncated text")
+    void testTruncatedStream() {
+        body = TRUNCATED_BODY;
+        GeminiInsightService service = service();
+
+        assertThatThrownBy(() -> service.streamOptimizationInsight("cpu-hungry-service",
+                82.0, 512.0, 120.0, 40.0, 0.9, Map.of()).blockLast(Duration.ofSeconds(10)))
+                .hasMessageContaining("message_stop");
+        assertThat(cache.size()).isZero();
+    }
+
+    @Test
+    @DisplayName("Should cache only the retried attempt's text after a truncated stream")
+    void testRetryStartsWithEmptyBuffer() {
+        nextBodies.add(TRUNCATED_BODY);
+        GeminiInsightService service = service();
+
+        service.streamOptimizationInsight("cpu-hungry-service", 82.0, 512.0, 120.0, 40.0, 0.9, Map.of())
+                .retry(1)
+                .blockLast(Duration.ofSeconds(10));
+
+        assertThat(requests.get()).isEqualTo(2);
+        assertThat(cache.peek(InsightFingerprint.of("cpu-hungry-service", 82.0, 512.0, 120.0, 40.0, 0.9, Map.of())))
+                .contains("Reduce CPU limit to 350m.");
+    }
+
+    @Test
+    @DisplayName("Should open the circuit after repeated backend failures")
+    void testCircuitBreakerOpens() {
+        status = 500;
+        GeminiInsightService service = service();
+
+        for (int i = 0; i < 2; i++) {
+            String svc = "svc-" + i;
+            assertThatThrownBy(() -> service.streamOptimizationInsight(svc, 10.0, 10.0, 1.0, 0.0, 0.5, Map.of())
+                    .blockLast(Duration.ofSeconds(10)));
+        }
+        int callsBeforeOpen = requests.get();
+
+        assertThatThrownBy(() -> service.streamOptimizationInsight("svc-3", 10.0, 10.0, 1.0, 0.0, 0.5, Map.of())
+                .blockLast(Duration.ofSeconds(10)));
+        assertThat(circuitBreaker.getState()).isEqualTo(CircuitBreaker.State.OPEN);
+        assertThat(requests.get()).isEqualTo(callsBeforeOpen);
+    }
+
+    private GeminiInsightService service() {
+        Bulkhead bulkhead = Bulkhead.of("ai-test", BulkheadConfig.custom()
+                .maxConcurrentCalls(2)
+                .maxWaitDuration(Duration.ZERO)
+                .build());
+        return new GeminiInsightService(webClients, cache, mock(PregeneratedInsightStore.class),
+                circuitBreaker, bulkhead,
+                "test-key", "http://127.0.0.1:" + server.getAddress().getPort(), "test-model", true, 10);
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        requests.incrementAndGet();
+        exchange.getRequestBody().readAllBytes();
+        String streamBody = Optional.ofNullable(nextBodies.poll()).orElse(body);
+        byte[] payload = (status == 200 ? streamBody : "{\"error\":\"boom\"}").getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add("Content-Type", status == 200 ? "text/event-stream" : "application/json");
+        exchange.sendResponseHeaders(status, payload.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(payload);
+        }
+    }
+}
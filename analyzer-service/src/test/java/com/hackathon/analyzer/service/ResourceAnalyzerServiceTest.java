@@ -1,14 +1,19 @@
 package com.hackathon.analyzer.service;
 
+import com.hackathon.analyzer.collector.GcTelemetryTracker;
+import com.hackathon.analyzer.collector.HotEndpointTracker;
+import com.hackathon.analyzer.config.HotEndpointProperties;
+import com.hackathon.analyzer.config.JvmTuningProperties;
 import com.hackathon.analyzer.model.AnalysisResult;
 import com.hackathon.analyzer.model.MetricsSnapshot;
-import com.hackathon.analyzer.model.ResourceRecommendation;
 import com.hackathon.analyzer.repository.AnalysisResultRepository;
 import com.hackathon.analyzer.repository.MetricsSnapshotRepository;
+import com.hackathon.analyzer.service.optimization.JvmTuningService;
 import com.hackathon.analyzer.service.strategy.ConnectionPoolAnalysisStrategy;
 import com.hackathon.analyzer.service.strategy.CpuAnalysisStrategy;
 import com.hackathon.analyzer.service.strategy.MemoryAnalysisStrategy;
 import com.hackathon.analyzer.service.strategy.ResourceAnalysisStrategy;
+import com.hackathon.recommendation.ResourceRecommendation;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.DisplayName;
@@ -51,7 +56,10 @@ class ResourceAnalyzerServiceTest {
                                 new MemoryAnalysisStrategy(),
                                 new ConnectionPoolAnalysisStrategy());
                 analyzerService = new ResourceAnalyzerService(
-                                metricsRepository, analysisRepository, costService, strategies);
+                                metricsRepository, analysisRepository, costService, strategies,
+                                new HotEndpointTracker(new HotEndpointProperties()), new HotEndpointProperties(),
+                                new JvmTuningService(new JvmTuningProperties(),
+                                                new GcTelemetryTracker(new JvmTuningProperties())));
 
                 mockSnapshots = new ArrayList<>();
                 for (int i = 0; i < 50; i++) {
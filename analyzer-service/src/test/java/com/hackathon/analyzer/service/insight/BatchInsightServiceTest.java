@@ -0,0 +1,199 @@
+package com.hackathon.analyzer.service.insight;
+
+import com.hackathon.analyzer.cluster.ScheduledJobCoordinator;
+import com.hackathon.analyzer.discovery.ServiceDiscoveryService;
+import com.hackathon.analyzer.discovery.ServiceInfo;
+import com.hackathon.analyzer.model.PregeneratedInsight;
+import com.hackathon.analyzer.service.GeminiInsightService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests for BatchInsightService.
+ * Covers token-budget packing, section parsing and cache seeding from a batch response.
+ */
+@ExtendWith(MockitoExtension.class)
+class BatchInsightServiceTest {
+
+    @Mock
+    private GeminiInsightService geminiInsightService;
+
+    @Mock
+    private InsightInputsCollector inputsCollector;
+
+    @Mock
+    private PregeneratedInsightStore pregeneratedStore;
+
+    @Mock
+    private ServiceDiscoveryService discoveryService;
+
+    @Mock
+    private ScheduledJobCoordinator jobCoordinator;
+
+    private InsightCache cache;
+    private BatchInsightService service;
+
+    @BeforeEach
+    void setUp() {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        cache = new InsightCache(Duration.ofMinutes(5), Duration.ofHours(1), 100, meterRegistry);
+        service = new BatchInsightService(geminiInsightService, inputsCollector, cache, pregeneratedStore,
+                discoveryService, jobCoordinator, meterRegistry, true, 4000, 8, 400);
+    }
+
+    @AfterEach
+    void tearDown() {
+        cache.shutdown();
+    }
+
+    @Test
+    @DisplayName("Should pack services into batches within the per-batch limit")
+    void testPackByServiceLimit() {
+        List<InsightInputs> services = IntStream.range(0, 10).mapToObj(i -> inputs("svc-" + i)).toList();
+
+        List<List<InsightInputs>> batches = BatchInsightService.pack(services, 100_000, 4);
+
+        assertThat(batches).extracting(List::size).containsExactly(4, 4, 2);
+    }
+
+    @Test
+    @DisplayName("Should start a new batch when the token budget would be exceeded")
+    void testPackByTokenBudget() {
+        List<InsightInputs> services = IntStream.range(0, 6).mapToObj(i -> inputs("svc-" + i)).toList();
+        int preamble = BatchInsightService.estimateTokens(BatchInsightService.buildPrompt(List.of()));
+        int perService = BatchInsightService.estimateTokens(BatchInsightService.compact(services.get(0)));
+
+        List<List<InsightInputs>> batches = BatchInsightService.pack(services, preamble + 2 * perService, 10);
+
+        assertThat(batches).hasSize(3);
+        batches.forEach(batch -> assertThat(BatchInsightService.estimateTokens(BatchInsightService.buildPrompt(batch)))
+                .isLessThanOrEqualTo(preamble + 2 * perService + 1));
+    }
+
+    @Test
+    @DisplayName("Should split a response into per-service sections")
+    void testParseSections() {
+        String response = """
+                Here are the reports.
+                === SERVICE: cpu-hungry-service ===
+                1. **Current Status:** CPU bound
+
+                === SERVICE: Memory-Leaker-Service ===
+                1. **Current Status:** Heap grows
+                === SERVICE: empty-service ===
+                """;
+
+        Map<String, String> sections = BatchInsightService.parseSections(response);
+
+        assertThat(sections).containsOnlyKeys("cpu-hungry-service", "memory-leaker-service");
+        assertThat(sections.get("cpu-hungry-service")).isEqualTo("1. **Current Status:** CPU bound");
+        assertThat(sections.get("memory-leaker-service")).isEqualTo("1. **Current Status:** Heap grows");
+    }
+
+    @Test
+    @DisplayName("Should make one model call per batch and seed cache and store")
+    @SuppressWarnings("unchecked")
+    void testGenerateAllSeedsCache() {
+        List<ServiceInfo> services = List.of(service("alpha"), service("beta"), service("gamma"));
+        when(discoveryService.getAllServices()).thenReturn(services);
+        services.forEach(s -> when(inputsCollector.collect(s.getName())).thenReturn(inputs(s.getName())));
+        when(geminiInsightService.requestCompletion(anyString(), anyInt())).thenReturn("""
+                === SERVICE: alpha ===
+                Report A
+                === SERVICE: gamma ===
+                Report G
+                """);
+
+        BatchInsightService.BatchRunResult result = service.generateAll();
+
+        verify(geminiInsightService, times(1)).requestCompletion(anyString(), eq(1200));
+        assertThat(result.generated()).isEqualTo(2);
+        assertThat(result.failed()).containsExactly("beta");
+        assertThat(cache.peek(inputs("alpha").fingerprint())).contains("Report A");
+        assertThat(cache.peek(inputs("beta").fingerprint())).isEmpty();
+
+        ArgumentCaptor<Collection<PregeneratedInsight>> saved = ArgumentCaptor.forClass(Collection.class);
+        verify(pregeneratedStore).saveAll(saved.capture());
+        assertThat(saved.getValue()).extracting(PregeneratedInsight::getServiceName).containsExactly("alpha", "gamma");
+    }
+
+    @Test
+    @DisplayName("Should skip services whose cached insight is still fresh")
+    void testSkipsUnchangedServices() {
+        when(discoveryService.getAllServices()).thenReturn(List.of(service("alpha")));
+        when(inputsCollector.collect("alpha")).thenReturn(inputs("alpha"));
+        cache.put(inputs("alpha").fingerprint(), "cached");
+
+        BatchInsightService.BatchRunResult result = service.generateAll();
+
+        assertThat(result.unchanged()).isEqualTo(1);
+        assertThat(result.modelCalls()).isZero();
+        verify(geminiInsightService, never()).requestCompletion(anyString(), anyInt());
+    }
+
+    @Test
+    @DisplayName("Should not regenerate an unchanged service on a later run once its insight is past the fresh TTL")
+    void testSkipsUnchangedServicesAcrossRuns() {
+        // No fresh window: the second run always comes more than the fresh TTL after the first
+        cache.shutdown();
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        cache = new InsightCache(Duration.ZERO, Duration.ofHours(1), 100, meterRegistry);
+        service = new BatchInsightService(geminiInsightService, inputsCollector, cache, pregeneratedStore,
+                discoveryService, jobCoordinator, meterRegistry, true, 4000, 8, 400);
+        when(discoveryService.getAllServices()).thenReturn(List.of(service("alpha")));
+        when(inputsCollector.collect("alpha")).thenReturn(inputs("alpha"));
+        when(geminiInsightService.requestCompletion(anyString(), anyInt())).thenReturn("""
+                === SERVICE: alpha ===
+                Report A
+                """);
+
+        BatchInsightService.BatchRunResult first = service.generateAll();
+        BatchInsightService.BatchRunResult second = service.generateAll();
+
+        assertThat(first.generated()).isEqualTo(1);
+        assertThat(cache.isFresh(inputs("alpha").fingerprint())).isFalse();
+        assertThat(second.unchanged()).isEqualTo(1);
+        assertThat(second.modelCalls()).isZero();
+        verify(geminiInsightService, times(1)).requestCompletion(anyString(), anyInt());
+    }
+
+    @Test
+    @DisplayName("Should skip services with a persisted insight for the same inputs when the cache is empty")
+    void testSkipsServicesWithPregeneratedInsight() {
+        when(discoveryService.getAllServices()).thenReturn(List.of(service("alpha")));
+        when(inputsCollector.collect("alpha")).thenReturn(inputs("alpha"));
+        when(pregeneratedStore.find(inputs("alpha").fingerprint())).thenReturn(Optional.of("persisted"));
+
+        BatchInsightService.BatchRunResult result = service.generateAll();
+
+        assertThat(result.unchanged()).isEqualTo(1);
+        verify(geminiInsightService, never()).requestCompletion(anyString(), anyInt());
+    }
+
+    private static InsightInputs inputs(String name) {
+        return new InsightInputs(name, 72.5, 410.0, 85.20, 22.40, 0.82, Map.of("CPU Throttling", "CPU usage exceeds limits"));
+    }
+
+    private static ServiceInfo service(String name) {
+        return ServiceInfo.builder().name(name).build();
+    }
+}
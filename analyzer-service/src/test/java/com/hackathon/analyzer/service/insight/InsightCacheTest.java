@@ -0,0 +1,173 @@
+package com.hackathon.analyzer.service.insight;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Tests for InsightCache and InsightFingerprint.
+ * Covers request coalescing, stale-while-revalidate, failure handling and key normalization.
+ */
+class InsightCacheTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private InsightCache cache;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        cache = new InsightCache(Duration.ofMinutes(5), Duration.ofHours(1), 100, meterRegistry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        cache.shutdown();
+    }
+
+    @Test
+    @DisplayName("Should serve a fresh entry without calling the loader again")
+    void testFreshHit() {
+        AtomicInteger calls = new AtomicInteger();
+
+        assertThat(cache.get("k", () -> "v" + calls.incrementAndGet())).isEqualTo("v1");
+        assertThat(cache.get("k", () -> "v" + calls.incrementAndGet())).isEqualTo("v1");
+
+        assertThat(calls.get()).isEqualTo(1);
+        assertThat(count("hit")).isEqualTo(1.0);
+        assertThat(count("miss")).isEqualTo(1.0);
+    }
+
+    @Test
+    @DisplayName("Should share one in-flight load between concurrent callers")
+    void testCoalescing() throws Exception {
+        AtomicInteger calls = new AtomicInteger();
+        CountDownLatch loaderStarted = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+
+        try {
+            List<Future<String>> results = new ArrayList<>();
+            results.add(pool.submit(() -> cache.get("k", () -> {
+                calls.incrementAndGet();
+                loaderStarted.countDown();
+                await(release);
+                return "shared";
+            })));
+            assertThat(loaderStarted.await(5, TimeUnit.SECONDS)).isTrue();
+
+            for (int i = 0; i < 7; i++) {
+                results.add(pool.submit(() -> cache.get("k", () -> {
+                    calls.incrementAndGet();
+                    return "duplicate";
+                })));
+            }
+            // Let the followers reach the in-flight future before the leader finishes
+            Thread.sleep(200);
+            release.countDown();
+
+            for (Future<String> result : results) {
+                assertThat(result.get(5, TimeUnit.SECONDS)).isEqualTo("shared");
+            }
+            assertThat(calls.get()).isEqualTo(1);
+            assertThat(count("coalesced")).isEqualTo(7.0);
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    @Test
+    @DisplayName("Should return the stale value immediately and refresh in the background")
+    void testStaleWhileRevalidate() throws Exception {
+        cache.shutdown();
+        cache = new InsightCache(Duration.ZERO, Duration.ofHours(1), 100, meterRegistry);
+        cache.put("k", "old");
+        CountDownLatch refreshed = new CountDownLatch(1);
+
+        String value = cache.get("k", () -> {
+            refreshed.countDown();
+            return "new";
+        });
+
+        assertThat(value).isEqualTo("old");
+        assertThat(refreshed.await(5, TimeUnit.SECONDS)).isTrue();
+        waitUntil(() -> "new".equals(cache.peek("k").orElse(null)));
+        assertThat(count("stale")).isEqualTo(1.0);
+    }
+
+    @Test
+    @DisplayName("Should not cache failed loads")
+    void testFailureNotCached() {
+        assertThatThrownBy(() -> cache.get("k", () -> {
+            throw new IllegalStateException("model unavailable");
+        })).isInstanceOf(IllegalStateException.class);
+
+        assertThat(cache.peek("k")).isEmpty();
+        assertThat(cache.get("k", () -> "recovered")).isEqualTo("recovered");
+    }
+
+    @Test
+    @DisplayName("Should evict the oldest entries beyond the size limit")
+    void testEviction() {
+        cache.shutdown();
+        cache = new InsightCache(Duration.ofMinutes(5), Duration.ofHours(1), 2, meterRegistry);
+
+        cache.put("a", "1");
+        cache.put("b", "2");
+        cache.put("c", "3");
+
+        assertThat(cache.size()).isEqualTo(2);
+        assertThat(cache.peek("a")).isEmpty();
+        assertThat(cache.peek("c")).contains("3");
+    }
+
+    @Test
+    @DisplayName("Should map metric jitter and issue order to the same fingerprint")
+    void testFingerprintNormalization() {
+        String a = InsightFingerprint.of("Cpu-Hungry", 81.2, 512.4, 120.30, 40.10, 0.86,
+                Map.of("HIGH_CPU", "CPU above 80%", "MEMORY_LEAK", "Heap growing"));
+        String b = InsightFingerprint.of("cpu-hungry", 82.0, 511.0, 120.45, 39.90, 0.85,
+                Map.of("MEMORY_LEAK", "Heap growing fast", "HIGH_CPU", "CPU above 80%"));
+        String c = InsightFingerprint.of("cpu-hungry", 95.0, 512.4, 120.30, 40.10, 0.86,
+                Map.of("HIGH_CPU", "CPU above 80%", "MEMORY_LEAK", "Heap growing"));
+
+        assertThat(a).isEqualTo(b);
+        assertThat(a).isNotEqualTo(c);
+    }
+
+    private double count(String result) {
+        return meterRegistry.get("analyzer.ai.insight.cache").tag("result", result).counter().count();
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void waitUntil(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!condition.getAsBoolean() && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertThat(condition.getAsBoolean()).isTrue();
+    }
+}
@@ -0,0 +1,108 @@
+package com.hackathon.analyzer.service.optimization;
+
+import com.hackathon.analyzer.collector.GcTelemetryTracker;
+import com.hackathon.analyzer.config.JvmTuningProperties;
+import com.hackathon.analyzer.model.GcTelemetryReport;
+import com.hackathon.recommendation.ResourceRecommendation;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for JvmTuningService.
+ * Covers heap sizing from the live set and GC budget, collector choice per
+ * goal, metaspace sizing and the fallback without telemetry.
+ */
+class JvmTuningServiceTest {
+
+    private final JvmTuningProperties properties = new JvmTuningProperties();
+    private final JvmTuningService service = new JvmTuningService(properties, new GcTelemetryTracker(properties));
+
+    @Test
+    @DisplayName("Should size a G1 heap from the live set and emit it as RAM percentages")
+    void testG1PauseTimeGoal() {
+        GcTelemetryReport telemetry = telemetry(100, 20.0, 10.0, 50.0);
+        telemetry.setMetaspaceUsedMb(80.0);
+        telemetry.setCodeCacheMb(16.0);
+
+        JvmTuningService.JvmTuning tuning = service.tune("svc", telemetry, "1Gi", "1000m");
+
+        ResourceRecommendation.JvmConfiguration jvm = tuning.configuration();
+        assertThat(jvm.getGcType()).isEqualTo("G1GC");
+        assertThat(jvm.getGoal()).isEqualTo("PAUSE_TIME");
+        assertThat(jvm.getMaxRamPercentage()).isEqualTo(29.3);
+        assertThat(jvm.getXmx()).isEqualTo("300m");
+        assertThat(jvm.getJavaToolOptions()).isEqualTo("-XX:+UseG1GC -XX:MaxGCPauseMillis=200 "
+                + "-XX:G1HeapRegionSize=1m -XX:InitialRAMPercentage=29.3 -XX:MaxRAMPercentage=29.3 "
+                + "-XX:MetaspaceSize=112m -XX:MaxMetaspaceSize=160m -XX:+HeapDumpOnOutOfMemoryError");
+        assertThat(tuning.issues()).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should switch to ZGC only when G1 misses the pause goal on a large heap with enough CPUs")
+    void testZgcWhenPauseGoalMissed() {
+        GcTelemetryReport telemetry = telemetry(1000, 100.0, 40.0, 450.0);
+
+        JvmTuningService.JvmTuning tuning = service.tune("svc", telemetry, "4Gi", "2000m");
+
+        assertThat(tuning.configuration().getGcType()).isEqualTo("ZGC");
+        assertThat(tuning.configuration().getJavaToolOptions()).startsWith("-XX:+UseZGC ")
+                .doesNotContain("MaxGCPauseMillis");
+        assertThat(tuning.issues().get("GC Pauses")).contains("450ms").contains("switching to ZGC");
+
+        JvmTuningService.JvmTuning singleCore = service.tune("svc", telemetry, "4Gi", "1000m");
+        assertThat(singleCore.configuration().getGcType()).isEqualTo("G1GC");
+        assertThat(singleCore.issues()).containsKey("GC Pauses");
+    }
+
+    @Test
+    @DisplayName("Should pick Parallel for a throughput goal and cap the heap at what fits the container")
+    void testThroughputGoal() {
+        properties.getGoals().put("batch", JvmTuningProperties.Goal.THROUGHPUT);
+        GcTelemetryReport telemetry = telemetry(100, 400.0, 50.0, 120.0);
+        telemetry.setGcTimeShare(0.08);
+
+        JvmTuningService.JvmTuning tuning = service.tune("batch", telemetry, "512Mi", "1000m");
+
+        assertThat(tuning.configuration().getGcType()).isEqualTo("ParallelGC");
+        assertThat(tuning.configuration().getJavaToolOptions())
+                .contains("-XX:+UseParallelGC -XX:GCTimeRatio=19")
+                .contains("-XX:MaxRAMPercentage=87.5");
+        assertThat(tuning.issues()).containsKeys("GC Overhead", "Heap Headroom");
+    }
+
+    @Test
+    @DisplayName("Should keep the fixed G1 defaults without GC telemetry")
+    void testDefaultsWithoutTelemetry() {
+        JvmTuningService.JvmTuning tuning = service.recommend("unknown", "512Mi", "500m", "192m", "217m");
+
+        assertThat(tuning.configuration().getXmx()).isEqualTo("217m");
+        assertThat(tuning.configuration().getGcType()).isEqualTo("G1GC");
+        assertThat(tuning.configuration().getJavaToolOptions()).isNull();
+        assertThat(tuning.issues()).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should size G1 regions for about 2048 regions within 1 to 32 MiB")
+    void testG1RegionSize() {
+        assertThat(JvmTuningService.g1RegionSizeMb(300)).isEqualTo(1);
+        assertThat(JvmTuningService.g1RegionSizeMb(8192)).isEqualTo(4);
+        assertThat(JvmTuningService.g1RegionSizeMb(12_000)).isEqualTo(4);
+        assertThat(JvmTuningService.g1RegionSizeMb(200_000)).isEqualTo(32);
+    }
+
+    private static GcTelemetryReport telemetry(double liveSetMb, Double allocationMbPerSec, Double avgPauseMs,
+                                               Double maxPauseMs) {
+        return GcTelemetryReport.builder()
+                .serviceName("svc")
+                .intervals(30)
+                .collector("G1")
+                .liveSetMb(liveSetMb)
+                .allocationRateMbPerSec(allocationMbPerSec)
+                .avgPauseMs(avgPauseMs)
+                .maxPauseMs(maxPauseMs)
+                .gcTimeShare(0.01)
+                .build();
+    }
+}
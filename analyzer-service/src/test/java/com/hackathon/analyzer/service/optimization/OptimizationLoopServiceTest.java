@@ -0,0 +1,163 @@
+package com.hackathon.analyzer.service.optimization;
+
+import com.hackathon.analyzer.cluster.ScheduledJobCoordinator;
+import com.hackathon.analyzer.config.OptimizationLoopProperties;
+import com.hackathon.analyzer.discovery.ServiceDiscoveryService;
+import com.hackathon.analyzer.discovery.ServiceInfo;
+import com.hackathon.analyzer.pipeline.CodeGenerationPipeline;
+import com.hackathon.analyzer.repository.MetricsSnapshotRepository;
+import com.hackathon.analyzer.service.ResourceAnalyzerService;
+import com.hackathon.recommendation.BatchGenerationReport;
+import com.hackathon.recommendation.ResourceRecommendation;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests for OptimizationLoopService.
+ * Covers skipping services without new metrics, batching ready services
+ * into one generation, retrying failed generations and running cycles off
+ * the scheduler thread.
+ */
+class OptimizationLoopServiceTest {
+
+    private final MetricsSnapshotRepository metricsRepository = mock(MetricsSnapshotRepository.class);
+    private final ResourceAnalyzerService analyzerService = mock(ResourceAnalyzerService.class);
+    private final CodeGenerationPipeline pipeline = mock(CodeGenerationPipeline.class);
+    private final List<List<String>> generatedBatches = new ArrayList<>();
+    private OptimizationLoopService loop;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        OptimizationLoopProperties properties = new OptimizationLoopProperties();
+        properties.setStableWindows(2);
+        loop = new OptimizationLoopService(properties, null, null, metricsRepository, analyzerService, pipeline,
+                new SimpleMeterRegistry(), Clock.fixed(Instant.parse("2026-01-01T00:00:00Z"), ZoneOffset.UTC));
+
+        when(metricsRepository.countByServiceNameAndTimestampAfter(anyString(), any())).thenReturn(6L);
+        when(analyzerService.analyzeService(anyString()))
+                .thenAnswer(call -> recommendation(call.getArgument(0), "350m"));
+        when(pipeline.generate(any(), any())).thenAnswer(call -> succeedAll(call.getArgument(0)));
+    }
+
+    @Test
+    @DisplayName("Should generate all ready services in one batch and then hold")
+    void testGenerateOnceWhenStable() {
+        List<ServiceInfo> services = List.of(service("a"), service("b"));
+
+        loop.runCycle(services);
+        assertThat(generatedBatches).isEmpty();
+        loop.runCycle(services);
+        loop.runCycle(services);
+
+        assertThat(generatedBatches).containsExactly(List.of("a", "b"));
+        assertThat(loop.statuses()).extracting(OptimizationStatus::phase)
+                .containsOnly(OptimizationStatus.Phase.IN_BAND);
+    }
+
+    @Test
+    @DisplayName("Should not re-analyze services without new metrics")
+    void testSkipUnchangedData() {
+        loop.runCycle(List.of(service("a")));
+        when(metricsRepository.countByServiceNameAndTimestampAfter(eq("a"), any())).thenReturn(0L);
+
+        loop.runCycle(List.of(service("a")));
+        loop.runCycle(List.of(service("a")));
+
+        verify(analyzerService, times(1)).analyzeService("a");
+        assertThat(loop.statuses().get(0).phase()).isEqualTo(OptimizationStatus.Phase.PENDING);
+    }
+
+    @Test
+    @DisplayName("Should retry a failed generation in the next cycle")
+    void testRetryFailedGeneration() throws Exception {
+        doThrow(new IllegalStateException("code generator unavailable"))
+                .doAnswer(call -> succeedAll(call.getArgument(0)))
+                .when(pipeline).generate(any(), any());
+        List<ServiceInfo> services = List.of(service("a"));
+
+        loop.runCycle(services);
+        loop.runCycle(services);
+        assertThat(loop.statuses().get(0).phase()).isEqualTo(OptimizationStatus.Phase.READY);
+
+        when(metricsRepository.countByServiceNameAndTimestampAfter(eq("a"), any())).thenReturn(0L);
+        loop.runCycle(services);
+
+        assertThat(generatedBatches).containsExactly(List.of("a"));
+        assertThat(loop.statuses().get(0).lastGeneratedAt()).isNotNull();
+    }
+
+    @Test
+    @DisplayName("Should run scheduled cycles off the scheduler thread and skip triggers while one is running")
+    void testScheduledCycleRunsOnItsOwnThread() throws Exception {
+        OptimizationLoopProperties properties = new OptimizationLoopProperties();
+        properties.setEnabled(true);
+        ServiceDiscoveryService discoveryService = mock(ServiceDiscoveryService.class);
+        ScheduledJobCoordinator jobCoordinator = mock(ScheduledJobCoordinator.class);
+        when(discoveryService.getHealthyServices()).thenReturn(List.of(service("a")));
+        when(jobCoordinator.selectTargets(eq(ScheduledJobCoordinator.OPTIMIZE_SERVICES), any()))
+                .thenAnswer(call -> List.copyOf(call.<Collection<ServiceInfo>>getArgument(1)));
+        CountDownLatch analyzing = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(analyzerService.analyzeService("a")).thenAnswer(call -> {
+            analyzing.countDown();
+            release.await();
+            return recommendation("a", "350m");
+        });
+        OptimizationLoopService scheduled = new OptimizationLoopService(properties, discoveryService, jobCoordinator,
+                metricsRepository, analyzerService, pipeline, new SimpleMeterRegistry());
+
+        try {
+            scheduled.optimizeScheduled();
+            assertThat(analyzing.await(5, TimeUnit.SECONDS)).isTrue();
+            scheduled.optimizeScheduled();
+            release.countDown();
+        } finally {
+            scheduled.shutdown();
+        }
+
+        verify(analyzerService, times(1)).analyzeService("a");
+    }
+
+    private BatchGenerationReport succeedAll(Iterator<ResourceRecommendation> recommendations) {
+        List<BatchGenerationReport.ServiceResult> results = new ArrayList<>();
+        List<String> names = new ArrayList<>();
+        recommendations.forEachRemaining(r -> {
+            names.add(r.getServiceName());
+            results.add(BatchGenerationReport.ServiceResult.builder()
+                    .serviceName(r.getServiceName()).success(true).build());
+        });
+        generatedBatches.add(names);
+        return BatchGenerationReport.builder().total(names.size()).succeeded(names.size()).results(results).build();
+    }
+
+    private static ServiceInfo service(String name) {
+        return ServiceInfo.builder().name(name).healthy(true).build();
+    }
+
+    private static ResourceRecommendation recommendation(String serviceName, String cpuRequest) {
+        return ResourceRecommendation.builder()
+                .serviceName(serviceName)
+                .kubernetes(ResourceRecommendation.KubernetesResources.builder()
+                        .cpuRequest(cpuRequest).cpuLimit("700m").memoryRequest("256Mi").memoryLimit("512Mi")
+                        .build())
+                .build();
+    }
+}
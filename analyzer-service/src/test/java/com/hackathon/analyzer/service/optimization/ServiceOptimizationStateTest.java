@@ -0,0 +1,96 @@
+package com.hackathon.analyzer.service.optimization;
+
+import com.hackathon.analyzer.config.OptimizationLoopProperties;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for the optimization loop's per-service hysteresis.
+ * Covers minimum-change thresholds, stability over windows, oscillation and
+ * the release band.
+ */
+class ServiceOptimizationStateTest {
+
+    private static final Instant NOW = Instant.parse("2026-01-01T00:00:00Z");
+
+    private final OptimizationLoopProperties properties = new OptimizationLoopProperties();
+    private final ServiceOptimizationState state = new ServiceOptimizationState("svc");
+
+    @Test
+    @DisplayName("Should become ready only after a change holds for the configured number of windows")
+    void testReadyAfterStableWindows() {
+        assertThat(observe(cpu(350))).isEqualTo(OptimizationStatus.Phase.PENDING);
+        assertThat(observe(cpu(360))).isEqualTo(OptimizationStatus.Phase.PENDING);
+        assertThat(observe(cpu(355))).isEqualTo(OptimizationStatus.Phase.READY);
+        assertThat(state.status(3).pendingChanges()).containsExactly("cpuRequest unset -> 355m");
+    }
+
+    @Test
+    @DisplayName("Should ignore changes below the minimum once artifacts were generated")
+    void testMinimumChange() {
+        state.applied(cpu(400), NOW);
+
+        // 40m is below both the 50m absolute and 15% relative minimum
+        assertThat(observe(cpu(440))).isEqualTo(OptimizationStatus.Phase.IN_BAND);
+        // 55m clears 50m but not 15% of 400m
+        assertThat(observe(cpu(455))).isEqualTo(OptimizationStatus.Phase.IN_BAND);
+        assertThat(observe(cpu(500))).isEqualTo(OptimizationStatus.Phase.PENDING);
+    }
+
+    @Test
+    @DisplayName("Should never become ready while the recommendation oscillates")
+    void testOscillationNeverReady() {
+        state.applied(cpu(200), NOW);
+
+        for (int i = 0; i < 20; i++) {
+            assertThat(observe(cpu(i % 2 == 0 ? 400 : 600))).isEqualTo(OptimizationStatus.Phase.PENDING);
+        }
+        assertThat(state.status(3).stableWindows()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should keep a pending change until it falls inside the release band")
+    void testReleaseBand() {
+        state.applied(memory(1024), NOW);
+
+        assertThat(observe(memory(1200))).isEqualTo(OptimizationStatus.Phase.PENDING);
+        // 130Mi is below the 153.6Mi entry threshold but above the 76.8Mi release threshold
+        assertThat(observe(memory(1154))).isEqualTo(OptimizationStatus.Phase.PENDING);
+        assertThat(state.status(3).stableWindows()).isEqualTo(2);
+        assertThat(observe(memory(1060))).isEqualTo(OptimizationStatus.Phase.IN_BAND);
+        assertThat(state.status(3).stableWindows()).isZero();
+    }
+
+    @Test
+    @DisplayName("Should compare against the generated artifacts after a generation")
+    void testAppliedResetsBaseline() {
+        observe(pool(10));
+        observe(pool(10));
+        assertThat(observe(pool(10))).isEqualTo(OptimizationStatus.Phase.READY);
+
+        state.applied(pool(10), NOW);
+
+        assertThat(observe(pool(11))).isEqualTo(OptimizationStatus.Phase.IN_BAND);
+        assertThat(state.status(3).lastGeneratedAt()).isEqualTo(NOW);
+    }
+
+    private OptimizationStatus.Phase observe(ResourceLevels levels) {
+        return state.observe(levels, NOW, properties);
+    }
+
+    private static ResourceLevels cpu(double millicores) {
+        return new ResourceLevels(millicores, null, null, null, null);
+    }
+
+    private static ResourceLevels memory(double mebibytes) {
+        return new ResourceLevels(null, null, mebibytes, null, null);
+    }
+
+    private static ResourceLevels pool(double size) {
+        return new ResourceLevels(null, null, null, null, size);
+    }
+}
@@ -0,0 +1,144 @@
+package com.hackathon.codegen.generator;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import com.hackathon.codegen.model.GeneratedArtifacts;
+import com.hackathon.codegen.template.TemplateRegistry;
+import com.hackathon.recommendation.ResourceRecommendation;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+/**
+ * Artifact generation for a whole fleet: the five files for each of
+ * {@code fleetSize} services per operation.
+ *
+ * <ul>
+ *   <li>{@code legacyStringFormat}: the previous generator, {@code String.format}
+ *       and StringBuilder appends on every call;</li>
+ *   <li>{@code compiledTemplates}: {@link FileGeneratorService} rendering the
+ *       templates compiled at startup.</li>
+ * </ul>
+ * Run with {@code -prof gc} to compare allocation per operation as well.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class FileGeneratorBenchmark {
+
+    /** Generation timestamps differ between the two paths; everything else must match. */
+    private static final Pattern TIMESTAMP = Pattern.compile("\\d{4}-\\d{2}-\\d{2}T[\\d:.]+");
+
+    @Param({"100", "1000"})
+    private int fleetSize;
+
+    private List<ResourceRecommendation> fleet;
+    private LegacyFormatGenerator legacy;
+    private FileGeneratorService compiled;
+
+    @Setup
+    public void setUp() {
+        ((Logger) LoggerFactory.getLogger("com.hackathon")).setLevel(Level.WARN);
+        legacy = new LegacyFormatGenerator();
+        compiled = new FileGeneratorService(TemplateRegistry.bundled());
+
+        fleet = new ArrayList<>(fleetSize);
+        for (int i = 0; i < fleetSize; i++) {
+            fleet.add(recommendation(i));
+        }
+
+        // Only compare like with like
+        for (ResourceRecommendation rec : fleet.subList(0, Math.min(fleetSize, 20))) {
+            List<GeneratedArtifacts.GeneratedFile> before = legacy.generateArtifacts(rec).getFiles();
+            List<GeneratedArtifacts.GeneratedFile> after = compiled.generateArtifacts(rec).getFiles();
+            for (int f = 0; f < before.size(); f++) {
+                String expected = TIMESTAMP.matcher(before.get(f).getContent()).replaceAll("T");
+                String actual = TIMESTAMP.matcher(after.get(f).getContent()).replaceAll("T");
+                if (!expected.equals(actual)) {
+                    throw new IllegalStateException("Output differs for " + before.get(f).getFileName());
+                }
+            }
+        }
+    }
+
+    @Benchmark
+    public void legacyStringFormat(Blackhole blackhole) {
+        for (ResourceRecommendation rec : fleet) {
+            blackhole.consume(legacy.generateArtifacts(rec));
+        }
+    }
+
+    @Benchmark
+    public void compiledTemplates(Blackhole blackhole) {
+        for (ResourceRecommendation rec : fleet) {
+            blackhole.consume(compiled.generateArtifacts(rec));
+        }
+    }
+
+    private static ResourceRecommendation recommendation(int i) {
+        Map<String, String> issues = new LinkedHashMap<>();
+        if (i % 3 == 0) {
+            issues.put("CPU Throttling", "CPU usage exceeds limits causing performance degradation");
+        }
+        if (i % 4 == 0) {
+            issues.put("Memory Leak", "Memory usage shows continuous growth pattern");
+        }
+        if (i % 5 == 0) {
+            issues.put("Connection Pool Exhaustion", "Connection pool frequently at maximum capacity");
+        }
+        return ResourceRecommendation.builder()
+                .serviceName("service-" + i)
+                .kubernetes(ResourceRecommendation.KubernetesResources.builder()
+                        .cpuRequest((100 + i % 400) + "m")
+                        .cpuLimit((200 + i % 800) + "m")
+                        .memoryRequest((256 + i % 512) + "Mi")
+                        .memoryLimit((512 + i % 1024) + "Mi")
+                        .build())
+                .jvm(ResourceRecommendation.JvmConfiguration.builder()
+                        .xms((192 + i % 256) + "m")
+                        .xmx((384 + i % 512) + "m")
+                        .gcType("G1GC")
+                        .build())
+                .connectionPool(i % 2 == 0 ? ResourceRecommendation.ConnectionPoolConfig.builder()
+                        .maximumPoolSize(10 + i % 20)
+                        .minimumIdle(5)
+                        .connectionTimeout(30000L)
+                        .idleTimeout(600000L)
+                        .build() : null)
+                .threadPool(ResourceRecommendation.ThreadPoolConfig.builder()
+                        .maxThreads(200)
+                        .minSpareThreads(25)
+                        .build())
+                .costAnalysis(ResourceRecommendation.CostAnalysis.builder()
+                        .currentMonthlyCost(120.0 + i % 97)
+                        .recommendedMonthlyCost(80.0 + i % 53 + 0.125)
+                        .monthlySavings(40.0 + i % 44 - 0.125)
+                        .annualSavings((40.0 + i % 44 - 0.125) * 12)
+                        .savingsPercentage(20 + i % 30)
+                        .build())
+                .confidenceScore(0.5 + (i % 45) / 100.0)
+                .rationale("Analysis based on recent metrics. CPU P95: " + (40 + i % 50) + "%.")
+                .detectedIssues(issues)
+                .build();
+    }
+}
@@ -1,48 +1,89 @@
 package com.hackathon.codegen.azuredevops;
 
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonNode;
 import com.hackathon.codegen.model.GeneratedArtifacts;
+import com.hackathon.codegen.model.RolloutReport;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.http.HttpHeaders;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.stereotype.Service;
+import org.springframework.web.reactive.function.BodyInserters;
 import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import org.springframework.web.util.UriUtils;
+import org.reactivestreams.Publisher;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.*;
-
+import java.util.concurrent.Executor;
+
+/**
+ * Azure DevOps Git REST client for committing generated files and opening
+ * pull requests.
+ *
+ * <p>A feature branch is created by the push that commits to it, so one
+ * service costs a ref lookup, a file listing, a push and a pull request.
+ * For a fleet, {@link #rollout} looks up the base commit and existing files
+ * once and then either pushes every service in one commit with one pull
+ * request, or runs branch, push and pull request per service with at most
+ * {@code azure.devops.max-concurrency} in flight. Push bodies are written
+ * as a stream straight from the file contents.
+ */
 @Slf4j
 @Service
 public class AzureDevOpsService {
 
-    private final WebClient webClient;
-
-    @Value("${azure.devops.organization:INGCDaaS}")
-    private String organization;
-
-    @Value("${azure.devops.project:IngOne}")
-    private String project;
-
-    @Value("${azure.devops.repository:P35043-global-hackathon-2025}")
-    private String repository;
-
-    @Value("${azure.devops.team:saveyourmoney}")
-    private String teamName;
-
-    @Value("${azure.devops.pat:}")
-    private String personalAccessToken;
-
-    @Value("${azure.devops.base-url:https://dev.azure.com}")
-    private String baseUrl;
+    private static final String API_VERSION = "api-version=7.0";
+    private static final JsonFactory JSON = new JsonFactory();
+    private static final Executor BODY_WRITER = task -> Schedulers.boundedElastic().schedule(task);
 
-    public AzureDevOpsService(WebClient.Builder webClientBuilder) {
+    private final WebClient webClient;
+    private final String organization;
+    private final String project;
+    private final String repository;
+    private final String teamName;
+    private final String personalAccessToken;
+    private final String baseUrl;
+    private final int maxConcurrency;
+    private final Duration timeout;
+
+    public AzureDevOpsService(WebClient.Builder webClientBuilder,
+                              @Value("${azure.devops.organization:INGCDaaS}") String organization,
+                              @Value("${azure.devops.project:IngOne}") String project,
+                              @Value("${azure.devops.repository:P35043-global-hackathon-2025}") String repository,
+                              @Value("${azure.devops.team:saveyourmoney}") String teamName,
+                              @Value("${azure.devops.pat:}") String personalAccessToken,
+                              @Value("${azure.devops.base-url:https://dev.azure.com}") String baseUrl,
+                              @Value("${azure.devops.max-concurrency:4}") int maxConcurrency,
+                              @Value("${azure.devops.timeout:30s}") Duration timeout) {
         this.webClient = webClientBuilder.build();
+        this.organization = organization;
+        this.project = project;
+        this.repository = repository;
+        this.teamName = teamName;
+        this.personalAccessToken = personalAccessToken;
+        this.baseUrl = baseUrl;
+        this.maxConcurrency = Math.max(1, maxConcurrency);
+        this.timeout = timeout;
     }
 
     /**
-     * Create a feature branch and commit generated files
+     * Create a feature branch and commit generated files under {@code <team>/<service>/}
      */
     public String createBranchAndCommit(GeneratedArtifacts artifacts) {
         log.info("Creating Azure DevOps branch for service: {}", artifacts.getServiceName());
@@ -50,19 +91,13 @@ public class AzureDevOpsService {
         String featureBranch = generateBranchName(artifacts.getServiceName());
 
         try {
-            // Step 1: Get latest commit from develop branch
-            String developBranch = teamName + "/develop";
-            String latestCommitId = getLatestCommit(developBranch);
-
-            // Step 2: Create new branch
-            boolean branchCreated = createBranch(featureBranch, latestCommitId);
-
-            if (!branchCreated) {
-                log.warn("Branch creation failed, may already exist: {}", featureBranch);
-            }
+            // Step 1: Get latest commit from develop branch and the files already there
+            String latestCommitId = getLatestCommit(developBranch()).block(timeout);
+            Set<String> existing = listFiles(latestCommitId).block(timeout);
 
-            // Step 3: Commit files to new branch
-            String commitId = commitFiles(featureBranch, artifacts);
+            // Step 2: Create the branch and commit in one push
+            String commitId = push(featureBranch, latestCommitId, generateCommitMessage(List.of(artifacts)),
+                    changes(artifacts, existing)).block(timeout);
 
             log.info("Successfully created branch {} with commit {}", featureBranch, commitId);
 
@@ -78,156 +113,264 @@ public class AzureDevOpsService {
      * Create a Pull Request
      */
     public String createPullRequest(String sourceBranch, GeneratedArtifacts artifacts) {
-        log.info("Creating Pull Request from {} to {}/develop", sourceBranch, teamName);
-
-        String targetBranch = teamName + "/develop";
-        String prTitle = generatePRTitle(artifacts.getServiceName());
-        String prDescription = generatePRDescription(artifacts);
+        log.info("Creating Pull Request from {} to {}", sourceBranch, developBranch());
 
         try {
-            String apiUrl = String.format("%s/%s/%s/_apis/git/repositories/%s/pullrequests?api-version=7.0",
-                    baseUrl, organization, project, repository);
-
-            Map<String, Object> prRequest = new HashMap<>();
-            prRequest.put("sourceRefName", "refs/heads/" + sourceBranch);
-            prRequest.put("targetRefName", "refs/heads/" + targetBranch);
-            prRequest.put("title", prTitle);
-            prRequest.put("description", prDescription);
-
-            // Make API call
-            String response = webClient.post()
-                    .uri(apiUrl)
-                    .headers(headers -> {
-                        headers.setContentType(MediaType.APPLICATION_JSON);
-                        if (!personalAccessToken.isEmpty()) {
-                            headers.setBasicAuth("", personalAccessToken);
-                        }
-                    })
-                    .bodyValue(prRequest)
-                    .retrieve()
-                    .bodyToMono(String.class)
-                    .onErrorResume(error -> {
-                        log.error("PR creation failed: {}", error.getMessage());
-                        return Mono.just("{\"error\":\"" + error.getMessage() + "\"}");
-                    })
-                    .block();
-
-            // Extract PR URL from response
-            String prUrl = String.format("%s/%s/%s/_git/%s/pullrequest/new",
-                    baseUrl, organization, project, repository);
-
+            String prUrl = pullRequest(sourceBranch, generatePRTitle(artifacts.getServiceName()),
+                    generatePRDescription(List.of(artifacts))).block(timeout);
             log.info("Pull Request created: {}", prUrl);
             return prUrl;
-
         } catch (Exception e) {
             log.error("Error creating Pull Request: {}", e.getMessage(), e);
-
-            // Return mock URL for demo purposes
-            return String.format("%s/%s/%s/_git/%s/pullrequest/new?sourceRef=%s&targetRef=%s",
-                    baseUrl, organization, project, repository,
-                    sourceBranch, targetBranch);
+            throw new RuntimeException("Azure DevOps pull request failed", e);
         }
     }
 
     /**
-     * Get latest commit ID from a branch
+     * Commit many services' artifacts, each under {@code <team>/<service>/}.
+     * A failed branch only fails the services it carried.
      */
-    private String getLatestCommit(String branchName) {
-        log.debug("Fetching latest commit from branch: {}", branchName);
+    public RolloutReport rollout(List<GeneratedArtifacts> services, RolloutReport.Mode mode) {
+        long started = System.nanoTime();
+        RolloutReport report = RolloutReport.builder()
+                .mode(mode)
+                .pullRequests(new ArrayList<>())
+                .build();
+        if (services.isEmpty()) {
+            report.setDurationMs(0L);
+            return report;
+        }
 
         try {
-            String apiUrl = String.format("%s/%s/%s/_apis/git/repositories/%s/refs?filter=heads/%s&api-version=7.0",
-                    baseUrl, organization, project, repository, branchName);
-
-            // For demo, return a mock commit ID
-            // In production, this would make actual API call
-            return "0000000000000000000000000000000000000000";
-
+            String baseCommit = getLatestCommit(developBranch()).block(timeout);
+            Set<String> existing = listFiles(baseCommit).block(timeout);
+            report.setBaseCommitId(baseCommit);
+
+            List<RolloutReport.PullRequestResult> results = switch (mode) {
+                case SINGLE_PR -> List.of(rolloutBranch(services, "fleet-" + services.size() + "-services",
+                        baseCommit, existing).block());
+                case PER_SERVICE -> Flux.fromIterable(services)
+                        .flatMap(artifacts -> rolloutBranch(List.of(artifacts), artifacts.getServiceName(),
+                                baseCommit, existing), maxConcurrency)
+                        .collectList()
+                        .block();
+            };
+            report.getPullRequests().addAll(results);
         } catch (Exception e) {
-            log.warn("Could not fetch latest commit, using default: {}", e.getMessage());
-            return "0000000000000000000000000000000000000000";
+            log.error("Rollout of {} services failed: {}", services.size(), e.getMessage(), e);
+            report.setError(e.getMessage());
         }
+
+        report.setDurationMs((System.nanoTime() - started) / 1_000_000);
+        log.info("Rollout ({}) of {} services: {} pull requests in {} ms", mode, services.size(),
+                report.getPullRequests().size(), report.getDurationMs());
+        return report;
     }
 
     /**
-     * Create a new branch
+     * Push one branch with the given services and open its pull request.
      */
-    private boolean createBranch(String branchName, String fromCommitId) {
-        log.debug("Creating branch: {} from commit: {}", branchName, fromCommitId);
-
-        try {
-            String apiUrl = String.format("%s/%s/%s/_apis/git/repositories/%s/refs?api-version=7.0",
-                    baseUrl, organization, project, repository);
+    private Mono<RolloutReport.PullRequestResult> rolloutBranch(List<GeneratedArtifacts> services, String branchSuffix,
+                                                                String baseCommit, Set<String> existing) {
+        String branch = generateBranchName(branchSuffix);
+        List<String> names = services.stream().map(GeneratedArtifacts::getServiceName).toList();
+        List<FileChange> changes = new ArrayList<>();
+        services.forEach(artifacts -> changes.addAll(changes(artifacts, existing)));
+        String title = services.size() == 1
+                ? generatePRTitle(names.get(0))
+                : String.format("🚀 Resource Optimization - %d services (AI Generated)", services.size());
+
+        return push(branch, baseCommit, generateCommitMessage(services), changes)
+                .flatMap(commitId -> pullRequest(branch, title, generatePRDescription(services))
+                        .map(url -> RolloutReport.PullRequestResult.builder()
+                                .services(names)
+                                .branch(branch)
+                                .commitId(commitId)
+                                .pullRequestUrl(url)
+                                .success(true)
+                                .build()))
+                .timeout(timeout)
+                .onErrorResume(error -> {
+                    log.warn("Rollout branch {} for {} failed: {}", branch, names, error.getMessage());
+                    return Mono.just(RolloutReport.PullRequestResult.builder()
+                            .services(names)
+                            .branch(branch)
+                            .success(false)
+                            .errorMessage(describe(error))
+                            .build());
+                });
+    }
 
-            List<Map<String, Object>> refs = new ArrayList<>();
-            Map<String, Object> ref = new HashMap<>();
-            ref.put("name", "refs/heads/" + branchName);
-            ref.put("oldObjectId", "0000000000000000000000000000000000000000");
-            ref.put("newObjectId", fromCommitId);
-            refs.add(ref);
+    /**
+     * Get latest commit ID from a branch
+     */
+    private Mono<String> getLatestCommit(String branchName) {
+        log.debug("Fetching latest commit from branch: {}", branchName);
 
-            // For demo purposes, simulate success
-            log.info("Branch created successfully: {}", branchName);
-            return true;
+        return webClient.get()
+                .uri(api("refs") + "&filter=" + UriUtils.encodeQueryParam("heads/" + branchName, StandardCharsets.UTF_8))
+                .headers(this::authenticate)
+                .retrieve()
+                .bodyToMono(JsonNode.class)
+                .map(response -> {
+                    for (JsonNode ref : response.path("value")) {
+                        if (("refs/heads/" + branchName).equals(ref.path("name").asText())) {
+                            return ref.path("objectId").asText();
+                        }
+                    }
+                    throw new IllegalStateException("Branch not found: " + branchName);
+                });
+    }
 
-        } catch (Exception e) {
-            log.warn("Branch creation may have failed: {}", e.getMessage());
-            return false;
-        }
+    /**
+     * Paths of the files under the team folder at a commit, so each change
+     * can be sent as an add or an edit.
+     */
+    private Mono<Set<String>> listFiles(String commitId) {
+        return webClient.get()
+                .uri(api("items") + "&recursionLevel=Full"
+                        + "&scopePath=" + UriUtils.encodeQueryParam("/" + teamName, StandardCharsets.UTF_8)
+                        + "&versionDescriptor.version=" + commitId
+                        + "&versionDescriptor.versionType=commit")
+                .headers(this::authenticate)
+                .retrieve()
+                .bodyToMono(JsonNode.class)
+                .map(response -> {
+                    Set<String> paths = new HashSet<>();
+                    for (JsonNode item : response.path("value")) {
+                        if (!item.path("isFolder").asBoolean(false)) {
+                            paths.add(item.path("path").asText());
+                        }
+                    }
+                    return paths;
+                })
+                // A team folder that does not exist yet has no files
+                .onErrorResume(WebClientResponseException.class, error -> error.getStatusCode() == HttpStatus.NOT_FOUND
+                        ? Mono.just(Set.of())
+                        : Mono.error(error));
     }
 
     /**
-     * Commit files to a branch
+     * Create the branch at the base commit and commit all changes in one push.
      */
-    private String commitFiles(String branchName, GeneratedArtifacts artifacts) {
-        log.debug("Committing {} files to branch: {}", artifacts.getFiles().size(), branchName);
+    private Mono<String> push(String branchName, String baseCommit, String comment, List<FileChange> changes) {
+        log.debug("Pushing {} files to branch: {}", changes.size(), branchName);
+
+        Publisher<DataBuffer> body = DataBufferUtils.outputStreamPublisher(
+                out -> writePush(out, branchName, baseCommit, comment, changes),
+                DefaultDataBufferFactory.sharedInstance, BODY_WRITER);
+
+        return webClient.post()
+                .uri(api("pushes"))
+                .headers(this::authenticate)
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(BodyInserters.fromDataBuffers(body))
+                .retrieve()
+                .bodyToMono(JsonNode.class)
+                .map(response -> response.path("commits").path(0).path("commitId").asText(null));
+    }
 
-        try {
-            String apiUrl = String.format("%s/%s/%s/_apis/git/repositories/%s/pushes?api-version=7.0",
-                    baseUrl, organization, project, repository);
+    /**
+     * Stream the push body: file contents are written as JSON strings
+     * ({@code rawtext}) directly from the generated text, without building
+     * a base64 copy of each file.
+     */
+    private static void writePush(OutputStream out, String branchName, String baseCommit, String comment,
+                                  List<FileChange> changes) {
+        try (JsonGenerator json = JSON.createGenerator(out)) {
+            json.writeStartObject();
+            json.writeArrayFieldStart("refUpdates");
+            json.writeStartObject();
+            json.writeStringField("name", "refs/heads/" + branchName);
+            json.writeStringField("oldObjectId", baseCommit);
+            json.writeEndObject();
+            json.writeEndArray();
+
+            json.writeArrayFieldStart("commits");
+            json.writeStartObject();
+            json.writeStringField("comment", comment);
+            json.writeArrayFieldStart("changes");
+            for (FileChange change : changes) {
+                json.writeStartObject();
+                json.writeStringField("changeType", change.exists() ? "edit" : "add");
+                json.writeObjectFieldStart("item");
+                json.writeStringField("path", change.path());
+                json.writeEndObject();
+                json.writeObjectFieldStart("newContent");
+                json.writeStringField("content", change.content());
+                json.writeStringField("contentType", "rawtext");
+                json.writeEndObject();
+                json.writeEndObject();
+            }
+            json.writeEndArray();
+            json.writeEndObject();
+            json.writeEndArray();
+            json.writeEndObject();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
 
-            // Build commit payload
-            Map<String, Object> push = new HashMap<>();
-            push.put("refUpdates", List.of(Map.of(
-                    "name", "refs/heads/" + branchName,
-                    "oldObjectId", "0000000000000000000000000000000000000000"
-            )));
+    private Mono<String> pullRequest(String sourceBranch, String title, String description) {
+        Map<String, Object> prRequest = new HashMap<>();
+        prRequest.put("sourceRefName", "refs/heads/" + sourceBranch);
+        prRequest.put("targetRefName", "refs/heads/" + developBranch());
+        prRequest.put("title", title);
+        prRequest.put("description", description);
+
+        return webClient.post()
+                .uri(api("pullrequests"))
+                .headers(this::authenticate)
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(prRequest)
+                .retrieve()
+                .bodyToMono(JsonNode.class)
+                .map(response -> String.format("%s/%s/%s/_git/%s/pullrequest/%s",
+                        baseUrl, organization, project, repository, response.path("pullRequestId").asText()));
+    }
 
-            List<Map<String, Object>> changes = new ArrayList<>();
-            for (GeneratedArtifacts.GeneratedFile file : artifacts.getFiles()) {
-                Map<String, Object> change = new HashMap<>();
-                change.put("changeType", "add");
-                change.put("item", Map.of("path", "/" + teamName + "/" + file.getFilePath()));
-                change.put("newContent", Map.of(
-                        "content", Base64.getEncoder().encodeToString(file.getContent().getBytes()),
-                        "contentType", "base64encoded"
-                ));
-                changes.add(change);
-            }
+    /**
+     * Files go under {@code <team>/<service>/} on every path, so a single
+     * service PR and a fleet rollout update the same files.
+     */
+    private List<FileChange> changes(GeneratedArtifacts artifacts, Set<String> existing) {
+        String folder = "/" + teamName + "/" + artifacts.getServiceName() + "/";
+        List<FileChange> changes = new ArrayList<>();
+        for (GeneratedArtifacts.GeneratedFile file : artifacts.getFiles()) {
+            String path = folder + file.getFilePath();
+            changes.add(new FileChange(path, file.getContent(), existing.contains(path)));
+        }
+        return changes;
+    }
 
-            Map<String, Object> commit = new HashMap<>();
-            commit.put("comment", generateCommitMessage(artifacts));
-            commit.put("changes", changes);
+    private String api(String resource) {
+        return String.format("%s/%s/%s/_apis/git/repositories/%s/%s?%s",
+                baseUrl, organization, project, repository, resource, API_VERSION);
+    }
 
-            push.put("commits", List.of(commit));
+    private void authenticate(org.springframework.http.HttpHeaders headers) {
+        if (!personalAccessToken.isEmpty()) {
+            headers.setBasicAuth("", personalAccessToken);
+        }
+    }
 
-            // For demo purposes, return mock commit ID
-            String mockCommitId = UUID.randomUUID().toString().replace("-", "").substring(0, 40);
-            log.info("Files committed successfully. Commit ID: {}", mockCommitId);
-            return mockCommitId;
+    private String developBranch() {
+        return teamName + "/develop";
+    }
 
-        } catch (Exception e) {
-            log.error("Error committing files: {}", e.getMessage(), e);
-            return "mock-commit-id";
+    private static String describe(Throwable error) {
+        if (error instanceof WebClientResponseException response) {
+            return response.getStatusCode().value() + " " + response.getResponseBodyAsString();
         }
+        return String.valueOf(error.getMessage());
     }
 
     /**
      * Generate branch name following gitflow convention
      */
-    private String generateBranchName(String serviceName) {
+    private String generateBranchName(String suffix) {
         String timestamp = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss"));
-        return String.format("%s/feature/resource-optimization-%s", teamName, timestamp);
+        return String.format("%s/feature/resource-optimization-%s-%s", teamName, suffix, timestamp);
     }
 
     /**
@@ -240,19 +383,27 @@ public class AzureDevOpsService {
     /**
      * Generate Pull Request description
      */
-    private String generatePRDescription(GeneratedArtifacts artifacts) {
+    private String generatePRDescription(List<GeneratedArtifacts> services) {
         StringBuilder description = new StringBuilder();
 
         description.append("## 🤖 AI-Generated Resource Optimization\n\n");
-        description.append("**Service:** ").append(artifacts.getServiceName()).append("\n");
+        description.append(services.size() == 1 ? "**Service:** " : "**Services:** ")
+                .append(String.join(", ", services.stream().map(GeneratedArtifacts::getServiceName).toList()))
+                .append("\n");
         description.append("**Generated:** ").append(LocalDateTime.now().format(DateTimeFormatter.ISO_DATE_TIME)).append("\n");
         description.append("**Tool:** SaveYourMoney AI\n\n");
 
         description.append("---\n\n");
 
         description.append("### 📦 Generated Files\n\n");
-        for (GeneratedArtifacts.GeneratedFile file : artifacts.getFiles()) {
-            description.append("- ✅ `").append(file.getFilePath()).append("`\n");
+        for (GeneratedArtifacts artifacts : services) {
+            for (GeneratedArtifacts.GeneratedFile file : artifacts.getFiles()) {
+                description.append("- ✅ `");
+                if (services.size() > 1) {
+                    description.append(artifacts.getServiceName()).append('/');
+                }
+                description.append(file.getFilePath()).append("`\n");
+            }
         }
         description.append("\n");
 
@@ -269,7 +420,7 @@ public class AzureDevOpsService {
         description.append("- **Cost**: Optimized resource allocation\n\n");
 
         description.append("### ✅ Merge Strategy\n\n");
-        description.append("**SQUASH MERGE** to `").append(teamName).append("/develop`\n\n");
+        description.append("**SQUASH MERGE** to `").append(developBranch()).append("`\n\n");
 
         description.append("---\n\n");
         description.append("**Generated by SaveYourMoney - AI-Powered Resource Optimization** 🚀\n");
@@ -280,7 +431,10 @@ public class AzureDevOpsService {
     /**
      * Generate commit message
      */
-    private String generateCommitMessage(GeneratedArtifacts artifacts) {
+    private String generateCommitMessage(List<GeneratedArtifacts> services) {
+        String target = services.size() == 1
+                ? services.get(0).getServiceName()
+                : services.size() + " services";
         return String.format(
                 "🚀 Resource Optimization for %s\n\n" +
                         "AI-generated resource configuration updates:\n" +
@@ -288,7 +442,7 @@ public class AzureDevOpsService {
                         "- Tuned JVM configuration\n" +
                         "- Updated connection pool settings\n\n" +
                         "Co-Authored-By: SaveYourMoney AI <noreply@saveyourmoney.com>",
-                artifacts.getServiceName()
+                target
         );
     }
 
@@ -306,4 +460,7 @@ public class AzureDevOpsService {
         return String.format("%s/%s/%s/_git/%s",
                 baseUrl, organization, project, repository);
     }
+
+    private record FileChange(String path, String content, boolean exists) {
+    }
 }
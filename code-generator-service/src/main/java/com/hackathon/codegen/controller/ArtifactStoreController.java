@@ -0,0 +1,46 @@
+package com.hackathon.codegen.controller;
+
+import com.hackathon.codegen.model.GenerationManifest;
+import com.hackathon.codegen.store.ArtifactStore;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Read access to the artifact store: stored generations per service and
+ * garbage collection of objects no generation refers to any more.
+ */
+@Slf4j
+@RestController
+@RequestMapping("/api/artifacts")
+@RequiredArgsConstructor
+public class ArtifactStoreController {
+
+    private final ArtifactStore artifactStore;
+
+    @GetMapping("/{serviceName}/latest")
+    public ResponseEntity<GenerationManifest> getLatest(@PathVariable String serviceName) {
+        return artifactStore.latest(serviceName)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    /**
+     * Kept generations, newest first.
+     */
+    @GetMapping("/{serviceName}/history")
+    public ResponseEntity<List<GenerationManifest>> getHistory(@PathVariable String serviceName) throws IOException {
+        return ResponseEntity.ok(artifactStore.history(serviceName));
+    }
+
+    @PostMapping("/gc")
+    public ResponseEntity<Map<String, Object>> collectGarbage() throws IOException {
+        int removed = artifactStore.collectGarbage();
+        return ResponseEntity.ok(Map.of("removedObjects", removed));
+    }
+}
@@ -0,0 +1,97 @@
+package com.hackathon.codegen.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.hackathon.codegen.model.RolloutReport;
+import com.hackathon.codegen.service.BatchGenerationService;
+import com.hackathon.codegen.service.FleetRolloutService;
+import com.hackathon.recommendation.BatchGenerationReport;
+import com.hackathon.recommendation.RecommendationCodec;
+import com.hackathon.recommendation.ResourceRecommendation;
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Iterator;
+
+/**
+ * Fleet-wide generation: many recommendations in one request, as a JSON
+ * array, NDJSON (one recommendation per line) or the binary
+ * {@link RecommendationCodec} stream the analyzer sends. The body is read
+ * incrementally while artifacts render.
+ */
+@Slf4j
+@RestController
+@RequestMapping("/api/generate/batch")
+@RequiredArgsConstructor
+public class BatchGenerationController {
+
+    public static final String NDJSON = "application/x-ndjson";
+
+    private final BatchGenerationService batchGenerationService;
+    private final FleetRolloutService fleetRolloutService;
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Stream one ZIP with {@code <service>/<path>} entries and a
+     * {@code batch-report.json} listing per-service success and failure.
+     */
+    @PostMapping(path = "/zip", consumes = {MediaType.APPLICATION_JSON_VALUE, NDJSON, RecommendationCodec.MEDIA_TYPE}, produces = "application/zip")
+    public ResponseEntity<StreamingResponseBody> generateZip(HttpServletRequest request) throws IOException {
+        String contentType = request.getContentType();
+        InputStream body = request.getInputStream();
+        StreamingResponseBody stream = out -> {
+            BatchGenerationReport report = batchGenerationService.generateZip(read(contentType, body), out);
+            log.info("Batch ZIP {} written: {}/{} services succeeded",
+                    report.getBatchId(), report.getSucceeded(), report.getTotal());
+        };
+
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType("application/zip"))
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        ContentDisposition.attachment().filename("saveyourmoney-artifacts.zip").build().toString())
+                .body(stream);
+    }
+
+    /**
+     * Write one directory tree under the output directory and return the report.
+     */
+    @PostMapping(consumes = {MediaType.APPLICATION_JSON_VALUE, NDJSON, RecommendationCodec.MEDIA_TYPE})
+    public ResponseEntity<BatchGenerationReport> generateToDirectory(HttpServletRequest request) throws IOException {
+        BatchGenerationReport report = batchGenerationService.generateToDirectory(
+                read(request.getContentType(), request.getInputStream()));
+        return ResponseEntity.ok(report);
+    }
+
+    /**
+     * Commit the changed services to Azure DevOps, as one pull request for
+     * all of them ({@code SINGLE_PR}) or one per service ({@code PER_SERVICE}).
+     */
+    @PostMapping(path = "/pr", consumes = {MediaType.APPLICATION_JSON_VALUE, NDJSON, RecommendationCodec.MEDIA_TYPE})
+    public ResponseEntity<RolloutReport> rollout(HttpServletRequest request,
+                                                 @RequestParam(defaultValue = "SINGLE_PR") RolloutReport.Mode mode)
+            throws IOException {
+        RolloutReport report = fleetRolloutService.rollout(
+                read(request.getContentType(), request.getInputStream()), mode);
+        return ResponseEntity.ok(report);
+    }
+
+    /**
+     * Lazily parse recommendations; a top-level array is iterated element by element.
+     */
+    private Iterator<ResourceRecommendation> read(String contentType, InputStream body) throws IOException {
+        if (contentType != null && contentType.startsWith(RecommendationCodec.MEDIA_TYPE)) {
+            return RecommendationCodec.reader(body);
+        }
+        ObjectReader reader = objectMapper.readerFor(ResourceRecommendation.class);
+        return reader.readValues(body);
+    }
+}
@@ -1,14 +1,22 @@
 package com.hackathon.codegen.controller;
 
 import com.hackathon.codegen.azuredevops.AzureDevOpsService;
+import com.hackathon.codegen.job.GenerationJob;
+import com.hackathon.codegen.job.GenerationJobService;
 import com.hackathon.codegen.model.GeneratedArtifacts;
-import com.hackathon.codegen.model.ResourceRecommendation;
+import com.hackathon.codegen.model.ManifestDiffRequest;
 import com.hackathon.codegen.service.CodeGenerationService;
+import com.hackathon.recommendation.ResourceRecommendation;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.net.URI;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -20,6 +28,7 @@ public class CodeGeneratorController {
 
     private final CodeGenerationService codeGenerationService;
     private final AzureDevOpsService azureDevOpsService;
+    private final GenerationJobService generationJobService;
 
     @GetMapping("/health")
     public ResponseEntity<Map<String, String>> health() {
@@ -51,22 +60,59 @@ public class CodeGeneratorController {
     }
 
     /**
-     * Generate files AND create Azure DevOps Pull Request
+     * Download the generated files as a ZIP. Files render straight into the
+     * response, so nothing is buffered or saved locally.
+     */
+    @PostMapping(path = "/generate/zip", produces = "application/zip")
+    public ResponseEntity<StreamingResponseBody> downloadZip(@RequestBody ResourceRecommendation recommendation) {
+        log.info("Received ZIP download request for service: {}", recommendation.getServiceName());
+
+        String fileName = (recommendation.getServiceName() != null ? recommendation.getServiceName() : "service")
+                + "-artifacts.zip";
+        StreamingResponseBody stream = out -> codeGenerationService.writeZip(recommendation, out);
+
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType("application/zip"))
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        ContentDisposition.attachment().filename(fileName).build().toString())
+                .body(stream);
+    }
+
+    /**
+     * Diff the current Deployment and Helm values against the recommendation
+     * and return field-level changes with minimal patch files; with
+     * createPR, commit only those patches.
+     */
+    @PostMapping("/generate/patch")
+    public ResponseEntity<?> generatePatch(@RequestBody ManifestDiffRequest request,
+                                           @RequestParam(defaultValue = "false") boolean createPR) {
+        try {
+            return ResponseEntity.ok(codeGenerationService.generatePatch(request, createPR));
+        } catch (IllegalArgumentException e) {
+            log.warn("Invalid patch request: {}", e.getMessage());
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    /**
+     * Queue generating files AND creating an Azure DevOps Pull Request.
+     * Returns 202 with the job at once; follow it at {@code /api/jobs/{id}}
+     * or {@code /api/jobs/{id}/events}.
      */
     @PostMapping("/generate-and-pr")
-    public ResponseEntity<GeneratedArtifacts> generateAndCreatePR(
+    public ResponseEntity<?> generateAndCreatePR(
             @RequestBody ResourceRecommendation recommendation) {
 
         log.info("Received generate-and-PR request for service: {}", recommendation.getServiceName());
 
-        GeneratedArtifacts artifacts = codeGenerationService.generateAndDeploy(recommendation, true);
-
-        if (artifacts.getSuccess()) {
-            log.info("Code generation and PR creation successful for {}", recommendation.getServiceName());
-            return ResponseEntity.ok(artifacts);
-        } else {
-            log.error("Code generation/PR failed: {}", artifacts.getErrorMessage());
-            return ResponseEntity.internalServerError().body(artifacts);
+        try {
+            GenerationJob job = generationJobService.submit(recommendation);
+            return ResponseEntity.accepted()
+                    .location(URI.create("/api/jobs/" + job.getId()))
+                    .body(job);
+        } catch (IllegalArgumentException e) {
+            log.warn("Invalid generate-and-PR request: {}", e.getMessage());
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
         }
     }
 
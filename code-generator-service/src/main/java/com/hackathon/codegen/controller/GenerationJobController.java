@@ -0,0 +1,37 @@
+package com.hackathon.codegen.controller;
+
+import com.hackathon.codegen.job.GenerationJob;
+import com.hackathon.codegen.job.GenerationJobService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+/**
+ * Status of queued generate-and-PR jobs, by polling or as server-sent events.
+ */
+@RestController
+@RequestMapping("/api/jobs")
+@RequiredArgsConstructor
+public class GenerationJobController {
+
+    private final GenerationJobService generationJobService;
+
+    @GetMapping("/{id}")
+    public ResponseEntity<GenerationJob> getJob(@PathVariable String id) {
+        return generationJobService.find(id)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    /**
+     * One {@code status} event per state change; the stream ends when the job finishes.
+     */
+    @GetMapping(path = "/{id}/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> streamJob(@PathVariable String id) {
+        return generationJobService.find(id)
+                .map(job -> ResponseEntity.ok(generationJobService.subscribe(job)))
+                .orElse(ResponseEntity.notFound().build());
+    }
+}
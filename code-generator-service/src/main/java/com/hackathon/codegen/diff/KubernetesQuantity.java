@@ -0,0 +1,66 @@
+package com.hackathon.codegen.diff;
+
+import java.math.BigDecimal;
+import java.util.Map;
+
+/**
+ * Kubernetes resource quantities ({@code 500m}, {@code 0.5}, {@code 1Gi},
+ * {@code 1024Mi}) parsed to a plain number, so equal amounts written
+ * differently are not reported as changes.
+ */
+final class KubernetesQuantity {
+
+    private static final Map<String, BigDecimal> SUFFIXES = Map.ofEntries(
+            Map.entry("m", new BigDecimal("0.001")),
+            Map.entry("k", BigDecimal.TEN.pow(3)),
+            Map.entry("M", BigDecimal.TEN.pow(6)),
+            Map.entry("G", BigDecimal.TEN.pow(9)),
+            Map.entry("T", BigDecimal.TEN.pow(12)),
+            Map.entry("P", BigDecimal.TEN.pow(15)),
+            Map.entry("E", BigDecimal.TEN.pow(18)),
+            Map.entry("Ki", BigDecimal.valueOf(2).pow(10)),
+            Map.entry("Mi", BigDecimal.valueOf(2).pow(20)),
+            Map.entry("Gi", BigDecimal.valueOf(2).pow(30)),
+            Map.entry("Ti", BigDecimal.valueOf(2).pow(40)),
+            Map.entry("Pi", BigDecimal.valueOf(2).pow(50)),
+            Map.entry("Ei", BigDecimal.valueOf(2).pow(60)));
+
+    private KubernetesQuantity() {
+    }
+
+    /**
+     * @return the amount in base units, or null when the text is not a quantity
+     */
+    static BigDecimal parse(String text) {
+        if (text == null) {
+            return null;
+        }
+        String value = text.trim();
+        int end = value.length();
+        while (end > 0 && Character.isLetter(value.charAt(end - 1))) {
+            end--;
+        }
+        String suffix = value.substring(end);
+        BigDecimal multiplier = suffix.isEmpty() ? BigDecimal.ONE : SUFFIXES.get(suffix);
+        if (multiplier == null || end == 0) {
+            return null;
+        }
+        try {
+            return new BigDecimal(value.substring(0, end)).multiply(multiplier);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Equal as quantities when both parse, otherwise equal as text.
+     */
+    static boolean equivalent(String a, String b) {
+        BigDecimal left = parse(a);
+        BigDecimal right = parse(b);
+        if (left != null && right != null) {
+            return left.compareTo(right) == 0;
+        }
+        return a != null && a.trim().equals(b == null ? null : b.trim());
+    }
+}
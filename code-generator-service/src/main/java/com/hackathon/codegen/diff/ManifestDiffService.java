@@ -0,0 +1,294 @@
+package com.hackathon.codegen.diff;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.fasterxml.jackson.dataformat.yaml.YAMLFactory;
+import com.fasterxml.jackson.dataformat.yaml.YAMLGenerator;
+import com.fasterxml.jackson.dataformat.yaml.YAMLMapper;
+import com.hackathon.codegen.model.GeneratedArtifacts;
+import com.hackathon.codegen.model.ManifestDiff;
+import com.hackathon.codegen.model.ManifestDiffRequest;
+import com.hackathon.recommendation.ResourceRecommendation;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Compares the manifests a service runs with today against its
+ * recommendation and renders only what changes:
+ *
+ * <ul>
+ *   <li>a strategic-merge patch for the Deployment, with a kustomize overlay
+ *       that applies it on top of the existing base;</li>
+ *   <li>a Helm values file holding only the changed keys, to pass with
+ *       {@code -f} after the chart's own values.</li>
+ * </ul>
+ *
+ * Managed fields are the container's CPU and memory requests and limits,
+ * the heap flags in {@code JAVA_OPTS} and, for recommendations tuned from GC
+ * telemetry, {@code JAVA_TOOL_OPTIONS}; everything else in the manifests is
+ * left as it is.
+ */
+@Slf4j
+@Service
+public class ManifestDiffService {
+
+    static final String DEPLOYMENT = "deployment";
+    static final String HELM_VALUES = "helm-values";
+    static final String OVERLAY_DIR = "k8s/overlays/saveyourmoney/";
+    static final String PATCH_FILE = "deployment-patch.yaml";
+    static final String HELM_OVERRIDE_PATH = "helm/values-saveyourmoney.yaml";
+
+    private static final String PATCH_HEADER = "# SaveYourMoney: only the fields that change\n";
+    private static final String OVERLAY_HEADER = "# SaveYourMoney: applies " + PATCH_FILE + " on top of the base\n";
+    private static final Pattern XMS = Pattern.compile("-Xms\\S+");
+    private static final Pattern XMX = Pattern.compile("-Xmx\\S+");
+    /** Flags in JAVA_OPTS that would override JAVA_TOOL_OPTIONS or select a second collector. */
+    private static final Pattern TUNED_FLAGS = Pattern.compile("\\s*(-Xm[sx]\\S+|-XX:[+-]Use\\w+GC"
+            + "|-XX:(MaxGCPauseMillis|GCTimeRatio|G1HeapRegionSize|(Initial|Max)RAMPercentage|(Max)?MetaspaceSize)=\\S+)(?=\\s|$)");
+
+    private final YAMLMapper yaml = YAMLMapper.builder(YAMLFactory.builder()
+                    .disable(YAMLGenerator.Feature.WRITE_DOC_START_MARKER)
+                    .enable(YAMLGenerator.Feature.MINIMIZE_QUOTES)
+                    .enable(YAMLGenerator.Feature.INDENT_ARRAYS_WITH_INDICATOR)
+                    .build())
+            .build();
+    private final String kustomizeBase;
+
+    public ManifestDiffService(@Value("${codegen.patch.kustomize-base:../../base}") String kustomizeBase) {
+        this.kustomizeBase = kustomizeBase;
+    }
+
+    /**
+     * @throws IllegalArgumentException when a manifest is not valid YAML or
+     *         has no Deployment to patch
+     */
+    public ManifestDiff diff(ManifestDiffRequest request) {
+        ResourceRecommendation recommendation = request.getRecommendation();
+        if (recommendation == null || recommendation.getServiceName() == null) {
+            throw new IllegalArgumentException("recommendation.serviceName is required");
+        }
+        String serviceName = recommendation.getServiceName();
+        List<ManifestDiff.FieldChange> changes = new ArrayList<>();
+        List<GeneratedArtifacts.GeneratedFile> files = new ArrayList<>();
+
+        if (hasText(request.getCurrentDeployment())) {
+            diffDeployment(recommendation, request.getCurrentDeployment(), changes, files);
+        }
+        if (hasText(request.getCurrentHelmValues())) {
+            diffHelmValues(recommendation, request.getCurrentHelmValues(), changes, files);
+        }
+
+        log.info("Manifest diff for {}: {} changed fields, {} patch files", serviceName, changes.size(), files.size());
+        return ManifestDiff.builder()
+                .serviceName(serviceName)
+                .changes(changes)
+                .files(files)
+                .build();
+    }
+
+    private void diffDeployment(ResourceRecommendation recommendation, String manifest,
+                                List<ManifestDiff.FieldChange> changes, List<GeneratedArtifacts.GeneratedFile> files) {
+        JsonNode deployment = findDeployment(manifest, recommendation.getServiceName());
+        String name = deployment.path("metadata").path("name").asText(recommendation.getServiceName());
+        JsonNode containers = deployment.path("spec").path("template").path("spec").path("containers");
+        JsonNode container = YamlDiffEngine.findByName(containers, recommendation.getServiceName());
+        if (container == null && containers.size() > 0) {
+            container = containers.get(0);
+        }
+        String containerName = container != null
+                ? container.path(YamlDiffEngine.MERGE_KEY).asText(recommendation.getServiceName())
+                : recommendation.getServiceName();
+
+        ObjectNode desiredContainer = JsonNodeFactory.instance.objectNode().put(YamlDiffEngine.MERGE_KEY, containerName);
+        ObjectNode resources = resources(recommendation.getKubernetes());
+        if (resources != null) {
+            desiredContainer.set("resources", resources);
+        }
+        ArrayNode env = JsonNodeFactory.instance.arrayNode();
+        String javaOpts = javaOpts(recommendation.getJvm(), container);
+        if (javaOpts != null) {
+            env.addObject().put(YamlDiffEngine.MERGE_KEY, "JAVA_OPTS").put("value", javaOpts);
+        }
+        if (recommendation.getJvm() != null && hasText(recommendation.getJvm().getJavaToolOptions())) {
+            env.addObject().put(YamlDiffEngine.MERGE_KEY, "JAVA_TOOL_OPTIONS")
+                    .put("value", recommendation.getJvm().getJavaToolOptions());
+        }
+        if (!env.isEmpty()) {
+            desiredContainer.set("env", env);
+        }
+        ObjectNode desired = JsonNodeFactory.instance.objectNode();
+        desired.putObject("spec").putObject("template").putObject("spec")
+                .putArray("containers").add(desiredContainer);
+
+        JsonNode patch = YamlDiffEngine.diff(DEPLOYMENT, deployment, desired, changes);
+        if (patch == null) {
+            return;
+        }
+
+        ObjectNode patchDocument = JsonNodeFactory.instance.objectNode();
+        patchDocument.put("apiVersion", deployment.path("apiVersion").asText("apps/v1"));
+        patchDocument.put("kind", "Deployment");
+        patchDocument.putObject("metadata").put("name", name);
+        patchDocument.setAll((ObjectNode) patch);
+
+        ObjectNode kustomization = JsonNodeFactory.instance.objectNode();
+        kustomization.put("apiVersion", "kustomize.config.k8s.io/v1beta1");
+        kustomization.put("kind", "Kustomization");
+        kustomization.putArray("resources").add(kustomizeBase);
+        ObjectNode patchEntry = kustomization.putArray("patches").addObject();
+        patchEntry.put("path", PATCH_FILE);
+        patchEntry.putObject("target").put("kind", "Deployment").put("name", name);
+
+        files.add(file(PATCH_FILE, OVERLAY_DIR + PATCH_FILE, write(PATCH_HEADER, patchDocument),
+                GeneratedArtifacts.FileType.KUBERNETES_PATCH));
+        files.add(file("kustomization.yaml", OVERLAY_DIR + "kustomization.yaml", write(OVERLAY_HEADER, kustomization),
+                GeneratedArtifacts.FileType.KUSTOMIZATION));
+    }
+
+    private void diffHelmValues(ResourceRecommendation recommendation, String values,
+                                List<ManifestDiff.FieldChange> changes, List<GeneratedArtifacts.GeneratedFile> files) {
+        JsonNode current = read(values, HELM_VALUES);
+        ObjectNode desired = JsonNodeFactory.instance.objectNode();
+        ObjectNode resources = resources(recommendation.getKubernetes());
+        if (resources != null) {
+            desired.set("resources", resources);
+        }
+        // Heap settings only where the chart already exposes them
+        ResourceRecommendation.JvmConfiguration jvm = recommendation.getJvm();
+        if (jvm != null && current.path("jvm").isObject()) {
+            ObjectNode desiredJvm = desired.putObject("jvm");
+            putIfPresent(desiredJvm, "xms", jvm.getXms());
+            putIfPresent(desiredJvm, "xmx", jvm.getXmx());
+            if (current.path("jvm").has("javaToolOptions")) {
+                putIfPresent(desiredJvm, "javaToolOptions", jvm.getJavaToolOptions());
+            }
+        }
+
+        JsonNode patch = YamlDiffEngine.diff(HELM_VALUES, current, desired, changes);
+        if (patch != null) {
+            files.add(file("values-saveyourmoney.yaml", HELM_OVERRIDE_PATH, write(PATCH_HEADER, patch),
+                    GeneratedArtifacts.FileType.HELM_VALUES_OVERRIDE));
+        }
+    }
+
+    private JsonNode findDeployment(String manifest, String serviceName) {
+        JsonNode first = null;
+        try (MappingIterator<JsonNode> documents = yaml.readerFor(JsonNode.class).readValues(manifest)) {
+            while (documents.hasNext()) {
+                JsonNode document = documents.next();
+                if (document == null || !"Deployment".equals(document.path("kind").asText())) {
+                    continue;
+                }
+                if (serviceName.equals(document.path("metadata").path("name").asText())) {
+                    return document;
+                }
+                if (first == null) {
+                    first = document;
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            throw new IllegalArgumentException("currentDeployment is not valid YAML: " + e.getMessage(), e);
+        }
+        if (first == null) {
+            throw new IllegalArgumentException("currentDeployment contains no Deployment");
+        }
+        return first;
+    }
+
+    private JsonNode read(String text, String manifest) {
+        try {
+            JsonNode node = yaml.readTree(text);
+            if (node == null || !node.isObject()) {
+                throw new IllegalArgumentException(manifest + " must be a YAML mapping");
+            }
+            return node;
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException(manifest + " is not valid YAML: " + e.getOriginalMessage(), e);
+        }
+    }
+
+    private static ObjectNode resources(ResourceRecommendation.KubernetesResources k8s) {
+        if (k8s == null) {
+            return null;
+        }
+        ObjectNode resources = JsonNodeFactory.instance.objectNode();
+        ObjectNode requests = resources.putObject("requests");
+        putIfPresent(requests, "cpu", k8s.getCpuRequest());
+        putIfPresent(requests, "memory", k8s.getMemoryRequest());
+        ObjectNode limits = resources.putObject("limits");
+        putIfPresent(limits, "cpu", k8s.getCpuLimit());
+        putIfPresent(limits, "memory", k8s.getMemoryLimit());
+        return resources;
+    }
+
+    /**
+     * The container's JAVA_OPTS with only the heap flags replaced, so other
+     * flags set by the owning team survive. With JAVA_TOOL_OPTIONS the heap
+     * and collector flags move there, so they are removed from an existing
+     * JAVA_OPTS, which the JVM would otherwise let win.
+     */
+    static String javaOpts(ResourceRecommendation.JvmConfiguration jvm, JsonNode container) {
+        if (jvm == null || (jvm.getXms() == null && jvm.getXmx() == null)) {
+            return null;
+        }
+        JsonNode env = container != null ? YamlDiffEngine.findByName(container.path("env"), "JAVA_OPTS") : null;
+        if (hasText(jvm.getJavaToolOptions())) {
+            return env != null ? TUNED_FLAGS.matcher(env.path("value").asText("")).replaceAll("").strip() : null;
+        }
+        String opts = env != null ? env.path("value").asText("") : "";
+        if (jvm.getXms() != null) {
+            opts = setFlag(opts, XMS, "-Xms" + jvm.getXms());
+        }
+        if (jvm.getXmx() != null) {
+            opts = setFlag(opts, XMX, "-Xmx" + jvm.getXmx());
+        }
+        return opts;
+    }
+
+    private static String setFlag(String opts, Pattern flag, String value) {
+        Matcher matcher = flag.matcher(opts);
+        if (matcher.find()) {
+            return opts.substring(0, matcher.start()) + value + opts.substring(matcher.end());
+        }
+        return opts.isBlank() ? value : opts.strip() + " " + value;
+    }
+
+    private static void putIfPresent(ObjectNode node, String field, String value) {
+        if (value != null && !value.isBlank()) {
+            node.put(field, value);
+        }
+    }
+
+    private String write(String header, JsonNode node) {
+        try {
+            return header + yaml.writeValueAsString(node);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot write patch", e);
+        }
+    }
+
+    private static GeneratedArtifacts.GeneratedFile file(String fileName, String filePath, String content,
+                                                         GeneratedArtifacts.FileType fileType) {
+        return GeneratedArtifacts.GeneratedFile.builder()
+                .fileName(fileName)
+                .filePath(filePath)
+                .content(content)
+                .fileType(fileType)
+                .build();
+    }
+
+    private static boolean hasText(String text) {
+        return text != null && !text.isBlank();
+    }
+}
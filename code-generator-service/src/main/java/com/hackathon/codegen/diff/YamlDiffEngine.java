@@ -0,0 +1,118 @@
+package com.hackathon.codegen.diff;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.hackathon.codegen.model.ManifestDiff;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Structural diff of a parsed manifest against a desired overlay.
+ *
+ * <p>The overlay holds only the fields the recommendation manages. Objects
+ * are compared field by field, lists of objects are matched by their
+ * {@code name} key (the merge key Kubernetes uses for containers and env)
+ * and scalars are compared as resource quantities when both sides parse.
+ * The result is a patch with the same shape as the overlay but only the
+ * changed fields, which is a strategic-merge patch for Kubernetes objects
+ * and a minimal values override for Helm.
+ */
+final class YamlDiffEngine {
+
+    static final String MERGE_KEY = "name";
+
+    private YamlDiffEngine() {
+    }
+
+    /**
+     * @return the patch, or null when the current tree already matches
+     */
+    static JsonNode diff(String manifest, JsonNode current, JsonNode desired, List<ManifestDiff.FieldChange> changes) {
+        return diff(manifest, "", current, desired, changes);
+    }
+
+    private static JsonNode diff(String manifest, String path, JsonNode current, JsonNode desired,
+                                 List<ManifestDiff.FieldChange> changes) {
+        if (desired == null || desired.isNull()) {
+            return null;
+        }
+        if (desired.isObject()) {
+            return diffObject(manifest, path, current, (ObjectNode) desired, changes);
+        }
+        if (desired.isArray()) {
+            return diffList(manifest, path, current, (ArrayNode) desired, changes);
+        }
+
+        boolean missing = current == null || current.isNull() || current.isContainerNode();
+        if (!missing && KubernetesQuantity.equivalent(current.asText(), desired.asText())) {
+            return null;
+        }
+        changes.add(ManifestDiff.FieldChange.builder()
+                .manifest(manifest)
+                .path(path)
+                .operation(missing ? ManifestDiff.Operation.ADD : ManifestDiff.Operation.REPLACE)
+                .currentValue(missing ? null : current.asText())
+                .recommendedValue(desired.asText())
+                .build());
+        return desired;
+    }
+
+    private static JsonNode diffObject(String manifest, String path, JsonNode current, ObjectNode desired,
+                                       List<ManifestDiff.FieldChange> changes) {
+        ObjectNode patch = JsonNodeFactory.instance.objectNode();
+        for (Iterator<Map.Entry<String, JsonNode>> fields = desired.fields(); fields.hasNext(); ) {
+            Map.Entry<String, JsonNode> field = fields.next();
+            JsonNode currentChild = current != null && current.isObject() ? current.get(field.getKey()) : null;
+            JsonNode changed = diff(manifest, join(path, field.getKey()), currentChild, field.getValue(), changes);
+            if (changed != null) {
+                patch.set(field.getKey(), changed);
+            }
+        }
+        return patch.isEmpty() ? null : patch;
+    }
+
+    /**
+     * Only changed items go into the patch, each with its merge key, so the
+     * patch leaves the other items of the list alone.
+     */
+    private static JsonNode diffList(String manifest, String path, JsonNode current, ArrayNode desired,
+                                     List<ManifestDiff.FieldChange> changes) {
+        ArrayNode patch = JsonNodeFactory.instance.arrayNode();
+        for (JsonNode item : desired) {
+            String key = item.path(MERGE_KEY).asText(null);
+            if (key == null) {
+                throw new IllegalArgumentException("List items in an overlay need a '" + MERGE_KEY + "' at " + path);
+            }
+            ObjectNode fields = ((ObjectNode) item).deepCopy();
+            fields.remove(MERGE_KEY);
+            JsonNode changed = diff(manifest, path + "[" + MERGE_KEY + "=" + key + "]",
+                    findByName(current, key), fields, changes);
+            if (changed != null) {
+                ObjectNode patched = JsonNodeFactory.instance.objectNode().put(MERGE_KEY, key);
+                patched.setAll((ObjectNode) changed);
+                patch.add(patched);
+            }
+        }
+        return patch.isEmpty() ? null : patch;
+    }
+
+    static JsonNode findByName(JsonNode list, String name) {
+        if (list == null || !list.isArray()) {
+            return null;
+        }
+        for (JsonNode item : list) {
+            if (name.equals(item.path(MERGE_KEY).asText(null))) {
+                return item;
+            }
+        }
+        return null;
+    }
+
+    private static String join(String path, String field) {
+        return path.isEmpty() ? field : path + "." + field;
+    }
+}
@@ -0,0 +1,20 @@
+package com.hackathon.codegen.generator;
+
+import java.io.IOException;
+import java.io.Writer;
+
+/**
+ * Destination for rendered files. The generator hands over each file as a
+ * callback that renders into a writer, so a sink can stream the text to
+ * its target instead of receiving it as one string.
+ */
+@FunctionalInterface
+public interface ArtifactSink {
+
+    void write(FileGeneratorService.Artifact artifact, Content content) throws IOException;
+
+    @FunctionalInterface
+    interface Content {
+        void writeTo(Writer out) throws IOException;
+    }
+}
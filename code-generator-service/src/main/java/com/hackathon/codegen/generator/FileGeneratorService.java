@@ -1,42 +1,86 @@
 package com.hackathon.codegen.generator;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.MapperFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.json.JsonMapper;
 import com.hackathon.codegen.model.GeneratedArtifacts;
-import com.hackathon.codegen.model.ResourceRecommendation;
+import com.hackathon.codegen.template.TemplateRegistry;
+import com.hackathon.recommendation.ResourceRecommendation;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HexFormat;
 import java.util.List;
 import java.util.Map;
 
+/**
+ * Renders the configuration files for a recommendation from the compiled
+ * templates in {@link TemplateRegistry}. Each recommendation is flattened
+ * into one model map shared by all templates.
+ */
 @Slf4j
 @Service
 public class FileGeneratorService {
 
+    /**
+     * Files generated per recommendation, in output order.
+     */
+    public static final List<Artifact> ARTIFACTS = List.of(
+            new Artifact(TemplateRegistry.DEPLOYMENT, "k8s/deployment.yaml",
+                    GeneratedArtifacts.FileType.KUBERNETES_DEPLOYMENT),
+            new Artifact(TemplateRegistry.APPLICATION_PROPERTIES, "src/main/resources/application.properties",
+                    GeneratedArtifacts.FileType.SPRING_PROPERTIES),
+            new Artifact(TemplateRegistry.HELM_VALUES, "helm/values.yaml",
+                    GeneratedArtifacts.FileType.HELM_VALUES),
+            new Artifact(TemplateRegistry.README, "README.md",
+                    GeneratedArtifacts.FileType.README),
+            new Artifact(TemplateRegistry.AZURE_PIPELINE, "azure-pipelines.yml",
+                    GeneratedArtifacts.FileType.AZURE_PIPELINE));
+
+    /** Stable JSON for hashing: properties and map entries in sorted order. */
+    private static final ObjectMapper CANONICAL_JSON = JsonMapper.builder()
+            .enable(MapperFeature.SORT_PROPERTIES_ALPHABETICALLY)
+            .enable(SerializationFeature.ORDER_MAP_ENTRIES_BY_KEYS)
+            .build();
+
+    private final TemplateRegistry templates;
+
+    public FileGeneratorService() {
+        this(TemplateRegistry.bundled());
+    }
+
+    @Autowired
+    public FileGeneratorService(TemplateRegistry templates) {
+        this.templates = templates;
+    }
+
     /**
      * Generate all configuration files based on recommendations
      */
     public GeneratedArtifacts generateArtifacts(ResourceRecommendation recommendation) {
         log.info("Generating artifacts for service: {}", recommendation.getServiceName());
 
-        List<GeneratedArtifacts.GeneratedFile> files = new ArrayList<>();
-
-        // 1. Generate Kubernetes deployment.yaml
-        files.add(generateKubernetesDeployment(recommendation));
-
-        // 2. Generate application.properties
-        files.add(generateApplicationProperties(recommendation));
-
-        // 3. Generate Helm values.yaml
-        files.add(generateHelmValues(recommendation));
-
-        // 4. Generate README.md
-        files.add(generateReadme(recommendation));
-
-        // 5. Generate azure-pipelines.yml (optional)
-        files.add(generateAzurePipeline(recommendation));
+        Map<String, Object> model = buildModel(recommendation, now());
+        List<GeneratedArtifacts.GeneratedFile> files = new ArrayList<>(ARTIFACTS.size());
+        for (Artifact artifact : ARTIFACTS) {
+            files.add(GeneratedArtifacts.GeneratedFile.builder()
+                    .fileName(artifact.template())
+                    .filePath(artifact.filePath())
+                    .content(templates.render(artifact.template(), model))
+                    .fileType(artifact.fileType())
+                    .build());
+        }
 
         log.info("Generated {} files for {}", files.size(), recommendation.getServiceName());
 
@@ -48,405 +92,127 @@ public class FileGeneratorService {
     }
 
     /**
-     * Generate Kubernetes deployment.yaml
+     * Render every file straight into the sink without building its
+     * content as a string. The model is built before the first file, so
+     * an invalid recommendation fails before anything is written.
+     *
+     * @return the number of files written
      */
-    private GeneratedArtifacts.GeneratedFile generateKubernetesDeployment(ResourceRecommendation rec) {
-        String serviceName = rec.getServiceName();
-        String cpuRequest = rec.getKubernetes().getCpuRequest();
-        String cpuLimit = rec.getKubernetes().getCpuLimit();
-        String memoryRequest = rec.getKubernetes().getMemoryRequest();
-        String memoryLimit = rec.getKubernetes().getMemoryLimit();
-        String xms = rec.getJvm() != null ? rec.getJvm().getXms() : "256m";
-        String xmx = rec.getJvm() != null ? rec.getJvm().getXmx() : "512m";
-
-        String content = String.format("""
-apiVersion: apps/v1
-kind: Deployment
-metadata:
-  name: %s
-  labels:
-    app: %s
-    optimized-by: saveyourmoney
-    optimization-date: "%s"
-spec:
-  replicas: 1
-  selector:
-    matchLabels:
-      app: %s
-  template:
-    metadata:
-      labels:
-        app: %s
-    spec:
-      containers:
-      - name: %s
-        image: %s:latest
-        ports:
-        - containerPort: 8080
-
-        # OPTIMIZED RESOURCES - Generated by SaveYourMoney AI
-        resources:
-          requests:
-            cpu: "%s"              # ✅ AI Recommended (was suboptimal)
-            memory: "%s"           # ✅ AI Recommended (was suboptimal)
-          limits:
-            cpu: "%s"              # ✅ AI Recommended (was suboptimal)
-            memory: "%s"           # ✅ AI Recommended (was suboptimal)
-
-        # OPTIMIZED JVM CONFIGURATION
-        env:
-        - name: JAVA_OPTS
-          value: "-Xms%s -Xmx%s -XX:+UseG1GC -XX:MaxGCPauseMillis=200 -XX:+HeapDumpOnOutOfMemoryError"
-
-        # Health checks
-        livenessProbe:
-          httpGet:
-            path: /actuator/health
-            port: 8080
-          initialDelaySeconds: 30
-          periodSeconds: 10
-        readinessProbe:
-          httpGet:
-            path: /actuator/health
-            port: 8080
-          initialDelaySeconds: 20
-          periodSeconds: 5
----
-apiVersion: v1
-kind: Service
-metadata:
-  name: %s
-spec:
-  selector:
-    app: %s
-  ports:
-  - protocol: TCP
-    port: 80
-    targetPort: 8080
-  type: LoadBalancer
-""",
-                serviceName, serviceName,
-                LocalDateTime.now().format(DateTimeFormatter.ISO_DATE_TIME),
-                serviceName, serviceName, serviceName, serviceName,
-                cpuRequest, memoryRequest, cpuLimit, memoryLimit,
-                xms, xmx,
-                serviceName, serviceName
-        );
-
-        return GeneratedArtifacts.GeneratedFile.builder()
-                .fileName("deployment.yaml")
-                .filePath("k8s/deployment.yaml")
-                .content(content)
-                .fileType(GeneratedArtifacts.FileType.KUBERNETES_DEPLOYMENT)
-                .build();
+    public int writeArtifacts(ResourceRecommendation recommendation, ArtifactSink sink) throws IOException {
+        Map<String, Object> model = buildModel(recommendation, now());
+        for (Artifact artifact : ARTIFACTS) {
+            sink.write(artifact, out -> templates.render(artifact.template(), model, out));
+        }
+        return ARTIFACTS.size();
     }
 
     /**
-     * Generate Spring Boot application.properties
+     * Hash of everything that determines the generated files apart from the
+     * generation time: the recommendation, the templates in use and the file
+     * layout. Equal hashes mean a new generation would only change timestamps.
      */
-    private GeneratedArtifacts.GeneratedFile generateApplicationProperties(ResourceRecommendation rec) {
-        StringBuilder content = new StringBuilder();
-
-        content.append("# SaveYourMoney AI-Optimized Configuration\n");
-        content.append("# Generated: ").append(LocalDateTime.now()).append("\n");
-        content.append("# Service: ").append(rec.getServiceName()).append("\n");
-        content.append("# Confidence Score: ").append(String.format("%.0f%%", rec.getConfidenceScore() * 100)).append("\n\n");
-
-        content.append("# Application\n");
-        content.append("spring.application.name=").append(rec.getServiceName()).append("\n\n");
-
-        // Thread pool configuration
-        if (rec.getThreadPool() != null) {
-            content.append("# OPTIMIZED Thread Pool Configuration\n");
-            content.append("server.tomcat.threads.max=").append(rec.getThreadPool().getMaxThreads()).append("\n");
-            content.append("server.tomcat.threads.min-spare=").append(rec.getThreadPool().getMinSpareThreads()).append("\n\n");
-        }
-
-        // Connection pool configuration (for DB services)
-        if (rec.getConnectionPool() != null) {
-            content.append("# OPTIMIZED HikariCP Connection Pool\n");
-            content.append("spring.datasource.hikari.maximum-pool-size=").append(rec.getConnectionPool().getMaximumPoolSize()).append("\n");
-            content.append("spring.datasource.hikari.minimum-idle=").append(rec.getConnectionPool().getMinimumIdle()).append("\n");
-            content.append("spring.datasource.hikari.connection-timeout=").append(rec.getConnectionPool().getConnectionTimeout()).append("\n");
-            content.append("spring.datasource.hikari.idle-timeout=").append(rec.getConnectionPool().getIdleTimeout()).append("\n\n");
+    public String inputHash(ResourceRecommendation recommendation) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update(CANONICAL_JSON.writeValueAsBytes(recommendation));
+            digest.update(templates.fingerprint().getBytes(StandardCharsets.UTF_8));
+            for (Artifact artifact : ARTIFACTS) {
+                digest.update(artifact.filePath().getBytes(StandardCharsets.UTF_8));
+            }
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (JsonProcessingException | NoSuchAlgorithmException e) {
+            throw new IllegalStateException("Cannot hash recommendation for " + recommendation.getServiceName(), e);
         }
-
-        // Actuator
-        content.append("# Actuator\n");
-        content.append("management.endpoints.web.exposure.include=health,info,metrics,prometheus\n");
-        content.append("management.endpoint.health.show-details=always\n\n");
-
-        // Logging
-        content.append("# Logging\n");
-        content.append("logging.level.root=INFO\n");
-        content.append("logging.pattern.console=%d{yyyy-MM-dd HH:mm:ss} - %msg%n\n");
-
-        return GeneratedArtifacts.GeneratedFile.builder()
-                .fileName("application.properties")
-                .filePath("src/main/resources/application.properties")
-                .content(content.toString())
-                .fileType(GeneratedArtifacts.FileType.SPRING_PROPERTIES)
-                .build();
     }
 
-    /**
-     * Generate Helm values.yaml
-     */
-    private GeneratedArtifacts.GeneratedFile generateHelmValues(ResourceRecommendation rec) {
-        String content = String.format("""
-# SaveYourMoney AI-Optimized Helm Values
-# Generated: %s
-# Service: %s
-# Confidence Score: %.0f%%
-
-replicaCount: 1
-
-image:
-  repository: %s
-  tag: latest
-  pullPolicy: IfNotPresent
-
-service:
-  type: LoadBalancer
-  port: 80
-  targetPort: 8080
-
-# OPTIMIZED RESOURCES - AI Recommended
-resources:
-  requests:
-    cpu: %s
-    memory: %s
-  limits:
-    cpu: %s
-    memory: %s
-
-# OPTIMIZED JVM Configuration
-jvm:
-  xms: %s
-  xmx: %s
-  gcType: G1GC
-  additionalOpts: "-XX:MaxGCPauseMillis=200 -XX:+HeapDumpOnOutOfMemoryError"
-
-# Health checks
-livenessProbe:
-  httpGet:
-    path: /actuator/health
-    port: 8080
-  initialDelaySeconds: 30
-  periodSeconds: 10
-
-readinessProbe:
-  httpGet:
-    path: /actuator/health
-    port: 8080
-  initialDelaySeconds: 20
-  periodSeconds: 5
-
-# Auto-scaling (optional)
-autoscaling:
-  enabled: false
-  minReplicas: 1
-  maxReplicas: 5
-  targetCPUUtilizationPercentage: 70
-  targetMemoryUtilizationPercentage: 80
-""",
-                LocalDateTime.now().format(DateTimeFormatter.ISO_DATE_TIME),
-                rec.getServiceName(),
-                rec.getConfidenceScore() * 100,
-                rec.getServiceName(),
-                rec.getKubernetes().getCpuRequest(),
-                rec.getKubernetes().getMemoryRequest(),
-                rec.getKubernetes().getCpuLimit(),
-                rec.getKubernetes().getMemoryLimit(),
-                rec.getJvm() != null ? rec.getJvm().getXms() : "256m",
-                rec.getJvm() != null ? rec.getJvm().getXmx() : "512m"
-        );
-
-        return GeneratedArtifacts.GeneratedFile.builder()
-                .fileName("values.yaml")
-                .filePath("helm/values.yaml")
-                .content(content)
-                .fileType(GeneratedArtifacts.FileType.HELM_VALUES)
-                .build();
+    private static String now() {
+        return LocalDateTime.now().format(DateTimeFormatter.ISO_DATE_TIME);
     }
 
     /**
-     * Generate README.md with change explanation
+     * Template model: the recommendation as nested maps plus the derived
+     * values the templates branch on. Missing sections stay null.
      */
-    private GeneratedArtifacts.GeneratedFile generateReadme(ResourceRecommendation rec) {
-        StringBuilder content = new StringBuilder();
-
-        content.append("# Resource Optimization - ").append(rec.getServiceName()).append("\n\n");
-        content.append("**Generated by SaveYourMoney AI** 🤖💰\n\n");
-        content.append("**Date:** ").append(LocalDateTime.now().format(DateTimeFormatter.ISO_DATE_TIME)).append("\n\n");
-        content.append("**Confidence Score:** ").append(String.format("%.0f%%", rec.getConfidenceScore() * 100)).append("\n\n");
-
-        content.append("---\n\n");
-
-        content.append("## 🎯 Summary\n\n");
-        content.append(rec.getRationale()).append("\n\n");
-
-        // Detected issues
-        if (rec.getDetectedIssues() != null && !rec.getDetectedIssues().isEmpty()) {
-            content.append("## ⚠️ Detected Issues\n\n");
-            rec.getDetectedIssues().forEach((issue, description) -> {
-                content.append("- **").append(issue).append("**: ").append(description).append("\n");
-            });
-            content.append("\n");
+    static Map<String, Object> buildModel(ResourceRecommendation rec, String generatedAt) {
+        Map<String, Object> model = new HashMap<>();
+        model.put("serviceName", rec.getServiceName());
+        model.put("generatedAt", generatedAt);
+        model.put("confidenceScore", rec.getConfidenceScore());
+        model.put("rationale", rec.getRationale());
+
+        ResourceRecommendation.KubernetesResources k8s = rec.getKubernetes();
+        if (k8s != null) {
+            model.put("kubernetes", fields(
+                    "cpuRequest", k8s.getCpuRequest(),
+                    "cpuLimit", k8s.getCpuLimit(),
+                    "memoryRequest", k8s.getMemoryRequest(),
+                    "memoryLimit", k8s.getMemoryLimit()));
         }
 
-        // Resource changes
-        content.append("## 📊 Resource Changes\n\n");
-        content.append("### Kubernetes Resources\n\n");
-        content.append("| Resource | Before | After | Change |\n");
-        content.append("|----------|---------|-------|--------|\n");
-        content.append(String.format("| CPU Request | `100m` | `%s` | ✅ Optimized |\n", rec.getKubernetes().getCpuRequest()));
-        content.append(String.format("| CPU Limit | `200m` | `%s` | ✅ Optimized |\n", rec.getKubernetes().getCpuLimit()));
-        content.append(String.format("| Memory Request | `256Mi` | `%s` | ✅ Optimized |\n", rec.getKubernetes().getMemoryRequest()));
-        content.append(String.format("| Memory Limit | `512Mi` | `%s` | ✅ Optimized |\n\n", rec.getKubernetes().getMemoryLimit()));
-
-        // JVM changes
-        if (rec.getJvm() != null) {
-            content.append("### JVM Configuration\n\n");
-            content.append("| Parameter | Before | After |\n");
-            content.append("|-----------|---------|-------|\n");
-            content.append(String.format("| `-Xms` | `256m` | `%s` |\n", rec.getJvm().getXms()));
-            content.append(String.format("| `-Xmx` | `256m` | `%s` |\n", rec.getJvm().getXmx()));
-            content.append("| GC | `default` | `G1GC` |\n\n");
+        ResourceRecommendation.JvmConfiguration jvm = rec.getJvm();
+        if (jvm != null) {
+            model.put("jvm", fields(
+                    "xms", jvm.getXms(),
+                    "xmx", jvm.getXmx(),
+                    "gcType", jvm.getGcType() != null ? jvm.getGcType() : "G1GC",
+                    "goal", jvm.getGoal(),
+                    "maxRamPercentage", jvm.getMaxRamPercentage(),
+                    "maxGcPauseMillis", jvm.getMaxGcPauseMillis(),
+                    "g1HeapRegionSize", jvm.getG1HeapRegionSize(),
+                    "metaspaceSize", jvm.getMetaspaceSize(),
+                    "maxMetaspaceSize", jvm.getMaxMetaspaceSize()));
         }
-
-        // Connection pool changes
-        if (rec.getConnectionPool() != null) {
-            content.append("### Connection Pool (HikariCP)\n\n");
-            content.append("| Parameter | Before | After |\n");
-            content.append("|-----------|---------|-------|\n");
-            content.append(String.format("| Max Pool Size | `5` | `%s` |\n", rec.getConnectionPool().getMaximumPoolSize()));
-            content.append(String.format("| Min Idle | `2` | `%s` |\n\n", rec.getConnectionPool().getMinimumIdle()));
+        model.put("jvmXms", jvm != null ? jvm.getXms() : "256m");
+        model.put("jvmXmx", jvm != null ? jvm.getXmx() : "512m");
+        model.put("jvmGcType", jvm != null && jvm.getGcType() != null ? jvm.getGcType() : "G1GC");
+        // Set only when the analyzer tuned the JVM from GC telemetry; templates fall back to JAVA_OPTS
+        model.put("jvmToolOptions", jvm != null ? jvm.getJavaToolOptions() : null);
+
+        ResourceRecommendation.ThreadPoolConfig threadPool = rec.getThreadPool();
+        if (threadPool != null) {
+            model.put("threadPool", fields(
+                    "maxThreads", threadPool.getMaxThreads(),
+                    "minSpareThreads", threadPool.getMinSpareThreads()));
         }
 
-        // Cost analysis
-        if (rec.getCostAnalysis() != null) {
-            content.append("## 💰 Cost Analysis\n\n");
-            content.append(String.format("- **Current Monthly Cost**: $%.2f\n", rec.getCostAnalysis().getCurrentMonthlyCost()));
-            content.append(String.format("- **Recommended Monthly Cost**: $%.2f\n", rec.getCostAnalysis().getRecommendedMonthlyCost()));
-            content.append(String.format("- **Monthly Savings**: $%.2f (%d%%)\n",
-                rec.getCostAnalysis().getMonthlySavings(),
-                rec.getCostAnalysis().getSavingsPercentage()));
-            content.append(String.format("- **Annual Savings**: $%.2f\n\n", rec.getCostAnalysis().getAnnualSavings()));
+        ResourceRecommendation.ConnectionPoolConfig pool = rec.getConnectionPool();
+        if (pool != null) {
+            model.put("connectionPool", fields(
+                    "maximumPoolSize", pool.getMaximumPoolSize(),
+                    "minimumIdle", pool.getMinimumIdle(),
+                    "connectionTimeout", pool.getConnectionTimeout(),
+                    "idleTimeout", pool.getIdleTimeout()));
         }
 
-        // Expected impact
-        content.append("## 🚀 Expected Impact\n\n");
-        if (rec.getDetectedIssues() != null) {
-            if (rec.getDetectedIssues().containsKey("CPU Throttling")) {
-                content.append("- ✅ **Eliminate CPU throttling** - Faster response times\n");
-            }
-            if (rec.getDetectedIssues().containsKey("Memory Leak")) {
-                content.append("- ✅ **Prevent OOMKilled crashes** - Improved stability\n");
-            }
-            if (rec.getDetectedIssues().containsKey("Connection Pool Exhaustion")) {
-                content.append("- ✅ **Eliminate connection timeouts** - Better database performance\n");
-            }
+        ResourceRecommendation.CostAnalysis cost = rec.getCostAnalysis();
+        if (cost != null) {
+            model.put("costAnalysis", fields(
+                    "currentMonthlyCost", cost.getCurrentMonthlyCost(),
+                    "recommendedMonthlyCost", cost.getRecommendedMonthlyCost(),
+                    "monthlySavings", cost.getMonthlySavings(),
+                    "annualSavings", cost.getAnnualSavings(),
+                    "savingsPercentage", cost.getSavingsPercentage()));
         }
-        content.append("- ✅ **Optimized resource allocation** - Right-sized for workload\n");
-        content.append("- ✅ **Improved reliability** - Fewer crashes and errors\n\n");
 
-        // How to apply
-        content.append("## 📝 How to Apply\n\n");
-        content.append("### 1. Review Changes\n\n");
-        content.append("Review the generated files in this PR:\n");
-        content.append("- `k8s/deployment.yaml` - Kubernetes deployment with optimized resources\n");
-        content.append("- `src/main/resources/application.properties` - Spring Boot configuration\n");
-        content.append("- `helm/values.yaml` - Helm chart values\n\n");
-
-        content.append("### 2. Test\n\n");
-        content.append("```bash\n");
-        content.append("# Deploy to staging environment\n");
-        content.append("kubectl apply -f k8s/deployment.yaml\n\n");
-        content.append("# Run load tests\n");
-        content.append("# Monitor metrics\n");
-        content.append("```\n\n");
-
-        content.append("### 3. Merge & Deploy\n\n");
-        content.append("After validation, merge this PR to apply optimizations to production.\n\n");
-
-        content.append("---\n\n");
-        content.append("**Generated by [SaveYourMoney](https://github.com/saveyourmoney) - AI-Powered Resource Optimization** 🚀\n");
-
-        return GeneratedArtifacts.GeneratedFile.builder()
-                .fileName("README.md")
-                .filePath("README.md")
-                .content(content.toString())
-                .fileType(GeneratedArtifacts.FileType.README)
-                .build();
+        Map<String, String> issues = rec.getDetectedIssues() != null ? rec.getDetectedIssues() : Map.of();
+        List<Map<String, Object>> issueList = new ArrayList<>();
+        issues.forEach((issue, description) -> issueList.add(fields("key", issue, "value", description)));
+        model.put("detectedIssues", issueList);
+        model.put("hasDetectedIssues", !issueList.isEmpty());
+        model.put("cpuThrottling", issues.containsKey("CPU Throttling"));
+        model.put("memoryLeak", issues.containsKey("Memory Leak"));
+        model.put("connectionPoolExhaustion", issues.containsKey("Connection Pool Exhaustion"));
+        return model;
     }
 
-    /**
-     * Generate Azure Pipelines YAML
-     */
-    private GeneratedArtifacts.GeneratedFile generateAzurePipeline(ResourceRecommendation rec) {
-        String content = String.format("""
-# Azure DevOps Pipeline - %s
-# SaveYourMoney AI-Optimized Configuration
-
-trigger:
-  branches:
-    include:
-    - saveyourmoney/develop
-    - saveyourmoney/feature/*
-
-pool:
-  vmImage: 'ubuntu-latest'
-
-variables:
-  serviceName: %s
-  imageTag: $(Build.BuildId)
-
-stages:
-- stage: Build
-  displayName: 'Build Application'
-  jobs:
-  - job: Build
-    steps:
-    - task: Maven@3
-      inputs:
-        mavenPomFile: 'pom.xml'
-        goals: 'clean package'
-        options: '-DskipTests'
-
-    - task: Docker@2
-      displayName: 'Build Docker Image'
-      inputs:
-        command: build
-        repository: $(serviceName)
-        tags: $(imageTag)
-
-- stage: Deploy
-  displayName: 'Deploy to Kubernetes'
-  dependsOn: Build
-  jobs:
-  - deployment: Deploy
-    environment: 'production'
-    strategy:
-      runOnce:
-        deploy:
-          steps:
-          - task: KubernetesManifest@0
-            displayName: 'Deploy to Kubernetes'
-            inputs:
-              action: deploy
-              manifests: |
-                k8s/deployment.yaml
-""",
-                rec.getServiceName(),
-                rec.getServiceName()
-        );
+    private static Map<String, Object> fields(Object... keysAndValues) {
+        Map<String, Object> fields = new HashMap<>();
+        for (int i = 0; i < keysAndValues.length; i += 2) {
+            fields.put((String) keysAndValues[i], keysAndValues[i + 1]);
+        }
+        return fields;
+    }
 
-        return GeneratedArtifacts.GeneratedFile.builder()
-                .fileName("azure-pipelines.yml")
-                .filePath("azure-pipelines.yml")
-                .content(content)
-                .fileType(GeneratedArtifacts.FileType.AZURE_PIPELINE)
-                .build();
+    public record Artifact(String template, String filePath, GeneratedArtifacts.FileType fileType) {
     }
 }
@@ -0,0 +1,60 @@
+package com.hackathon.codegen.generator;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.Deflater;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * Writes rendered files as ZIP entries straight to an output stream.
+ *
+ * Templates render through one reused encoder into the deflater, so only
+ * the writer and deflate buffers are held, however many files pass through.
+ * The caller's stream is not closed.
+ */
+public class ZipArtifactWriter {
+
+    private final ZipOutputStream zip;
+    private final Writer text;
+
+    public ZipArtifactWriter(OutputStream out) {
+        this.zip = new ZipOutputStream(out, StandardCharsets.UTF_8);
+        // Entries are written by a single thread; keep deflate cheap so it does not become the bottleneck
+        this.zip.setLevel(Deflater.BEST_SPEED);
+        // Never closed: flushed at the end of each entry, closing it would close the stream
+        this.text = new OutputStreamWriter(zip, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Sink that adds each file as {@code <prefix><file path>}.
+     */
+    public ArtifactSink entries(String prefix) {
+        return (artifact, content) -> {
+            zip.putNextEntry(new ZipEntry(prefix + artifact.filePath()));
+            try {
+                content.writeTo(text);
+            } finally {
+                text.flush();
+                zip.closeEntry();
+            }
+        };
+    }
+
+    public void writeEntry(String name, byte[] bytes) throws IOException {
+        zip.putNextEntry(new ZipEntry(name));
+        zip.write(bytes);
+        zip.closeEntry();
+    }
+
+    /**
+     * Write the central directory; the underlying stream stays open.
+     */
+    public void finish() throws IOException {
+        text.flush();
+        zip.finish();
+    }
+}
@@ -0,0 +1,83 @@
+package com.hackathon.codegen.job;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+/**
+ * One queued generate-and-PR request. The recommendation is kept as JSON so
+ * a job can be picked up again after a restart.
+ */
+@Entity
+@Table(name = "generation_job", indexes = {
+        @Index(name = "idx_generation_job_due", columnList = "status, nextAttemptAt")
+})
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class GenerationJob {
+
+    @Id
+    private String id;
+
+    @Column(nullable = false)
+    private String serviceName;
+
+    @JsonIgnore
+    @Lob
+    @Column(nullable = false)
+    private String recommendationJson;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private Status status;
+
+    @Column(nullable = false)
+    private Integer attempts;
+
+    @Column(nullable = false)
+    private Integer maxAttempts;
+
+    /** When a queued job may run next; pushed back after each failed attempt. */
+    @Column(nullable = false)
+    private Instant nextAttemptAt;
+
+    @Column(nullable = false)
+    private Instant createdAt;
+
+    private Instant updatedAt;
+
+    @Column(length = 2000)
+    private String lastError;
+
+    private String azureDevOpsBranch;
+
+    @Column(length = 1000)
+    private String pullRequestUrl;
+
+    private String generationId;
+
+    private Boolean unchanged;
+
+    @JsonIgnore
+    @Version
+    private Long version;
+
+    public boolean isFinished() {
+        return status == Status.SUCCEEDED || status == Status.FAILED;
+    }
+
+    public enum Status {
+        QUEUED,
+        RUNNING,
+        SUCCEEDED,
+        /** All attempts used up. */
+        FAILED
+    }
+}
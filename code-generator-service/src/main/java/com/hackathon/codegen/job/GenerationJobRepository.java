@@ -0,0 +1,53 @@
+package com.hackathon.codegen.job;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.List;
+
+@Repository
+public interface GenerationJobRepository extends JpaRepository<GenerationJob, String> {
+
+    @Query("SELECT j.id FROM GenerationJob j WHERE j.status = :status AND j.nextAttemptAt <= :now " +
+           "ORDER BY j.nextAttemptAt")
+    List<String> findDue(@Param("status") GenerationJob.Status status,
+                         @Param("now") Instant now,
+                         Pageable page);
+
+    /**
+     * Move a job from {@code from} to {@code to} and count the attempt.
+     * Returns 0 when another worker claimed it first.
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE GenerationJob j SET j.status = :to, j.attempts = j.attempts + 1, " +
+           "j.updatedAt = :now, j.version = j.version + 1 " +
+           "WHERE j.id = :id AND j.status = :from")
+    int claim(@Param("id") String id,
+              @Param("from") GenerationJob.Status from,
+              @Param("to") GenerationJob.Status to,
+              @Param("now") Instant now);
+
+    /**
+     * Requeue jobs that were running when the service stopped.
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE GenerationJob j SET j.status = :to, j.nextAttemptAt = :now, j.updatedAt = :now, " +
+           "j.version = j.version + 1 WHERE j.status = :from")
+    int requeue(@Param("from") GenerationJob.Status from,
+                @Param("to") GenerationJob.Status to,
+                @Param("now") Instant now);
+
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM GenerationJob j WHERE j.status IN :statuses AND j.updatedAt < :before")
+    int deleteFinishedBefore(@Param("statuses") List<GenerationJob.Status> statuses,
+                             @Param("before") Instant before);
+}
@@ -0,0 +1,336 @@
+package com.hackathon.codegen.job;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hackathon.codegen.model.GeneratedArtifacts;
+import com.hackathon.codegen.service.CodeGenerationService;
+import com.hackathon.recommendation.ResourceRecommendation;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs generate-and-PR requests in the background.
+ *
+ * A request is stored as a QUEUED job and answered at once. A dispatcher
+ * thread claims due jobs while a worker slot is free, so at most
+ * {@code codegen.jobs.workers} run together whatever the request rate. A
+ * failed attempt is queued again after an exponential back-off with jitter
+ * until {@code max-attempts} is used up. Jobs live in the database, so
+ * queued jobs and jobs interrupted by a restart run after the next start.
+ * Callers poll the job or subscribe to its status as server-sent events.
+ */
+@Slf4j
+@Service
+public class GenerationJobService {
+
+    private static final List<GenerationJob.Status> FINISHED =
+            List.of(GenerationJob.Status.SUCCEEDED, GenerationJob.Status.FAILED);
+    private static final Duration PURGE_INTERVAL = Duration.ofHours(1);
+
+    private final GenerationJobRepository repository;
+    private final CodeGenerationService codeGenerationService;
+    private final ObjectMapper objectMapper;
+    private final int maxAttempts;
+    private final Duration backoff;
+    private final Duration maxBackoff;
+    private final Duration pollInterval;
+    private final Duration retention;
+
+    private final ExecutorService workers;
+    private final Semaphore freeWorkers;
+    private final Map<String, List<SseEmitter>> subscribers = new ConcurrentHashMap<>();
+    private final Object wakeup = new Object();
+    private boolean wakeupPending;
+    private volatile boolean running;
+    private Thread dispatcher;
+    private Instant lastPurge = Instant.EPOCH;
+
+    public GenerationJobService(GenerationJobRepository repository,
+                                CodeGenerationService codeGenerationService,
+                                ObjectMapper objectMapper,
+                                @Value("${codegen.jobs.workers:2}") int workers,
+                                @Value("${codegen.jobs.max-attempts:5}") int maxAttempts,
+                                @Value("${codegen.jobs.backoff:5s}") Duration backoff,
+                                @Value("${codegen.jobs.max-backoff:5m}") Duration maxBackoff,
+                                @Value("${codegen.jobs.poll-interval:2s}") Duration pollInterval,
+                                @Value("${codegen.jobs.retention:7d}") Duration retention) {
+        this.repository = repository;
+        this.codeGenerationService = codeGenerationService;
+        this.objectMapper = objectMapper;
+        this.maxAttempts = Math.max(1, maxAttempts);
+        this.backoff = backoff;
+        this.maxBackoff = maxBackoff;
+        this.pollInterval = pollInterval;
+        this.retention = retention;
+
+        int poolSize = Math.max(1, workers);
+        this.freeWorkers = new Semaphore(poolSize);
+        AtomicInteger threadCount = new AtomicInteger();
+        this.workers = Executors.newFixedThreadPool(poolSize, runnable -> {
+            Thread thread = new Thread(runnable, "generation-job-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PostConstruct
+    void start() {
+        int requeued = repository.requeue(GenerationJob.Status.RUNNING, GenerationJob.Status.QUEUED,
+                Instant.now());
+        if (requeued > 0) {
+            log.info("Requeued {} generation jobs interrupted by the last shutdown", requeued);
+        }
+        running = true;
+        dispatcher = new Thread(this::dispatchLoop, "generation-job-dispatcher");
+        dispatcher.setDaemon(true);
+        dispatcher.start();
+    }
+
+    @PreDestroy
+    void stop() throws InterruptedException {
+        running = false;
+        if (dispatcher != null) {
+            dispatcher.interrupt();
+        }
+        workers.shutdown();
+        if (!workers.awaitTermination(10, TimeUnit.SECONDS)) {
+            // Still-running jobs stay RUNNING and are requeued on the next start
+            workers.shutdownNow();
+        }
+    }
+
+    /**
+     * Queue a generate-and-PR request and return the job without waiting for it.
+     */
+    public GenerationJob submit(ResourceRecommendation recommendation) {
+        if (recommendation == null || recommendation.getServiceName() == null) {
+            throw new IllegalArgumentException("serviceName is required");
+        }
+        String json;
+        try {
+            json = objectMapper.writeValueAsString(recommendation);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Recommendation cannot be serialized: " + e.getOriginalMessage(), e);
+        }
+
+        Instant now = Instant.now();
+        GenerationJob job = repository.save(GenerationJob.builder()
+                .id(UUID.randomUUID().toString())
+                .serviceName(recommendation.getServiceName())
+                .recommendationJson(json)
+                .status(GenerationJob.Status.QUEUED)
+                .attempts(0)
+                .maxAttempts(maxAttempts)
+                .nextAttemptAt(now)
+                .createdAt(now)
+                .updatedAt(now)
+                .build());
+        log.info("Queued generation job {} for {}", job.getId(), job.getServiceName());
+        wake();
+        return job;
+    }
+
+    public Optional<GenerationJob> find(String id) {
+        return repository.findById(id);
+    }
+
+    /**
+     * Stream the job's status: the current state first, then every change
+     * until it finishes.
+     */
+    public SseEmitter subscribe(GenerationJob job) {
+        SseEmitter emitter = new SseEmitter();
+        List<SseEmitter> emitters = subscribers.computeIfAbsent(job.getId(), id -> new CopyOnWriteArrayList<>());
+        emitters.add(emitter);
+        Runnable remove = () -> emitters.remove(emitter);
+        emitter.onCompletion(remove);
+        emitter.onTimeout(remove);
+        emitter.onError(error -> remove.run());
+
+        // Re-read after registering, so a change made in between is not lost
+        send(emitter, repository.findById(job.getId()).orElse(job));
+        return emitter;
+    }
+
+    private void dispatchLoop() {
+        while (running) {
+            try {
+                dispatchDue();
+                purgeFinished();
+                synchronized (wakeup) {
+                    if (!wakeupPending) {
+                        wakeup.wait(pollInterval.toMillis());
+                    }
+                    wakeupPending = false;
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                log.warn("Generation job dispatch failed: {}", e.getMessage());
+                try {
+                    Thread.sleep(pollInterval.toMillis());
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * Claim as many due jobs as there are free workers.
+     */
+    private void dispatchDue() {
+        int free = freeWorkers.availablePermits();
+        if (free == 0) {
+            return;
+        }
+        for (String id : repository.findDue(GenerationJob.Status.QUEUED, Instant.now(), PageRequest.of(0, free))) {
+            if (!freeWorkers.tryAcquire()) {
+                return;
+            }
+            int claimed = repository.claim(id, GenerationJob.Status.QUEUED, GenerationJob.Status.RUNNING,
+                    Instant.now());
+            if (claimed == 0) {
+                freeWorkers.release();
+                continue;
+            }
+            workers.execute(() -> {
+                try {
+                    execute(id);
+                } finally {
+                    freeWorkers.release();
+                    wake();
+                }
+            });
+        }
+    }
+
+    private void execute(String id) {
+        GenerationJob job = repository.findById(id).orElse(null);
+        if (job == null) {
+            return;
+        }
+        publish(job);
+        log.info("Running generation job {} for {} (attempt {}/{})",
+                id, job.getServiceName(), job.getAttempts(), job.getMaxAttempts());
+
+        GeneratedArtifacts result;
+        try {
+            ResourceRecommendation recommendation =
+                    objectMapper.readValue(job.getRecommendationJson(), ResourceRecommendation.class);
+            result = codeGenerationService.generateAndDeploy(recommendation, true);
+        } catch (JsonProcessingException e) {
+            // Retrying cannot fix a payload that no longer parses
+            job.setAttempts(job.getMaxAttempts());
+            result = GeneratedArtifacts.builder().success(false).errorMessage(e.getOriginalMessage()).build();
+        } catch (RuntimeException e) {
+            result = GeneratedArtifacts.builder().success(false).errorMessage(e.getMessage()).build();
+        }
+
+        Instant now = Instant.now();
+        job.setUpdatedAt(now);
+        if (Boolean.TRUE.equals(result.getSuccess())) {
+            job.setStatus(GenerationJob.Status.SUCCEEDED);
+            job.setLastError(null);
+            job.setAzureDevOpsBranch(result.getAzureDevOpsBranch());
+            job.setPullRequestUrl(result.getPullRequestUrl());
+            job.setGenerationId(result.getGenerationId());
+            job.setUnchanged(result.getUnchanged());
+            log.info("Generation job {} for {} succeeded: {}", id, job.getServiceName(), result.getPullRequestUrl());
+        } else {
+            job.setLastError(truncate(result.getErrorMessage()));
+            if (job.getAttempts() >= job.getMaxAttempts()) {
+                job.setStatus(GenerationJob.Status.FAILED);
+                log.error("Generation job {} for {} failed after {} attempts: {}",
+                        id, job.getServiceName(), job.getAttempts(), result.getErrorMessage());
+            } else {
+                Duration delay = backoff(job.getAttempts());
+                job.setStatus(GenerationJob.Status.QUEUED);
+                job.setNextAttemptAt(now.plus(delay));
+                log.warn("Generation job {} for {} failed (attempt {}/{}), retrying in {} ms: {}",
+                        id, job.getServiceName(), job.getAttempts(), job.getMaxAttempts(), delay.toMillis(),
+                        result.getErrorMessage());
+            }
+        }
+        publish(repository.save(job));
+    }
+
+    /**
+     * Exponential back-off capped at {@code max-backoff}, with the upper half
+     * jittered so jobs that failed together do not retry together.
+     */
+    Duration backoff(int attempt) {
+        long base = backoff.toMillis() << Math.min(attempt - 1, 20);
+        long capped = Math.min(base, maxBackoff.toMillis());
+        return Duration.ofMillis(capped / 2 + ThreadLocalRandom.current().nextLong(capped / 2 + 1));
+    }
+
+    private void purgeFinished() {
+        Instant now = Instant.now();
+        if (lastPurge.plus(PURGE_INTERVAL).isAfter(now)) {
+            return;
+        }
+        lastPurge = now;
+        int removed = repository.deleteFinishedBefore(FINISHED, now.minus(retention));
+        if (removed > 0) {
+            log.info("Removed {} finished generation jobs older than {}", removed, retention);
+        }
+    }
+
+    private void wake() {
+        synchronized (wakeup) {
+            wakeupPending = true;
+            wakeup.notifyAll();
+        }
+    }
+
+    private void publish(GenerationJob job) {
+        List<SseEmitter> emitters = subscribers.get(job.getId());
+        if (emitters == null) {
+            return;
+        }
+        emitters.forEach(emitter -> send(emitter, job));
+        if (job.isFinished()) {
+            subscribers.remove(job.getId());
+        }
+    }
+
+    private static void send(SseEmitter emitter, GenerationJob job) {
+        try {
+            emitter.send(SseEmitter.event().name("status").data(job));
+            if (job.isFinished()) {
+                emitter.complete();
+            }
+        } catch (IOException | IllegalStateException e) {
+            // Subscriber went away; its error callback unregisters it
+            log.debug("Dropping job status subscriber for {}: {}", job.getId(), e.getMessage());
+        }
+    }
+
+    private static String truncate(String message) {
+        return message != null && message.length() > 2000 ? message.substring(0, 2000) : message;
+    }
+}
@@ -20,6 +20,11 @@ public class GeneratedArtifacts {
     private String commitMessage;
     private Boolean success;
     private String errorMessage;
+    /** Stored generation these files belong to. */
+    private String generationId;
+    private String inputHash;
+    /** True when the inputs matched the last generation and it was returned as is. */
+    private Boolean unchanged;
 
     @Data
     @Builder
@@ -38,6 +43,9 @@ public class GeneratedArtifacts {
         HELM_VALUES,
         README,
         DOCKERFILE,
-        AZURE_PIPELINE
+        AZURE_PIPELINE,
+        KUBERNETES_PATCH,
+        KUSTOMIZATION,
+        HELM_VALUES_OVERRIDE
     }
 }
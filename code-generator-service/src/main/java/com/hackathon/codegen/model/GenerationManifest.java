@@ -0,0 +1,42 @@
+package com.hackathon.codegen.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * One stored generation: which content-addressed objects make up each file
+ * and the input hash they were generated from.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class GenerationManifest {
+
+    private String serviceName;
+    private String generationId;
+    private String inputHash;
+    private String createdAt;
+    /** Set only when a pull request was actually created for this generation. */
+    private String azureDevOpsBranch;
+    private String pullRequestUrl;
+    /** Objects this generation added to the store; the rest were already present. */
+    private Integer newObjects;
+    private List<StoredFile> files;
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class StoredFile {
+        private String fileName;
+        private String filePath;
+        private GeneratedArtifacts.FileType fileType;
+        private String sha256;
+        private Long size;
+    }
+}
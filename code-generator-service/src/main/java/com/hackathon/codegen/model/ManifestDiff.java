@@ -0,0 +1,49 @@
+package com.hackathon.codegen.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Field-level changes between the current manifests and a recommendation,
+ * and the minimal patch files that apply them.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ManifestDiff {
+
+    private String serviceName;
+    private List<FieldChange> changes;
+    /** Patch files; empty when nothing changes. */
+    private List<GeneratedArtifacts.GeneratedFile> files;
+    private String azureDevOpsBranch;
+    private String pullRequestUrl;
+
+    public boolean isUnchanged() {
+        return changes == null || changes.isEmpty();
+    }
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class FieldChange {
+        /** Manifest the field belongs to, e.g. {@code deployment} or {@code helm-values}. */
+        private String manifest;
+        /** Path of the field; list items are addressed by name, e.g. {@code containers[name=api]}. */
+        private String path;
+        private Operation operation;
+        private String currentValue;
+        private String recommendedValue;
+    }
+
+    public enum Operation {
+        ADD,
+        REPLACE
+    }
+}
@@ -0,0 +1,24 @@
+package com.hackathon.codegen.model;
+
+import com.hackathon.recommendation.ResourceRecommendation;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * A recommendation together with the manifests currently deployed, as YAML
+ * text. Either manifest may be omitted.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ManifestDiffRequest {
+
+    private ResourceRecommendation recommendation;
+    /** Kubernetes manifest containing the service's Deployment; other documents are ignored. */
+    private String currentDeployment;
+    /** Helm values.yaml of the service's chart. */
+    private String currentHelmValues;
+}
@@ -0,0 +1,49 @@
+package com.hackathon.codegen.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Outcome of committing many services' artifacts to Azure DevOps.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class RolloutReport {
+
+    private Mode mode;
+    /** Commit on the develop branch the feature branches start from. */
+    private String baseCommitId;
+    private List<PullRequestResult> pullRequests;
+    /** Services skipped because their inputs match the last generation that got a PR. */
+    private List<String> unchanged;
+    /** Services that could not be generated or were rejected before any call. */
+    private List<String> rejected;
+    private Long durationMs;
+    private String error;
+
+    public enum Mode {
+        /** One branch, one push and one pull request for all services. */
+        SINGLE_PR,
+        /** A branch, push and pull request per service, run with bounded concurrency. */
+        PER_SERVICE
+    }
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class PullRequestResult {
+        private List<String> services;
+        private String branch;
+        private String commitId;
+        private String pullRequestUrl;
+        private Boolean success;
+        private String errorMessage;
+    }
+}
@@ -0,0 +1,284 @@
+package com.hackathon.codegen.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.hackathon.codegen.generator.FileGeneratorService;
+import com.hackathon.codegen.generator.ZipArtifactWriter;
+import com.hackathon.recommendation.BatchGenerationReport;
+import com.hackathon.recommendation.RecommendationGenerator;
+import com.hackathon.recommendation.ResourceRecommendation;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Pattern;
+
+/**
+ * Generates artifacts for many services in one request.
+ *
+ * Recommendations are pulled from the input one at a time and templates
+ * render straight into the output, so no file content is held as a string.
+ * For a ZIP the calling thread renders into the deflater itself: a single
+ * compressed stream is sequential anyway and rendering is cheap next to
+ * deflate. For a directory tree the renders run on a pool sized to the
+ * available cores with at most {@code 2 x parallelism} services in flight,
+ * each worker writing its own files. Memory stays bounded however long the
+ * input is.
+ */
+@Slf4j
+@Service
+public class BatchGenerationService implements RecommendationGenerator {
+
+    static final String REPORT_ENTRY = "batch-report.json";
+    private static final Pattern SERVICE_NAME = Pattern.compile("[A-Za-z0-9][A-Za-z0-9._-]{0,127}");
+
+    private final FileGeneratorService fileGenerator;
+    private final ObjectMapper reportMapper;
+    private final ExecutorService executor;
+    private final int parallelism;
+    private final int maxServices;
+    private final Path outputRoot;
+
+    public BatchGenerationService(FileGeneratorService fileGenerator,
+                                  ObjectMapper objectMapper,
+                                  @Value("${codegen.batch.parallelism:0}") int parallelism,
+                                  @Value("${codegen.batch.max-services:5000}") int maxServices,
+                                  @Value("${codegen.output-dir:./output}") String outputRoot) {
+        this.fileGenerator = fileGenerator;
+        this.reportMapper = objectMapper.copy().enable(SerializationFeature.INDENT_OUTPUT);
+        this.parallelism = parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+        this.maxServices = maxServices;
+        this.outputRoot = Path.of(outputRoot);
+
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = Executors.newFixedThreadPool(this.parallelism, runnable -> {
+            Thread thread = new Thread(runnable, "batch-generate-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Render every recommendation and write the files plus
+     * {@value #REPORT_ENTRY} as one ZIP, entries under {@code <service>/}.
+     */
+    public BatchGenerationReport generateZip(Iterator<ResourceRecommendation> recommendations,
+                                             OutputStream out) throws IOException {
+        ZipArtifactWriter zip = new ZipArtifactWriter(out);
+
+        BatchGenerationReport report = run(recommendations, false, recommendation ->
+                fileGenerator.writeArtifacts(recommendation, zip.entries(recommendation.getServiceName() + "/")));
+
+        zip.writeEntry(REPORT_ENTRY, reportMapper.writeValueAsBytes(report));
+        zip.finish();
+        return report;
+    }
+
+    /**
+     * Render every recommendation into one tree,
+     * {@code <output-dir>/batch-<timestamp>/<service>/<file path>}.
+     */
+    public BatchGenerationReport generateToDirectory(Iterator<ResourceRecommendation> recommendations)
+            throws IOException {
+        String timestamp = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss-SSS"));
+        Path batchDir = outputRoot.resolve("batch-" + timestamp);
+        Files.createDirectories(batchDir);
+
+        BatchGenerationReport report = run(recommendations, true, recommendation -> {
+            Path serviceDir = batchDir.resolve(recommendation.getServiceName());
+            return fileGenerator.writeArtifacts(recommendation, (artifact, content) -> {
+                Path target = serviceDir.resolve(artifact.filePath());
+                Files.createDirectories(target.getParent());
+                try (Writer writer = Files.newBufferedWriter(target)) {
+                    content.writeTo(writer);
+                }
+            });
+        });
+
+        report.setOutputDirectory(batchDir.toString());
+        Files.write(batchDir.resolve(REPORT_ENTRY), reportMapper.writeValueAsBytes(report));
+        return report;
+    }
+
+    /**
+     * Directory output, for callers in the same JVM.
+     */
+    @Override
+    public BatchGenerationReport generate(Iterator<ResourceRecommendation> recommendations) throws IOException {
+        return generateToDirectory(recommendations);
+    }
+
+    /**
+     * Read and validate the input, rendering each service either inline on
+     * the calling thread or on the pool. Inline, an I/O failure means the
+     * output is gone and aborts the batch; on the pool it only fails its service.
+     */
+    private BatchGenerationReport run(Iterator<ResourceRecommendation> recommendations,
+                                      boolean parallel, Renderer renderer) throws IOException {
+        long started = System.nanoTime();
+        String batchId = Long.toHexString(System.currentTimeMillis());
+        CompletionService<Outcome> completions = new ExecutorCompletionService<>(executor);
+        List<BatchGenerationReport.ServiceResult> results = new ArrayList<>();
+        Set<String> seen = new HashSet<>();
+        int window = parallelism * 2;
+        int inFlight = 0;
+        int read = 0;
+        String inputError = null;
+
+        try {
+            while (recommendations.hasNext()) {
+                if (read++ >= maxServices) {
+                    inputError = "Batch limited to " + maxServices + " services; the rest was not read";
+                    break;
+                }
+                ResourceRecommendation recommendation = recommendations.next();
+                String invalid = validate(recommendation, seen);
+                if (invalid != null) {
+                    results.add(failure(recommendation == null ? null : recommendation.getServiceName(), invalid));
+                    continue;
+                }
+                if (!parallel) {
+                    results.add(complete(renderInline(renderer, recommendation)));
+                    continue;
+                }
+                completions.submit(() -> render(renderer, recommendation));
+                if (++inFlight >= window) {
+                    results.add(complete(completions.take()));
+                    inFlight--;
+                }
+            }
+        } catch (RuntimeException e) {
+            // Malformed input: keep what was generated so far
+            inputError = "Invalid input: " + e.getMessage();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Batch generation interrupted", e);
+        }
+
+        try {
+            for (; inFlight > 0; inFlight--) {
+                results.add(complete(completions.take()));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Batch generation interrupted", e);
+        }
+
+        int succeeded = (int) results.stream().filter(r -> Boolean.TRUE.equals(r.getSuccess())).count();
+        long durationMs = (System.nanoTime() - started) / 1_000_000;
+        log.info("Batch {}: {} services, {} succeeded, {} failed in {} ms on {} threads",
+                batchId, results.size(), succeeded, results.size() - succeeded, durationMs, parallel ? parallelism : 1);
+
+        return BatchGenerationReport.builder()
+                .batchId(batchId)
+                .total(results.size())
+                .succeeded(succeeded)
+                .failed(results.size() - succeeded)
+                .durationMs(durationMs)
+                .inputError(inputError)
+                .results(results)
+                .build();
+    }
+
+    private static Outcome render(Renderer renderer, ResourceRecommendation recommendation) {
+        try {
+            return new Outcome(recommendation.getServiceName(), renderer.render(recommendation), null);
+        } catch (Exception e) {
+            return new Outcome(recommendation.getServiceName(), 0, e);
+        }
+    }
+
+    private static Outcome renderInline(Renderer renderer, ResourceRecommendation recommendation)
+            throws IOException {
+        try {
+            return new Outcome(recommendation.getServiceName(), renderer.render(recommendation), null);
+        } catch (IOException e) {
+            throw e;
+        } catch (Exception e) {
+            return new Outcome(recommendation.getServiceName(), 0, e);
+        }
+    }
+
+    private static BatchGenerationReport.ServiceResult complete(Future<Outcome> future) throws InterruptedException {
+        try {
+            return complete(future.get());
+        } catch (ExecutionException e) {
+            return failure(null, String.valueOf(e.getCause()));
+        }
+    }
+
+    private static BatchGenerationReport.ServiceResult complete(Outcome outcome) {
+        if (outcome.error() != null) {
+            log.warn("Batch generation failed for {}: {}", outcome.serviceName(), outcome.error().getMessage());
+            return failure(outcome.serviceName(), outcome.error().getMessage());
+        }
+        return BatchGenerationReport.ServiceResult.builder()
+                .serviceName(outcome.serviceName())
+                .success(true)
+                .fileCount(outcome.fileCount())
+                .build();
+    }
+
+    /**
+     * Service names become path segments, so only plain names are accepted
+     * and each may appear once per batch.
+     */
+    private static String validate(ResourceRecommendation recommendation, Set<String> seen) {
+        if (recommendation == null || recommendation.getServiceName() == null) {
+            return "serviceName is required";
+        }
+        String name = recommendation.getServiceName();
+        if (!SERVICE_NAME.matcher(name).matches()) {
+            return "serviceName must match " + SERVICE_NAME.pattern();
+        }
+        if (!seen.add(name)) {
+            return "Duplicate serviceName in batch";
+        }
+        return null;
+    }
+
+    private static BatchGenerationReport.ServiceResult failure(String serviceName, String message) {
+        return BatchGenerationReport.ServiceResult.builder()
+                .serviceName(serviceName)
+                .success(false)
+                .fileCount(0)
+                .errorMessage(message)
+                .build();
+    }
+
+    /**
+     * Writes one service's files and returns how many were written.
+     */
+    @FunctionalInterface
+    private interface Renderer {
+        int render(ResourceRecommendation recommendation) throws Exception;
+    }
+
+    private record Outcome(String serviceName, int fileCount, Exception error) {
+    }
+}
@@ -1,19 +1,22 @@
 package com.hackathon.codegen.service;
 
 import com.hackathon.codegen.azuredevops.AzureDevOpsService;
+import com.hackathon.codegen.diff.ManifestDiffService;
 import com.hackathon.codegen.generator.FileGeneratorService;
+import com.hackathon.codegen.generator.ZipArtifactWriter;
 import com.hackathon.codegen.model.GeneratedArtifacts;
-import com.hackathon.codegen.model.ResourceRecommendation;
+import com.hackathon.codegen.model.GenerationManifest;
+import com.hackathon.codegen.model.ManifestDiff;
+import com.hackathon.codegen.model.ManifestDiffRequest;
+import com.hackathon.codegen.store.ArtifactStore;
+import com.hackathon.recommendation.ResourceRecommendation;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 
 import java.io.IOException;
-import java.nio.file.Files;
-import java.nio.file.Path;
-import java.nio.file.Paths;
-import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
+import java.io.OutputStream;
+import java.util.Optional;
 
 @Slf4j
 @Service
@@ -22,19 +25,30 @@ public class CodeGenerationService {
 
     private final FileGeneratorService fileGenerator;
     private final AzureDevOpsService azureDevOpsService;
+    private final ArtifactStore artifactStore;
+    private final ManifestDiffService manifestDiffService;
 
     /**
-     * Generate configuration files and optionally create Azure DevOps PR
+     * Generate configuration files and optionally create Azure DevOps PR.
+     * When the inputs match the last stored generation, that generation is
+     * returned as unchanged and nothing is rendered, written or committed.
      */
     public GeneratedArtifacts generateAndDeploy(ResourceRecommendation recommendation, boolean createPR) {
         log.info("Starting code generation for service: {}", recommendation.getServiceName());
 
         try {
-            // Step 1: Generate all configuration files
-            GeneratedArtifacts artifacts = fileGenerator.generateArtifacts(recommendation);
+            // Step 1: Skip everything if nothing changed since the last generation
+            String inputHash = fileGenerator.inputHash(recommendation);
+            Optional<GeneratedArtifacts> unchanged = findUnchanged(recommendation.getServiceName(), inputHash, createPR);
+            if (unchanged.isPresent()) {
+                log.info("Inputs for {} unchanged since generation {}, skipping",
+                        recommendation.getServiceName(), unchanged.get().getGenerationId());
+                return unchanged.get();
+            }
 
-            // Step 2: Save files locally (for demo/testing)
-            saveFilesLocally(artifacts);
+            // Step 2: Generate all configuration files
+            GeneratedArtifacts artifacts = fileGenerator.generateArtifacts(recommendation);
+            artifacts.setInputHash(inputHash);
 
             // Step 3: Create Azure DevOps branch and commit (if configured)
             if (createPR && azureDevOpsService.isConfigured()) {
@@ -51,7 +65,11 @@ public class CodeGenerationService {
                 artifacts.setPullRequestUrl("Azure DevOps PAT not configured - files saved locally");
             }
 
+            // Step 5: Record the generation last, so a failed PR is retried next time
+            storeGeneration(artifacts, inputHash);
+
             artifacts.setSuccess(true);
+            artifacts.setUnchanged(false);
             log.info("Code generation completed successfully for {}", recommendation.getServiceName());
 
             return artifacts;
@@ -68,30 +86,79 @@ public class CodeGenerationService {
     }
 
     /**
-     * Save generated files to local filesystem (for testing/demo)
+     * The last generation, if it was made from the same inputs. A request for
+     * a PR only matches a generation that got one.
      */
-    private void saveFilesLocally(GeneratedArtifacts artifacts) {
-        log.info("Saving generated files locally for service: {}", artifacts.getServiceName());
-
-        String timestamp = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss"));
-        String outputDir = String.format("./output/%s/%s", artifacts.getServiceName(), timestamp);
-
+    private Optional<GeneratedArtifacts> findUnchanged(String serviceName, String inputHash, boolean createPR) {
+        Optional<GenerationManifest> previous = artifactStore.latest(serviceName)
+                .filter(manifest -> manifest.getInputHash().equals(inputHash))
+                .filter(manifest -> !createPR || manifest.getPullRequestUrl() != null);
+        if (previous.isEmpty()) {
+            return Optional.empty();
+        }
         try {
-            Path basePath = Paths.get(outputDir);
-            Files.createDirectories(basePath);
+            GeneratedArtifacts artifacts = artifactStore.load(previous.get());
+            artifacts.setSuccess(true);
+            artifacts.setUnchanged(true);
+            return Optional.of(artifacts);
+        } catch (IOException e) {
+            log.warn("Stored generation {} unreadable, regenerating: {}", previous.get().getGenerationId(), e.getMessage());
+            return Optional.empty();
+        }
+    }
 
-            for (GeneratedArtifacts.GeneratedFile file : artifacts.getFiles()) {
-                Path filePath = basePath.resolve(file.getFileName());
-                Files.writeString(filePath, file.getContent());
+    /**
+     * Save the files to the artifact store; a store failure does not fail the generation.
+     */
+    private void storeGeneration(GeneratedArtifacts artifacts, String inputHash) {
+        if (!artifactStore.accepts(artifacts.getServiceName())) {
+            log.warn("Not storing artifacts for unsupported service name '{}'", artifacts.getServiceName());
+            return;
+        }
+        try {
+            GenerationManifest manifest = artifactStore.save(artifacts, inputHash);
+            artifacts.setGenerationId(manifest.getGenerationId());
+        } catch (IOException e) {
+            log.error("Error storing artifacts for {}: {}", artifacts.getServiceName(), e.getMessage(), e);
+        }
+    }
 
-                log.debug("Saved file: {}", filePath);
-            }
+    /**
+     * Diff the current manifests against the recommendation and optionally
+     * open a PR that contains only the patch files. Nothing is committed
+     * when no managed field changes.
+     */
+    public ManifestDiff generatePatch(ManifestDiffRequest request, boolean createPR) {
+        ManifestDiff diff = manifestDiffService.diff(request);
+        if (!createPR || diff.isUnchanged()) {
+            return diff;
+        }
+        if (!azureDevOpsService.isConfigured()) {
+            log.warn("Azure DevOps not configured. Patch generated only.");
+            diff.setPullRequestUrl("Azure DevOps PAT not configured - patch not committed");
+            return diff;
+        }
 
-            log.info("All files saved to: {}", outputDir);
+        GeneratedArtifacts patch = GeneratedArtifacts.builder()
+                .serviceName(diff.getServiceName())
+                .files(diff.getFiles())
+                .build();
+        String branchName = azureDevOpsService.createBranchAndCommit(patch);
+        diff.setAzureDevOpsBranch(branchName);
+        diff.setPullRequestUrl(azureDevOpsService.createPullRequest(branchName, patch));
+        log.info("Patch Pull Request created for {}: {}", diff.getServiceName(), diff.getPullRequestUrl());
+        return diff;
+    }
 
-        } catch (IOException e) {
-            log.error("Error saving files locally: {}", e.getMessage(), e);
-        }
+    /**
+     * Write the generated files as a ZIP to the given stream, rendering each
+     * file into its entry. The stream is not closed.
+     */
+    public void writeZip(ResourceRecommendation recommendation, OutputStream out) throws IOException {
+        ZipArtifactWriter zip = new ZipArtifactWriter(out);
+        int files = fileGenerator.writeArtifacts(recommendation, zip.entries(""));
+        zip.finish();
+        log.info("Streamed {} files for {} as ZIP", files, recommendation.getServiceName());
     }
 
     /**
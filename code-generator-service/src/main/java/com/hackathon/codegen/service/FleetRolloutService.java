@@ -0,0 +1,142 @@
+package com.hackathon.codegen.service;
+
+import com.hackathon.codegen.azuredevops.AzureDevOpsService;
+import com.hackathon.codegen.generator.FileGeneratorService;
+import com.hackathon.codegen.model.GeneratedArtifacts;
+import com.hackathon.codegen.model.GenerationManifest;
+import com.hackathon.codegen.model.RolloutReport;
+import com.hackathon.codegen.store.ArtifactStore;
+import com.hackathon.recommendation.ResourceRecommendation;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Generates artifacts for many services and opens pull requests for them
+ * through {@link AzureDevOpsService#rollout}, either as one multi-service
+ * PR or one PR per service.
+ *
+ * Services whose inputs match their last generation that got a PR are
+ * skipped. A service's generation is stored only once its PR exists, so a
+ * failed push is retried by the next rollout.
+ */
+@Slf4j
+@Service
+public class FleetRolloutService {
+
+    private final FileGeneratorService fileGenerator;
+    private final ArtifactStore artifactStore;
+    private final AzureDevOpsService azureDevOpsService;
+    private final int maxServices;
+
+    public FleetRolloutService(FileGeneratorService fileGenerator,
+                               ArtifactStore artifactStore,
+                               AzureDevOpsService azureDevOpsService,
+                               @Value("${codegen.batch.max-services:5000}") int maxServices) {
+        this.fileGenerator = fileGenerator;
+        this.artifactStore = artifactStore;
+        this.azureDevOpsService = azureDevOpsService;
+        this.maxServices = maxServices;
+    }
+
+    public RolloutReport rollout(Iterator<ResourceRecommendation> recommendations, RolloutReport.Mode mode) {
+        List<GeneratedArtifacts> changed = new ArrayList<>();
+        Map<String, String> inputHashes = new HashMap<>();
+        List<String> unchanged = new ArrayList<>();
+        List<String> rejected = new ArrayList<>();
+        Set<String> seen = new HashSet<>();
+        String inputError = null;
+
+        try {
+            int read = 0;
+            while (recommendations.hasNext()) {
+                if (read++ >= maxServices) {
+                    inputError = "Rollout limited to " + maxServices + " services; the rest was not read";
+                    break;
+                }
+                ResourceRecommendation recommendation = recommendations.next();
+                String serviceName = recommendation == null ? null : recommendation.getServiceName();
+                if (!artifactStore.accepts(serviceName) || !seen.add(serviceName)) {
+                    rejected.add(serviceName);
+                    continue;
+                }
+                String inputHash = fileGenerator.inputHash(recommendation);
+                if (hasPullRequest(serviceName, inputHash)) {
+                    unchanged.add(serviceName);
+                    continue;
+                }
+                try {
+                    GeneratedArtifacts artifacts = fileGenerator.generateArtifacts(recommendation);
+                    artifacts.setInputHash(inputHash);
+                    changed.add(artifacts);
+                    inputHashes.put(serviceName, inputHash);
+                } catch (RuntimeException e) {
+                    log.warn("Rollout generation failed for {}: {}", serviceName, e.getMessage());
+                    rejected.add(serviceName);
+                }
+            }
+        } catch (RuntimeException e) {
+            // Malformed input: roll out what was read so far
+            inputError = "Invalid input: " + e.getMessage();
+        }
+
+        RolloutReport report;
+        if (changed.isEmpty()) {
+            report = RolloutReport.builder().mode(mode).pullRequests(List.of()).durationMs(0L).build();
+        } else if (!azureDevOpsService.isConfigured()) {
+            report = RolloutReport.builder().mode(mode).pullRequests(List.of()).durationMs(0L)
+                    .error("Azure DevOps PAT not configured - nothing committed").build();
+        } else {
+            report = azureDevOpsService.rollout(changed, mode);
+            record(report, changed, inputHashes);
+        }
+        report.setUnchanged(unchanged);
+        report.setRejected(rejected);
+        if (inputError != null) {
+            report.setError(report.getError() == null ? inputError : report.getError() + "; " + inputError);
+        }
+        return report;
+    }
+
+    private boolean hasPullRequest(String serviceName, String inputHash) {
+        Optional<GenerationManifest> previous = artifactStore.latest(serviceName);
+        return previous.isPresent()
+                && previous.get().getInputHash().equals(inputHash)
+                && previous.get().getPullRequestUrl() != null;
+    }
+
+    /**
+     * Store the generations that made it into a pull request.
+     */
+    private void record(RolloutReport report, List<GeneratedArtifacts> changed, Map<String, String> inputHashes) {
+        Map<String, RolloutReport.PullRequestResult> byService = new HashMap<>();
+        for (RolloutReport.PullRequestResult result : report.getPullRequests()) {
+            if (Boolean.TRUE.equals(result.getSuccess())) {
+                result.getServices().forEach(service -> byService.put(service, result));
+            }
+        }
+        for (GeneratedArtifacts artifacts : changed) {
+            RolloutReport.PullRequestResult result = byService.get(artifacts.getServiceName());
+            if (result == null) {
+                continue;
+            }
+            artifacts.setAzureDevOpsBranch(result.getBranch());
+            artifacts.setPullRequestUrl(result.getPullRequestUrl());
+            try {
+                artifactStore.save(artifacts, inputHashes.get(artifacts.getServiceName()));
+            } catch (IOException e) {
+                log.error("Error storing artifacts for {}: {}", artifacts.getServiceName(), e.getMessage(), e);
+            }
+        }
+    }
+}
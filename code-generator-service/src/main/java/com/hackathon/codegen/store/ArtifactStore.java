@@ -0,0 +1,307 @@
+package com.hackathon.codegen.store;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.hackathon.codegen.model.GeneratedArtifacts;
+import com.hackathon.codegen.model.GenerationManifest;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * Content-addressed store for generated files.
+ *
+ * <pre>
+ * objects/ab/abcdef...            file content, named by its SHA-256
+ * manifests/&lt;service&gt;/&lt;id&gt;.json  one manifest per generation
+ * manifests/&lt;service&gt;/latest.json
+ * </pre>
+ *
+ * Identical content is stored once, whichever service or generation produced
+ * it. The latest manifest per service is also cached in memory, so checking
+ * whether inputs changed does not touch the disk. Only the newest
+ * {@code keep-generations} manifests are kept per service; objects no manifest
+ * refers to any more are removed by {@link #collectGarbage()}.
+ */
+@Slf4j
+@Component
+public class ArtifactStore {
+
+    static final String LATEST = "latest.json";
+    private static final Pattern SERVICE_NAME = Pattern.compile("[A-Za-z0-9][A-Za-z0-9._-]{0,127}");
+    private static final DateTimeFormatter GENERATION_ID = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss-SSS");
+
+    private final ObjectMapper manifestMapper;
+    private final Path objectsDir;
+    private final Path manifestsDir;
+    private final int keepGenerations;
+    /** Objects younger than this are never collected: a generation may be about to reference them. */
+    private final Duration gcGrace;
+    private final Map<String, GenerationManifest> latest = new ConcurrentHashMap<>();
+    private final Map<String, Object> locks = new ConcurrentHashMap<>();
+
+    public ArtifactStore(ObjectMapper objectMapper,
+                         @Value("${codegen.store.dir:./output/store}") String root,
+                         @Value("${codegen.store.keep-generations:10}") int keepGenerations,
+                         @Value("${codegen.store.gc-grace:10m}") Duration gcGrace) {
+        this.manifestMapper = objectMapper.copy().enable(SerializationFeature.INDENT_OUTPUT);
+        this.objectsDir = Path.of(root, "objects");
+        this.manifestsDir = Path.of(root, "manifests");
+        this.keepGenerations = Math.max(1, keepGenerations);
+        this.gcGrace = gcGrace;
+    }
+
+    /**
+     * Service names become directory names; anything else is not stored.
+     */
+    public boolean accepts(String serviceName) {
+        return serviceName != null && SERVICE_NAME.matcher(serviceName).matches();
+    }
+
+    public Optional<GenerationManifest> latest(String serviceName) {
+        if (!accepts(serviceName)) {
+            return Optional.empty();
+        }
+        GenerationManifest cached = latest.get(serviceName);
+        if (cached != null) {
+            return Optional.of(cached);
+        }
+        Path file = manifestsDir.resolve(serviceName).resolve(LATEST);
+        if (!Files.isRegularFile(file)) {
+            return Optional.empty();
+        }
+        try {
+            GenerationManifest manifest = manifestMapper.readValue(file.toFile(), GenerationManifest.class);
+            latest.putIfAbsent(serviceName, manifest);
+            return Optional.of(manifest);
+        } catch (IOException e) {
+            log.warn("Ignoring unreadable manifest {}: {}", file, e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Manifests kept for a service, newest first.
+     */
+    public List<GenerationManifest> history(String serviceName) throws IOException {
+        List<GenerationManifest> manifests = new ArrayList<>();
+        for (Path file : generations(serviceName)) {
+            manifests.add(0, manifestMapper.readValue(file.toFile(), GenerationManifest.class));
+        }
+        return manifests;
+    }
+
+    /**
+     * Store the files of one generation and make it the latest for its
+     * service. Objects are written first and the manifest last, so a
+     * manifest only ever refers to complete objects.
+     */
+    public GenerationManifest save(GeneratedArtifacts artifacts, String inputHash) throws IOException {
+        String serviceName = artifacts.getServiceName();
+        if (!accepts(serviceName)) {
+            throw new IllegalArgumentException("serviceName must match " + SERVICE_NAME.pattern());
+        }
+
+        List<GenerationManifest.StoredFile> files = new ArrayList<>();
+        int newObjects = 0;
+        for (GeneratedArtifacts.GeneratedFile file : artifacts.getFiles()) {
+            byte[] content = file.getContent().getBytes(StandardCharsets.UTF_8);
+            String sha256 = sha256(content);
+            if (writeObject(sha256, content)) {
+                newObjects++;
+            }
+            files.add(GenerationManifest.StoredFile.builder()
+                    .fileName(file.getFileName())
+                    .filePath(file.getFilePath())
+                    .fileType(file.getFileType())
+                    .sha256(sha256)
+                    .size((long) content.length)
+                    .build());
+        }
+
+        boolean pullRequest = artifacts.getAzureDevOpsBranch() != null;
+        GenerationManifest manifest = GenerationManifest.builder()
+                .serviceName(serviceName)
+                .inputHash(inputHash)
+                .createdAt(LocalDateTime.now().format(DateTimeFormatter.ISO_DATE_TIME))
+                .azureDevOpsBranch(pullRequest ? artifacts.getAzureDevOpsBranch() : null)
+                .pullRequestUrl(pullRequest ? artifacts.getPullRequestUrl() : null)
+                .newObjects(newObjects)
+                .files(files)
+                .build();
+
+        synchronized (locks.computeIfAbsent(serviceName, name -> new Object())) {
+            Path serviceDir = manifestsDir.resolve(serviceName);
+            Files.createDirectories(serviceDir);
+            String generationId = LocalDateTime.now().format(GENERATION_ID) + "-" + inputHash.substring(0, 8);
+            manifest.setGenerationId(generationId);
+            byte[] json = manifestMapper.writeValueAsBytes(manifest);
+            writeAtomically(serviceDir.resolve(generationId + ".json"), json);
+            writeAtomically(serviceDir.resolve(LATEST), json);
+            latest.put(serviceName, manifest);
+            prune(serviceName);
+        }
+
+        log.info("Stored generation {} for {}: {} files, {} new objects",
+                manifest.getGenerationId(), serviceName, files.size(), newObjects);
+        return manifest;
+    }
+
+    /**
+     * Rebuild the generated files of a stored generation.
+     */
+    public GeneratedArtifacts load(GenerationManifest manifest) throws IOException {
+        List<GeneratedArtifacts.GeneratedFile> files = new ArrayList<>();
+        for (GenerationManifest.StoredFile file : manifest.getFiles()) {
+            files.add(GeneratedArtifacts.GeneratedFile.builder()
+                    .fileName(file.getFileName())
+                    .filePath(file.getFilePath())
+                    .fileType(file.getFileType())
+                    .content(Files.readString(objectPath(file.getSha256()), StandardCharsets.UTF_8))
+                    .build());
+        }
+        return GeneratedArtifacts.builder()
+                .serviceName(manifest.getServiceName())
+                .files(files)
+                .generationId(manifest.getGenerationId())
+                .inputHash(manifest.getInputHash())
+                .azureDevOpsBranch(manifest.getAzureDevOpsBranch())
+                .pullRequestUrl(manifest.getPullRequestUrl())
+                .build();
+    }
+
+    /**
+     * Delete objects that no kept manifest refers to.
+     *
+     * @return the number of objects removed
+     */
+    public int collectGarbage() throws IOException {
+        if (!Files.isDirectory(objectsDir)) {
+            return 0;
+        }
+        Set<String> referenced = new HashSet<>();
+        if (Files.isDirectory(manifestsDir)) {
+            try (Stream<Path> manifests = Files.walk(manifestsDir)) {
+                for (Path file : (Iterable<Path>) manifests.filter(p -> p.toString().endsWith(".json"))::iterator) {
+                    manifestMapper.readValue(file.toFile(), GenerationManifest.class)
+                            .getFiles().forEach(f -> referenced.add(f.getSha256()));
+                }
+            }
+        }
+
+        FileTime cutoff = FileTime.from(Instant.now().minus(gcGrace));
+        int removed = 0;
+        try (Stream<Path> objects = Files.walk(objectsDir, 2)) {
+            for (Path object : (Iterable<Path>) objects.filter(Files::isRegularFile)::iterator) {
+                if (!referenced.contains(object.getFileName().toString())
+                        && Files.getLastModifiedTime(object).compareTo(cutoff) < 0) {
+                    Files.deleteIfExists(object);
+                    removed++;
+                }
+            }
+        }
+        log.info("Artifact store GC removed {} objects, {} still referenced", removed, referenced.size());
+        return removed;
+    }
+
+    /**
+     * @return true when the object was not in the store yet
+     */
+    private boolean writeObject(String sha256, byte[] content) throws IOException {
+        Path target = objectPath(sha256);
+        if (Files.exists(target)) {
+            // Refresh so a concurrent collection treats it as in use
+            Files.setLastModifiedTime(target, FileTime.from(Instant.now()));
+            return false;
+        }
+        Files.createDirectories(target.getParent());
+        Path temp = Files.createTempFile(target.getParent(), sha256, ".tmp");
+        try {
+            Files.write(temp, content);
+            Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE);
+            return true;
+        } catch (FileAlreadyExistsException e) {
+            return false; // written concurrently with the same content
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    private Path objectPath(String sha256) {
+        return objectsDir.resolve(sha256.substring(0, 2)).resolve(sha256);
+    }
+
+    /**
+     * Drop the oldest manifests beyond the retention limit. Generation ids
+     * start with a timestamp, so name order is age order.
+     */
+    private void prune(String serviceName) throws IOException {
+        List<Path> generations = generations(serviceName);
+        for (int i = 0; i < generations.size() - keepGenerations; i++) {
+            Files.deleteIfExists(generations.get(i));
+        }
+    }
+
+    /**
+     * Manifest files of a service, oldest first.
+     */
+    private List<Path> generations(String serviceName) throws IOException {
+        Path serviceDir = manifestsDir.resolve(serviceName);
+        if (!accepts(serviceName) || !Files.isDirectory(serviceDir)) {
+            return List.of();
+        }
+        try (Stream<Path> files = Files.list(serviceDir)) {
+            return files.filter(p -> p.toString().endsWith(".json"))
+                    .filter(p -> !p.getFileName().toString().equals(LATEST))
+                    .sorted()
+                    .toList();
+        }
+    }
+
+    private static void writeAtomically(Path target, byte[] content) throws IOException {
+        Path temp = Files.createTempFile(target.getParent(), target.getFileName().toString(), ".tmp");
+        try {
+            Files.write(temp, content);
+            try {
+                Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    static String sha256(byte[] content) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(content));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
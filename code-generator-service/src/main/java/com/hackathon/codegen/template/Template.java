@@ -0,0 +1,213 @@
+package com.hackathon.codegen.template;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A compiled template: literal text, variable lookups and sections, parsed
+ * once by {@link TemplateCompiler}. Rendering walks the instructions and
+ * appends to the caller's buffer without re-parsing anything.
+ *
+ * <p>Models are maps; a dotted name ({@code kubernetes.cpuRequest}) looks up
+ * its first segment in the innermost section that defines it and the rest
+ * inside that value. Missing or null values render as nothing.
+ */
+public final class Template {
+
+    private final String name;
+    private final String version;
+    private final Node[] nodes;
+
+    Template(String name, String version, List<Node> nodes) {
+        this.name = name;
+        this.version = version;
+        this.nodes = nodes.toArray(Node[]::new);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Hash of the source this template was compiled from.
+     */
+    public String getVersion() {
+        return version;
+    }
+
+    public void render(Map<String, ?> model, StringBuilder out) {
+        try {
+            render(nodes, new Scope(model, null), out, out);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e); // StringBuilder does not throw
+        }
+    }
+
+    public String render(Map<String, ?> model) {
+        StringBuilder out = new StringBuilder(4096);
+        render(model, out);
+        return out.toString();
+    }
+
+    /**
+     * Render straight to a writer: literal text is written as is and only
+     * formatted values pass through a small scratch buffer, so the output
+     * is never held in memory as a whole.
+     */
+    public void render(Map<String, ?> model, Writer out) throws IOException {
+        render(nodes, new Scope(model, null), out, new StringBuilder(64));
+    }
+
+    private static void render(Node[] nodes, Scope scope, Appendable out, StringBuilder scratch) throws IOException {
+        for (Node node : nodes) {
+            if (node instanceof Text text) {
+                out.append(text.text());
+            } else if (node instanceof Variable variable) {
+                Object value = scope.lookup(variable.path());
+                if (value == null) {
+                    continue;
+                }
+                if (out == scratch) {
+                    variable.format().append(value, scratch);
+                } else {
+                    scratch.setLength(0);
+                    variable.format().append(value, scratch);
+                    out.append(scratch);
+                }
+            } else if (node instanceof Section section) {
+                renderSection(section, scope, out, scratch);
+            }
+        }
+    }
+
+    private static void renderSection(Section section, Scope scope, Appendable out, StringBuilder scratch)
+            throws IOException {
+        Object value = scope.lookup(section.path());
+        boolean truthy = isTruthy(value);
+        if (section.inverted()) {
+            if (!truthy) {
+                render(section.body(), scope, out, scratch);
+            }
+        } else if (value instanceof Collection<?> items) {
+            for (Object item : items) {
+                render(section.body(), new Scope(item, scope), out, scratch);
+            }
+        } else if (truthy) {
+            render(section.body(), new Scope(value, scope), out, scratch);
+        }
+    }
+
+    private static boolean isTruthy(Object value) {
+        if (value == null || Boolean.FALSE.equals(value)) {
+            return false;
+        }
+        if (value instanceof Collection<?> items) {
+            return !items.isEmpty();
+        }
+        if (value instanceof Map<?, ?> map) {
+            return !map.isEmpty();
+        }
+        return !(value instanceof CharSequence text) || !text.isEmpty();
+    }
+
+    sealed interface Node permits Text, Variable, Section {
+    }
+
+    record Text(String text) implements Node {
+    }
+
+    record Variable(String[] path, Format format) implements Node {
+    }
+
+    record Section(String[] path, boolean inverted, Node[] body) implements Node {
+    }
+
+    /**
+     * Value formats selectable with {@code {{name|format}}}. They write
+     * digits straight into the buffer instead of going through
+     * {@link String#format}.
+     */
+    enum Format {
+        /** {@code String.valueOf}. */
+        RAW {
+            @Override
+            void append(Object value, StringBuilder out) {
+                if (value instanceof CharSequence text) {
+                    out.append(text);
+                } else {
+                    out.append(value);
+                }
+            }
+        },
+        /** Fraction as a whole percentage, e.g. 0.856 to {@code 86%}. */
+        PERCENT {
+            @Override
+            void append(Object value, StringBuilder out) {
+                if (value instanceof Number number) {
+                    out.append(roundHalfUp(number.doubleValue() * 100)).append('%');
+                }
+            }
+        },
+        /** Two decimals, e.g. 12.5 to {@code 12.50}. */
+        FIXED2 {
+            @Override
+            void append(Object value, StringBuilder out) {
+                if (value instanceof Number number) {
+                    long cents = roundHalfUp(number.doubleValue() * 100);
+                    if (cents < 0) {
+                        out.append('-');
+                        cents = -cents;
+                    }
+                    out.append(cents / 100).append('.');
+                    long fraction = cents % 100;
+                    if (fraction < 10) {
+                        out.append('0');
+                    }
+                    out.append(fraction);
+                }
+            }
+        };
+
+        abstract void append(Object value, StringBuilder out);
+
+        static Format fromName(String name) {
+            return switch (name) {
+                case "percent" -> PERCENT;
+                case "fixed2" -> FIXED2;
+                default -> throw new TemplateException("Unknown format '" + name + "'");
+            };
+        }
+
+        private static long roundHalfUp(double value) {
+            long rounded = (long) Math.floor(Math.abs(value) + 0.5);
+            return value < 0 ? -rounded : rounded;
+        }
+    }
+
+    /**
+     * Section context chain; a name resolves against the innermost map that
+     * contains its first segment.
+     */
+    private record Scope(Object value, Scope parent) {
+
+        Object lookup(String[] path) {
+            if (path.length == 0) {
+                return value;
+            }
+            for (Scope scope = this; scope != null; scope = scope.parent) {
+                if (scope.value instanceof Map<?, ?> map && map.containsKey(path[0])) {
+                    Object current = map.get(path[0]);
+                    for (int i = 1; i < path.length && current != null; i++) {
+                        current = current instanceof Map<?, ?> nested ? nested.get(path[i]) : null;
+                    }
+                    return current;
+                }
+            }
+            return null;
+        }
+    }
+}
@@ -0,0 +1,168 @@
+package com.hackathon.codegen.template;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HexFormat;
+import java.util.List;
+
+/**
+ * Parses template source into a {@link Template}.
+ *
+ * <p>Syntax, a subset of Mustache without HTML escaping:
+ * <ul>
+ *   <li>{@code {{name}}} or {@code {{name|percent}}}: a value, optionally formatted;</li>
+ *   <li>{@code {{#name}}...{{/name}}}: rendered once per list item, or once when
+ *       the value is present and not false;</li>
+ *   <li>{@code {{^name}}...{{/name}}}: rendered when the value is missing, false or empty;</li>
+ *   <li>{@code {{! comment}}}.</li>
+ * </ul>
+ * A section or comment tag alone on its line removes the whole line, so
+ * templates can lay out sections without leaving blank lines behind.
+ */
+public final class TemplateCompiler {
+
+    private static final String OPEN = "{{";
+    private static final String CLOSE = "}}";
+
+    private TemplateCompiler() {
+    }
+
+    public static Template compile(String name, String source) {
+        Deque<Frame> frames = new ArrayDeque<>();
+        frames.push(new Frame(null, false, 0));
+        StringBuilder text = new StringBuilder();
+        int pos = 0;
+
+        while (pos < source.length()) {
+            int start = source.indexOf(OPEN, pos);
+            if (start < 0) {
+                text.append(source, pos, source.length());
+                break;
+            }
+            int end = source.indexOf(CLOSE, start + OPEN.length());
+            if (end < 0) {
+                throw error(name, source, start, "unclosed tag");
+            }
+            text.append(source, pos, start);
+            String tag = source.substring(start + OPEN.length(), end).trim();
+            end += CLOSE.length();
+            if (tag.isEmpty()) {
+                throw error(name, source, start, "empty tag");
+            }
+
+            char kind = tag.charAt(0);
+            if (kind != '#' && kind != '^' && kind != '/' && kind != '!') {
+                flush(text, frames.peek().nodes);
+                frames.peek().nodes.add(variable(name, source, start, tag));
+                pos = end;
+                continue;
+            }
+
+            // Standalone block tags take their whole line with them
+            int lineStart = source.lastIndexOf('\n', start - 1) + 1;
+            int lineEnd = source.indexOf('\n', end);
+            lineEnd = lineEnd < 0 ? source.length() : lineEnd;
+            if (isBlank(source, lineStart, start) && isBlank(source, end, lineEnd)) {
+                text.setLength(text.length() - (start - lineStart));
+                end = Math.min(source.length(), lineEnd + 1);
+            }
+            flush(text, frames.peek().nodes);
+
+            String key = tag.substring(1).trim();
+            switch (kind) {
+                case '#', '^' -> frames.push(new Frame(key, kind == '^', start));
+                case '/' -> {
+                    Frame frame = frames.pop();
+                    if (frame.name == null || !frame.name.equals(key)) {
+                        throw error(name, source, start, frame.name == null
+                                ? "unexpected {{/" + key + "}}"
+                                : "expected {{/" + frame.name + "}} but found {{/" + key + "}}");
+                    }
+                    frames.peek().nodes.add(new Template.Section(path(key), frame.inverted,
+                            frame.nodes.toArray(Template.Node[]::new)));
+                }
+                default -> {
+                    // comment
+                }
+            }
+            pos = end;
+        }
+
+        flush(text, frames.peek().nodes);
+        if (frames.size() > 1) {
+            Frame open = frames.peek();
+            throw error(name, source, open.start, "unclosed section {{#" + open.name + "}}");
+        }
+        return new Template(name, version(source), frames.pop().nodes);
+    }
+
+    private static Template.Variable variable(String name, String source, int start, String tag) {
+        int bar = tag.indexOf('|');
+        if (bar < 0) {
+            return new Template.Variable(path(tag), Template.Format.RAW);
+        }
+        try {
+            return new Template.Variable(path(tag.substring(0, bar).trim()),
+                    Template.Format.fromName(tag.substring(bar + 1).trim()));
+        } catch (TemplateException e) {
+            throw error(name, source, start, e.getMessage());
+        }
+    }
+
+    private static String[] path(String key) {
+        return ".".equals(key) ? new String[0] : key.split("\\.");
+    }
+
+    private static void flush(StringBuilder text, List<Template.Node> nodes) {
+        if (!text.isEmpty()) {
+            nodes.add(new Template.Text(text.toString()));
+            text.setLength(0);
+        }
+    }
+
+    private static boolean isBlank(String source, int from, int to) {
+        for (int i = from; i < to; i++) {
+            char c = source.charAt(i);
+            if (c != ' ' && c != '\t' && c != '\r') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static String version(String source) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(source.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest, 0, 8);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    private static TemplateException error(String name, String source, int offset, String message) {
+        int line = 1;
+        for (int i = 0; i < offset; i++) {
+            if (source.charAt(i) == '\n') {
+                line++;
+            }
+        }
+        return new TemplateException(name + ":" + line + ": " + message);
+    }
+
+    private static final class Frame {
+        final String name;
+        final boolean inverted;
+        final int start;
+        final List<Template.Node> nodes = new ArrayList<>();
+
+        Frame(String name, boolean inverted, int start) {
+            this.name = name;
+            this.inverted = inverted;
+            this.start = start;
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package com.hackathon.codegen.template;
+
+/**
+ * Thrown when a template cannot be parsed or loaded.
+ */
+public class TemplateException extends RuntimeException {
+
+    public TemplateException(String message) {
+        super(message);
+    }
+
+    public TemplateException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
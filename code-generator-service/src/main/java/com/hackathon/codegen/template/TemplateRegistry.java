@@ -0,0 +1,201 @@
+package com.hackathon.codegen.template;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Compiled artifact templates, parsed once at startup.
+ *
+ * Templates ship on the classpath under {@code codegen-templates/<file>.tmpl}.
+ * A file of the same name in {@code codegen.templates.dir} overrides the
+ * bundled one; the directory is watched and changed files are recompiled
+ * without a restart. An override that fails to parse is logged and the
+ * previous version stays in use.
+ */
+@Slf4j
+@Component
+public class TemplateRegistry {
+
+    public static final String DEPLOYMENT = "deployment.yaml";
+    public static final String APPLICATION_PROPERTIES = "application.properties";
+    public static final String HELM_VALUES = "values.yaml";
+    public static final String README = "README.md";
+    public static final String AZURE_PIPELINE = "azure-pipelines.yml";
+
+    static final List<String> TEMPLATE_NAMES =
+            List.of(DEPLOYMENT, APPLICATION_PROPERTIES, HELM_VALUES, README, AZURE_PIPELINE);
+
+    private static final String CLASSPATH_DIR = "codegen-templates/";
+    private static final String SUFFIX = ".tmpl";
+    /** Buffers grown beyond this by an unusually large render are not kept. */
+    private static final int MAX_RETAINED_BUFFER = 256 * 1024;
+
+    private final Map<String, Template> templates = new ConcurrentHashMap<>();
+    private final ThreadLocal<StringBuilder> buffers = ThreadLocal.withInitial(() -> new StringBuilder(8192));
+    private final Path overrideDir;
+    private final boolean watch;
+    private WatchService watchService;
+
+    public TemplateRegistry(@Value("${codegen.templates.dir:}") String overrideDir,
+                            @Value("${codegen.templates.watch:true}") boolean watch) {
+        this.overrideDir = overrideDir == null || overrideDir.isBlank() ? null : Path.of(overrideDir);
+        this.watch = watch;
+        TEMPLATE_NAMES.forEach(name -> templates.put(name, load(name)));
+    }
+
+    /**
+     * Registry with the bundled templates only, for use outside Spring.
+     */
+    public static TemplateRegistry bundled() {
+        return new TemplateRegistry(null, false);
+    }
+
+    public Template get(String name) {
+        Template template = templates.get(name);
+        if (template == null) {
+            throw new TemplateException("Unknown template '" + name + "'");
+        }
+        return template;
+    }
+
+    /**
+     * Versions of the templates in use, in a fixed order; changes whenever a
+     * template is edited or overridden.
+     */
+    public String fingerprint() {
+        StringBuilder fingerprint = new StringBuilder();
+        for (String name : TEMPLATE_NAMES) {
+            fingerprint.append(name).append('=').append(get(name).getVersion()).append(';');
+        }
+        return fingerprint.toString();
+    }
+
+    /**
+     * Render into this thread's reusable buffer and return the text.
+     */
+    public String render(String name, Map<String, ?> model) {
+        Template template = get(name);
+        StringBuilder buffer = buffers.get();
+        buffer.setLength(0);
+        template.render(model, buffer);
+        String content = buffer.toString();
+        if (buffer.capacity() > MAX_RETAINED_BUFFER) {
+            buffers.remove();
+        }
+        return content;
+    }
+
+    /**
+     * Render directly to a writer without building the text in memory.
+     */
+    public void render(String name, Map<String, ?> model, Writer out) throws IOException {
+        get(name).render(model, out);
+    }
+
+    @PostConstruct
+    void startWatching() {
+        if (!watch || overrideDir == null || !Files.isDirectory(overrideDir)) {
+            return;
+        }
+        try {
+            watchService = FileSystems.getDefault().newWatchService();
+            overrideDir.register(watchService, StandardWatchEventKinds.ENTRY_CREATE,
+                    StandardWatchEventKinds.ENTRY_MODIFY, StandardWatchEventKinds.ENTRY_DELETE);
+        } catch (IOException e) {
+            log.warn("Cannot watch template directory {}: {}", overrideDir, e.getMessage());
+            return;
+        }
+        Thread watcher = new Thread(this::watchLoop, "template-watcher");
+        watcher.setDaemon(true);
+        watcher.start();
+        log.info("Watching {} for template changes", overrideDir);
+    }
+
+    @PreDestroy
+    void stopWatching() throws IOException {
+        if (watchService != null) {
+            watchService.close();
+        }
+    }
+
+    private void watchLoop() {
+        try {
+            while (true) {
+                WatchKey key = watchService.take();
+                for (WatchEvent<?> event : key.pollEvents()) {
+                    if (event.context() instanceof Path changed) {
+                        String file = changed.getFileName().toString();
+                        if (file.endsWith(SUFFIX)) {
+                            reload(file.substring(0, file.length() - SUFFIX.length()));
+                        }
+                    }
+                }
+                if (!key.reset()) {
+                    log.warn("Template directory {} is no longer accessible", overrideDir);
+                    return;
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ClosedWatchServiceException e) {
+            // shutting down
+        }
+    }
+
+    /**
+     * Recompile one template from the override directory, or from the
+     * classpath when the override was removed.
+     */
+    void reload(String name) {
+        if (!TEMPLATE_NAMES.contains(name)) {
+            return;
+        }
+        try {
+            templates.put(name, load(name));
+            log.info("Reloaded template {}", name);
+        } catch (TemplateException e) {
+            log.warn("Keeping previous template {}: {}", name, e.getMessage());
+        }
+    }
+
+    private Template load(String name) {
+        if (overrideDir != null) {
+            Path file = overrideDir.resolve(name + SUFFIX);
+            if (Files.isRegularFile(file)) {
+                try {
+                    return TemplateCompiler.compile(name, Files.readString(file, StandardCharsets.UTF_8));
+                } catch (IOException e) {
+                    throw new TemplateException("Cannot read template " + file, e);
+                }
+            }
+        }
+        String resource = CLASSPATH_DIR + name + SUFFIX;
+        try (InputStream in = TemplateRegistry.class.getClassLoader().getResourceAsStream(resource)) {
+            if (in == null) {
+                throw new TemplateException("Template not found on classpath: " + resource);
+            }
+            return TemplateCompiler.compile(name, new String(in.readAllBytes(), StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            throw new TemplateException("Cannot read template " + resource, e);
+        }
+    }
+}
@@ -0,0 +1,161 @@
+package com.hackathon.codegen.azuredevops;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hackathon.codegen.model.GeneratedArtifacts;
+import com.hackathon.codegen.model.RolloutReport;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs against a local stub of the Azure DevOps Git REST API that records
+ * every call.
+ */
+class AzureDevOpsServiceTest {
+
+    private static final String BASE_COMMIT = "c0ffee";
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final List<String> calls = Collections.synchronizedList(new ArrayList<>());
+    private final List<JsonNode> pushes = Collections.synchronizedList(new ArrayList<>());
+    private final AtomicInteger pullRequestIds = new AtomicInteger(100);
+    private volatile String failingService;
+    private HttpServer server;
+    private AzureDevOpsService service;
+
+    @BeforeEach
+    void startStub() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/", this::handle);
+        server.start();
+        service = new AzureDevOpsService(WebClient.builder(), "org", "proj", "repo", "team", "pat",
+                "http://127.0.0.1:" + server.getAddress().getPort(), 2, Duration.ofSeconds(10));
+    }
+
+    @AfterEach
+    void stopStub() {
+        server.stop(0);
+    }
+
+    @Test
+    void rollout_singlePr_shouldPushAllServicesInOneCommit() {
+        RolloutReport report = service.rollout(services(3), RolloutReport.Mode.SINGLE_PR);
+
+        assertThat(calls).containsExactly("GET refs", "GET items", "POST pushes", "POST pullrequests");
+        assertThat(report.getBaseCommitId()).isEqualTo(BASE_COMMIT);
+        assertThat(report.getPullRequests()).singleElement().satisfies(pr -> {
+            assertThat(pr.getSuccess()).isTrue();
+            assertThat(pr.getServices()).containsExactly("svc-0", "svc-1", "svc-2");
+            assertThat(pr.getPullRequestUrl()).endsWith("/org/proj/_git/repo/pullrequest/101");
+        });
+
+        JsonNode push = pushes.get(0);
+        assertThat(push.path("refUpdates").path(0).path("oldObjectId").asText()).isEqualTo(BASE_COMMIT);
+        JsonNode changes = push.path("commits").path(0).path("changes");
+        assertThat(changes).hasSize(6);
+        // svc-0's deployment is already in the repository
+        assertThat(changes.get(0).path("changeType").asText()).isEqualTo("edit");
+        assertThat(changes.get(0).path("item").path("path").asText()).isEqualTo("/team/svc-0/k8s/deployment.yaml");
+        assertThat(changes.get(2).path("changeType").asText()).isEqualTo("add");
+        assertThat(changes.get(2).path("newContent").path("content").asText()).isEqualTo("kind: Deployment # svc-1");
+    }
+
+    @Test
+    void createBranchAndCommit_shouldUseTheSameServiceFolderAsRollout() {
+        String branch = service.createBranchAndCommit(services(1).get(0));
+
+        assertThat(branch).contains("svc-0");
+        assertThat(calls).containsExactly("GET refs", "GET items", "POST pushes");
+        JsonNode changes = pushes.get(0).path("commits").path(0).path("changes");
+        assertThat(changes).extracting(change -> change.path("item").path("path").asText())
+                .containsExactly("/team/svc-0/k8s/deployment.yaml", "/team/svc-0/README.md");
+        assertThat(changes.get(0).path("changeType").asText()).isEqualTo("edit");
+    }
+
+    @Test
+    void rollout_perService_shouldIsolateFailedBranches() {
+        failingService = "svc-1";
+
+        RolloutReport report = service.rollout(services(4), RolloutReport.Mode.PER_SERVICE);
+
+        // One shared lookup, then a push per service and a PR per successful push
+        assertThat(calls).hasSize(2 + 4 + 3);
+        assertThat(calls.subList(0, 2)).containsExactly("GET refs", "GET items");
+        assertThat(report.getPullRequests()).hasSize(4);
+        assertThat(report.getPullRequests()).filteredOn(pr -> !pr.getSuccess())
+                .singleElement()
+                .satisfies(pr -> {
+                    assertThat(pr.getServices()).containsExactly("svc-1");
+                    assertThat(pr.getErrorMessage()).startsWith("409");
+                });
+        assertThat(report.getPullRequests()).filteredOn(RolloutReport.PullRequestResult::getSuccess)
+                .extracting(RolloutReport.PullRequestResult::getBranch)
+                .doesNotHaveDuplicates();
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        String path = exchange.getRequestURI().getPath();
+        String resource = path.substring(path.lastIndexOf('/') + 1);
+        calls.add(exchange.getRequestMethod() + " " + resource);
+
+        int status = 200;
+        String body = switch (resource) {
+            case "refs" -> "{\"value\":[{\"name\":\"refs/heads/team/develop\",\"objectId\":\"" + BASE_COMMIT + "\"}]}";
+            case "items" -> "{\"value\":[{\"path\":\"/team\",\"isFolder\":true},"
+                    + "{\"path\":\"/team/svc-0/k8s/deployment.yaml\"}]}";
+            case "pushes" -> {
+                JsonNode push = objectMapper.readTree(exchange.getRequestBody());
+                pushes.add(push);
+                if (failingService != null && push.toString().contains("/team/" + failingService + "/")) {
+                    status = 409;
+                    yield "{\"message\":\"stale ref\"}";
+                }
+                yield "{\"commits\":[{\"commitId\":\"commit-" + pushes.size() + "\"}]}";
+            }
+            case "pullrequests" -> "{\"pullRequestId\":" + pullRequestIds.incrementAndGet() + "}";
+            default -> {
+                status = 404;
+                yield "{}";
+            }
+        };
+
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, bytes.length);
+        exchange.getResponseBody().write(bytes);
+        exchange.close();
+    }
+
+    private static List<GeneratedArtifacts> services(int count) {
+        return IntStream.range(0, count).mapToObj(i -> GeneratedArtifacts.builder()
+                .serviceName("svc-" + i)
+                .files(List.of(
+                        file("k8s/deployment.yaml", "kind: Deployment # svc-" + i),
+                        file("README.md", "# svc-" + i)))
+                .build()).toList();
+    }
+
+    private static GeneratedArtifacts.GeneratedFile file(String path, String content) {
+        return GeneratedArtifacts.GeneratedFile.builder()
+                .fileName(path.substring(path.lastIndexOf('/') + 1))
+                .filePath(path)
+                .content(content)
+                .build();
+    }
+}
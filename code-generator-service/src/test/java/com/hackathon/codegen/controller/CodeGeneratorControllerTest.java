@@ -1,9 +1,11 @@
 package com.hackathon.codegen.controller;
 
 import com.hackathon.codegen.azuredevops.AzureDevOpsService;
+import com.hackathon.codegen.job.GenerationJob;
+import com.hackathon.codegen.job.GenerationJobService;
 import com.hackathon.codegen.model.GeneratedArtifacts;
-import com.hackathon.codegen.model.ResourceRecommendation;
 import com.hackathon.codegen.service.CodeGenerationService;
+import com.hackathon.recommendation.ResourceRecommendation;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -11,11 +13,14 @@ import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 
+import static org.hamcrest.Matchers.containsString;
 import static org.mockito.ArgumentMatchers.any;
-import static org.mockito.ArgumentMatchers.anyBoolean;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -32,6 +37,9 @@ class CodeGeneratorControllerTest {
     @MockBean
     private AzureDevOpsService azureDevOpsService;
 
+    @MockBean
+    private GenerationJobService generationJobService;
+
     private ResourceRecommendation mockRecommendation;
     private GeneratedArtifacts mockArtifacts;
 
@@ -94,20 +102,25 @@ class CodeGeneratorControllerTest {
     }
 
     @Test
-    void generateAndCreatePR_shouldReturnArtifactsWithPR() throws Exception {
-        mockArtifacts.setPullRequestUrl("https://dev.azure.com/pr/123");
-        when(codeGenerationService.generateAndDeploy(any(ResourceRecommendation.class), anyBoolean()))
-                .thenReturn(mockArtifacts);
+    void generateAndCreatePR_shouldQueueJobAndReturnAccepted() throws Exception {
+        when(generationJobService.submit(any(ResourceRecommendation.class)))
+                .thenReturn(GenerationJob.builder()
+                        .id("job-1")
+                        .serviceName("test-service")
+                        .status(GenerationJob.Status.QUEUED)
+                        .attempts(0)
+                        .build());
 
         mockMvc.perform(post("/api/generate-and-pr")
                         .contentType(MediaType.APPLICATION_JSON)
                         .content("{\"serviceName\":\"test-service\"}"))
-                .andExpect(status().isOk())
-                .andExpect(jsonPath("$.serviceName").value("test-service"))
-                .andExpect(jsonPath("$.success").value(true));
+                .andExpect(status().isAccepted())
+                .andExpect(header().string("Location", "/api/jobs/job-1"))
+                .andExpect(jsonPath("$.id").value("job-1"))
+                .andExpect(jsonPath("$.status").value("QUEUED"));
 
-        verify(codeGenerationService, times(1))
-                .generateAndDeploy(any(ResourceRecommendation.class), eq(true));
+        verify(generationJobService, times(1)).submit(any(ResourceRecommendation.class));
+        verifyNoInteractions(codeGenerationService);
     }
 
     @Test
@@ -133,4 +146,25 @@ class CodeGeneratorControllerTest {
                 .andExpect(jsonPath("$.serviceName").value("test-service"))
                 .andExpect(jsonPath("$.fileCount").exists());
     }
+
+    @Test
+    void downloadZip_shouldStreamZipAttachment() throws Exception {
+        doAnswer(invocation -> {
+            invocation.<OutputStream>getArgument(1).write("PK".getBytes(StandardCharsets.UTF_8));
+            return null;
+        }).when(codeGenerationService).writeZip(any(ResourceRecommendation.class), any(OutputStream.class));
+
+        MvcResult result = mockMvc.perform(post("/api/generate/zip")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"serviceName\":\"test-service\"}"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("application/zip"))
+                .andExpect(header().string("Content-Disposition", containsString("test-service-artifacts.zip")))
+                .andExpect(content().string("PK"));
+        verify(codeGenerationService, never()).generateOnly(any());
+    }
 }
@@ -0,0 +1,157 @@
+package com.hackathon.codegen.diff;
+
+import com.hackathon.codegen.model.GeneratedArtifacts;
+import com.hackathon.codegen.model.ManifestDiff;
+import com.hackathon.codegen.model.ManifestDiffRequest;
+import com.hackathon.recommendation.ResourceRecommendation;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+
+class ManifestDiffServiceTest {
+
+    private static final String DEPLOYMENT = """
+            apiVersion: v1
+            kind: Service
+            metadata:
+              name: cpu-hungry-service
+            ---
+            apiVersion: apps/v1
+            kind: Deployment
+            metadata:
+              name: cpu-hungry-service
+            spec:
+              replicas: 3
+              template:
+                spec:
+                  containers:
+                  - name: sidecar
+                    image: envoy:1.29
+                  - name: cpu-hungry-service
+                    image: registry/cpu-hungry-service:1.4.2
+                    resources:
+                      requests:
+                        cpu: "0.1"
+                        memory: 256Mi
+                      limits:
+                        cpu: 100m
+                        memory: 0.5Gi
+                    env:
+                    - name: SPRING_PROFILES_ACTIVE
+                      value: prod
+                    - name: JAVA_OPTS
+                      value: "-Xms256m -Xmx512m -XX:+UseZGC"
+            """;
+
+    private static final String HELM_VALUES = """
+            replicaCount: 3
+            resources:
+              requests:
+                cpu: 100m
+                memory: 256Mi
+              limits:
+                cpu: 100m
+                memory: 512Mi
+            """;
+
+    private final ManifestDiffService service = new ManifestDiffService("../../base");
+
+    @Test
+    void diff_shouldReportOnlyChangedFieldsAndPatchThem() {
+        ManifestDiff diff = service.diff(request(DEPLOYMENT, HELM_VALUES));
+
+        assertThat(diff.getChanges())
+                .extracting(ManifestDiff.FieldChange::getManifest, ManifestDiff.FieldChange::getPath,
+                        ManifestDiff.FieldChange::getCurrentValue, ManifestDiff.FieldChange::getRecommendedValue)
+                .containsExactly(
+                        tuple("deployment",
+                                "spec.template.spec.containers[name=cpu-hungry-service].resources.limits.cpu",
+                                "100m", "350m"),
+                        tuple("deployment",
+                                "spec.template.spec.containers[name=cpu-hungry-service].env[name=JAVA_OPTS].value",
+                                "-Xms256m -Xmx512m -XX:+UseZGC", "-Xms256m -Xmx768m -XX:+UseZGC"),
+                        tuple("helm-values", "resources.limits.cpu", "100m", "350m"));
+
+        Map<String, String> files = files(diff);
+        assertThat(files).containsOnlyKeys("k8s/overlays/saveyourmoney/deployment-patch.yaml",
+                "k8s/overlays/saveyourmoney/kustomization.yaml", "helm/values-saveyourmoney.yaml");
+        String patch = files.get("k8s/overlays/saveyourmoney/deployment-patch.yaml");
+        assertThat(patch).contains("name: cpu-hungry-service", "cpu: 350m", "-Xmx768m")
+                .doesNotContain("sidecar", "memory", "replicas", "image", "SPRING_PROFILES_ACTIVE");
+        assertThat(files.get("k8s/overlays/saveyourmoney/kustomization.yaml"))
+                .contains("- ../../base", "path: deployment-patch.yaml");
+        assertThat(files.get("helm/values-saveyourmoney.yaml"))
+                .contains("cpu: 350m").doesNotContain("requests", "replicaCount");
+    }
+
+    @Test
+    void diff_shouldProduceNoFilesWhenNothingChanges() {
+        ManifestDiffRequest request = request(DEPLOYMENT, HELM_VALUES);
+        request.getRecommendation().getKubernetes().setCpuLimit("0.1");
+        request.getRecommendation().getJvm().setXmx("512m");
+
+        ManifestDiff diff = service.diff(request);
+
+        assertThat(diff.isUnchanged()).isTrue();
+        assertThat(diff.getFiles()).isEmpty();
+    }
+
+    @Test
+    void diff_shouldMoveTunedJvmFlagsToJavaToolOptions() {
+        ManifestDiffRequest request = request(DEPLOYMENT, null);
+        request.getRecommendation().getJvm()
+                .setJavaToolOptions("-XX:+UseG1GC -XX:MaxRAMPercentage=75.0 -XX:MaxMetaspaceSize=160m");
+
+        ManifestDiff diff = service.diff(request);
+
+        String container = "spec.template.spec.containers[name=cpu-hungry-service]";
+        assertThat(diff.getChanges())
+                .extracting(ManifestDiff.FieldChange::getPath, ManifestDiff.FieldChange::getRecommendedValue)
+                .contains(
+                        tuple(container + ".env[name=JAVA_OPTS].value", ""),
+                        tuple(container + ".env[name=JAVA_TOOL_OPTIONS].value",
+                                "-XX:+UseG1GC -XX:MaxRAMPercentage=75.0 -XX:MaxMetaspaceSize=160m"));
+        assertThat(files(diff).get("k8s/overlays/saveyourmoney/deployment-patch.yaml"))
+                .contains("JAVA_TOOL_OPTIONS").doesNotContain("UseZGC", "-Xmx");
+    }
+
+    @Test
+    void diff_shouldRejectManifestWithoutDeployment() {
+        assertThatThrownBy(() -> service.diff(request("kind: Service\nmetadata:\n  name: x\n", null)))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("no Deployment");
+    }
+
+    @Test
+    void quantities_shouldCompareByAmount() {
+        assertThat(KubernetesQuantity.equivalent("0.5", "500m")).isTrue();
+        assertThat(KubernetesQuantity.equivalent("1Gi", "1024Mi")).isTrue();
+        assertThat(KubernetesQuantity.equivalent("1G", "1Gi")).isFalse();
+        assertThat(KubernetesQuantity.equivalent("G1GC", "G1GC")).isTrue();
+    }
+
+    private static ManifestDiffRequest request(String deployment, String helmValues) {
+        ResourceRecommendation recommendation = ResourceRecommendation.builder()
+                .serviceName("cpu-hungry-service")
+                .kubernetes(ResourceRecommendation.KubernetesResources.builder()
+                        .cpuRequest("100m").cpuLimit("350m").memoryRequest("256Mi").memoryLimit("512Mi")
+                        .build())
+                .jvm(ResourceRecommendation.JvmConfiguration.builder().xms("256m").xmx("768m").build())
+                .build();
+        return ManifestDiffRequest.builder()
+                .recommendation(recommendation)
+                .currentDeployment(deployment)
+                .currentHelmValues(helmValues)
+                .build();
+    }
+
+    private static Map<String, String> files(ManifestDiff diff) {
+        return diff.getFiles().stream().collect(Collectors.toMap(GeneratedArtifacts.GeneratedFile::getFilePath,
+                GeneratedArtifacts.GeneratedFile::getContent, (a, b) -> a));
+    }
+}
@@ -1,10 +1,14 @@
 package com.hackathon.codegen.generator;
 
 import com.hackathon.codegen.model.GeneratedArtifacts;
-import com.hackathon.codegen.model.ResourceRecommendation;
+import com.hackathon.recommendation.ResourceRecommendation;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import java.io.StringWriter;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
 import static org.assertj.core.api.Assertions.assertThat;
 
 class FileGeneratorServiceTest {
@@ -42,6 +46,32 @@ class FileGeneratorServiceTest {
                 .anyMatch(f -> f.getFileName().contains("deployment.yaml"))).isTrue();
     }
 
+    @Test
+    void generateArtifacts_shouldSetJavaToolOptionsWhenTunedFromGcTelemetry() {
+        ResourceRecommendation recommendation = ResourceRecommendation.builder()
+                .serviceName("test-service")
+                .kubernetes(ResourceRecommendation.KubernetesResources.builder()
+                        .cpuRequest("200m").cpuLimit("400m").memoryRequest("512Mi").memoryLimit("1Gi")
+                        .build())
+                .jvm(ResourceRecommendation.JvmConfiguration.builder()
+                        .xms("300m").xmx("300m").gcType("G1GC").goal("PAUSE_TIME")
+                        .maxRamPercentage(29.3).maxGcPauseMillis(200).g1HeapRegionSize("1m")
+                        .metaspaceSize("112m").maxMetaspaceSize("160m")
+                        .javaToolOptions("-XX:+UseG1GC -XX:MaxRAMPercentage=29.3 -XX:MaxMetaspaceSize=160m")
+                        .build())
+                .build();
+
+        GeneratedArtifacts artifacts = fileGeneratorService.generateArtifacts(recommendation);
+
+        assertThat(content(artifacts, "deployment.yaml"))
+                .contains("- name: JAVA_TOOL_OPTIONS\n          value: \"-XX:+UseG1GC -XX:MaxRAMPercentage=29.3")
+                .doesNotContain("JAVA_OPTS", "{{");
+        assertThat(content(artifacts, "values.yaml"))
+                .contains("javaToolOptions: \"-XX:+UseG1GC").doesNotContain("additionalOpts");
+        assertThat(content(artifacts, "README.md"))
+                .contains("| `-XX:MaxRAMPercentage` | `25.0` | `29.3` |", "| `-XX:MaxMetaspaceSize` | `unlimited` | `160m` |");
+    }
+
     @Test
     void generateArtifacts_shouldHandleNullKubernetesConfig() {
         ResourceRecommendation recommendation = ResourceRecommendation.builder()
@@ -53,4 +83,60 @@ class FileGeneratorServiceTest {
         assertThat(artifacts).isNotNull();
         assertThat(artifacts.getServiceName()).isEqualTo("test-service");
     }
+
+    @Test
+    void writeArtifacts_shouldStreamTheSameFilesAsGenerateArtifacts() throws Exception {
+        ResourceRecommendation recommendation = ResourceRecommendation.builder()
+                .serviceName("test-service")
+                .kubernetes(ResourceRecommendation.KubernetesResources.builder()
+                        .cpuRequest("200m").cpuLimit("400m").memoryRequest("512Mi").memoryLimit("1Gi")
+                        .build())
+                .detectedIssues(Map.of("CPU Throttling", "CPU usage exceeds limits"))
+                .confidenceScore(0.85)
+                .build();
+        Map<String, String> streamed = new LinkedHashMap<>();
+
+        int count = fileGeneratorService.writeArtifacts(recommendation, (artifact, content) -> {
+            StringWriter writer = new StringWriter();
+            content.writeTo(writer);
+            streamed.put(artifact.filePath(), writer.toString());
+        });
+
+        GeneratedArtifacts artifacts = fileGeneratorService.generateArtifacts(recommendation);
+        assertThat(count).isEqualTo(artifacts.getFiles().size());
+        for (GeneratedArtifacts.GeneratedFile file : artifacts.getFiles()) {
+            assertThat(withoutTimestamp(streamed.get(file.getFilePath())))
+                    .isEqualTo(withoutTimestamp(file.getContent()));
+        }
+    }
+
+    @Test
+    void inputHash_shouldIgnoreMapOrderAndChangeWithInputs() {
+        Map<String, String> issues = new LinkedHashMap<>();
+        issues.put("CPU Throttling", "a");
+        issues.put("Memory Leak", "b");
+        Map<String, String> reordered = new LinkedHashMap<>();
+        reordered.put("Memory Leak", "b");
+        reordered.put("CPU Throttling", "a");
+
+        String hash = fileGeneratorService.inputHash(ResourceRecommendation.builder()
+                .serviceName("test-service").detectedIssues(issues).build());
+
+        assertThat(fileGeneratorService.inputHash(ResourceRecommendation.builder()
+                .serviceName("test-service").detectedIssues(reordered).build())).isEqualTo(hash);
+        assertThat(fileGeneratorService.inputHash(ResourceRecommendation.builder()
+                .serviceName("test-service").detectedIssues(issues).confidenceScore(0.9).build())).isNotEqualTo(hash);
+    }
+
+    private static String withoutTimestamp(String content) {
+        return content.replaceAll("\\d{4}-\\d{2}-\\d{2}T[\\d:.]+", "<ts>");
+    }
+
+    private static String content(GeneratedArtifacts artifacts, String fileName) {
+        return artifacts.getFiles().stream()
+                .filter(f -> f.getFileName().equals(fileName))
+                .findFirst()
+                .orElseThrow()
+                .getContent();
+    }
 }
@@ -0,0 +1,145 @@
+package com.hackathon.codegen.job;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hackathon.codegen.model.GeneratedArtifacts;
+import com.hackathon.codegen.service.CodeGenerationService;
+import com.hackathon.recommendation.ResourceRecommendation;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.Instant;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Workers run on their own threads, so the test does not wrap each method
+ * in a transaction they could not see.
+ */
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class GenerationJobServiceTest {
+
+    @Autowired
+    private GenerationJobRepository repository;
+
+    private final CodeGenerationService codeGenerationService = mock(CodeGenerationService.class);
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private GenerationJobService service;
+
+    @AfterEach
+    void tearDown() throws Exception {
+        if (service != null) {
+            service.stop();
+        }
+        repository.deleteAll();
+    }
+
+    @Test
+    void submit_shouldReturnQueuedJobAndRunItInTheBackground() throws Exception {
+        when(codeGenerationService.generateAndDeploy(any(), eq(true))).thenReturn(success());
+        service = start(3);
+
+        GenerationJob queued = service.submit(recommendation("svc"));
+        GenerationJob finished = awaitFinished(queued.getId());
+
+        assertThat(queued.getStatus()).isEqualTo(GenerationJob.Status.QUEUED);
+        assertThat(finished.getStatus()).isEqualTo(GenerationJob.Status.SUCCEEDED);
+        assertThat(finished.getAttempts()).isEqualTo(1);
+        assertThat(finished.getPullRequestUrl()).isEqualTo("https://dev.azure.com/pr/1");
+    }
+
+    @Test
+    void failedAttempts_shouldBeRetriedUntilMaxAttempts() throws Exception {
+        when(codeGenerationService.generateAndDeploy(any(), eq(true)))
+                .thenReturn(failure("remote timeout"), failure("remote timeout"), success());
+        service = start(3);
+        GenerationJob recovered = awaitFinished(service.submit(recommendation("flaky")).getId());
+
+        assertThat(recovered.getStatus()).isEqualTo(GenerationJob.Status.SUCCEEDED);
+        assertThat(recovered.getAttempts()).isEqualTo(3);
+        assertThat(recovered.getLastError()).isNull();
+
+        when(codeGenerationService.generateAndDeploy(any(), eq(true))).thenReturn(failure("remote down"));
+        GenerationJob failed = awaitFinished(service.submit(recommendation("broken")).getId());
+
+        assertThat(failed.getStatus()).isEqualTo(GenerationJob.Status.FAILED);
+        assertThat(failed.getAttempts()).isEqualTo(3);
+        assertThat(failed.getLastError()).isEqualTo("remote down");
+    }
+
+    @Test
+    void start_shouldResumeJobsInterruptedByRestart() throws Exception {
+        when(codeGenerationService.generateAndDeploy(any(), eq(true))).thenReturn(success());
+        Instant now = Instant.now();
+        repository.save(GenerationJob.builder()
+                .id("interrupted")
+                .serviceName("svc")
+                .recommendationJson(objectMapper.writeValueAsString(recommendation("svc")))
+                .status(GenerationJob.Status.RUNNING)
+                .attempts(1)
+                .maxAttempts(3)
+                .nextAttemptAt(now)
+                .createdAt(now)
+                .updatedAt(now)
+                .build());
+
+        service = start(3);
+        GenerationJob finished = awaitFinished("interrupted");
+
+        assertThat(finished.getStatus()).isEqualTo(GenerationJob.Status.SUCCEEDED);
+        assertThat(finished.getAttempts()).isEqualTo(2);
+    }
+
+    @Test
+    void backoff_shouldGrowExponentiallyUpToTheCap() {
+        service = new GenerationJobService(repository, codeGenerationService, objectMapper, 1, 5,
+                Duration.ofSeconds(1), Duration.ofSeconds(10), Duration.ofSeconds(1), Duration.ofDays(1));
+
+        assertThat(service.backoff(1)).isBetween(Duration.ofMillis(500), Duration.ofSeconds(1));
+        assertThat(service.backoff(3)).isBetween(Duration.ofSeconds(2), Duration.ofSeconds(4));
+        assertThat(service.backoff(30)).isBetween(Duration.ofSeconds(5), Duration.ofSeconds(10));
+    }
+
+    private GenerationJobService start(int maxAttempts) {
+        GenerationJobService started = new GenerationJobService(repository, codeGenerationService, objectMapper,
+                2, maxAttempts, Duration.ofMillis(10), Duration.ofMillis(40), Duration.ofMillis(20), Duration.ofDays(1));
+        started.start();
+        return started;
+    }
+
+    private GenerationJob awaitFinished(String id) throws InterruptedException {
+        long deadline = System.nanoTime() + Duration.ofSeconds(10).toNanos();
+        while (System.nanoTime() < deadline) {
+            GenerationJob job = repository.findById(id).orElseThrow();
+            if (job.isFinished()) {
+                return job;
+            }
+            Thread.sleep(20);
+        }
+        throw new AssertionError("Job " + id + " did not finish");
+    }
+
+    private static ResourceRecommendation recommendation(String serviceName) {
+        return ResourceRecommendation.builder().serviceName(serviceName).build();
+    }
+
+    private static GeneratedArtifacts success() {
+        return GeneratedArtifacts.builder()
+                .success(true)
+                .azureDevOpsBranch("team/feature/x")
+                .pullRequestUrl("https://dev.azure.com/pr/1")
+                .build();
+    }
+
+    private static GeneratedArtifacts failure(String message) {
+        return GeneratedArtifacts.builder().success(false).errorMessage(message).build();
+    }
+}
@@ -0,0 +1,140 @@
+package com.hackathon.codegen.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hackathon.codegen.generator.FileGeneratorService;
+import com.hackathon.recommendation.BatchGenerationReport;
+import com.hackathon.recommendation.RecommendationCodec;
+import com.hackathon.recommendation.ResourceRecommendation;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BatchGenerationServiceTest {
+
+    @TempDir
+    Path outputDir;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private BatchGenerationService batchService;
+
+    @BeforeEach
+    void setUp() {
+        batchService = new BatchGenerationService(new FileGeneratorService(), objectMapper, 4, 100,
+                outputDir.toString());
+    }
+
+    @AfterEach
+    void tearDown() {
+        batchService.shutdown();
+    }
+
+    @Test
+    void generateZip_shouldWriteEveryServiceAndReport() throws Exception {
+        List<ResourceRecommendation> fleet = IntStream.range(0, 50)
+                .mapToObj(i -> recommendation("svc-" + i))
+                .toList();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        BatchGenerationReport report = batchService.generateZip(fleet.iterator(), out);
+
+        Map<String, String> entries = unzip(out.toByteArray());
+        assertThat(report.getSucceeded()).isEqualTo(50);
+        assertThat(report.getFailed()).isZero();
+        assertThat(entries).hasSize(50 * 5 + 1);
+        assertThat(entries.get("svc-7/k8s/deployment.yaml")).contains("name: svc-7");
+        assertThat(objectMapper.readValue(entries.get(BatchGenerationService.REPORT_ENTRY), BatchGenerationReport.class)
+                .getTotal()).isEqualTo(50);
+    }
+
+    @Test
+    void generateZip_shouldReportInvalidAndDuplicateServicesWithoutFailingTheBatch() throws Exception {
+        String ndjson = """
+                {"serviceName":"alpha"}
+                {"serviceName":"../etc"}
+                {"serviceName":"alpha"}
+                {}
+                {"serviceName":"beta"}
+                """;
+        Iterator<ResourceRecommendation> input = objectMapper.readerFor(ResourceRecommendation.class)
+                .readValues(new ByteArrayInputStream(ndjson.getBytes(StandardCharsets.UTF_8)));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        BatchGenerationReport report = batchService.generateZip(input, out);
+
+        assertThat(report.getTotal()).isEqualTo(5);
+        assertThat(report.getSucceeded()).isEqualTo(2);
+        assertThat(report.getResults()).filteredOn(r -> !r.getSuccess())
+                .extracting(BatchGenerationReport.ServiceResult::getErrorMessage)
+                .anyMatch(m -> m.startsWith("serviceName must match"))
+                .contains("Duplicate serviceName in batch", "serviceName is required");
+        assertThat(unzip(out.toByteArray()).keySet()).noneMatch(name -> name.contains(".."));
+    }
+
+    @Test
+    void generateToDirectory_shouldWriteOneTreeAndStopAtMalformedInput() throws Exception {
+        String json = "[{\"serviceName\":\"alpha\"},{\"serviceName\":\"beta\"},{\"serviceName\":";
+        Iterator<ResourceRecommendation> input = objectMapper.readerFor(ResourceRecommendation.class)
+                .readValues(new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8)));
+
+        BatchGenerationReport report = batchService.generateToDirectory(input);
+
+        Path batchDir = Path.of(report.getOutputDirectory());
+        assertThat(batchDir.getParent()).isEqualTo(outputDir);
+        assertThat(report.getSucceeded()).isEqualTo(2);
+        assertThat(report.getInputError()).startsWith("Invalid input");
+        assertThat(batchDir.resolve("alpha/helm/values.yaml")).exists();
+        assertThat(batchDir.resolve("beta/README.md")).exists();
+        assertThat(Files.readString(batchDir.resolve(BatchGenerationService.REPORT_ENTRY))).contains("\"succeeded\" : 2");
+    }
+
+    @Test
+    void generate_shouldReadTheAnalyzersBinaryStream() throws Exception {
+        List<ResourceRecommendation> fleet = IntStream.range(0, 20)
+                .mapToObj(i -> recommendation("svc-" + i))
+                .toList();
+        byte[] binary = RecommendationCodec.encode(fleet);
+
+        BatchGenerationReport report = batchService.generate(RecommendationCodec.reader(new ByteArrayInputStream(binary)));
+
+        assertThat(report.getSucceeded()).isEqualTo(20);
+        assertThat(Path.of(report.getOutputDirectory()).resolve("svc-19/k8s/deployment.yaml")).content()
+                .contains("cpu: \"400m\"");
+        assertThat(binary.length).isLessThan(objectMapper.writeValueAsBytes(fleet).length / 3);
+    }
+
+    private static ResourceRecommendation recommendation(String name) {
+        return ResourceRecommendation.builder()
+                .serviceName(name)
+                .kubernetes(ResourceRecommendation.KubernetesResources.builder()
+                        .cpuRequest("200m").cpuLimit("400m").memoryRequest("256Mi").memoryLimit("512Mi")
+                        .build())
+                .confidenceScore(0.8)
+                .build();
+    }
+
+    private static Map<String, String> unzip(byte[] bytes) throws Exception {
+        Map<String, String> entries = new HashMap<>();
+        try (ZipInputStream zip = new ZipInputStream(new ByteArrayInputStream(bytes))) {
+            for (ZipEntry entry = zip.getNextEntry(); entry != null; entry = zip.getNextEntry()) {
+                entries.put(entry.getName(), new String(zip.readAllBytes(), StandardCharsets.UTF_8));
+            }
+        }
+        return entries;
+    }
+}
@@ -3,7 +3,9 @@ package com.hackathon.codegen.service;
 import com.hackathon.codegen.azuredevops.AzureDevOpsService;
 import com.hackathon.codegen.generator.FileGeneratorService;
 import com.hackathon.codegen.model.GeneratedArtifacts;
-import com.hackathon.codegen.model.ResourceRecommendation;
+import com.hackathon.codegen.model.GenerationManifest;
+import com.hackathon.codegen.store.ArtifactStore;
+import com.hackathon.recommendation.ResourceRecommendation;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -12,6 +14,7 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.util.ArrayList;
+import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
@@ -27,6 +30,9 @@ class CodeGenerationServiceTest {
     @Mock
     private AzureDevOpsService azureDevOpsService;
 
+    @Mock
+    private ArtifactStore artifactStore;
+
     @InjectMocks
     private CodeGenerationService codeGenerationService;
 
@@ -112,4 +118,47 @@ class CodeGenerationServiceTest {
 
         verify(fileGenerator, times(1)).generateArtifacts(any(ResourceRecommendation.class));
     }
+
+    @Test
+    void generateAndDeploy_whenInputsUnchanged_shouldReturnStoredGeneration() throws Exception {
+        GenerationManifest manifest = GenerationManifest.builder()
+                .serviceName("test-service")
+                .generationId("20260101-000000-000-abcdef01")
+                .inputHash("abcdef01")
+                .pullRequestUrl("https://dev.azure.com/pr/123")
+                .build();
+        when(fileGenerator.inputHash(mockRecommendation)).thenReturn("abcdef01");
+        when(artifactStore.latest("test-service")).thenReturn(Optional.of(manifest));
+        when(artifactStore.load(manifest)).thenReturn(mockArtifacts);
+
+        GeneratedArtifacts result = codeGenerationService.generateAndDeploy(mockRecommendation, true);
+
+        assertThat(result.getSuccess()).isTrue();
+        assertThat(result.getUnchanged()).isTrue();
+        verify(fileGenerator, never()).generateArtifacts(any());
+        verify(azureDevOpsService, never()).createBranchAndCommit(any());
+        verify(artifactStore, never()).save(any(), anyString());
+    }
+
+    @Test
+    void generateAndDeploy_whenStoredGenerationHasNoPR_shouldCreatePR() throws Exception {
+        GenerationManifest manifest = GenerationManifest.builder()
+                .serviceName("test-service")
+                .inputHash("abcdef01")
+                .build();
+        when(fileGenerator.inputHash(mockRecommendation)).thenReturn("abcdef01");
+        when(artifactStore.latest("test-service")).thenReturn(Optional.of(manifest));
+        when(artifactStore.accepts("test-service")).thenReturn(true);
+        when(artifactStore.save(any(), eq("abcdef01"))).thenReturn(manifest);
+        when(fileGenerator.generateArtifacts(mockRecommendation)).thenReturn(mockArtifacts);
+        when(azureDevOpsService.isConfigured()).thenReturn(true);
+        when(azureDevOpsService.createBranchAndCommit(mockArtifacts)).thenReturn("feature/optimize-test-service");
+        when(azureDevOpsService.createPullRequest(anyString(), any())).thenReturn("https://dev.azure.com/pr/124");
+
+        GeneratedArtifacts result = codeGenerationService.generateAndDeploy(mockRecommendation, true);
+
+        assertThat(result.getUnchanged()).isFalse();
+        assertThat(result.getPullRequestUrl()).isEqualTo("https://dev.azure.com/pr/124");
+        verify(artifactStore).save(mockArtifacts, "abcdef01");
+    }
 }
@@ -0,0 +1,89 @@
+package com.hackathon.codegen.store;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hackathon.codegen.model.GeneratedArtifacts;
+import com.hackathon.codegen.model.GenerationManifest;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ArtifactStoreTest {
+
+    private static final String HASH_A = "a".repeat(64);
+    private static final String HASH_B = "b".repeat(64);
+
+    @TempDir
+    Path root;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void save_shouldStoreIdenticalContentOnce() throws Exception {
+        ArtifactStore store = store(10);
+
+        GenerationManifest first = store.save(artifacts("svc", "shared", "v1"), HASH_A);
+        GenerationManifest second = store.save(artifacts("svc", "shared", "v2"), HASH_B);
+
+        assertThat(first.getNewObjects()).isEqualTo(2);
+        assertThat(second.getNewObjects()).isEqualTo(1);
+        assertThat(second.getFiles().get(0).getSha256()).isEqualTo(first.getFiles().get(0).getSha256());
+        assertThat(objectCount()).isEqualTo(3);
+    }
+
+    @Test
+    void latest_shouldSurviveRestartAndLoadContent() throws Exception {
+        store(10).save(artifacts("svc", "shared", "v1"), HASH_A);
+
+        ArtifactStore restarted = store(10);
+        GenerationManifest latest = restarted.latest("svc").orElseThrow();
+        GeneratedArtifacts loaded = restarted.load(latest);
+
+        assertThat(latest.getInputHash()).isEqualTo(HASH_A);
+        assertThat(loaded.getFiles()).extracting(GeneratedArtifacts.GeneratedFile::getContent)
+                .containsExactly("shared", "v1");
+        assertThat(restarted.latest("../etc")).isEmpty();
+    }
+
+    @Test
+    void collectGarbage_shouldRemoveObjectsOfPrunedGenerations() throws Exception {
+        ArtifactStore store = store(1);
+
+        store.save(artifacts("svc", "shared", "v1"), HASH_A);
+        Thread.sleep(5);
+        store.save(artifacts("svc", "shared", "v2"), HASH_B);
+
+        assertThat(store.history("svc")).extracting(GenerationManifest::getInputHash).containsExactly(HASH_B);
+        assertThat(store.collectGarbage()).isEqualTo(1);
+        assertThat(objectCount()).isEqualTo(2);
+        assertThat(store.load(store.latest("svc").orElseThrow()).getFiles()).hasSize(2);
+    }
+
+    private ArtifactStore store(int keepGenerations) {
+        return new ArtifactStore(objectMapper, root.toString(), keepGenerations, Duration.ZERO);
+    }
+
+    private long objectCount() throws Exception {
+        try (Stream<Path> files = Files.walk(root.resolve("objects"))) {
+            return files.filter(Files::isRegularFile).count();
+        }
+    }
+
+    private static GeneratedArtifacts artifacts(String serviceName, String... contents) {
+        List<GeneratedArtifacts.GeneratedFile> files = Stream.of(contents)
+                .map(content -> GeneratedArtifacts.GeneratedFile.builder()
+                        .fileName(content + ".txt")
+                        .filePath("files/" + content + ".txt")
+                        .content(content)
+                        .fileType(GeneratedArtifacts.FileType.README)
+                        .build())
+                .toList();
+        return GeneratedArtifacts.builder().serviceName(serviceName).files(files).build();
+    }
+}
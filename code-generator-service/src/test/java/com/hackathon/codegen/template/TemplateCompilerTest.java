@@ -0,0 +1,69 @@
+package com.hackathon.codegen.template;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class TemplateCompilerTest {
+
+    @Test
+    void render_shouldResolveNestedValuesAndFormats() {
+        Template template = TemplateCompiler.compile("t",
+                "cpu={{k8s.cpu}} score={{score|percent}} cost=${{cost|fixed2}} missing=[{{nope.deep}}]");
+
+        String out = template.render(Map.of("k8s", Map.of("cpu", "250m"), "score", 0.855, "cost", 7.005));
+
+        assertThat(out).isEqualTo("cpu=250m score=86% cost=$7.01 missing=[]");
+    }
+
+    @Test
+    void render_shouldIterateListsAndDropStandaloneSectionLines() {
+        Template template = TemplateCompiler.compile("t", """
+                Issues:
+                {{#issues}}
+                - {{key}}: {{value}}
+                {{/issues}}
+                {{^issues}}
+                none
+                {{/issues}}
+                {{#pool}}
+                pool={{size}} of {{name}}
+                {{/pool}}
+                end
+                """);
+        Map<String, Object> model = new HashMap<>();
+        model.put("name", "svc");
+        model.put("issues", List.of(Map.of("key", "CPU", "value", "high"), Map.of("key", "Heap", "value", "leak")));
+        model.put("pool", Map.of("size", 20));
+
+        assertThat(template.render(model)).isEqualTo("""
+                Issues:
+                - CPU: high
+                - Heap: leak
+                pool=20 of svc
+                end
+                """);
+
+        model.put("issues", List.of());
+        model.remove("pool");
+        assertThat(template.render(model)).isEqualTo("Issues:\nnone\nend\n");
+    }
+
+    @Test
+    void compile_shouldReportMalformedTemplatesWithLineNumbers() {
+        assertThatThrownBy(() -> TemplateCompiler.compile("bad", "a\n{{#x}}\nb\n{{/y}}"))
+                .isInstanceOf(TemplateException.class)
+                .hasMessage("bad:4: expected {{/x}} but found {{/y}}");
+        assertThatThrownBy(() -> TemplateCompiler.compile("bad", "{{#x}}"))
+                .hasMessageContaining("unclosed section");
+        assertThatThrownBy(() -> TemplateCompiler.compile("bad", "{{x|shout}}"))
+                .hasMessageContaining("Unknown format 'shout'");
+        assertThatThrownBy(() -> TemplateCompiler.compile("bad", "{{x"))
+                .hasMessageContaining("unclosed tag");
+    }
+}
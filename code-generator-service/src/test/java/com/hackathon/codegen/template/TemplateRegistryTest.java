@@ -0,0 +1,46 @@
+package com.hackathon.codegen.template;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TemplateRegistryTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void registry_shouldCompileAllBundledTemplates() {
+        TemplateRegistry registry = TemplateRegistry.bundled();
+
+        assertThat(TemplateRegistry.TEMPLATE_NAMES).allSatisfy(name -> assertThat(registry.get(name)).isNotNull());
+        assertThat(registry.render(TemplateRegistry.AZURE_PIPELINE, Map.of("serviceName", "svc")))
+                .startsWith("# Azure DevOps Pipeline - svc\n");
+    }
+
+    @Test
+    void reload_shouldPickUpOverridesAndKeepLastGoodVersion() throws Exception {
+        TemplateRegistry registry = new TemplateRegistry(dir.toString(), false);
+        Path override = dir.resolve(TemplateRegistry.AZURE_PIPELINE + ".tmpl");
+
+        Files.writeString(override, "pipeline for {{serviceName}}\n");
+        registry.reload(TemplateRegistry.AZURE_PIPELINE);
+        assertThat(registry.render(TemplateRegistry.AZURE_PIPELINE, Map.of("serviceName", "svc")))
+                .isEqualTo("pipeline for svc\n");
+
+        Files.writeString(override, "broken {{#serviceName}}\n");
+        registry.reload(TemplateRegistry.AZURE_PIPELINE);
+        assertThat(registry.render(TemplateRegistry.AZURE_PIPELINE, Map.of("serviceName", "svc")))
+                .isEqualTo("pipeline for svc\n");
+
+        Files.delete(override);
+        registry.reload(TemplateRegistry.AZURE_PIPELINE);
+        assertThat(registry.render(TemplateRegistry.AZURE_PIPELINE, Map.of("serviceName", "svc")))
+                .startsWith("# Azure DevOps Pipeline - svc\n");
+    }
+}
@@ -62,7 +62,7 @@ const API = {
         return response.json();
     },
 
-    // Create Pull Request
+    // Create Pull Request (queued as a background job; waits for it to finish)
     async createPR(serviceName, recommendation) {
         const response = await fetch(`${CODE_GEN_URL}/generate-and-pr`, {
             method: 'POST',
@@ -72,7 +72,21 @@ const API = {
             body: JSON.stringify(recommendation)
         });
         if (!response.ok) throw new Error('Failed to create PR');
-        return response.json();
+        const job = await this.waitForJob((await response.json()).id);
+        return { ...job, success: job.status === 'SUCCEEDED', errorMessage: job.lastError };
+    },
+
+    // Poll a generation job until it succeeds or runs out of retries
+    async waitForJob(jobId, intervalMs = 2000, timeoutMs = 10 * 60 * 1000) {
+        const deadline = Date.now() + timeoutMs;
+        while (Date.now() < deadline) {
+            const response = await fetch(`${CODE_GEN_URL}/jobs/${jobId}`);
+            if (!response.ok) throw new Error('Failed to fetch job status');
+            const job = await response.json();
+            if (job.finished) return job;
+            await new Promise(resolve => setTimeout(resolve, intervalMs));
+        }
+        throw new Error('Timed out waiting for PR job');
     },
 
     // ========== Anomaly Detection APIs ==========
@@ -0,0 +1,40 @@
+package com.hackathon.recommendation;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Outcome of one batch generation run, with a result per service.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchGenerationReport {
+
+    private String batchId;
+    private Integer total;
+    private Integer succeeded;
+    private Integer failed;
+    private Long durationMs;
+    /** Directory the tree was written to, for directory output. */
+    private String outputDirectory;
+    /** Set when reading the input stopped early (malformed input or too many services). */
+    private String inputError;
+    private List<ServiceResult> results;
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class ServiceResult {
+        private String serviceName;
+        private Boolean success;
+        private Integer fileCount;
+        private String errorMessage;
+    }
+}
@@ -0,0 +1,504 @@
+package com.hackathon.recommendation;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+/**
+ * Compact binary encoding of recommendations for the analyzer to code
+ * generator hop, replacing a JSON round trip.
+ *
+ * <pre>
+ * stream   = "SYMR" version record* end
+ * record   = 0x01 object          end = 0x00 (or end of input)
+ * object   = varint presence-bits, then each present field in order
+ * string   = varint 0 (null) | 1 length utf8 | 2+n (n-th string of this stream)
+ * integer  = zigzag varint        double = 8 bytes IEEE 754
+ * list/map = varint count, then the items
+ * </pre>
+ *
+ * Short strings are numbered as they first appear, so the quantities, GC
+ * names and issue keys that repeat across a fleet are sent once per stream.
+ * Field order is part of the format: new fields go at the end of their
+ * object and bump {@link #VERSION} only when old readers must reject them.
+ */
+public final class RecommendationCodec {
+
+    public static final String MEDIA_TYPE = "application/x-saveyourmoney-recommendation";
+
+    /** Version 2 added the tuned JVM fields; version 1 streams are still read. */
+    static final int VERSION = 2;
+    private static final int MIN_VERSION = 1;
+    /** Strings longer than this are rare to repeat and are never numbered. */
+    static final int MAX_INTERNED_LENGTH = 64;
+    static final int MAX_INTERNED = 4096;
+
+    private static final byte[] MAGIC = {'S', 'Y', 'M', 'R'};
+    private static final int END = 0;
+    private static final int RECORD = 1;
+    private static final int MAX_STRING_BYTES = 1 << 20;
+    private static final int MAX_ITEMS = 1 << 16;
+
+    private RecommendationCodec() {
+    }
+
+    public static Writer writer(OutputStream out) throws IOException {
+        return new Writer(out);
+    }
+
+    /**
+     * @throws IllegalArgumentException when the input is not a recommendation stream
+     */
+    public static Reader reader(InputStream in) throws IOException {
+        return new Reader(in);
+    }
+
+    public static byte[] encode(List<ResourceRecommendation> recommendations) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(256 * Math.max(1, recommendations.size()));
+        try {
+            Writer writer = writer(bytes);
+            for (ResourceRecommendation recommendation : recommendations) {
+                writer.write(recommendation);
+            }
+            writer.finish();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    public static List<ResourceRecommendation> decode(byte[] bytes) {
+        List<ResourceRecommendation> recommendations = new ArrayList<>();
+        try {
+            reader(new ByteArrayInputStream(bytes)).forEachRemaining(recommendations::add);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return recommendations;
+    }
+
+    /**
+     * Writes one stream. Call {@link #finish()} once after the last record;
+     * the underlying stream is flushed but not closed.
+     */
+    public static final class Writer {
+
+        private final DataOutputStream out;
+        private final Map<String, Integer> strings = new HashMap<>();
+
+        private Writer(OutputStream out) throws IOException {
+            this.out = new DataOutputStream(new BufferedOutputStream(out, 8192));
+            this.out.write(MAGIC);
+            this.out.writeByte(VERSION);
+        }
+
+        public void write(ResourceRecommendation r) throws IOException {
+            out.writeByte(RECORD);
+            presence(r.getServiceName(), r.getKubernetes(), r.getJvm(), r.getConnectionPool(), r.getThreadPool(),
+                    r.getCostAnalysis(), r.getConfidenceScore(), r.getRationale(), r.getDetectedIssues(),
+                    r.getHotEndpoints());
+            stringIfPresent(r.getServiceName());
+            if (r.getKubernetes() != null) {
+                kubernetes(r.getKubernetes());
+            }
+            if (r.getJvm() != null) {
+                jvm(r.getJvm());
+            }
+            if (r.getConnectionPool() != null) {
+                connectionPool(r.getConnectionPool());
+            }
+            if (r.getThreadPool() != null) {
+                threadPool(r.getThreadPool());
+            }
+            if (r.getCostAnalysis() != null) {
+                costAnalysis(r.getCostAnalysis());
+            }
+            doubleIfPresent(r.getConfidenceScore());
+            stringIfPresent(r.getRationale());
+            if (r.getDetectedIssues() != null) {
+                stringMap(r.getDetectedIssues());
+            }
+            if (r.getHotEndpoints() != null) {
+                varint(r.getHotEndpoints().size());
+                for (ResourceRecommendation.HotEndpoint endpoint : r.getHotEndpoints()) {
+                    hotEndpoint(endpoint);
+                }
+            }
+        }
+
+        public void finish() throws IOException {
+            out.writeByte(END);
+            out.flush();
+        }
+
+        private void kubernetes(ResourceRecommendation.KubernetesResources k) throws IOException {
+            presence(k.getCpuRequest(), k.getCpuLimit(), k.getMemoryRequest(), k.getMemoryLimit());
+            stringIfPresent(k.getCpuRequest());
+            stringIfPresent(k.getCpuLimit());
+            stringIfPresent(k.getMemoryRequest());
+            stringIfPresent(k.getMemoryLimit());
+        }
+
+        private void jvm(ResourceRecommendation.JvmConfiguration j) throws IOException {
+            presence(j.getXms(), j.getXmx(), j.getGcType(), j.getAdditionalFlags(), j.getGoal(),
+                    j.getMaxRamPercentage(), j.getInitialRamPercentage(), j.getMaxGcPauseMillis(),
+                    j.getG1HeapRegionSize(), j.getMetaspaceSize(), j.getMaxMetaspaceSize(), j.getJavaToolOptions());
+            stringIfPresent(j.getXms());
+            stringIfPresent(j.getXmx());
+            stringIfPresent(j.getGcType());
+            if (j.getAdditionalFlags() != null) {
+                stringMap(j.getAdditionalFlags());
+            }
+            stringIfPresent(j.getGoal());
+            doubleIfPresent(j.getMaxRamPercentage());
+            doubleIfPresent(j.getInitialRamPercentage());
+            integerIfPresent(j.getMaxGcPauseMillis());
+            stringIfPresent(j.getG1HeapRegionSize());
+            stringIfPresent(j.getMetaspaceSize());
+            stringIfPresent(j.getMaxMetaspaceSize());
+            stringIfPresent(j.getJavaToolOptions());
+        }
+
+        private void connectionPool(ResourceRecommendation.ConnectionPoolConfig c) throws IOException {
+            presence(c.getMaximumPoolSize(), c.getMinimumIdle(), c.getConnectionTimeout(), c.getIdleTimeout());
+            integerIfPresent(c.getMaximumPoolSize());
+            integerIfPresent(c.getMinimumIdle());
+            integerIfPresent(c.getConnectionTimeout());
+            integerIfPresent(c.getIdleTimeout());
+        }
+
+        private void threadPool(ResourceRecommendation.ThreadPoolConfig t) throws IOException {
+            presence(t.getMaxThreads(), t.getMinSpareThreads());
+            integerIfPresent(t.getMaxThreads());
+            integerIfPresent(t.getMinSpareThreads());
+        }
+
+        private void costAnalysis(ResourceRecommendation.CostAnalysis c) throws IOException {
+            presence(c.getCurrentMonthlyCost(), c.getRecommendedMonthlyCost(), c.getMonthlySavings(),
+                    c.getAnnualSavings(), c.getSavingsPercentage());
+            doubleIfPresent(c.getCurrentMonthlyCost());
+            doubleIfPresent(c.getRecommendedMonthlyCost());
+            doubleIfPresent(c.getMonthlySavings());
+            doubleIfPresent(c.getAnnualSavings());
+            integerIfPresent(c.getSavingsPercentage());
+        }
+
+        private void hotEndpoint(ResourceRecommendation.HotEndpoint h) throws IOException {
+            presence(h.getMethod(), h.getUri(), h.getRequestRate(), h.getErrorRate(), h.getAvgLatencyMs(),
+                    h.getTrafficShare(), h.getTimeShare(), h.getMaxOverestimate());
+            stringIfPresent(h.getMethod());
+            stringIfPresent(h.getUri());
+            doubleIfPresent(h.getRequestRate());
+            doubleIfPresent(h.getErrorRate());
+            doubleIfPresent(h.getAvgLatencyMs());
+            doubleIfPresent(h.getTrafficShare());
+            doubleIfPresent(h.getTimeShare());
+            doubleIfPresent(h.getMaxOverestimate());
+        }
+
+        private void presence(Object... fields) throws IOException {
+            long bits = 0;
+            for (int i = 0; i < fields.length; i++) {
+                if (fields[i] != null) {
+                    bits |= 1L << i;
+                }
+            }
+            varint(bits);
+        }
+
+        private void stringMap(Map<String, String> map) throws IOException {
+            varint(map.size());
+            for (Map.Entry<String, String> entry : map.entrySet()) {
+                string(entry.getKey());
+                string(entry.getValue());
+            }
+        }
+
+        private void stringIfPresent(String value) throws IOException {
+            if (value != null) {
+                string(value);
+            }
+        }
+
+        private void string(String value) throws IOException {
+            if (value == null) {
+                varint(0);
+                return;
+            }
+            Integer index = strings.get(value);
+            if (index != null) {
+                varint(index + 2L);
+                return;
+            }
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            varint(1);
+            varint(bytes.length);
+            out.write(bytes);
+            if (value.length() <= MAX_INTERNED_LENGTH && strings.size() < MAX_INTERNED) {
+                strings.put(value, strings.size());
+            }
+        }
+
+        private void integerIfPresent(Number value) throws IOException {
+            if (value != null) {
+                long v = value.longValue();
+                varint((v << 1) ^ (v >> 63));
+            }
+        }
+
+        private void doubleIfPresent(Double value) throws IOException {
+            if (value != null) {
+                out.writeDouble(value);
+            }
+        }
+
+        private void varint(long value) throws IOException {
+            while ((value & ~0x7FL) != 0) {
+                out.writeByte((int) ((value & 0x7F) | 0x80));
+                value >>>= 7;
+            }
+            out.writeByte((int) value);
+        }
+    }
+
+    /**
+     * Reads one stream record by record. Malformed input surfaces as an
+     * {@link IllegalArgumentException} and read failures as an
+     * {@link UncheckedIOException}.
+     */
+    public static final class Reader implements Iterator<ResourceRecommendation> {
+
+        private final DataInputStream in;
+        private final List<String> strings = new ArrayList<>();
+        private boolean ended;
+        private boolean recordPending;
+
+        private Reader(InputStream in) throws IOException {
+            this.in = new DataInputStream(new BufferedInputStream(in, 8192));
+            byte[] magic = new byte[MAGIC.length];
+            try {
+                this.in.readFully(magic);
+                int version = this.in.readUnsignedByte();
+                if (!Arrays.equals(magic, MAGIC)) {
+                    throw new IllegalArgumentException("Not a recommendation stream");
+                }
+                if (version < MIN_VERSION || version > VERSION) {
+                    throw new IllegalArgumentException("Unsupported recommendation stream version " + version);
+                }
+            } catch (EOFException e) {
+                throw new IllegalArgumentException("Not a recommendation stream", e);
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (recordPending) {
+                return true;
+            }
+            if (ended) {
+                return false;
+            }
+            try {
+                int tag = in.read();
+                if (tag == RECORD) {
+                    recordPending = true;
+                } else if (tag == END || tag == -1) {
+                    ended = true;
+                } else {
+                    throw new IllegalArgumentException("Malformed recommendation stream: tag " + tag);
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            return recordPending;
+        }
+
+        @Override
+        public ResourceRecommendation next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            recordPending = false;
+            try {
+                return recommendation();
+            } catch (EOFException e) {
+                throw new IllegalArgumentException("Truncated recommendation stream", e);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        private ResourceRecommendation recommendation() throws IOException {
+            long bits = varint();
+            ResourceRecommendation r = new ResourceRecommendation();
+            r.setServiceName(has(bits, 0) ? string() : null);
+            r.setKubernetes(has(bits, 1) ? kubernetes() : null);
+            r.setJvm(has(bits, 2) ? jvm() : null);
+            r.setConnectionPool(has(bits, 3) ? connectionPool() : null);
+            r.setThreadPool(has(bits, 4) ? threadPool() : null);
+            r.setCostAnalysis(has(bits, 5) ? costAnalysis() : null);
+            r.setConfidenceScore(has(bits, 6) ? in.readDouble() : null);
+            r.setRationale(has(bits, 7) ? string() : null);
+            r.setDetectedIssues(has(bits, 8) ? stringMap() : null);
+            if (has(bits, 9)) {
+                int count = count();
+                List<ResourceRecommendation.HotEndpoint> endpoints = new ArrayList<>(count);
+                for (int i = 0; i < count; i++) {
+                    endpoints.add(hotEndpoint());
+                }
+                r.setHotEndpoints(endpoints);
+            }
+            return r;
+        }
+
+        private ResourceRecommendation.KubernetesResources kubernetes() throws IOException {
+            long bits = varint();
+            return ResourceRecommendation.KubernetesResources.builder()
+                    .cpuRequest(has(bits, 0) ? string() : null)
+                    .cpuLimit(has(bits, 1) ? string() : null)
+                    .memoryRequest(has(bits, 2) ? string() : null)
+                    .memoryLimit(has(bits, 3) ? string() : null)
+                    .build();
+        }
+
+        private ResourceRecommendation.JvmConfiguration jvm() throws IOException {
+            long bits = varint();
+            return ResourceRecommendation.JvmConfiguration.builder()
+                    .xms(has(bits, 0) ? string() : null)
+                    .xmx(has(bits, 1) ? string() : null)
+                    .gcType(has(bits, 2) ? string() : null)
+                    .additionalFlags(has(bits, 3) ? stringMap() : null)
+                    .goal(has(bits, 4) ? string() : null)
+                    .maxRamPercentage(has(bits, 5) ? in.readDouble() : null)
+                    .initialRamPercentage(has(bits, 6) ? in.readDouble() : null)
+                    .maxGcPauseMillis(has(bits, 7) ? (int) signed() : null)
+                    .g1HeapRegionSize(has(bits, 8) ? string() : null)
+                    .metaspaceSize(has(bits, 9) ? string() : null)
+                    .maxMetaspaceSize(has(bits, 10) ? string() : null)
+                    .javaToolOptions(has(bits, 11) ? string() : null)
+                    .build();
+        }
+
+        private ResourceRecommendation.ConnectionPoolConfig connectionPool() throws IOException {
+            long bits = varint();
+            return ResourceRecommendation.ConnectionPoolConfig.builder()
+                    .maximumPoolSize(has(bits, 0) ? (int) signed() : null)
+                    .minimumIdle(has(bits, 1) ? (int) signed() : null)
+                    .connectionTimeout(has(bits, 2) ? signed() : null)
+                    .idleTimeout(has(bits, 3) ? signed() : null)
+                    .build();
+        }
+
+        private ResourceRecommendation.ThreadPoolConfig threadPool() throws IOException {
+            long bits = varint();
+            return ResourceRecommendation.ThreadPoolConfig.builder()
+                    .maxThreads(has(bits, 0) ? (int) signed() : null)
+                    .minSpareThreads(has(bits, 1) ? (int) signed() : null)
+                    .build();
+        }
+
+        private ResourceRecommendation.CostAnalysis costAnalysis() throws IOException {
+            long bits = varint();
+            return ResourceRecommendation.CostAnalysis.builder()
+                    .currentMonthlyCost(has(bits, 0) ? in.readDouble() : null)
+                    .recommendedMonthlyCost(has(bits, 1) ? in.readDouble() : null)
+                    .monthlySavings(has(bits, 2) ? in.readDouble() : null)
+                    .annualSavings(has(bits, 3) ? in.readDouble() : null)
+                    .savingsPercentage(has(bits, 4) ? (int) signed() : null)
+                    .build();
+        }
+
+        private ResourceRecommendation.HotEndpoint hotEndpoint() throws IOException {
+            long bits = varint();
+            return ResourceRecommendation.HotEndpoint.builder()
+                    .method(has(bits, 0) ? string() : null)
+                    .uri(has(bits, 1) ? string() : null)
+                    .requestRate(has(bits, 2) ? in.readDouble() : null)
+                    .errorRate(has(bits, 3) ? in.readDouble() : null)
+                    .avgLatencyMs(has(bits, 4) ? in.readDouble() : null)
+                    .trafficShare(has(bits, 5) ? in.readDouble() : null)
+                    .timeShare(has(bits, 6) ? in.readDouble() : null)
+                    .maxOverestimate(has(bits, 7) ? in.readDouble() : null)
+                    .build();
+        }
+
+        private Map<String, String> stringMap() throws IOException {
+            int count = count();
+            Map<String, String> map = new LinkedHashMap<>();
+            for (int i = 0; i < count; i++) {
+                map.put(string(), string());
+            }
+            return map;
+        }
+
+        private String string() throws IOException {
+            long tag = varint();
+            if (tag == 0) {
+                return null;
+            }
+            if (tag >= 2) {
+                if (tag - 2 >= strings.size()) {
+                    throw new IllegalArgumentException("Malformed recommendation stream: unknown string " + (tag - 2));
+                }
+                return strings.get((int) (tag - 2));
+            }
+            long length = varint();
+            if (length > MAX_STRING_BYTES) {
+                throw new IllegalArgumentException("Malformed recommendation stream: string of " + length + " bytes");
+            }
+            byte[] bytes = new byte[(int) length];
+            in.readFully(bytes);
+            String value = new String(bytes, StandardCharsets.UTF_8);
+            if (value.length() <= MAX_INTERNED_LENGTH && strings.size() < MAX_INTERNED) {
+                strings.add(value);
+            }
+            return value;
+        }
+
+        private int count() throws IOException {
+            long count = varint();
+            if (count > MAX_ITEMS) {
+                throw new IllegalArgumentException("Malformed recommendation stream: " + count + " items");
+            }
+            return (int) count;
+        }
+
+        private long signed() throws IOException {
+            long v = varint();
+            return (v >>> 1) ^ -(v & 1);
+        }
+
+        private long varint() throws IOException {
+            long value = 0;
+            for (int shift = 0; shift < 64; shift += 7) {
+                int b = in.readUnsignedByte();
+                value |= (long) (b & 0x7F) << shift;
+                if ((b & 0x80) == 0) {
+                    return value;
+                }
+            }
+            throw new IllegalArgumentException("Malformed recommendation stream: varint too long");
+        }
+
+        private static boolean has(long bits, int field) {
+            return (bits & (1L << field)) != 0;
+        }
+    }
+}
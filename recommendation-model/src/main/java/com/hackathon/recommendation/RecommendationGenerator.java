@@ -0,0 +1,17 @@
+package com.hackathon.recommendation;
+
+import java.io.IOException;
+import java.util.Iterator;
+
+/**
+ * Generates artifacts for a stream of recommendations.
+ *
+ * The code generator implements this. When both services run in one JVM the
+ * analyzer finds the implementation as a bean and calls it directly, so
+ * recommendations are handed over as objects; otherwise they travel to the
+ * code generator in the {@link RecommendationCodec} binary encoding.
+ */
+public interface RecommendationGenerator {
+
+    BatchGenerationReport generate(Iterator<ResourceRecommendation> recommendations) throws IOException;
+}
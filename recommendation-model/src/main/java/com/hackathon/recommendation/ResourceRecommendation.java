@@ -1,12 +1,17 @@
-package com.hackathon.analyzer.model;
+package com.hackathon.recommendation;
 
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import java.util.List;
 import java.util.Map;
 
+/**
+ * Recommended resource settings for one service, as produced by the
+ * analyzer and consumed by the code generator.
+ */
 @Data
 @Builder
 @NoArgsConstructor
@@ -35,6 +40,9 @@ public class ResourceRecommendation {
     private String rationale;
     private Map<String, String> detectedIssues;
 
+    // Busiest routes, for attributing the usage above to endpoints
+    private List<HotEndpoint> hotEndpoints;
+
     @Data
     @Builder
     @NoArgsConstructor
@@ -55,6 +63,17 @@ public class ResourceRecommendation {
         private String xmx;
         private String gcType;
         private Map<String, String> additionalFlags;
+
+        // Tuned from GC telemetry; unset when there was none to tune from
+        private String goal;
+        private Double maxRamPercentage;
+        private Double initialRamPercentage;
+        private Integer maxGcPauseMillis;
+        private String g1HeapRegionSize;
+        private String metaspaceSize;
+        private String maxMetaspaceSize;
+        /** All of the above as JVM flags, for the {@code JAVA_TOOL_OPTIONS} environment variable. */
+        private String javaToolOptions;
     }
 
     @Data
@@ -88,4 +107,24 @@ public class ResourceRecommendation {
         private Double annualSavings;
         private Integer savingsPercentage;
     }
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class HotEndpoint {
+        private String method;
+        private String uri;
+        /** Requests per second. */
+        private Double requestRate;
+        /** Share of 5xx responses. */
+        private Double errorRate;
+        private Double avgLatencyMs;
+        /** Share of the service's requests. */
+        private Double trafficShare;
+        /** Share of the time the service spent serving requests. */
+        private Double timeShare;
+        /** Upper bound of requests wrongly attributed to this route. */
+        private Double maxOverestimate;
+    }
 }
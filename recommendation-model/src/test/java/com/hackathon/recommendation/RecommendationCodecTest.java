@@ -0,0 +1,109 @@
+package com.hackathon.recommendation;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class RecommendationCodecTest {
+
+    @Test
+    void decode_shouldRestoreEveryField() {
+        Map<String, String> issues = new LinkedHashMap<>();
+        issues.put("CPU_THROTTLING", "P95 CPU at 98%");
+        issues.put("NULL_VALUE", null);
+        ResourceRecommendation full = ResourceRecommendation.builder()
+                .serviceName("cpu-hungry-service")
+                .kubernetes(ResourceRecommendation.KubernetesResources.builder()
+                        .cpuRequest("500m").cpuLimit("1000m").memoryRequest("512Mi").memoryLimit("1Gi").build())
+                .jvm(ResourceRecommendation.JvmConfiguration.builder()
+                        .xms("256m").xmx("768m").gcType("G1GC")
+                        .additionalFlags(Map.of("-XX:MaxGCPauseMillis", "200"))
+                        .goal("PAUSE_TIME").maxRamPercentage(62.5).initialRamPercentage(62.5).maxGcPauseMillis(200)
+                        .g1HeapRegionSize("2m").metaspaceSize("96m").maxMetaspaceSize("192m")
+                        .javaToolOptions("-XX:+UseG1GC -XX:MaxGCPauseMillis=200").build())
+                .connectionPool(ResourceRecommendation.ConnectionPoolConfig.builder()
+                        .maximumPoolSize(20).minimumIdle(5).connectionTimeout(30_000L).idleTimeout(-1L).build())
+                .threadPool(ResourceRecommendation.ThreadPoolConfig.builder().maxThreads(200).build())
+                .costAnalysis(ResourceRecommendation.CostAnalysis.builder()
+                        .currentMonthlyCost(120.5).recommendedMonthlyCost(80.25).savingsPercentage(-3).build())
+                .confidenceScore(0.87)
+                .rationale("Throttled under load")
+                .detectedIssues(issues)
+                .hotEndpoints(List.of(ResourceRecommendation.HotEndpoint.builder()
+                        .method("GET").uri("/api/compute").requestRate(42.0).timeShare(0.9).build()))
+                .build();
+        ResourceRecommendation sparse = ResourceRecommendation.builder().serviceName("sparse").build();
+
+        List<ResourceRecommendation> decoded = RecommendationCodec.decode(RecommendationCodec.encode(List.of(full, sparse)));
+
+        assertThat(decoded).containsExactly(full, sparse);
+    }
+
+    @Test
+    void encode_shouldSendRepeatedStringsOnce() {
+        byte[] one = RecommendationCodec.encode(List.of(recommendation("svc-0")));
+        byte[] two = RecommendationCodec.encode(List.of(recommendation("svc-0"), recommendation("svc-1")));
+
+        int secondRecord = two.length - one.length;
+        // Only the service name is new; quantities and GC type are back-references
+        assertThat(secondRecord).isLessThan(one.length / 2);
+    }
+
+    @Test
+    void reader_shouldRejectForeignAndTruncatedInput() throws Exception {
+        assertThatThrownBy(() -> RecommendationCodec.reader(new ByteArrayInputStream("{\"serviceName\":1}".getBytes())))
+                .isInstanceOf(IllegalArgumentException.class);
+
+        byte[] bytes = RecommendationCodec.encode(List.of(recommendation("svc-0")));
+        RecommendationCodec.Reader truncated =
+                RecommendationCodec.reader(new ByteArrayInputStream(Arrays.copyOf(bytes, bytes.length - 6)));
+        assertThat(truncated.hasNext()).isTrue();
+        assertThatThrownBy(truncated::next).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void reader_shouldReadVersionOneStreams() {
+        byte[] bytes = RecommendationCodec.encode(List.of(recommendation("svc-0")));
+        bytes[4] = 1;
+
+        assertThat(RecommendationCodec.decode(bytes)).containsExactly(recommendation("svc-0"));
+
+        bytes[4] = RecommendationCodec.VERSION + 1;
+        assertThatThrownBy(() -> RecommendationCodec.decode(bytes)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void reader_shouldStreamRecordsAsTheyAreWritten() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        RecommendationCodec.Writer writer = RecommendationCodec.writer(out);
+        for (int i = 0; i < 1000; i++) {
+            writer.write(recommendation("svc-" + i));
+        }
+        writer.finish();
+
+        RecommendationCodec.Reader reader = RecommendationCodec.reader(new ByteArrayInputStream(out.toByteArray()));
+        int count = 0;
+        while (reader.hasNext()) {
+            assertThat(reader.next().getServiceName()).isEqualTo("svc-" + count++);
+        }
+        assertThat(count).isEqualTo(1000);
+    }
+
+    private static ResourceRecommendation recommendation(String serviceName) {
+        return ResourceRecommendation.builder()
+                .serviceName(serviceName)
+                .kubernetes(ResourceRecommendation.KubernetesResources.builder()
+                        .cpuRequest("500m").cpuLimit("1000m").memoryRequest("512Mi").memoryLimit("1Gi").build())
+                .jvm(ResourceRecommendation.JvmConfiguration.builder().xms("256m").xmx("768m").gcType("G1GC").build())
+                .detectedIssues(Map.of("MEMORY_LEAK", "Heap grows 20% per hour"))
+                .build();
+    }
+}
@@ -1,4 +1,4 @@
-package com.hackathon.analyzer.model;
+package com.hackathon.recommendation;
 
 import org.junit.jupiter.api.Test;
 